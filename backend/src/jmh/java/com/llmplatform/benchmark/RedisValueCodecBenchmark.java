@@ -0,0 +1,98 @@
+package com.llmplatform.benchmark;
+
+import com.llmplatform.config.RedisConfig;
+import com.llmplatform.personalized.entity.MemoryRecord;
+import com.llmplatform.util.codec.RedisValueCodec;
+import com.llmplatform.vo.DialogueSessionVO;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Payload size and encode/decode throughput of the Redis value codecs
+ * Compares the legacy default-typed JSON serializer with tagged Smile, plain and deflated, on a dialogue
+ * transcript (dialogue:session:*) and a due-review list (memory:due_reviews:*)
+ * Run with: mvn -Pjmh test-compile exec:exec -Djmh.args=RedisValueCodec
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RedisValueCodecBenchmark {
+
+    @Param({"dialogue", "dueReviews"})
+    public String payload;
+
+    @Param({"json", "smile", "smile-deflate"})
+    public String codec;
+
+    private RedisSerializer<Object> serializer;
+    private Object value;
+    private byte[] encoded;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        serializer = switch (codec) {
+            case "json" -> RedisValueCodec.jsonSerializer();
+            case "smile" -> new RedisValueCodec(RedisConfig.typeRegistry(), RedisValueCodec.Format.SMILE, 0);
+            default -> new RedisValueCodec(RedisConfig.typeRegistry(), RedisValueCodec.Format.SMILE, 1024);
+        };
+        value = "dialogue".equals(payload) ? dialogue(40) : dueReviews(50);
+        encoded = serializer.serialize(value);
+        System.out.printf("%n[payload size] %s / %s: %d bytes%n", payload, codec, encoded.length);
+    }
+
+    @Benchmark
+    public byte[] encode() {
+        return serializer.serialize(value);
+    }
+
+    @Benchmark
+    public Object decode() {
+        return serializer.deserialize(encoded);
+    }
+
+    private static List<DialogueSessionVO.MessageVO> dialogue(int turns) {
+        List<DialogueSessionVO.MessageVO> messages = new ArrayList<>();
+        LocalDateTime time = LocalDateTime.of(2024, 5, 1, 9, 0);
+        for (int i = 0; i < turns; i++) {
+            DialogueSessionVO.MessageVO message = new DialogueSessionVO.MessageVO();
+            message.setRole(i % 2 == 0 ? "user" : "assistant");
+            message.setContent(i % 2 == 0
+                    ? "Could you tell me how to get to the train station from here? I think I am lost."
+                    : "Of course! Walk straight ahead for two blocks, then turn left at the bakery. "
+                    + "The station is right across the square. Would you like me to repeat that slowly?");
+            message.setTimestamp(time.plusSeconds(30L * i));
+            messages.add(message);
+        }
+        return messages;
+    }
+
+    private static List<MemoryRecord> dueReviews(int count) {
+        List<MemoryRecord> records = new ArrayList<>();
+        LocalDateTime time = LocalDateTime.of(2024, 5, 1, 9, 0);
+        for (int i = 0; i < count; i++) {
+            MemoryRecord record = new MemoryRecord();
+            record.setId(1000L + i);
+            record.setUserId(42L);
+            record.setWordId(5000L + i);
+            record.setMasteryLevel(i * 2 % 100);
+            record.setLastReviewTime(time.minusDays(i % 7));
+            record.setNextReviewTime(time.plusHours(i));
+            record.setReviewCount(i % 10);
+            record.setCorrectCount(i % 6);
+            record.setWrongCount(i % 4);
+            record.setStatus(i % 3 == 0 ? "LEARNING" : "REVIEWING");
+            record.setCreatedTime(time.minusDays(30));
+            record.setUpdatedTime(time.minusDays(i % 7));
+            records.add(record);
+        }
+        return records;
+    }
+}
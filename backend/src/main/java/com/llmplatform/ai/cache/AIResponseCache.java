@@ -0,0 +1,166 @@
+package com.llmplatform.ai.cache;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.llmplatform.ai.config.AIProviderConfig;
+import com.llmplatform.ai.dto.AIRequest;
+import com.llmplatform.ai.dto.AIResponse;
+import com.llmplatform.common.CacheConstants;
+import com.llmplatform.util.TwoTierCache;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Two-tier exact-match cache for AI responses of opted-in requests
+ * The key is a hash of what the caller asked for: requested model, task class, messages, prompt and
+ * sampling parameters. It leaves out the provider, which adaptive routing changes from one request to
+ * the next, so an answer is reused whichever provider served it. The in-process tier evicts by token
+ * cost, the Redis tier is shared between nodes, expires by TTL and is reached through {@link TwoTierCache}.
+ * A local copy expires no later than the Redis copy it mirrors
+ */
+@Slf4j
+@Component
+public class AIResponseCache {
+
+    /** Plain mapper so the key does not depend on the application's inclusion settings */
+    private static final ObjectMapper CANONICAL_MAPPER = new ObjectMapper();
+
+    private final AIProviderConfig config;
+    private final TwoTierCache cache;
+    private final CostWeightedCache<AIResponse> localCache;
+
+    private final AtomicLong lookups = new AtomicLong();
+    private final AtomicLong localHits = new AtomicLong();
+    private final AtomicLong redisHits = new AtomicLong();
+    private final AtomicLong tokensSaved = new AtomicLong();
+
+    public AIResponseCache(AIProviderConfig config, TwoTierCache cache) {
+        this.config = config;
+        this.cache = cache;
+        this.localCache = new CostWeightedCache<>(config.getResponseCache().getLocalMaxEntries());
+    }
+
+    /**
+     * Check whether a request opted into caching
+     */
+    public boolean isCacheable(AIRequest request) {
+        Map<String, Object> params = request.getAdditionalParams();
+        return config.getResponseCache().isEnabled()
+                && params != null
+                && Boolean.TRUE.equals(params.get(AIRequest.PARAM_CACHE));
+    }
+
+    /**
+     * Look up the response produced earlier for an identical request
+     * @return the cached response, or null on a miss
+     */
+    public AIResponse get(AIRequest request) {
+        lookups.incrementAndGet();
+        String key = key(request);
+
+        AIResponse response = localCache.get(key);
+        if (response != null) {
+            localHits.incrementAndGet();
+            tokensSaved.addAndGet(tokensOf(response));
+            return response;
+        }
+
+        try {
+            TwoTierCache.Expiring<AIResponse> cached =
+                    cache.getExpiring(CacheConstants.AI_RESPONSE_PREFIX + key, AIResponse.class);
+            if (cached != null) {
+                AIResponse redisResponse = cached.value();
+                redisHits.incrementAndGet();
+                tokensSaved.addAndGet(tokensOf(redisResponse));
+                localCache.put(key, redisResponse, tokensOf(redisResponse), localTtlFor(cached.ttl()));
+                return redisResponse;
+            }
+        } catch (Exception e) {
+            log.warn("AI response cache read failed, continuing without Redis tier: {}", e.getMessage());
+        }
+        return null;
+    }
+
+    /**
+     * Store a successful response; it keeps the name of the provider that produced it
+     */
+    public void put(AIRequest request, AIResponse response) {
+        if (!response.isSuccess()) {
+            return;
+        }
+        String key = key(request);
+        Duration ttl = Duration.ofSeconds(config.getResponseCache().getTtl());
+        localCache.put(key, response, tokensOf(response), ttl);
+
+        try {
+            cache.set(CacheConstants.AI_RESPONSE_PREFIX + key, response, ttl);
+        } catch (Exception e) {
+            log.warn("AI response cache write failed: {}", e.getMessage());
+        }
+    }
+
+    public ResponseCacheStats getStats() {
+        long total = lookups.get();
+        long hits = localHits.get() + redisHits.get();
+        return ResponseCacheStats.builder()
+                .lookups(total)
+                .localHits(localHits.get())
+                .redisHits(redisHits.get())
+                .misses(total - hits)
+                .hitRatio(total == 0 ? 0 : (double) hits / total)
+                .tokensSaved(tokensSaved.get())
+                .localEntries(localCache.size())
+                .build();
+    }
+
+    /**
+     * Build the canonical key: SHA-256 over a fixed-order JSON rendering of the output-determining fields
+     */
+    String key(AIRequest request) {
+        Map<String, Object> canonical = new LinkedHashMap<>();
+        canonical.put("model", request.getModel());
+        canonical.put("taskClass", request.getTaskClass());
+        canonical.put("system", request.getSystemMessage());
+        List<List<String>> messages = new ArrayList<>();
+        if (request.getMessages() != null) {
+            request.getMessages().forEach(m -> messages.add(List.of(
+                    String.valueOf(m.getRole()), String.valueOf(m.getContent()))));
+        }
+        canonical.put("messages", messages);
+        canonical.put("prompt", request.getPrompt());
+        canonical.put("temperature", request.getTemperature());
+        canonical.put("maxTokens", request.getMaxTokens());
+
+        try {
+            byte[] json = CANONICAL_MAPPER.writeValueAsBytes(canonical);
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(json));
+        } catch (JsonProcessingException | NoSuchAlgorithmException e) {
+            throw new IllegalStateException("Failed to build AI response cache key", e);
+        }
+    }
+
+    /**
+     * Lifetime of a local copy: what Redis has left, never more than the configured TTL
+     * @param remaining TTL Redis reported, or null if the key does not expire
+     */
+    private Duration localTtlFor(Duration remaining) {
+        Duration ttl = Duration.ofSeconds(config.getResponseCache().getTtl());
+        return remaining != null && remaining.compareTo(ttl) < 0 ? remaining : ttl;
+    }
+
+    private long tokensOf(AIResponse response) {
+        AIResponse.Usage usage = response.getUsage();
+        return usage != null && usage.getTotalTokens() != null ? usage.getTotalTokens() : 0;
+    }
+}
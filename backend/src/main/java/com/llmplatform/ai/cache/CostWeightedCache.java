@@ -0,0 +1,119 @@
+package com.llmplatform.ai.cache;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.function.LongSupplier;
+
+/**
+ * Bounded in-process cache that evicts by production cost (GreedyDual)
+ * Each entry's priority is the current inflation value plus its cost; the lowest priority is evicted
+ * and becomes the new inflation value, so cheap entries age out first while expensive ones
+ * survive until they have gone unused for long enough. An entry stored with a TTL is dropped once it expires,
+ * however valuable
+ *
+ * @param <V> the cached value type
+ */
+public class CostWeightedCache<V> {
+
+    private final int maxEntries;
+    private final LongSupplier nanoClock;
+    private final Map<String, Node<V>> entries = new HashMap<>();
+    private final TreeSet<Node<V>> byPriority = new TreeSet<>((a, b) -> a.priority != b.priority
+            ? Double.compare(a.priority, b.priority)
+            : Long.compare(a.sequence, b.sequence));
+
+    private double inflation;
+    private long sequence;
+
+    public CostWeightedCache(int maxEntries) {
+        this(maxEntries, System::nanoTime);
+    }
+
+    /**
+     * @param nanoClock source of {@link System#nanoTime()}-style readings for expiry
+     */
+    public CostWeightedCache(int maxEntries, LongSupplier nanoClock) {
+        this.maxEntries = Math.max(1, maxEntries);
+        this.nanoClock = nanoClock;
+    }
+
+    /**
+     * Get a value and refresh its priority
+     * @return the cached value, or null if absent or expired
+     */
+    public synchronized V get(String key) {
+        Node<V> node = entries.get(key);
+        if (node == null) {
+            return null;
+        }
+        if (node.expiresAt != null && nanoClock.getAsLong() - node.expiresAt >= 0) {
+            entries.remove(key);
+            byPriority.remove(node);
+            return null;
+        }
+        reprioritize(node);
+        return node.value;
+    }
+
+    /**
+     * Store a value without expiry
+     * @param cost what it took to produce the value, e.g. tokens
+     */
+    public void put(String key, V value, double cost) {
+        put(key, value, cost, null);
+    }
+
+    /**
+     * Store a value
+     * @param cost what it took to produce the value, e.g. tokens
+     * @param ttl how long the value may be served, or null to keep it until evicted
+     */
+    public synchronized void put(String key, V value, double cost, Duration ttl) {
+        Node<V> existing = entries.remove(key);
+        if (existing != null) {
+            byPriority.remove(existing);
+        }
+
+        while (entries.size() >= maxEntries) {
+            Node<V> evicted = byPriority.pollFirst();
+            entries.remove(evicted.key);
+            inflation = evicted.priority;
+        }
+
+        Node<V> node = new Node<>(key, value, Math.max(1, cost),
+                ttl != null ? nanoClock.getAsLong() + ttl.toNanos() : null);
+        node.priority = inflation + node.cost;
+        node.sequence = sequence++;
+        entries.put(key, node);
+        byPriority.add(node);
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    private void reprioritize(Node<V> node) {
+        byPriority.remove(node);
+        node.priority = inflation + node.cost;
+        node.sequence = sequence++;
+        byPriority.add(node);
+    }
+
+    private static final class Node<V> {
+        private final String key;
+        private final V value;
+        private final double cost;
+        private final Long expiresAt;
+        private double priority;
+        private long sequence;
+
+        private Node(String key, V value, double cost, Long expiresAt) {
+            this.key = key;
+            this.value = value;
+            this.cost = cost;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package com.llmplatform.ai.cache;
+
+/**
+ * CPU-only text embedding from hashed words and their character trigrams
+ * Text is lower-cased and split into words of letters and digits. Each word and each trigram within
+ * a word is hashed into one of a fixed number of dimensions with a hash-derived sign, and the vector
+ * is scaled to unit length, so the dot product of two embeddings is their cosine similarity.
+ * Reordered lists and changed whitespace or punctuation leave the vector unchanged, while typos
+ * only move it a little
+ */
+public class HashedNgramEmbedder {
+
+    private final int dimensions;
+
+    public HashedNgramEmbedder(int dimensions) {
+        this.dimensions = Math.max(16, dimensions);
+    }
+
+    public int getDimensions() {
+        return dimensions;
+    }
+
+    /**
+     * Embed a text into a unit-length vector; empty text gives the zero vector
+     */
+    public float[] embed(String text) {
+        String normalized = normalize(text);
+        float[] vector = new float[dimensions];
+
+        for (String word : normalized.split(" ")) {
+            if (word.isEmpty()) {
+                continue;
+            }
+            add(vector, mix(word.hashCode() ^ 0x5bd1e995));
+            String padded = " " + word + " ";
+            for (int i = 0; i + 3 <= padded.length(); i++) {
+                add(vector, mix((padded.charAt(i) * 31 + padded.charAt(i + 1)) * 31 + padded.charAt(i + 2)));
+            }
+        }
+
+        double norm = 0;
+        for (float v : vector) {
+            norm += v * v;
+        }
+        if (norm > 0) {
+            float scale = (float) (1 / Math.sqrt(norm));
+            for (int i = 0; i < dimensions; i++) {
+                vector[i] *= scale;
+            }
+        }
+        return vector;
+    }
+
+    /**
+     * Cosine similarity of two embeddings
+     */
+    public static double similarity(float[] a, float[] b) {
+        double dot = 0;
+        for (int i = 0; i < a.length; i++) {
+            dot += a[i] * b[i];
+        }
+        return dot;
+    }
+
+    /**
+     * Lower-case, keep letters and digits, collapse everything else into single spaces
+     */
+    static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        StringBuilder normalized = new StringBuilder(text.length());
+        boolean space = true;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (Character.isLetterOrDigit(c)) {
+                normalized.append(Character.toLowerCase(c));
+                space = false;
+            } else if (!space) {
+                normalized.append(' ');
+                space = true;
+            }
+        }
+        int length = normalized.length();
+        if (length > 0 && normalized.charAt(length - 1) == ' ') {
+            normalized.setLength(length - 1);
+        }
+        return normalized.toString();
+    }
+
+    private void add(float[] vector, int hash) {
+        vector[(hash >>> 1) % dimensions] += (hash & 1) == 0 ? 1 : -1;
+    }
+
+    private static int mix(int h) {
+        h *= 0x9E3779B1;
+        h ^= h >>> 16;
+        h *= 0x85EBCA6B;
+        h ^= h >>> 13;
+        return h;
+    }
+}
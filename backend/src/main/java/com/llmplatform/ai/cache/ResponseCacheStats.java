@@ -0,0 +1,34 @@
+package com.llmplatform.ai.cache;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Counters of the gateway response cache since startup
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ResponseCacheStats {
+
+    /** Cacheable requests looked up */
+    private long lookups;
+
+    private long localHits;
+
+    private long redisHits;
+
+    private long misses;
+
+    /** (localHits + redisHits) / lookups, 0 when nothing was looked up */
+    private double hitRatio;
+
+    /** Provider tokens not spent thanks to cache hits */
+    private long tokensSaved;
+
+    /** Entries currently held in the in-process tier */
+    private int localEntries;
+}
@@ -0,0 +1,219 @@
+package com.llmplatform.ai.cache;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.llmplatform.ai.config.AIProviderConfig;
+import com.llmplatform.ai.dto.AIFeature;
+import com.llmplatform.ai.dto.AIRequest;
+import com.llmplatform.ai.dto.AIResponse;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Near-duplicate cache for AI responses of opted-in content requests
+ * The prompt is embedded with hashed character n-grams and looked up in an approximate
+ * nearest-neighbour index, so prompts that differ only in list order, whitespace or punctuation
+ * share a reply. Everything that must match exactly - feature, system message, sampling parameters,
+ * quoted terms and numbers in the prompt - forms the partition an entry can match in, so a request
+ * for another word or a different item count never gets a neighbour's reply
+ */
+@Slf4j
+@Component
+public class SemanticCache {
+
+    /** Quoted terms and numbers carry the identity of a content request */
+    private static final Pattern EXACT_TERMS = Pattern.compile("'([^']*)'|\"([^\"]*)\"|(\\d+)");
+    private static final long HYPERPLANE_SEED = 0x5eed_cafeL;
+
+    /** Plain mapper so snapshots do not depend on the application's Jackson settings */
+    private static final ObjectMapper SNAPSHOT_MAPPER = new ObjectMapper()
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+    private static final TypeReference<List<SemanticIndex.Entry<AIResponse>>> SNAPSHOT_TYPE = new TypeReference<>() {};
+
+    private final AIProviderConfig config;
+    private final HashedNgramEmbedder embedder;
+    private final SemanticIndex<AIResponse> index;
+
+    private final AtomicLong lookups = new AtomicLong();
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong tokensSaved = new AtomicLong();
+
+    public SemanticCache(AIProviderConfig config) {
+        AIProviderConfig.SemanticCacheSettings settings = config.getSemanticCache();
+        this.config = config;
+        this.embedder = new HashedNgramEmbedder(settings.getDimensions());
+        this.index = new SemanticIndex<>(embedder.getDimensions(), settings.getMaxEntries(),
+                settings.getHashTables(), settings.getBitsPerTable(), HYPERPLANE_SEED);
+    }
+
+    /**
+     * Check whether a request opted into the semantic cache
+     */
+    public boolean isCacheable(AIRequest request) {
+        Map<String, Object> params = request.getAdditionalParams();
+        return config.getSemanticCache().isEnabled()
+                && params != null
+                && Boolean.TRUE.equals(params.get(AIRequest.PARAM_SEMANTIC_CACHE));
+    }
+
+    /**
+     * Look up the reply to a near-identical earlier request
+     * @return the cached response, or null on a miss
+     */
+    public AIResponse get(AIRequest request) {
+        lookups.incrementAndGet();
+        SemanticIndex.Match<AIResponse> match = index.nearest(partition(request), embedder.embed(text(request)),
+                config.getSemanticCache().getThreshold(), System.currentTimeMillis());
+        if (match == null) {
+            return null;
+        }
+
+        hits.incrementAndGet();
+        AIResponse.Usage usage = match.value().getUsage();
+        if (usage != null && usage.getTotalTokens() != null) {
+            tokensSaved.addAndGet(usage.getTotalTokens());
+        }
+        log.debug("Semantic cache hit for {} request (similarity {})", request.getFeature(),
+                String.format("%.3f", match.similarity()));
+        return match.value();
+    }
+
+    /**
+     * Store a successful response
+     */
+    public void put(AIRequest request, AIResponse response) {
+        long expiresAt = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(config.getSemanticCache().getTtl());
+        index.put(partition(request), embedder.embed(text(request)), response, expiresAt);
+    }
+
+    public SemanticCacheStats getStats() {
+        long lookupCount = lookups.get();
+        long hitCount = hits.get();
+        return SemanticCacheStats.builder()
+                .lookups(lookupCount)
+                .hits(hitCount)
+                .hitRatio(lookupCount > 0 ? (double) hitCount / lookupCount : 0)
+                .tokensSaved(tokensSaved.get())
+                .entries(index.size())
+                .evictions(index.getEvictions())
+                .build();
+    }
+
+    /**
+     * Restore the index saved by a previous run
+     */
+    @PostConstruct
+    public void restore() {
+        Path path = snapshotPath();
+        if (path == null || !Files.exists(path)) {
+            return;
+        }
+        try {
+            List<SemanticIndex.Entry<AIResponse>> entries = SNAPSHOT_MAPPER.readValue(path.toFile(), SNAPSHOT_TYPE);
+            long now = System.currentTimeMillis();
+            int restored = 0;
+            for (SemanticIndex.Entry<AIResponse> entry : entries) {
+                if (entry.expiresAt() > now && entry.vector().length == embedder.getDimensions()) {
+                    index.put(entry.partition(), entry.vector(), entry.value(), entry.expiresAt());
+                    restored++;
+                }
+            }
+            log.info("Restored {} semantic cache entries from {}", restored, path);
+        } catch (IOException e) {
+            log.warn("Failed to restore semantic cache from {}: {}", path, e.getMessage());
+        }
+    }
+
+    /**
+     * Save the index, least recently used first so a restore keeps the eviction order
+     * Written to a temporary file and moved into place, so a crash never leaves a torn snapshot
+     */
+    @PreDestroy
+    @Scheduled(initialDelayString = "${ai.gateway.semantic-cache.snapshot-interval:300000}",
+            fixedDelayString = "${ai.gateway.semantic-cache.snapshot-interval:300000}")
+    public void snapshot() {
+        Path path = snapshotPath();
+        if (path == null || !config.getSemanticCache().isEnabled()) {
+            return;
+        }
+        List<SemanticIndex.Entry<AIResponse>> entries = index.entries(System.currentTimeMillis());
+        if (entries.isEmpty() && !Files.exists(path)) {
+            return;
+        }
+        try {
+            if (path.getParent() != null) {
+                Files.createDirectories(path.getParent());
+            }
+            Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+            SNAPSHOT_MAPPER.writeValue(temp.toFile(), entries);
+            Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            log.debug("Saved {} semantic cache entries to {}", entries.size(), path);
+        } catch (IOException e) {
+            log.warn("Failed to save semantic cache to {}: {}", path, e.getMessage());
+        }
+    }
+
+    /**
+     * Text compared by similarity: the prompt and any history
+     */
+    private String text(AIRequest request) {
+        StringBuilder text = new StringBuilder();
+        if (request.getMessages() != null) {
+            request.getMessages().forEach(m -> text.append(m.getContent()).append('\n'));
+        }
+        if (request.getPrompt() != null) {
+            text.append(request.getPrompt());
+        }
+        return text.toString();
+    }
+
+    /**
+     * Hash of everything that must match exactly for a reply to be reused
+     */
+    String partition(AIRequest request) {
+        StringBuilder key = new StringBuilder()
+                .append(request.getFeature() != null ? request.getFeature() : AIFeature.DEFAULT).append('\u0000')
+                .append(request.getSystemMessage()).append('\u0000')
+                .append(request.getTemperature()).append('\u0000')
+                .append(request.getMaxTokens()).append('\u0000');
+        Matcher terms = EXACT_TERMS.matcher(text(request));
+        while (terms.find()) {
+            for (int group = 1; group <= terms.groupCount(); group++) {
+                if (terms.group(group) != null) {
+                    key.append(HashedNgramEmbedder.normalize(terms.group(group))).append('\u0000');
+                }
+            }
+        }
+
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(key.toString().getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest, 0, 16);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("Failed to build semantic cache partition", e);
+        }
+    }
+
+    private Path snapshotPath() {
+        String file = config.getSemanticCache().getSnapshotFile();
+        return file == null || file.isBlank() ? null : Path.of(file);
+    }
+}
@@ -0,0 +1,34 @@
+package com.llmplatform.ai.cache;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Counters of the gateway semantic cache since startup
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SemanticCacheStats {
+
+    /** Opted-in requests looked up */
+    private long lookups;
+
+    /** Lookups answered by a near-identical earlier request */
+    private long hits;
+
+    /** hits / lookups, 0 when nothing was looked up */
+    private double hitRatio;
+
+    /** Provider tokens not spent thanks to hits */
+    private long tokensSaved;
+
+    /** Entries currently indexed */
+    private int entries;
+
+    /** Entries dropped to stay within the size limit */
+    private long evictions;
+}
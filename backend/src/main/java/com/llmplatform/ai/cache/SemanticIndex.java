@@ -0,0 +1,208 @@
+package com.llmplatform.ai.cache;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Bounded approximate nearest-neighbour index over unit vectors, evicting the least recently used entry
+ * Vectors are bucketed by random-hyperplane signatures (SimHash) in several independent tables;
+ * a lookup only scores the entries sharing a bucket with the query in at least one table, so its
+ * cost depends on the bucket sizes rather than on the number of entries. Entries are grouped into
+ * partitions and only match queries of the same partition
+ *
+ * @param <V> the indexed value type
+ */
+public class SemanticIndex<V> {
+
+    private final int maxEntries;
+    private final int dimensions;
+    private final float[][][] hyperplanes;
+    private final List<Map<Long, Set<Long>>> buckets;
+    private final Map<Long, Node<V>> entries = new HashMap<>();
+    /** Entry ids in access order, least recently used first */
+    private final LinkedHashMap<Long, Boolean> recency = new LinkedHashMap<>(16, 0.75f, true);
+
+    private long nextId;
+    private long evictions;
+
+    /**
+     * @param tables independent hash tables; more tables find more near neighbours at a higher lookup cost
+     * @param bitsPerTable signature bits per table; more bits make buckets smaller and stricter
+     * @param seed hyperplane seed, fixed so the same vectors always land in the same buckets
+     */
+    public SemanticIndex(int dimensions, int maxEntries, int tables, int bitsPerTable, long seed) {
+        this.dimensions = dimensions;
+        this.maxEntries = Math.max(1, maxEntries);
+        int tableCount = Math.max(1, tables);
+        int bits = Math.min(31, Math.max(1, bitsPerTable));
+
+        Random random = new Random(seed);
+        this.hyperplanes = new float[tableCount][bits][dimensions];
+        this.buckets = new ArrayList<>(tableCount);
+        for (int t = 0; t < tableCount; t++) {
+            for (int b = 0; b < bits; b++) {
+                for (int d = 0; d < dimensions; d++) {
+                    hyperplanes[t][b][d] = (float) random.nextGaussian();
+                }
+            }
+            buckets.add(new HashMap<>());
+        }
+    }
+
+    /**
+     * Find the most similar live entry of a partition and mark it as recently used
+     * @param now current time in milliseconds; expired entries are dropped on the way
+     * @return the best match at or above the threshold, or null
+     */
+    public synchronized Match<V> nearest(String partition, float[] vector, double threshold, long now) {
+        Node<V> best = null;
+        double bestSimilarity = threshold;
+        for (long id : candidates(partition, vector)) {
+            Node<V> node = entries.get(id);
+            if (node == null || !node.partition.equals(partition)) {
+                continue;
+            }
+            if (node.expiresAt <= now) {
+                remove(id);
+                continue;
+            }
+            double similarity = HashedNgramEmbedder.similarity(vector, node.vector);
+            if (similarity >= bestSimilarity) {
+                best = node;
+                bestSimilarity = similarity;
+            }
+        }
+        if (best == null) {
+            return null;
+        }
+        recency.get(best.id);
+        return new Match<>(best.value, bestSimilarity);
+    }
+
+    /**
+     * Add an entry, evicting the least recently used ones beyond the size limit
+     * @param expiresAt time in milliseconds after which the entry no longer matches
+     */
+    public synchronized void put(String partition, float[] vector, V value, long expiresAt) {
+        long id = nextId++;
+        Node<V> node = new Node<>(id, partition, vector, value, expiresAt, signatures(partition, vector));
+        entries.put(id, node);
+        recency.put(id, Boolean.TRUE);
+        for (int t = 0; t < buckets.size(); t++) {
+            buckets.get(t).computeIfAbsent(node.bucketKeys[t], k -> new HashSet<>()).add(id);
+        }
+
+        while (entries.size() > maxEntries) {
+            remove(recency.keySet().iterator().next());
+            evictions++;
+        }
+    }
+
+    /**
+     * Live entries, least recently used first, for snapshotting
+     */
+    public synchronized List<Entry<V>> entries(long now) {
+        List<Entry<V>> live = new ArrayList<>(entries.size());
+        for (long id : recency.keySet()) {
+            Node<V> node = entries.get(id);
+            if (node.expiresAt > now) {
+                live.add(new Entry<>(node.partition, node.vector, node.value, node.expiresAt));
+            }
+        }
+        return live;
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public synchronized long getEvictions() {
+        return evictions;
+    }
+
+    public int getDimensions() {
+        return dimensions;
+    }
+
+    private Set<Long> candidates(String partition, float[] vector) {
+        long[] keys = signatures(partition, vector);
+        Set<Long> candidates = new HashSet<>();
+        for (int t = 0; t < buckets.size(); t++) {
+            Set<Long> bucket = buckets.get(t).get(keys[t]);
+            if (bucket != null) {
+                candidates.addAll(bucket);
+            }
+        }
+        return candidates;
+    }
+
+    /**
+     * Bucket key per table: the partition hash in the high half, the vector's signature in the low half
+     */
+    private long[] signatures(String partition, float[] vector) {
+        long[] keys = new long[hyperplanes.length];
+        long partitionBits = (long) partition.hashCode() << 32;
+        for (int t = 0; t < hyperplanes.length; t++) {
+            int signature = 0;
+            for (int b = 0; b < hyperplanes[t].length; b++) {
+                if (HashedNgramEmbedder.similarity(hyperplanes[t][b], vector) >= 0) {
+                    signature |= 1 << b;
+                }
+            }
+            keys[t] = partitionBits | signature;
+        }
+        return keys;
+    }
+
+    private void remove(long id) {
+        Node<V> node = entries.remove(id);
+        recency.remove(id);
+        if (node == null) {
+            return;
+        }
+        for (int t = 0; t < buckets.size(); t++) {
+            Map<Long, Set<Long>> table = buckets.get(t);
+            Set<Long> bucket = table.get(node.bucketKeys[t]);
+            if (bucket != null && bucket.remove(id) && bucket.isEmpty()) {
+                table.remove(node.bucketKeys[t]);
+            }
+        }
+    }
+
+    /**
+     * A lookup hit and its cosine similarity to the query
+     */
+    public record Match<V>(V value, double similarity) {
+    }
+
+    /**
+     * A snapshotted entry
+     */
+    public record Entry<V>(String partition, float[] vector, V value, long expiresAt) {
+    }
+
+    private static final class Node<V> {
+
+        private final long id;
+        private final String partition;
+        private final float[] vector;
+        private final V value;
+        private final long expiresAt;
+        private final long[] bucketKeys;
+
+        private Node(long id, String partition, float[] vector, V value, long expiresAt, long[] bucketKeys) {
+            this.id = id;
+            this.partition = partition;
+            this.vector = vector;
+            this.value = value;
+            this.expiresAt = expiresAt;
+            this.bucketKeys = bucketKeys;
+        }
+    }
+}
@@ -1,10 +1,17 @@
 package com.llmplatform.ai.config;
 
+import com.llmplatform.ai.dto.AIFeature;
+import com.llmplatform.ai.lane.RequestLane;
+import com.llmplatform.ai.tier.ModelTier;
+import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.NoArgsConstructor;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.context.annotation.Configuration;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -25,14 +32,296 @@ public class AIProviderConfig {
      */
     private Map<String, ProviderSettings> providers = new HashMap<>();
 
+    /**
+     * Background health probing
+     */
+    private HealthSettings health = new HealthSettings();
+
+    /**
+     * Per-provider circuit breaker
+     */
+    private CircuitBreakerSettings circuitBreaker = new CircuitBreakerSettings();
+
+    /**
+     * Hedged requests to a secondary provider when the primary is slow
+     */
+    private HedgingSettings hedging = new HedgingSettings();
+
+    /**
+     * Exact-match cache for opted-in requests
+     */
+    private ResponseCacheSettings responseCache = new ResponseCacheSettings();
+
+    /**
+     * Near-duplicate cache for opted-in content requests
+     */
+    private SemanticCacheSettings semanticCache = new SemanticCacheSettings();
+
+    /**
+     * Enforcement of the per-provider rate and token quotas
+     */
+    private QuotaSettings quota = new QuotaSettings();
+
+    /**
+     * Token usage metering and per-user budgets
+     */
+    private MeteringSettings metering = new MeteringSettings();
+
+    /**
+     * How the primary provider is chosen for each request
+     */
+    private RoutingSettings routing = new RoutingSettings();
+
+    /**
+     * Prompt size limits for multi-turn dialogues
+     */
+    private DialogueContextSettings dialogueContext = new DialogueContextSettings();
+
+    /**
+     * Priority lanes that isolate interactive traffic from background generation
+     */
+    private LaneSettings lanes = new LaneSettings();
+
+    /**
+     * Choice of the cheapest capable model per request task class
+     */
+    private ModelTieringSettings modelTiering = new ModelTieringSettings();
+
+    /**
+     * Recording of provider traffic and network-free replay for load tests
+     */
+    private ReplaySettings replay = new ReplaySettings();
+
     @Data
     public static class ProviderSettings {
         private boolean enabled = false;
         private String apiKey;
         private String baseUrl;
         private String model;
+        /** Read timeout in milliseconds (max wait for response data) */
         private int timeout = 60000;
         private int priority = 100;
+        /** TCP/TLS connect timeout in milliseconds */
+        private int connectTimeout = 5000;
+        /** Max wait in milliseconds for a pooled connection to become free */
+        private int connectionRequestTimeout = 2000;
+        /** Size of the keep-alive connection pool for this provider */
+        private int maxConnections = 50;
+        /** Cluster-wide request quota per minute, 0 for unlimited */
+        private int requestsPerMinute = 0;
+        /** Cluster-wide token quota per minute (prompt + completion), 0 for unlimited */
+        private int tokensPerMinute = 0;
+        /** Prompt plus reply tokens the model accepts, 0 if unknown; larger prompts are trimmed or skipped */
+        private int contextWindow = 0;
+        /** Further models by capability tier; requests tagged with a task class use the cheapest capable one */
+        private List<ModelSettings> models = new ArrayList<>();
+
+        /**
+         * Model to call: the one selected for the request, else the default model
+         */
+        public String resolveModel(String selectedModel) {
+            return selectedModel != null ? selectedModel : model;
+        }
+
+        /**
+         * Context window of a model, falling back to the provider's
+         */
+        public int contextWindowOf(String modelName) {
+            if (modelName != null) {
+                for (ModelSettings candidate : models) {
+                    if (modelName.equals(candidate.getName()) && candidate.getContextWindow() > 0) {
+                        return candidate.getContextWindow();
+                    }
+                }
+            }
+            return contextWindow;
+        }
+    }
+
+    @Data
+    public static class ModelSettings {
+        private String name;
+        private ModelTier tier = ModelTier.MEDIUM;
+        /** Relative price per token; the cheapest model of a sufficient tier is chosen */
+        private double cost = 1.0;
+        /** Context window of this model, 0 to use the provider's */
+        private int contextWindow = 0;
+    }
+
+    @Data
+    public static class HealthSettings {
+        /** Delay in milliseconds between two probe rounds */
+        private long probeInterval = 15000;
+        /** Max wait in milliseconds for a single probe before it counts as failed */
+        private long probeTimeout = 5000;
+        /** Probes slower than this (milliseconds) mark the provider DEGRADED */
+        private long degradedLatency = 2000;
+        /** Consecutive probe failures before a provider is marked DOWN */
+        private int failureThreshold = 2;
+    }
+
+    @Data
+    public static class CircuitBreakerSettings {
+        private boolean enabled = true;
+        /** Number of most recent calls used to compute the failure rate */
+        private int slidingWindowSize = 20;
+        /** Calls required in the window before the breaker may trip */
+        private int minimumCalls = 10;
+        /** Failure percentage (0-100) at which the breaker opens */
+        private int failureRateThreshold = 50;
+        /** Non-streaming calls slower than this (milliseconds) count as failures */
+        private long slowCallDuration = 30000;
+        /** Time in milliseconds an open breaker rejects calls before going half-open */
+        private long openDuration = 30000;
+        /** Trial calls let through while half-open; all must succeed to close again */
+        private int halfOpenPermits = 3;
+    }
+
+    @Data
+    public static class HedgingSettings {
+        private boolean enabled = false;
+        /** Latency percentile (0-100) of the primary after which the hedge is sent */
+        private double percentile = 95;
+        /** Successful calls the primary needs on record before hedging kicks in */
+        private int minSamples = 20;
+        /** Lower bound in milliseconds for the hedge delay */
+        private long minDelay = 500;
+        /** Hedges allowed per request, by feature; e.g. 0.05 caps the extra calls at 5% */
+        private Map<String, Double> budgets = new HashMap<>();
+        /** Ratio used for features without an explicit budget */
+        private double defaultBudget = 0.05;
+        /** Unused hedges a feature may accumulate for bursts */
+        private int maxBurst = 10;
+    }
+
+    @Data
+    public static class ResponseCacheSettings {
+        private boolean enabled = true;
+        /** Entries kept in the in-process tier */
+        private int localMaxEntries = 2000;
+        /** Time to live in seconds of entries in the Redis tier */
+        private long ttl = 7 * 24 * 60 * 60;
+    }
+
+    @Data
+    public static class SemanticCacheSettings {
+        private boolean enabled = true;
+        /** Cosine similarity of the prompt embeddings at or above which a cached reply is reused */
+        private double threshold = 0.98;
+        /** Entries kept; the least recently used is evicted beyond that */
+        private int maxEntries = 5000;
+        /** Size of the hashed n-gram embedding */
+        private int dimensions = 256;
+        /** Independent hash tables of the nearest-neighbour index */
+        private int hashTables = 8;
+        /** Signature bits per hash table */
+        private int bitsPerTable = 10;
+        /** Time to live in seconds of an entry */
+        private long ttl = 24 * 60 * 60;
+        /** File the index is saved to periodically and restored from at startup; empty to keep it in memory only */
+        private String snapshotFile = "data/semantic-cache.json";
+        /** Delay in milliseconds between two snapshots */
+        private long snapshotInterval = 300000;
+    }
+
+    @Data
+    public static class QuotaSettings {
+        private boolean enabled = true;
+        /** Longest wait in milliseconds for quota to free up before moving on to the next provider */
+        private long maxWait = 1000;
+    }
+
+    @Data
+    public static class MeteringSettings {
+        /** Delay in milliseconds between flushes of the in-memory counters */
+        private long flushInterval = 10000;
+        /** Tokens a user may spend per day, 0 for unlimited */
+        private long dailyUserTokenBudget = 0;
+    }
+
+    @Data
+    public static class RoutingSettings {
+        /** "adaptive" scores providers on live latency, errors and load; "priority" uses static priority only */
+        private String strategy = "adaptive";
+        /** Weight of the newest sample in the latency and error averages */
+        private double ewmaAlpha = 0.2;
+        /** Score multiplier per unit of error rate, e.g. 4 makes a 25% error rate double the score */
+        private double errorPenalty = 4.0;
+        /** Scores within this fraction of the best are considered equal and fall back to static priority */
+        private double tolerance = 0.1;
+        /** Half-life in milliseconds of the error rate of a provider that receives no traffic */
+        private long errorHalfLife = 60000;
+    }
+
+    @Data
+    public static class DialogueContextSettings {
+        /** Estimated prompt tokens per dialogue turn, system message and summary included */
+        private int tokenBudget = 3000;
+        /** Most recent turns (user message plus reply) always sent verbatim when they fit the budget */
+        private int recentTurns = 4;
+        /** Turns allowed to pile up beyond the recent ones before the summary is refreshed */
+        private int summaryEveryTurns = 4;
+        /** Output limit of a summary refresh */
+        private int summaryMaxTokens = 300;
+    }
+
+    @Data
+    public static class LaneSettings {
+        private boolean enabled = true;
+        /** Gateway calls in flight across all lanes */
+        private int maxConcurrent = 64;
+        private LaneLimits interactive = new LaneLimits(64, 200, 30000);
+        private LaneLimits standard = new LaneLimits(48, 100, 30000);
+        private LaneLimits background = new LaneLimits(16, 50, 5000);
+        /** Lane per feature (see AIFeature); unlisted features use the standard lane */
+        private Map<String, String> features = new HashMap<>(Map.of(
+                AIFeature.DIALOGUE, RequestLane.INTERACTIVE.name(),
+                AIFeature.WORD, RequestLane.INTERACTIVE.name(),
+                AIFeature.QUIZ, RequestLane.STANDARD.name(),
+                AIFeature.QUIZ_BANK, RequestLane.BACKGROUND.name(),
+                AIFeature.MULTIPLE_CHOICE, RequestLane.STANDARD.name(),
+                AIFeature.EXAMPLE_SENTENCE, RequestLane.BACKGROUND.name(),
+                AIFeature.ERROR_EXERCISE, RequestLane.BACKGROUND.name(),
+                AIFeature.DIALOGUE_SCENARIO, RequestLane.BACKGROUND.name(),
+                AIFeature.DIALOGUE_SUMMARY, RequestLane.BACKGROUND.name()));
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class LaneLimits {
+        /** Calls of this lane in flight at once */
+        private int maxConcurrent;
+        /** Callers allowed to wait for a slot; beyond that requests are shed */
+        private int maxQueue;
+        /** Longest wait in milliseconds for a slot before the request is shed */
+        private long maxWait;
+    }
+
+    @Data
+    public static class ModelTieringSettings {
+        private boolean enabled = true;
+        /** Required tier per task class (e.g. word-definition: medium), overriding the task class default */
+        private Map<String, String> taskTiers = new HashMap<>();
+    }
+
+    @Data
+    public static class ReplaySettings {
+        /** "off", "record" (append every successful provider call to the log) or "replay" (serve from the log) */
+        private String mode = "off";
+        /** Log file of recorded calls, one JSON line per call */
+        private String file = "data/ai-replay.jsonl";
+        /** Recorded calls buffered for the writer; calls beyond that are not recorded */
+        private int writerQueueSize = 10000;
+        /** Replay latency: "recorded" samples the recorded latencies of the feature, "configured" a log-normal
+         *  distribution, "none" answers immediately */
+        private String latency = "recorded";
+        /** Median in milliseconds of the configured latency distribution */
+        private long latencyMedian = 800;
+        /** Spread (sigma of the underlying normal) of the configured latency distribution */
+        private double latencySigma = 0.5;
+        /** Upper bound in milliseconds for any injected latency */
+        private long maxLatency = 30000;
     }
 
     /**
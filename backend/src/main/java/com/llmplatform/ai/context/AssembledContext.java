@@ -0,0 +1,14 @@
+package com.llmplatform.ai.context;
+
+import com.llmplatform.ai.dto.AIRequest;
+
+import java.util.List;
+
+/**
+ * Prompt parts of one dialogue turn after fitting the history into the token budget
+ *
+ * @param systemMessage system message, with the rolling summary appended when there is one
+ * @param messages most recent messages sent verbatim, oldest first
+ */
+public record AssembledContext(String systemMessage, List<AIRequest.Message> messages) {
+}
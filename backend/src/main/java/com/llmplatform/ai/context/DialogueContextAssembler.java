@@ -0,0 +1,154 @@
+package com.llmplatform.ai.context;
+
+import com.llmplatform.ai.config.AIProviderConfig;
+import com.llmplatform.ai.dto.AIFeature;
+import com.llmplatform.ai.dto.AIRequest;
+import com.llmplatform.ai.dto.AIResponse;
+import com.llmplatform.ai.gateway.AIGateway;
+import com.llmplatform.ai.tier.TaskClass;
+import com.llmplatform.ai.token.TokenEstimator;
+import com.llmplatform.common.CacheConstants;
+import com.llmplatform.util.CacheUtil;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Fits a dialogue history into a per-turn token budget
+ * The system message and the most recent messages are sent verbatim; older messages are replaced by
+ * a rolling summary kept in Redis and refreshed in the background once enough new turns piled up,
+ * so the prompt stays roughly the same size however long the session runs
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class DialogueContextAssembler {
+
+    private final AIProviderConfig config;
+    private final AIGateway aiGateway;
+    private final CacheUtil cacheUtil;
+    private final TokenEstimator tokenEstimator;
+
+    /** Sessions with a summary refresh in progress */
+    private final Set<Long> refreshing = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Build the prompt parts for the next turn
+     * @param sessionId dialogue session the history belongs to
+     * @param systemMessage scenario instructions
+     * @param history every message of the session so far, oldest first, ending with the new user message
+     * @param userId user the turn is generated for, charged for summary refreshes as well
+     */
+    public AssembledContext assemble(Long sessionId, String systemMessage, List<AIRequest.Message> history,
+                                     Long userId) {
+        AIProviderConfig.DialogueContextSettings settings = config.getDialogueContext();
+        DialogueSummary summary = getSummary(sessionId, history.size());
+        int covered = summary != null ? summary.getCoveredMessages() : 0;
+
+        String fullSystemMessage = summary != null
+                ? systemMessage + "\n\nSummary of the conversation so far: " + summary.getContent()
+                : systemMessage;
+
+        // Walk back from the newest message while the budget allows; the newest one is always sent
+        int remaining = settings.getTokenBudget() - tokenEstimator.estimate(fullSystemMessage);
+        Deque<AIRequest.Message> verbatim = new ArrayDeque<>();
+        for (int i = history.size() - 1; i >= covered; i--) {
+            AIRequest.Message message = history.get(i);
+            int cost = tokenEstimator.estimate(message);
+            if (!verbatim.isEmpty() && cost > remaining) {
+                log.debug("Dialogue session {} over token budget, dropping {} unsummarized messages",
+                        sessionId, i - covered + 1);
+                break;
+            }
+            verbatim.addFirst(message);
+            remaining -= cost;
+        }
+
+        int recentMessages = settings.getRecentTurns() * 2;
+        int unsummarized = history.size() - covered;
+        if (unsummarized > recentMessages + settings.getSummaryEveryTurns() * 2) {
+            refreshSummaryAsync(sessionId, summary, history.subList(covered, history.size() - recentMessages),
+                    history.size() - recentMessages, userId);
+        }
+
+        return new AssembledContext(fullSystemMessage, List.copyOf(verbatim));
+    }
+
+    /**
+     * Get the cached summary, ignoring one that covers more messages than the history holds
+     */
+    private DialogueSummary getSummary(Long sessionId, int historySize) {
+        DialogueSummary summary = cacheUtil.get(CacheConstants.dialogueSummaryKey(sessionId), DialogueSummary.class);
+        if (summary == null || summary.getCoveredMessages() > historySize) {
+            return null;
+        }
+        return summary;
+    }
+
+    /**
+     * Fold the given messages into the session summary in the background; at most one refresh runs per session
+     * @param previous summary the messages follow, or null
+     * @param newMessages messages not covered by the previous summary
+     * @param coveredMessages number of leading session messages the new summary covers
+     */
+    private void refreshSummaryAsync(Long sessionId, DialogueSummary previous, List<AIRequest.Message> newMessages,
+                                     int coveredMessages, Long userId) {
+        if (!refreshing.add(sessionId)) {
+            return;
+        }
+        AIRequest request = AIRequest.builder()
+                .systemMessage("You condense language-learning conversations into short factual summaries.")
+                .prompt(buildSummaryPrompt(previous, newMessages))
+                .temperature(0.3)
+                .maxTokens(config.getDialogueContext().getSummaryMaxTokens())
+                .feature(AIFeature.DIALOGUE_SUMMARY)
+                .taskClass(TaskClass.SUMMARY)
+                .userId(userId)
+                .build();
+
+        aiGateway.generateAsync(request).whenComplete((response, error) -> {
+            try {
+                if (error != null) {
+                    log.warn("Summary refresh for dialogue session {} failed: {}", sessionId, error.getMessage());
+                } else {
+                    storeSummary(sessionId, response, coveredMessages);
+                }
+            } finally {
+                refreshing.remove(sessionId);
+            }
+        });
+    }
+
+    private void storeSummary(Long sessionId, AIResponse response, int coveredMessages) {
+        if (!response.isSuccess() || response.getContent() == null || response.getContent().isBlank()) {
+            log.warn("Summary refresh for dialogue session {} failed: {}", sessionId, response.getErrorMessage());
+            return;
+        }
+
+        cacheUtil.set(CacheConstants.dialogueSummaryKey(sessionId),
+                new DialogueSummary(coveredMessages, response.getContent().trim()),
+                CacheConstants.DIALOGUE_TTL_SECONDS);
+        log.debug("Refreshed summary of dialogue session {} covering {} messages", sessionId, coveredMessages);
+    }
+
+    private String buildSummaryPrompt(DialogueSummary previous, List<AIRequest.Message> newMessages) {
+        StringBuilder prompt = new StringBuilder();
+        prompt.append("Update the summary of this conversation between a language learner (user) and a tutor (assistant). ")
+              .append("Keep facts the learner shared, topics covered and recurring mistakes. ")
+              .append("Answer with the summary only, in at most 150 words.\n\n");
+        if (previous != null) {
+            prompt.append("Current summary:\n").append(previous.getContent()).append("\n\n");
+        }
+        prompt.append("New messages:\n");
+        for (AIRequest.Message message : newMessages) {
+            prompt.append(message.getRole()).append(": ").append(message.getContent()).append('\n');
+        }
+        return prompt.toString();
+    }
+}
@@ -0,0 +1,19 @@
+package com.llmplatform.ai.context;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Rolling summary of the oldest messages of a dialogue session
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DialogueSummary {
+
+    /** Number of leading session messages folded into the summary */
+    private int coveredMessages;
+
+    private String content;
+}
@@ -0,0 +1,24 @@
+package com.llmplatform.ai.dto;
+
+/**
+ * Feature names that tag AI requests for per-feature gateway policies
+ */
+public final class AIFeature {
+
+    private AIFeature() {
+        // Prevent instantiation
+    }
+
+    public static final String WORD = "word";
+    public static final String QUIZ = "quiz";
+    public static final String QUIZ_BANK = "quiz-bank";
+    public static final String DIALOGUE = "dialogue";
+    public static final String DIALOGUE_SUMMARY = "dialogue-summary";
+    public static final String EXAMPLE_SENTENCE = "example-sentence";
+    public static final String ERROR_EXERCISE = "error-exercise";
+    public static final String DIALOGUE_SCENARIO = "dialogue-scenario";
+    public static final String MULTIPLE_CHOICE = "multiple-choice";
+
+    /** Used when a request carries no feature tag */
+    public static final String DEFAULT = "default";
+}
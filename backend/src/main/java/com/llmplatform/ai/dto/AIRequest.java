@@ -1,5 +1,6 @@
 package com.llmplatform.ai.dto;
 
+import com.llmplatform.ai.tier.TaskClass;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -12,11 +13,21 @@ import java.util.Map;
  * Unified AI request DTO for all providers
  */
 @Data
-@Builder
+@Builder(toBuilder = true)
 @NoArgsConstructor
 @AllArgsConstructor
 public class AIRequest {
 
+    /**
+     * additionalParams key that opts a deterministic request into the gateway response cache
+     */
+    public static final String PARAM_CACHE = "cache";
+
+    /**
+     * additionalParams key that opts a content request into the gateway's near-duplicate cache
+     */
+    public static final String PARAM_SEMANTIC_CACHE = "semanticCache";
+
     /**
      * The prompt or user message
      */
@@ -49,6 +60,26 @@ public class AIRequest {
      */
     private Map<String, Object> additionalParams;
 
+    /**
+     * Calling feature (see AIFeature), used for per-feature gateway policies
+     */
+    private String feature;
+
+    /**
+     * User the call is made for, used for usage metering and daily token budgets
+     */
+    private Long userId;
+
+    /**
+     * Kind of work, used to pick the cheapest provider model capable of it; null for the default model
+     */
+    private TaskClass taskClass;
+
+    /**
+     * Model to call, set by the gateway from the task class; null for the provider's default model
+     */
+    private String model;
+
     @Data
     @Builder
     @NoArgsConstructor
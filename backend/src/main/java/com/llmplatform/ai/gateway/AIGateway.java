@@ -4,6 +4,8 @@ import com.llmplatform.ai.dto.AIRequest;
 import com.llmplatform.ai.dto.AIResponse;
 
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
 
 /**
  * Unified AI Gateway interface for routing requests to AI providers
@@ -25,6 +27,38 @@ public interface AIGateway {
      */
     AIResponse generateWithContext(AIRequest request, List<AIRequest.Message> context);
 
+    /**
+     * Generate a response without blocking the caller
+     * @param request the AI request
+     * @return future completed with the normalized AI response
+     */
+    CompletableFuture<AIResponse> generateAsync(AIRequest request);
+
+    /**
+     * Generate a response with conversation context without blocking the caller
+     * @param request the AI request
+     * @param context previous messages for context
+     * @return future completed with the normalized AI response
+     */
+    CompletableFuture<AIResponse> generateWithContextAsync(AIRequest request, List<AIRequest.Message> context);
+
+    /**
+     * Generate a response, emitting content deltas as the provider produces them
+     * @param request the AI request
+     * @param onDelta callback receiving each content delta in order
+     * @return normalized AI response carrying the assembled content
+     */
+    AIResponse generateStream(AIRequest request, Consumer<String> onDelta);
+
+    /**
+     * Generate a streamed response with conversation context
+     * @param request the AI request
+     * @param context previous messages for context
+     * @param onDelta callback receiving each content delta in order
+     * @return normalized AI response carrying the assembled content
+     */
+    AIResponse generateStreamWithContext(AIRequest request, List<AIRequest.Message> context, Consumer<String> onDelta);
+
     /**
      * Get the name of the currently active provider
      * @return provider name
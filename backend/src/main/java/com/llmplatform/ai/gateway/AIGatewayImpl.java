@@ -1,16 +1,46 @@
 package com.llmplatform.ai.gateway;
 
+import com.llmplatform.ai.cache.AIResponseCache;
+import com.llmplatform.ai.cache.SemanticCache;
 import com.llmplatform.ai.config.AIProviderConfig;
 import com.llmplatform.ai.dto.AIRequest;
 import com.llmplatform.ai.dto.AIResponse;
+import com.llmplatform.ai.health.ProviderHealthRegistry;
+import com.llmplatform.ai.http.AbortSignal;
+import com.llmplatform.ai.lane.LaneScheduler;
+import com.llmplatform.ai.lane.RequestLane;
+import com.llmplatform.ai.metering.TokenUsageMeter;
 import com.llmplatform.ai.provider.AIProvider;
+import com.llmplatform.ai.provider.ReplayProvider;
+import com.llmplatform.ai.quota.ProviderQuotaLimiter;
+import com.llmplatform.ai.replay.ReplayLog;
+import com.llmplatform.ai.resilience.CircuitBreakerRegistry;
+import com.llmplatform.ai.resilience.HedgeBudget;
+import com.llmplatform.ai.routing.AdaptiveRouter;
+import com.llmplatform.ai.routing.ProviderLatencyTracker;
+import com.llmplatform.ai.tier.ModelTierSelector;
+import com.llmplatform.ai.token.TokenEstimator;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.AsyncTaskExecutor;
 import org.springframework.stereotype.Service;
 
+import java.io.UncheckedIOException;
 import java.util.ArrayList;
-import java.util.Comparator;
 import java.util.List;
-import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiFunction;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
 
 /**
  * AI Gateway implementation with provider routing and failover support
@@ -19,52 +49,164 @@ import java.util.Optional;
 @Service
 public class AIGatewayImpl implements AIGateway {
 
+    /** Smallest reply room worth sending a trimmed prompt for */
+    private static final int MIN_REPLY_TOKENS = 64;
+
     private final AIProviderConfig config;
     private final List<AIProvider> providers;
+    private final ProviderHealthRegistry healthRegistry;
+    private final CircuitBreakerRegistry circuitBreakers;
+    private final ProviderLatencyTracker latencyTracker;
+    private final HedgeBudget hedgeBudget;
+    private final AsyncTaskExecutor taskExecutor;
+    private final Executor requestExecutor;
+    private final AIResponseCache responseCache;
+    private final SemanticCache semanticCache;
+    private final ProviderQuotaLimiter quotaLimiter;
+    private final TokenUsageMeter usageMeter;
+    private final AdaptiveRouter router;
+    private final TokenEstimator tokenEstimator;
+    private final LaneScheduler laneScheduler;
+    private final ReplayLog replayLog;
+    private final ModelTierSelector modelSelector;
 
-    public AIGatewayImpl(AIProviderConfig config, List<AIProvider> providers) {
+    public AIGatewayImpl(AIProviderConfig config, List<AIProvider> providers,
+                         ProviderHealthRegistry healthRegistry, CircuitBreakerRegistry circuitBreakers,
+                         ProviderLatencyTracker latencyTracker, HedgeBudget hedgeBudget,
+                         @Qualifier("aiTaskExecutor") AsyncTaskExecutor taskExecutor,
+                         @Qualifier("aiRequestExecutor") Executor requestExecutor,
+                         AIResponseCache responseCache, SemanticCache semanticCache,
+                         ProviderQuotaLimiter quotaLimiter,
+                         TokenUsageMeter usageMeter, AdaptiveRouter router, TokenEstimator tokenEstimator,
+                         LaneScheduler laneScheduler, ReplayLog replayLog, ModelTierSelector modelSelector) {
         this.config = config;
         this.providers = providers;
+        this.healthRegistry = healthRegistry;
+        this.circuitBreakers = circuitBreakers;
+        this.latencyTracker = latencyTracker;
+        this.hedgeBudget = hedgeBudget;
+        this.taskExecutor = taskExecutor;
+        this.requestExecutor = requestExecutor;
+        this.responseCache = responseCache;
+        this.semanticCache = semanticCache;
+        this.quotaLimiter = quotaLimiter;
+        this.usageMeter = usageMeter;
+        this.router = router;
+        this.tokenEstimator = tokenEstimator;
+        this.laneScheduler = laneScheduler;
+        this.replayLog = replayLog;
+        this.modelSelector = modelSelector;
         log.info("AI Gateway initialized with {} providers", providers.size());
-        providers.forEach(p -> log.info("  - {} (available: {})", p.getName(), p.isAvailable()));
+        providers.forEach(p -> log.info("  - {} (configured: {})", p.getName(), p.isAvailable()));
     }
 
     @Override
     public AIResponse generate(AIRequest request) {
-        AIProvider primaryProvider = getPrimaryProvider();
-        
-        if (primaryProvider == null) {
-            log.error("No AI provider available");
-            return AIResponse.failure("gateway", "No AI provider is available");
+        boolean exact = responseCache.isCacheable(request);
+        boolean semantic = semanticCache.isCacheable(request);
+        if (!exact && !semantic) {
+            return dispatch(request);
         }
 
-        // Try primary provider first
-        log.debug("Attempting generation with primary provider: {}", primaryProvider.getName());
-        AIResponse response = primaryProvider.generate(request);
-        
-        if (response.isSuccess()) {
-            return response;
+        if (exact) {
+            AIResponse cached = responseCache.get(request);
+            if (cached != null) {
+                log.debug("AI response cache hit, answered earlier by provider {}", cached.getProvider());
+                return cached;
+            }
+        }
+        if (semantic) {
+            AIResponse similar = semanticCache.get(request);
+            if (similar != null) {
+                return similar;
+            }
         }
 
-        // Failover to other providers
-        log.warn("Primary provider {} failed: {}", primaryProvider.getName(), response.getErrorMessage());
-        return attemptFailover(request, primaryProvider);
+        AIResponse response = dispatch(request);
+        if (response.isSuccess()) {
+            if (exact) {
+                responseCache.put(request, response);
+            }
+            if (semantic) {
+                semanticCache.put(request, response);
+            }
+        }
+        return response;
     }
 
+    /**
+     * Send a non-streaming request to the providers through its priority lane, hedged if enabled
+     */
+    private AIResponse dispatch(AIRequest request) {
+        if (!usageMeter.hasBudget(request.getUserId())) {
+            return budgetExhausted(request);
+        }
+
+        RequestLane lane = laneScheduler.classify(request.getFeature());
+        if (!laneScheduler.tryAcquire(lane)) {
+            return laneShed(request, lane);
+        }
+        try {
+            BiFunction<AIProvider, AIRequest, AIResponse> call = AIProvider::generate;
+            if (config.getHedging().isEnabled()) {
+                return routeHedged(request, call);
+            }
+            return route(request, call, () -> true, true);
+        } finally {
+            laneScheduler.release(lane);
+        }
+    }
 
     @Override
     public AIResponse generateWithContext(AIRequest request, List<AIRequest.Message> context) {
-        // Merge context with request messages
-        AIRequest contextualRequest = AIRequest.builder()
-                .prompt(request.getPrompt())
-                .systemMessage(request.getSystemMessage())
-                .messages(mergeMessages(context, request.getMessages()))
-                .temperature(request.getTemperature())
-                .maxTokens(request.getMaxTokens())
-                .additionalParams(request.getAdditionalParams())
-                .build();
+        return generate(withContext(request, context));
+    }
 
-        return generate(contextualRequest);
+    @Override
+    public CompletableFuture<AIResponse> generateAsync(AIRequest request) {
+        try {
+            return CompletableFuture.supplyAsync(() -> generate(request), requestExecutor);
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.completedFuture(
+                    AIResponse.failure("gateway", "AI service is busy, please try again shortly"));
+        }
+    }
+
+    @Override
+    public CompletableFuture<AIResponse> generateWithContextAsync(AIRequest request, List<AIRequest.Message> context) {
+        return generateAsync(withContext(request, context));
+    }
+
+    @Override
+    public AIResponse generateStream(AIRequest request, Consumer<String> onDelta) {
+        if (!usageMeter.hasBudget(request.getUserId())) {
+            return budgetExhausted(request);
+        }
+
+        RequestLane lane = laneScheduler.classify(request.getFeature());
+        if (!laneScheduler.tryAcquire(lane)) {
+            return laneShed(request, lane);
+        }
+
+        AtomicBoolean emitted = new AtomicBoolean(false);
+        Consumer<String> trackingConsumer = delta -> {
+            emitted.set(true);
+            onDelta.accept(delta);
+        };
+
+        // Once part of a reply reached the caller, replaying the request elsewhere would garble the stream
+        try {
+            return route(request, (provider, fitted) -> provider.generateStream(fitted, trackingConsumer),
+                    () -> !emitted.get(), false);
+        } finally {
+            laneScheduler.release(lane);
+        }
+    }
+
+    @Override
+    public AIResponse generateStreamWithContext(AIRequest request, List<AIRequest.Message> context,
+                                                Consumer<String> onDelta) {
+        return generateStream(withContext(request, context), onDelta);
     }
 
     @Override
@@ -75,54 +217,91 @@ public class AIGatewayImpl implements AIGateway {
 
     @Override
     public boolean isAvailable() {
-        return providers.stream().anyMatch(AIProvider::isAvailable);
+        return providers.stream().anyMatch(healthRegistry::isAvailable);
     }
 
     /**
-     * Get the primary provider based on configuration
+     * Get the provider the next request would be sent to first
      */
     private AIProvider getPrimaryProvider() {
-        String defaultProviderName = config.getDefaultProvider();
-        
-        // First try to get the configured default provider
-        Optional<AIProvider> defaultProvider = providers.stream()
-                .filter(p -> p.getName().equals(defaultProviderName))
-                .filter(AIProvider::isAvailable)
-                .findFirst();
+        List<AIProvider> ranked = rankProviders(Set.of());
+        return ranked.isEmpty() ? null : ranked.get(0);
+    }
+
+    /**
+     * Routable providers not yet attempted, most preferred first
+     */
+    private List<AIProvider> rankProviders(Set<String> excluded) {
+        return router.rank(providers.stream()
+                .filter(p -> !excluded.contains(p.getName()))
+                .filter(this::isRoutable)
+                .toList());
+    }
+
+    /**
+     * Check that a provider is healthy and its circuit breaker lets calls through
+     */
+    private boolean isRoutable(AIProvider provider) {
+        return healthRegistry.isAvailable(provider) && circuitBreakers.isCallPermitted(provider.getName());
+    }
+
+    /**
+     * Send a call to the primary provider, failing over to the others in routing order
+     * @param call the provider invocation
+     * @param canFailover checked after each failure; false stops further attempts
+     * @param timed whether call latency is meaningful for slow-call detection (false for streams)
+     */
+    private AIResponse route(AIRequest request, BiFunction<AIProvider, AIRequest, AIResponse> call, BooleanSupplier canFailover,
+                             boolean timed) {
+        AIProvider primaryProvider = getPrimaryProvider();
+
+        if (primaryProvider == null) {
+            log.error("No AI provider available");
+            return AIResponse.failure("gateway", "No AI provider is available");
+        }
+
+        // Try primary provider first
+        log.debug("Attempting generation with primary provider: {}", primaryProvider.getName());
+        AIResponse response = invoke(primaryProvider, request, call, timed);
 
-        if (defaultProvider.isPresent()) {
-            return defaultProvider.get();
+        if (response != null) {
+            if (response.isSuccess()) {
+                return response;
+            }
+
+            log.warn("Primary provider {} failed: {}", primaryProvider.getName(), response.getErrorMessage());
+            if (!canFailover.getAsBoolean()) {
+                return response;
+            }
         }
 
-        // Fall back to any available provider, sorted by priority
-        return providers.stream()
-                .filter(AIProvider::isAvailable)
-                .min(Comparator.comparingInt(AIProvider::getPriority))
-                .orElse(null);
+        // Failover to other providers
+        return attemptFailover(Set.of(primaryProvider.getName()), request, call, canFailover, timed);
     }
 
     /**
      * Attempt failover to other available providers
      */
-    private AIResponse attemptFailover(AIRequest request, AIProvider failedProvider) {
-        List<AIProvider> fallbackProviders = providers.stream()
-                .filter(p -> !p.getName().equals(failedProvider.getName()))
-                .filter(AIProvider::isAvailable)
-                .sorted(Comparator.comparingInt(AIProvider::getPriority))
-                .toList();
+    private AIResponse attemptFailover(Set<String> attempted, AIRequest request, BiFunction<AIProvider, AIRequest, AIResponse> call,
+                                       BooleanSupplier canFailover, boolean timed) {
+        List<AIProvider> fallbackProviders = rankProviders(attempted);
 
         for (AIProvider fallback : fallbackProviders) {
             log.info("Attempting failover to provider: {}", fallback.getName());
-            
-            try {
-                AIResponse response = fallback.generate(request);
-                if (response.isSuccess()) {
-                    log.info("Failover to {} successful", fallback.getName());
-                    return response;
-                }
-                log.warn("Failover provider {} failed: {}", fallback.getName(), response.getErrorMessage());
-            } catch (Exception e) {
-                log.warn("Failover provider {} threw exception: {}", fallback.getName(), e.getMessage());
+
+            AIResponse response = invoke(fallback, request, call, timed);
+            if (response == null) {
+                continue;
+            }
+            if (response.isSuccess()) {
+                log.info("Failover to {} successful", fallback.getName());
+                return response;
+            }
+            log.warn("Failover provider {} failed: {}", fallback.getName(), response.getErrorMessage());
+
+            if (!canFailover.getAsBoolean()) {
+                log.warn("Stopping failover, provider {} already streamed partial output", fallback.getName());
+                return AIResponse.failure(fallback.getName(), "Stream interrupted after partial output");
             }
         }
 
@@ -130,6 +309,294 @@ public class AIGatewayImpl implements AIGateway {
         return AIResponse.failure("gateway", "All AI providers failed to generate response");
     }
 
+    /**
+     * Route a non-streaming call, racing a second provider when the primary is slower than its
+     * usual latency percentile for the request's feature; the first success wins and the slower call is
+     * aborted, closing its HTTP connection. The feature is charged for the extra call against its hedging budget
+     */
+    private AIResponse routeHedged(AIRequest request, BiFunction<AIProvider, AIRequest, AIResponse> call) {
+        String feature = request.getFeature();
+        AIProviderConfig.HedgingSettings settings = config.getHedging();
+        List<AIProvider> ranked = rankProviders(Set.of());
+        AIProvider primary = ranked.isEmpty() ? null : ranked.get(0);
+        AIProvider secondary = ranked.size() < 2 ? null : ranked.get(1);
+
+        // Without a second provider or enough latency history there is nothing to hedge against
+        if (secondary == null || latencyTracker.getSampleCount(primary.getName(), feature) < settings.getMinSamples()) {
+            return route(request, call, () -> true, true);
+        }
+
+        hedgeBudget.deposit(feature);
+        long hedgeDelay = Math.max(settings.getMinDelay(),
+                latencyTracker.getPercentile(primary.getName(), feature, settings.getPercentile()));
+
+        CompletableFuture<AIResponse> winner = new CompletableFuture<>();
+        AtomicInteger pending = new AtomicInteger(1);
+        Contestant primaryTask = race(primary, request, call, winner, pending);
+        Contestant hedgeTask = null;
+
+        AIResponse response;
+        try {
+            response = winner.get(hedgeDelay, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            if (hedgeBudget.tryWithdraw(feature)) {
+                log.debug("Primary provider {} slower than p{} ({}ms), hedging to {}",
+                        primary.getName(), settings.getPercentile(), hedgeDelay, secondary.getName());
+                pending.incrementAndGet();
+                hedgeTask = race(secondary, request, call, winner, pending);
+            } else {
+                log.debug("Hedging budget for feature {} exhausted, waiting for {}", feature, primary.getName());
+            }
+            response = awaitWinner(winner);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            response = AIResponse.failure("gateway", "Interrupted while waiting for AI provider");
+        } catch (ExecutionException e) {
+            response = AIResponse.failure("gateway", e.getCause().getMessage());
+        }
+
+        primaryTask.abort();
+        if (hedgeTask != null) {
+            hedgeTask.abort();
+        }
+
+        if (response.isSuccess()) {
+            return response;
+        }
+
+        log.warn("Hedged call via {} failed: {}", primary.getName(), response.getErrorMessage());
+        Set<String> attempted = hedgeTask != null
+                ? Set.of(primary.getName(), secondary.getName())
+                : Set.of(primary.getName());
+        return attemptFailover(attempted, request, call, () -> true, true);
+    }
+
+    /**
+     * Run one contestant of a hedged race on the AI executor
+     * Completes the winner with the first success, or with the last failure once every contestant failed
+     */
+    private Contestant race(AIProvider provider, AIRequest request, BiFunction<AIProvider, AIRequest, AIResponse> call,
+                            CompletableFuture<AIResponse> winner, AtomicInteger pending) {
+        AbortSignal signal = new AbortSignal();
+        Future<?> task = taskExecutor.submit(() -> {
+            AIResponse response = null;
+            try {
+                response = signal.run(() -> invoke(provider, request, call, true, winner::isDone));
+            } finally {
+                if (response != null && response.isSuccess()) {
+                    winner.complete(response);
+                } else if (pending.decrementAndGet() == 0) {
+                    winner.complete(response != null ? response
+                            : AIResponse.failure(provider.getName(), "Circuit breaker or quota rejected the call"));
+                }
+            }
+        });
+        return new Contestant(task, signal);
+    }
+
+    /**
+     * A running call of a hedged race
+     */
+    private record Contestant(Future<?> task, AbortSignal signal) {
+
+        /**
+         * Stop the call if it is still running; blocking reads only end once its connection is closed
+         */
+        void abort() {
+            if (!task.isDone()) {
+                signal.abort();
+                task.cancel(true);
+            }
+        }
+    }
+
+    private AIResponse awaitWinner(CompletableFuture<AIResponse> winner) {
+        try {
+            return winner.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return AIResponse.failure("gateway", "Interrupted while waiting for AI provider");
+        } catch (ExecutionException e) {
+            return AIResponse.failure("gateway", e.getCause().getMessage());
+        }
+    }
+
+    /**
+     * Call a provider through its circuit breaker and record the outcome
+     * @return the provider response, or null if the breaker rejected the call
+     */
+    private AIResponse invoke(AIProvider provider, AIRequest request, BiFunction<AIProvider, AIRequest, AIResponse> call,
+                              boolean timed) {
+        return invoke(provider, request, call, timed, () -> false);
+    }
+
+    /**
+     * Call a provider through its circuit breaker and quota, and record the outcome
+     * The request is first given the provider model for its task class and fitted into that model's context window
+     * @param abandoned true once nobody waits for the result; the outcome is then not recorded
+     * @return the provider response, or null if the breaker or quota rejected the call
+     */
+    private AIResponse invoke(AIProvider provider, AIRequest request, BiFunction<AIProvider, AIRequest, AIResponse> call,
+                              boolean timed, BooleanSupplier abandoned) {
+        String name = provider.getName();
+        AIRequest selected = modelSelector.select(name, request);
+        // Replays are keyed by the request before fitting, the form recorded below, and have no window to fit
+        AIRequest fitted = provider instanceof ReplayProvider ? selected : fitToContext(name, selected);
+        if (fitted == null) {
+            return AIResponse.failure(name, "Prompt exceeds the context window of provider " + name);
+        }
+
+        if (!circuitBreakers.tryAcquire(name)) {
+            log.debug("Circuit breaker for provider {} is open, skipping", name);
+            return null;
+        }
+
+        // Providers count the reply limit against tokens/min, so reserve it and settle with the real usage
+        int rawPromptTokens = tokenEstimator.estimate(fitted);
+        int estimatedTokens = (int) Math.ceil(rawPromptTokens * tokenEstimator.getCalibration(name))
+                + (fitted.getMaxTokens() != null ? fitted.getMaxTokens() : 0);
+        if (!acquireQuota(name, estimatedTokens)) {
+            circuitBreakers.onIgnored(name);
+            return null;
+        }
+
+        router.onStart(name);
+        long start = System.currentTimeMillis();
+        AIResponse response;
+        try {
+            response = call.apply(provider, fitted);
+        } catch (UncheckedIOException e) {
+            // The caller went away mid-stream: the provider is not at fault, and the tokens it already
+            // generated stay charged against its quota
+            circuitBreakers.onIgnored(name);
+            router.onAbandoned(name);
+            throw e;
+        } catch (Exception e) {
+            log.warn("Provider {} threw exception: {}", name, e.getMessage());
+            response = AIResponse.failure(name, e.getMessage());
+        }
+        long latency = System.currentTimeMillis() - start;
+        if (abandoned.getAsBoolean() && !response.isSuccess()) {
+            // An aborted hedge may have been billed upstream for part of the reply, keep its reservation
+            log.debug("Abandoned call to provider {} ended: {}", name, response.getErrorMessage());
+        } else {
+            quotaLimiter.settle(name, estimatedTokens, response);
+        }
+        if (response.isSuccess() && response.getUsage() != null && response.getUsage().getPromptTokens() != null) {
+            tokenEstimator.observe(name, rawPromptTokens, response.getUsage().getPromptTokens());
+        }
+        usageMeter.record(request, name, response, estimatedTokens);
+        if (replayLog.isRecording() && !(provider instanceof ReplayProvider)) {
+            replayLog.record(request, response, latency);
+        }
+
+        if (abandoned.getAsBoolean()) {
+            // A cancelled hedge says nothing about the provider's health
+            circuitBreakers.onIgnored(name);
+            router.onAbandoned(name);
+        } else if (response.isSuccess()) {
+            circuitBreakers.onSuccess(name, timed ? latency : -1);
+            router.onComplete(name, true, timed ? latency : -1);
+            if (timed) {
+                latencyTracker.record(name, request.getFeature(), latency);
+            }
+        } else {
+            circuitBreakers.onFailure(name);
+            router.onComplete(name, false, -1);
+        }
+        return response;
+    }
+
+    /**
+     * Fit a request into a provider's context window
+     * The oldest history messages are dropped first, then maxTokens is lowered to the room left. A request
+     * without maxTokens leaves the reply length to the provider and only needs room for a minimal reply
+     * @return the request to send, or null if the prompt leaves too little room for a reply even after trimming
+     */
+    private AIRequest fitToContext(String providerName, AIRequest request) {
+        int window = config.getProviderSettings(providerName).contextWindowOf(request.getModel());
+        if (window <= 0) {
+            return request;
+        }
+
+        double calibration = tokenEstimator.getCalibration(providerName);
+        int promptTokens = tokenEstimator.estimate(providerName, request);
+        Integer maxTokens = request.getMaxTokens();
+        int replyRoom = maxTokens != null ? maxTokens : MIN_REPLY_TOKENS;
+        if (promptTokens + replyRoom <= window) {
+            return request;
+        }
+
+        // Drop history from the oldest end, always keeping the newest message
+        List<AIRequest.Message> messages = request.getMessages() != null ? request.getMessages() : List.of();
+        int dropped = 0;
+        while (promptTokens + replyRoom > window && messages.size() - dropped > 1) {
+            promptTokens -= (int) (tokenEstimator.estimate(messages.get(dropped)) * calibration);
+            dropped++;
+        }
+
+        int replyTokens = Math.min(replyRoom, window - promptTokens);
+        if (replyTokens < Math.min(replyRoom, MIN_REPLY_TOKENS)) {
+            log.warn("Prompt of ~{} tokens does not fit the {}-token context window of provider {}",
+                    promptTokens, window, providerName);
+            return null;
+        }
+
+        log.info("Fitted request to provider {} context window: dropped {} messages, maxTokens {} -> {}",
+                providerName, dropped, maxTokens, maxTokens != null ? replyTokens : null);
+        return request.toBuilder()
+                .messages(messages.subList(dropped, messages.size()))
+                .maxTokens(maxTokens != null ? replyTokens : null)
+                .build();
+    }
+
+    private AIResponse laneShed(AIRequest request, RequestLane lane) {
+        log.info("Shed request of feature {} from the {} lane", request.getFeature(), lane);
+        return AIResponse.failure("gateway", "AI service is busy, please try again shortly");
+    }
+
+    private AIResponse budgetExhausted(AIRequest request) {
+        log.info("Daily token budget of user {} exhausted, rejecting {} request",
+                request.getUserId(), request.getFeature());
+        return AIResponse.failure("gateway", "Daily AI token budget exhausted, please try again tomorrow");
+    }
+
+    /**
+     * Take quota for a call, waiting briefly if it frees up soon
+     * @return false if the provider's quota is exhausted and the call should go elsewhere
+     */
+    private boolean acquireQuota(String providerName, int estimatedTokens) {
+        long wait = quotaLimiter.tryAcquire(providerName, estimatedTokens);
+        if (wait == 0) {
+            return true;
+        }
+
+        if (wait <= config.getQuota().getMaxWait()) {
+            try {
+                Thread.sleep(wait);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+            wait = quotaLimiter.tryAcquire(providerName, estimatedTokens);
+            if (wait == 0) {
+                return true;
+            }
+        }
+
+        log.info("Quota of provider {} exhausted for another {}ms, skipping", providerName, wait);
+        return false;
+    }
+
+    /**
+     * Copy a request with the given context prepended to its messages
+     */
+    private AIRequest withContext(AIRequest request, List<AIRequest.Message> context) {
+        return request.toBuilder()
+                .messages(mergeMessages(context, request.getMessages()))
+                .build();
+    }
+
     /**
      * Merge context messages with request messages
      */
@@ -0,0 +1,36 @@
+package com.llmplatform.ai.health;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Snapshot of a provider's health, replaced as a whole after every probe
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProviderHealth {
+
+    private ProviderHealthStatus status;
+
+    /** Duration of the last probe in milliseconds */
+    private long latencyMs;
+
+    private int consecutiveFailures;
+
+    /** Reason for the last failure, null when healthy */
+    private String message;
+
+    private LocalDateTime lastCheckedAt;
+
+    private LocalDateTime lastChangedAt;
+
+    public boolean isRoutable() {
+        return status == ProviderHealthStatus.UP || status == ProviderHealthStatus.DEGRADED;
+    }
+}
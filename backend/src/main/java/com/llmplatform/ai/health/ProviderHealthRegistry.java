@@ -0,0 +1,167 @@
+package com.llmplatform.ai.health;
+
+import com.llmplatform.ai.config.AIProviderConfig;
+import com.llmplatform.ai.provider.AIProvider;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Tracks provider health from periodic background probes
+ * Routing reads the cached state in O(1) instead of calling out to providers on the request path
+ */
+@Slf4j
+@Component
+public class ProviderHealthRegistry {
+
+    private final AIProviderConfig config;
+    private final List<AIProvider> providers;
+    private final Map<String, ProviderHealth> states = new ConcurrentHashMap<>();
+    private final ExecutorService probeExecutor;
+
+    public ProviderHealthRegistry(AIProviderConfig config, List<AIProvider> providers) {
+        this.config = config;
+        this.providers = providers;
+
+        AtomicInteger threadCount = new AtomicInteger();
+        this.probeExecutor = Executors.newFixedThreadPool(Math.max(1, providers.size() * 2), runnable -> {
+            Thread thread = new Thread(runnable, "ai-health-probe-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Check whether a provider may receive requests
+     * Providers that have not been probed yet fall back to their configuration check
+     */
+    public boolean isAvailable(AIProvider provider) {
+        ProviderHealth health = states.get(provider.getName());
+        if (health == null || health.getStatus() == ProviderHealthStatus.UNKNOWN) {
+            return provider.isAvailable();
+        }
+        return health.isRoutable();
+    }
+
+    /**
+     * Get the current health snapshot of every provider, keyed by provider name
+     */
+    public Map<String, ProviderHealth> getHealth() {
+        Map<String, ProviderHealth> snapshot = new TreeMap<>();
+        for (AIProvider provider : providers) {
+            snapshot.put(provider.getName(), states.getOrDefault(provider.getName(),
+                    ProviderHealth.builder().status(ProviderHealthStatus.UNKNOWN).build()));
+        }
+        return snapshot;
+    }
+
+    /**
+     * Probe all providers in parallel; a hung provider only delays its own result
+     * Probes still running at the probe timeout count as failed and are interrupted, their HTTP client
+     * gives up at the same timeout
+     */
+    @Scheduled(initialDelay = 0, fixedDelayString = "${ai.gateway.health.probe-interval:15000}")
+    public void probeAll() {
+        AIProviderConfig.HealthSettings settings = config.getHealth();
+        Map<AIProvider, Future<Long>> inFlight = new LinkedHashMap<>();
+
+        for (AIProvider provider : providers) {
+            if (!provider.isAvailable()) {
+                recordFailure(provider.getName(), 1, 0, "Provider is disabled or not configured");
+            } else {
+                inFlight.put(provider, probeExecutor.submit(() -> timedProbe(provider)));
+            }
+        }
+
+        long deadline = System.currentTimeMillis() + settings.getProbeTimeout();
+        for (Map.Entry<AIProvider, Future<Long>> entry : inFlight.entrySet()) {
+            String name = entry.getKey().getName();
+            long remaining = Math.max(0, deadline - System.currentTimeMillis());
+            try {
+                Long latency = entry.getValue().get(remaining, TimeUnit.MILLISECONDS);
+                if (latency == null) {
+                    recordFailure(name, settings.getFailureThreshold(), 0, "Probe failed");
+                } else {
+                    ProviderHealthStatus status = latency > settings.getDegradedLatency()
+                            ? ProviderHealthStatus.DEGRADED
+                            : ProviderHealthStatus.UP;
+                    record(name, status, latency, 0, null);
+                }
+            } catch (TimeoutException e) {
+                entry.getValue().cancel(true);
+                recordFailure(name, settings.getFailureThreshold(), settings.getProbeTimeout(),
+                        "Probe timed out after " + settings.getProbeTimeout() + "ms");
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                inFlight.values().forEach(probe -> probe.cancel(true));
+                return;
+            } catch (ExecutionException e) {
+                recordFailure(name, settings.getFailureThreshold(), 0,
+                        "Probe threw exception: " + e.getCause().getMessage());
+            }
+        }
+    }
+
+    /**
+     * Run a provider probe
+     * @return probe duration in milliseconds, or null if the provider is unreachable
+     */
+    private Long timedProbe(AIProvider provider) {
+        long start = System.currentTimeMillis();
+        boolean reachable = provider.probe();
+        return reachable ? System.currentTimeMillis() - start : null;
+    }
+
+    /**
+     * A single failed probe only degrades the provider, repeated failures take it out of rotation
+     */
+    private void recordFailure(String name, int failureThreshold, long latencyMs, String message) {
+        ProviderHealth previous = states.get(name);
+        int failures = (previous != null ? previous.getConsecutiveFailures() : 0) + 1;
+        ProviderHealthStatus status = failures >= failureThreshold
+                ? ProviderHealthStatus.DOWN
+                : ProviderHealthStatus.DEGRADED;
+        record(name, status, latencyMs, failures, message);
+    }
+
+    private void record(String name, ProviderHealthStatus status, long latencyMs, int failures, String message) {
+        LocalDateTime now = LocalDateTime.now();
+        ProviderHealth previous = states.get(name);
+        boolean changed = previous == null || previous.getStatus() != status;
+
+        states.put(name, ProviderHealth.builder()
+                .status(status)
+                .latencyMs(latencyMs)
+                .consecutiveFailures(failures)
+                .message(message)
+                .lastCheckedAt(now)
+                .lastChangedAt(changed ? now : previous.getLastChangedAt())
+                .build());
+
+        if (changed) {
+            log.info("Provider {} health changed: {} -> {}{}", name,
+                    previous != null ? previous.getStatus() : ProviderHealthStatus.UNKNOWN, status,
+                    message != null ? " (" + message + ")" : "");
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        probeExecutor.shutdownNow();
+    }
+}
@@ -0,0 +1,15 @@
+package com.llmplatform.ai.health;
+
+/**
+ * Health state of an AI provider as seen by the background prober
+ */
+public enum ProviderHealthStatus {
+    /** Not probed yet; routing falls back to the provider's configuration check */
+    UNKNOWN,
+    /** Last probe answered within the latency threshold */
+    UP,
+    /** Reachable but slow, or failing below the DOWN threshold; still routable */
+    DEGRADED,
+    /** Disabled, unconfigured or failing repeatedly; skipped by routing */
+    DOWN
+}
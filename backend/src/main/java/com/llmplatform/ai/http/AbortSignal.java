@@ -0,0 +1,64 @@
+package com.llmplatform.ai.http;
+
+import org.apache.hc.core5.concurrent.Cancellable;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Lets another thread abort the provider HTTP exchanges of a call
+ * Interrupting a thread does not unblock a socket read, so a call that lost a hedged race would otherwise
+ * run to completion upstream. Requests created by the provider clients while a signal is bound to the
+ * current thread register with it, and {@link #abort} closes their connections
+ */
+public final class AbortSignal {
+
+    private static final ThreadLocal<AbortSignal> CURRENT = new ThreadLocal<>();
+
+    private final Set<Cancellable> requests = ConcurrentHashMap.newKeySet();
+    private volatile boolean aborted;
+
+    /**
+     * Run a call with this signal bound to the current thread
+     */
+    public <T> T run(Supplier<T> call) {
+        AbortSignal previous = CURRENT.get();
+        CURRENT.set(this);
+        try {
+            return call.get();
+        } finally {
+            if (previous != null) {
+                CURRENT.set(previous);
+            } else {
+                CURRENT.remove();
+            }
+        }
+    }
+
+    /**
+     * Abort the exchanges in flight and any the call starts afterwards
+     */
+    public void abort() {
+        aborted = true;
+        requests.forEach(Cancellable::cancel);
+    }
+
+    public boolean isAborted() {
+        return aborted;
+    }
+
+    /**
+     * Register a request with the signal bound to the current thread, if any
+     */
+    static void register(Cancellable request) {
+        AbortSignal signal = CURRENT.get();
+        if (signal == null) {
+            return;
+        }
+        signal.requests.add(request);
+        if (signal.aborted) {
+            request.cancel();
+        }
+    }
+}
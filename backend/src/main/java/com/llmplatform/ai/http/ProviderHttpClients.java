@@ -0,0 +1,161 @@
+package com.llmplatform.ai.http;
+
+import com.llmplatform.ai.config.AIProviderConfig;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.concurrent.Cancellable;
+import org.apache.hc.core5.http.ClassicHttpRequest;
+import org.apache.hc.core5.pool.PoolStats;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.IOException;
+import java.net.URI;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Shared HTTP layer for AI providers
+ * Each provider gets its own pooled, keep-alive Apache HttpClient so bursts of AI traffic reuse
+ * established TCP/TLS connections, and connect/read deadlines come from the provider settings
+ * Health probes get a separate small client bounded by the probe timeout, so a hung provider cannot hold
+ * a probe for the full request timeout or take connections from real traffic
+ */
+@Slf4j
+@Component
+public class ProviderHttpClients {
+
+    private static final TimeValue CONNECTION_TTL = TimeValue.ofMinutes(5);
+    private static final TimeValue IDLE_EVICTION = TimeValue.ofSeconds(30);
+    private static final int PROBE_CONNECTIONS = 2;
+
+    private final AIProviderConfig config;
+    private final Map<String, PooledClient> clients = new ConcurrentHashMap<>();
+    private final Map<String, PooledClient> probeClients = new ConcurrentHashMap<>();
+
+    public ProviderHttpClients(AIProviderConfig config) {
+        this.config = config;
+    }
+
+    /**
+     * Get the RestTemplate bound to the connection pool of a provider
+     * @param providerName provider name as used in ai.gateway.providers
+     * @return shared RestTemplate for that provider
+     */
+    public RestTemplate restTemplate(String providerName) {
+        return clients.computeIfAbsent(providerName, this::createClient).restTemplate();
+    }
+
+    /**
+     * Get the RestTemplate used to probe a provider's health
+     * @param providerName provider name as used in ai.gateway.providers
+     * @return RestTemplate whose connect and read deadlines are the health probe timeout
+     */
+    public RestTemplate probeRestTemplate(String providerName) {
+        return probeClients.computeIfAbsent(providerName, this::createProbeClient).restTemplate();
+    }
+
+    /**
+     * Snapshot of the connection pool of every provider client created so far
+     * @return pool statistics keyed by provider name
+     */
+    public Map<String, ProviderPoolStats> getPoolStats() {
+        Map<String, ProviderPoolStats> stats = new TreeMap<>();
+        clients.forEach((name, client) -> {
+            PoolStats total = client.connectionManager().getTotalStats();
+            stats.put(name, ProviderPoolStats.builder()
+                    .leased(total.getLeased())
+                    .pending(total.getPending())
+                    .idle(total.getAvailable())
+                    .max(total.getMax())
+                    .build());
+        });
+        return stats;
+    }
+
+    @PreDestroy
+    public void close() {
+        close(clients);
+        close(probeClients);
+    }
+
+    private void close(Map<String, PooledClient> pooledClients) {
+        pooledClients.forEach((name, client) -> {
+            try {
+                client.httpClient().close();
+            } catch (IOException e) {
+                log.warn("Failed to close HTTP client for provider {}: {}", name, e.getMessage());
+            }
+        });
+        pooledClients.clear();
+    }
+
+    private PooledClient createClient(String providerName) {
+        AIProviderConfig.ProviderSettings settings = config.getProviderSettings(providerName);
+
+        log.info("Created HTTP pool for provider {}: maxConnections={}, connectTimeout={}ms, readTimeout={}ms",
+                providerName, settings.getMaxConnections(), settings.getConnectTimeout(), settings.getTimeout());
+
+        return createClient(settings.getMaxConnections(), settings.getConnectTimeout(), settings.getTimeout(),
+                settings.getConnectionRequestTimeout());
+    }
+
+    private PooledClient createProbeClient(String providerName) {
+        long probeTimeout = config.getHealth().getProbeTimeout();
+        return createClient(PROBE_CONNECTIONS, probeTimeout, probeTimeout, probeTimeout);
+    }
+
+    private PooledClient createClient(int maxConnections, long connectTimeout, long timeout,
+                                      long connectionRequestTimeout) {
+        PoolingHttpClientConnectionManager connectionManager = PoolingHttpClientConnectionManagerBuilder.create()
+                .setDefaultConnectionConfig(ConnectionConfig.custom()
+                        .setConnectTimeout(Timeout.ofMilliseconds(connectTimeout))
+                        .setSocketTimeout(Timeout.ofMilliseconds(timeout))
+                        .setTimeToLive(CONNECTION_TTL)
+                        .build())
+                .setMaxConnTotal(maxConnections)
+                .setMaxConnPerRoute(maxConnections)
+                .build();
+
+        // Response timeout bounds the wait for each read, so streamed replies stay alive while tokens flow
+        RequestConfig requestConfig = RequestConfig.custom()
+                .setConnectionRequestTimeout(Timeout.ofMilliseconds(connectionRequestTimeout))
+                .setResponseTimeout(Timeout.ofMilliseconds(timeout))
+                .build();
+
+        CloseableHttpClient httpClient = HttpClients.custom()
+                .setConnectionManager(connectionManager)
+                .setDefaultRequestConfig(requestConfig)
+                .evictExpiredConnections()
+                .evictIdleConnections(IDLE_EVICTION)
+                .build();
+
+        RestTemplate restTemplate = new RestTemplate(new HttpComponentsClientHttpRequestFactory(httpClient) {
+            @Override
+            protected ClassicHttpRequest createHttpUriRequest(HttpMethod httpMethod, URI uri) {
+                ClassicHttpRequest request = super.createHttpUriRequest(httpMethod, uri);
+                if (request instanceof Cancellable cancellable) {
+                    AbortSignal.register(cancellable);
+                }
+                return request;
+            }
+        });
+        return new PooledClient(restTemplate, httpClient, connectionManager);
+    }
+
+    private record PooledClient(RestTemplate restTemplate,
+                                CloseableHttpClient httpClient,
+                                PoolingHttpClientConnectionManager connectionManager) {
+    }
+}
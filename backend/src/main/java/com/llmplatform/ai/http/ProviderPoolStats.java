@@ -0,0 +1,36 @@
+package com.llmplatform.ai.http;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Connection pool statistics of a provider HTTP client
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProviderPoolStats {
+
+    /**
+     * Connections currently in use by a request
+     */
+    private int leased;
+
+    /**
+     * Requests waiting for a connection
+     */
+    private int pending;
+
+    /**
+     * Open keep-alive connections ready for reuse
+     */
+    private int idle;
+
+    /**
+     * Maximum connections allowed in the pool
+     */
+    private int max;
+}
@@ -0,0 +1,224 @@
+package com.llmplatform.ai.lane;
+
+import com.llmplatform.ai.config.AIProviderConfig;
+import com.llmplatform.ai.dto.AIFeature;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Admits gateway calls through per-lane bulkheads sharing one overall concurrency limit
+ * Free slots go to the highest-priority lane with waiters. Each lane caps its own calls in flight
+ * and its queue; a request that finds its queue full or waits longer than the lane allows is shed.
+ * Queued background requests give up as soon as a higher lane is waiting for room, so bulk
+ * generation never delays a live conversation
+ */
+@Slf4j
+@Component
+public class LaneScheduler {
+
+    private final AIProviderConfig config;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Map<RequestLane, LaneState> states = new EnumMap<>(RequestLane.class);
+    private int inFlight;
+
+    public LaneScheduler(AIProviderConfig config) {
+        this.config = config;
+        for (RequestLane lane : RequestLane.values()) {
+            states.put(lane, new LaneState(lock.newCondition()));
+        }
+    }
+
+    /**
+     * Get the lane of a request from its feature tag
+     */
+    public RequestLane classify(String feature) {
+        return RequestLane.fromName(config.getLanes().getFeatures().get(feature != null ? feature : AIFeature.DEFAULT));
+    }
+
+    /**
+     * Take a slot in the lane, waiting up to the lane's maxWait
+     * @return true if admitted, to be paired with release; false if the request was shed
+     */
+    public boolean tryAcquire(RequestLane lane) {
+        if (!config.getLanes().isEnabled()) {
+            return true;
+        }
+        AIProviderConfig.LaneLimits limits = limits(lane);
+        LaneState state = states.get(lane);
+        long start = System.nanoTime();
+
+        lock.lock();
+        try {
+            if (state.queued == 0 && canAdmit(lane)) {
+                admit(lane, start);
+                return true;
+            }
+            if (state.queued >= limits.getMaxQueue() || (lane == RequestLane.BACKGROUND && higherLaneWaiting(lane))) {
+                return shed(lane, "queue full or higher lane waiting");
+            }
+
+            state.queued++;
+            if (lane != RequestLane.BACKGROUND) {
+                // Let queued background requests see that they are in the way
+                states.get(RequestLane.BACKGROUND).slotFreed.signalAll();
+            }
+            try {
+                long remaining = TimeUnit.MILLISECONDS.toNanos(limits.getMaxWait());
+                while (true) {
+                    if (lane == RequestLane.BACKGROUND && higherLaneWaiting(lane)) {
+                        return shed(lane, "preempted by a higher lane");
+                    }
+                    if (canAdmit(lane)) {
+                        admit(lane, start);
+                        return true;
+                    }
+                    if (remaining <= 0) {
+                        return shed(lane, "wait timed out");
+                    }
+                    remaining = state.slotFreed.awaitNanos(remaining);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return shed(lane, "interrupted");
+            } finally {
+                state.queued--;
+                if (state.queued == 0) {
+                    // Lower lanes may have been holding back for this lane's waiters
+                    signalWaiters();
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Return a slot taken with tryAcquire
+     */
+    public void release(RequestLane lane) {
+        if (!config.getLanes().isEnabled()) {
+            return;
+        }
+        lock.lock();
+        try {
+            LaneState state = states.get(lane);
+            state.inFlight = Math.max(0, state.inFlight - 1);
+            inFlight = Math.max(0, inFlight - 1);
+            signalWaiters();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Snapshot of every lane, highest priority first
+     */
+    public Map<RequestLane, LaneStats> getStats() {
+        Map<RequestLane, LaneStats> stats = new LinkedHashMap<>();
+        lock.lock();
+        try {
+            for (RequestLane lane : RequestLane.values()) {
+                LaneState state = states.get(lane);
+                AIProviderConfig.LaneLimits limits = limits(lane);
+                stats.put(lane, LaneStats.builder()
+                        .inFlight(state.inFlight)
+                        .queued(state.queued)
+                        .maxConcurrent(limits.getMaxConcurrent())
+                        .maxQueue(limits.getMaxQueue())
+                        .admitted(state.admitted)
+                        .shed(state.shed)
+                        .averageWaitMs(state.admitted > 0
+                                ? state.totalWaitNanos / 1_000_000.0 / state.admitted : 0)
+                        .maxWaitMs(TimeUnit.NANOSECONDS.toMillis(state.maxWaitNanos))
+                        .build());
+            }
+        } finally {
+            lock.unlock();
+        }
+        return stats;
+    }
+
+    /**
+     * Whether the lane may start a call now: overall and lane limits leave room and no higher lane
+     * is waiting for that room
+     */
+    private boolean canAdmit(RequestLane lane) {
+        return inFlight < config.getLanes().getMaxConcurrent()
+                && states.get(lane).inFlight < limits(lane).getMaxConcurrent()
+                && !higherLaneWaiting(lane);
+    }
+
+    /**
+     * Whether a higher lane has waiters held back only by the overall limit
+     */
+    private boolean higherLaneWaiting(RequestLane lane) {
+        for (RequestLane higher : RequestLane.values()) {
+            if (higher.ordinal() >= lane.ordinal()) {
+                return false;
+            }
+            LaneState state = states.get(higher);
+            if (state.queued > 0 && state.inFlight < limits(higher).getMaxConcurrent()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Wake every waiting caller to re-check admission; called with the lock held
+     */
+    private void signalWaiters() {
+        for (LaneState waiting : states.values()) {
+            if (waiting.queued > 0) {
+                waiting.slotFreed.signalAll();
+            }
+        }
+    }
+
+    private void admit(RequestLane lane, long start) {
+        LaneState state = states.get(lane);
+        long waited = System.nanoTime() - start;
+        state.inFlight++;
+        state.admitted++;
+        state.totalWaitNanos += waited;
+        state.maxWaitNanos = Math.max(state.maxWaitNanos, waited);
+        inFlight++;
+    }
+
+    private boolean shed(RequestLane lane, String reason) {
+        states.get(lane).shed++;
+        log.debug("Shed {} AI request: {}", lane, reason);
+        return false;
+    }
+
+    private AIProviderConfig.LaneLimits limits(RequestLane lane) {
+        AIProviderConfig.LaneSettings settings = config.getLanes();
+        return switch (lane) {
+            case INTERACTIVE -> settings.getInteractive();
+            case STANDARD -> settings.getStandard();
+            case BACKGROUND -> settings.getBackground();
+        };
+    }
+
+    private static final class LaneState {
+
+        private final Condition slotFreed;
+        private int inFlight;
+        private int queued;
+        private long admitted;
+        private long shed;
+        private long totalWaitNanos;
+        private long maxWaitNanos;
+
+        private LaneState(Condition slotFreed) {
+            this.slotFreed = slotFreed;
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.llmplatform.ai.lane;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Point-in-time view of one priority lane
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class LaneStats {
+
+    private int inFlight;
+
+    /** Callers currently waiting for a slot */
+    private int queued;
+
+    private int maxConcurrent;
+
+    private int maxQueue;
+
+    /** Calls admitted since startup */
+    private long admitted;
+
+    /** Calls shed since startup because the queue was full, the wait timed out or a higher lane needed room */
+    private long shed;
+
+    /** Average time admitted calls waited for a slot */
+    private double averageWaitMs;
+
+    /** Longest time an admitted call waited for a slot */
+    private long maxWaitMs;
+}
@@ -0,0 +1,27 @@
+package com.llmplatform.ai.lane;
+
+/**
+ * Priority lanes of gateway traffic, highest priority first
+ */
+public enum RequestLane {
+    /** A user is waiting on the reply, e.g. a live dialogue turn */
+    INTERACTIVE,
+    /** User-triggered generation that tolerates some delay */
+    STANDARD,
+    /** Bulk or prefetch generation; shed first under pressure */
+    BACKGROUND;
+
+    /**
+     * Resolve a configured lane name, falling back to STANDARD for unknown names
+     */
+    public static RequestLane fromName(String name) {
+        if (name != null) {
+            for (RequestLane lane : values()) {
+                if (lane.name().equalsIgnoreCase(name)) {
+                    return lane;
+                }
+            }
+        }
+        return STANDARD;
+    }
+}
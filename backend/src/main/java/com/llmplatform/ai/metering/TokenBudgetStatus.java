@@ -0,0 +1,30 @@
+package com.llmplatform.ai.metering;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+/**
+ * A user's token spend against the daily budget
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TokenBudgetStatus {
+
+    private Long userId;
+
+    private LocalDate date;
+
+    private long usedTokens;
+
+    /** Daily budget, 0 for unlimited */
+    private long dailyBudget;
+
+    /** Tokens left today, -1 when unlimited */
+    private long remainingTokens;
+}
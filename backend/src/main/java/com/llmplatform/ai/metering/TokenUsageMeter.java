@@ -0,0 +1,264 @@
+package com.llmplatform.ai.metering;
+
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.baomidou.mybatisplus.core.conditions.update.LambdaUpdateWrapper;
+import com.llmplatform.ai.config.AIProviderConfig;
+import com.llmplatform.ai.dto.AIFeature;
+import com.llmplatform.ai.dto.AIRequest;
+import com.llmplatform.ai.dto.AIResponse;
+import com.llmplatform.entity.AiTokenUsage;
+import com.llmplatform.mapper.AiTokenUsageMapper;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Meters provider token usage by day, user, provider, model and feature
+ * Calls only bump in-memory atomic counters; a scheduled flush moves the deltas to MySQL for
+ * reporting and to per-user daily counters in Redis, which all instances read for budget checks
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class TokenUsageMeter {
+
+    private static final String USER_DAY_PREFIX = "ai:usage:user:";
+    private static final long USER_DAY_TTL_HOURS = 48;
+    private static final long SYSTEM_USER_ID = 0L;
+
+    private final AIProviderConfig config;
+    private final AiTokenUsageMapper usageMapper;
+    private final StringRedisTemplate stringRedisTemplate;
+
+    private final Map<UsageKey, UsageCounter> counters = new ConcurrentHashMap<>();
+    private final Map<UserDay, AtomicLong> pendingUserTokens = new ConcurrentHashMap<>();
+
+    /**
+     * Record the tokens a provider call consumed
+     * Replies are normalized with zero usage when the provider reports none; a successful one is still
+     * counted, and charged its estimate so it is not free against the budget
+     * @param estimatedTokens tokens reserved for the call, charged as prompt tokens when a success reports none
+     */
+    public void record(AIRequest request, String providerName, AIResponse response, int estimatedTokens) {
+        AIResponse.Usage usage = response.getUsage();
+        long prompt = usage != null && usage.getPromptTokens() != null ? usage.getPromptTokens() : 0;
+        long completion = usage != null && usage.getCompletionTokens() != null ? usage.getCompletionTokens() : 0;
+        if (prompt + completion == 0) {
+            if (!response.isSuccess()) {
+                return;
+            }
+            prompt = Math.max(0, estimatedTokens);
+        }
+
+        LocalDate today = LocalDate.now();
+        long userId = request.getUserId() != null ? request.getUserId() : SYSTEM_USER_ID;
+        UsageKey key = new UsageKey(today, userId, providerName,
+                response.getModel() != null ? response.getModel() : "unknown",
+                request.getFeature() != null ? request.getFeature() : AIFeature.DEFAULT);
+
+        counters.computeIfAbsent(key, k -> new UsageCounter()).add(prompt, completion);
+        if (userId != SYSTEM_USER_ID) {
+            pendingUserTokens.computeIfAbsent(new UserDay(userId, today), k -> new AtomicLong())
+                    .addAndGet(prompt + completion);
+        }
+    }
+
+    /**
+     * Check whether a user may still spend tokens today
+     */
+    public boolean hasBudget(Long userId) {
+        long budget = config.getMetering().getDailyUserTokenBudget();
+        return budget <= 0 || userId == null || getUsedTokensToday(userId) < budget;
+    }
+
+    /**
+     * Tokens a user spent today across all instances, including this instance's unflushed usage
+     */
+    public long getUsedTokensToday(Long userId) {
+        UserDay userDay = new UserDay(userId, LocalDate.now());
+        AtomicLong pending = pendingUserTokens.get(userDay);
+        long used = pending != null ? pending.get() : 0;
+
+        try {
+            String flushed = stringRedisTemplate.opsForValue().get(userDay.redisKey());
+            if (flushed != null) {
+                used += Long.parseLong(flushed);
+            }
+        } catch (Exception e) {
+            log.warn("Failed to read token usage of user {}: {}", userId, e.getMessage());
+        }
+        return used;
+    }
+
+    public TokenBudgetStatus getBudgetStatus(Long userId) {
+        long budget = config.getMetering().getDailyUserTokenBudget();
+        long used = getUsedTokensToday(userId);
+        return TokenBudgetStatus.builder()
+                .userId(userId)
+                .date(LocalDate.now())
+                .usedTokens(used)
+                .dailyBudget(budget)
+                .remainingTokens(budget > 0 ? Math.max(0, budget - used) : -1)
+                .build();
+    }
+
+    /**
+     * Aggregate flushed usage over a date range
+     * @param userId restrict to one user, or null for all users
+     */
+    public List<TokenUsageReport> getReport(LocalDate startDate, LocalDate endDate, Long userId) {
+        List<AiTokenUsage> rows = usageMapper.selectList(new LambdaQueryWrapper<AiTokenUsage>()
+                .between(AiTokenUsage::getUsageDate, startDate, endDate)
+                .eq(userId != null, AiTokenUsage::getUserId, userId));
+
+        Map<String, TokenUsageReport> aggregated = new LinkedHashMap<>();
+        for (AiTokenUsage row : rows) {
+            String key = row.getUserId() + "|" + row.getProvider() + "|" + row.getModel() + "|" + row.getFeature();
+            TokenUsageReport report = aggregated.computeIfAbsent(key, k -> TokenUsageReport.builder()
+                    .userId(row.getUserId())
+                    .provider(row.getProvider())
+                    .model(row.getModel())
+                    .feature(row.getFeature())
+                    .build());
+            report.setPromptTokens(report.getPromptTokens() + row.getPromptTokens());
+            report.setCompletionTokens(report.getCompletionTokens() + row.getCompletionTokens());
+            report.setTotalTokens(report.getPromptTokens() + report.getCompletionTokens());
+            report.setRequests(report.getRequests() + row.getRequestCount());
+        }
+
+        List<TokenUsageReport> reports = new ArrayList<>(aggregated.values());
+        reports.sort(Comparator.comparingLong(TokenUsageReport::getTotalTokens).reversed());
+        return reports;
+    }
+
+    /**
+     * Move the in-memory deltas to MySQL and Redis; deltas that fail to persist are kept for the next flush
+     */
+    @Scheduled(fixedDelayString = "${ai.gateway.metering.flush-interval:10000}")
+    public void flush() {
+        LocalDate today = LocalDate.now();
+
+        counters.forEach((key, counter) -> {
+            long prompt = counter.promptTokens.getAndSet(0);
+            long completion = counter.completionTokens.getAndSet(0);
+            long requests = counter.requests.getAndSet(0);
+            if (requests > 0) {
+                try {
+                    persist(key, prompt, completion, requests);
+                } catch (Exception e) {
+                    log.warn("Failed to flush token usage {}: {}", key, e.getMessage());
+                    counter.promptTokens.addAndGet(prompt);
+                    counter.completionTokens.addAndGet(completion);
+                    counter.requests.addAndGet(requests);
+                    return;
+                }
+            }
+            // Counters of past days receive no more writes once flushed
+            if (key.date().isBefore(today)) {
+                counters.remove(key, counter);
+            }
+        });
+
+        pendingUserTokens.forEach((userDay, pending) -> {
+            long tokens = pending.getAndSet(0);
+            if (tokens > 0) {
+                try {
+                    stringRedisTemplate.opsForValue().increment(userDay.redisKey(), tokens);
+                    stringRedisTemplate.expire(userDay.redisKey(), USER_DAY_TTL_HOURS, TimeUnit.HOURS);
+                } catch (Exception e) {
+                    log.warn("Failed to flush token usage of user {}: {}", userDay.userId(), e.getMessage());
+                    pending.addAndGet(tokens);
+                    return;
+                }
+            }
+            if (userDay.date().isBefore(today)) {
+                pendingUserTokens.remove(userDay, pending);
+            }
+        });
+    }
+
+    @PreDestroy
+    public void close() {
+        flush();
+    }
+
+    /**
+     * Add the deltas to the day's row, creating it on first use
+     * Throws when the deltas could not be written, so flush keeps them for the next run
+     */
+    private void persist(UsageKey key, long prompt, long completion, long requests) {
+        if (addToRow(key, prompt, completion, requests)) {
+            return;
+        }
+
+        AiTokenUsage usage = new AiTokenUsage();
+        usage.setUsageDate(key.date());
+        usage.setUserId(key.userId());
+        usage.setProvider(key.provider());
+        usage.setModel(key.model());
+        usage.setFeature(key.feature());
+        usage.setPromptTokens(prompt);
+        usage.setCompletionTokens(completion);
+        usage.setRequestCount(requests);
+        usage.setUpdatedAt(LocalDateTime.now());
+        try {
+            usageMapper.insert(usage);
+        } catch (DuplicateKeyException e) {
+            // Another instance created the row first
+            if (!addToRow(key, prompt, completion, requests)) {
+                throw new IllegalStateException("Token usage row " + key + " was neither inserted nor updated", e);
+            }
+        }
+    }
+
+    private boolean addToRow(UsageKey key, long prompt, long completion, long requests) {
+        int updated = usageMapper.update(null, new LambdaUpdateWrapper<AiTokenUsage>()
+                .setSql("prompt_tokens = prompt_tokens + " + prompt)
+                .setSql("completion_tokens = completion_tokens + " + completion)
+                .setSql("request_count = request_count + " + requests)
+                .set(AiTokenUsage::getUpdatedAt, LocalDateTime.now())
+                .eq(AiTokenUsage::getUsageDate, key.date())
+                .eq(AiTokenUsage::getUserId, key.userId())
+                .eq(AiTokenUsage::getProvider, key.provider())
+                .eq(AiTokenUsage::getModel, key.model())
+                .eq(AiTokenUsage::getFeature, key.feature()));
+        return updated > 0;
+    }
+
+    private record UsageKey(LocalDate date, long userId, String provider, String model, String feature) {
+    }
+
+    private record UserDay(long userId, LocalDate date) {
+
+        String redisKey() {
+            return USER_DAY_PREFIX + userId + ":" + date;
+        }
+    }
+
+    private static final class UsageCounter {
+        private final AtomicLong promptTokens = new AtomicLong();
+        private final AtomicLong completionTokens = new AtomicLong();
+        private final AtomicLong requests = new AtomicLong();
+
+        void add(long prompt, long completion) {
+            promptTokens.addAndGet(prompt);
+            completionTokens.addAndGet(completion);
+            requests.incrementAndGet();
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.llmplatform.ai.metering;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Token usage aggregated over a date range for one provider, model, feature and user
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TokenUsageReport {
+
+    /** User ID, 0 for calls without a user */
+    private Long userId;
+
+    private String provider;
+
+    private String model;
+
+    private String feature;
+
+    private long promptTokens;
+
+    private long completionTokens;
+
+    private long totalTokens;
+
+    /** Number of provider calls */
+    private long requests;
+}
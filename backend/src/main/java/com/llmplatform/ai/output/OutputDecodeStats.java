@@ -0,0 +1,28 @@
+package com.llmplatform.ai.output;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Structured-output decoding counters of one feature since startup
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OutputDecodeStats {
+
+    /** Model replies handed to the decoder */
+    private long attempts;
+
+    /** Replies that only parsed after repairing truncated JSON */
+    private long repaired;
+
+    /** Replies without a parsable payload */
+    private long failures;
+
+    /** failures / attempts, 0 when nothing was decoded */
+    private double failureRate;
+}
@@ -0,0 +1,211 @@
+package com.llmplatform.ai.output;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.json.JsonReadFeature;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.llmplatform.ai.dto.AIFeature;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Decodes the JSON payload of a model reply into a target type
+ * The payload is located in one pass over the reply, skipping prose and code fences around it, and
+ * read with a lenient reader built once per target type. Common model defects are tolerated:
+ * trailing commas, single quotes, unquoted keys, comments, raw line breaks inside strings, and
+ * replies cut off at the token limit, which are closed before parsing. Outcomes are counted per feature
+ */
+@Slf4j
+@Component
+public class StructuredOutputDecoder {
+
+    private static final JsonParser.Feature[] LENIENT_FEATURES = {
+            JsonReadFeature.ALLOW_TRAILING_COMMA.mappedFeature(),
+            JsonReadFeature.ALLOW_SINGLE_QUOTES.mappedFeature(),
+            JsonReadFeature.ALLOW_UNQUOTED_FIELD_NAMES.mappedFeature(),
+            JsonReadFeature.ALLOW_JAVA_COMMENTS.mappedFeature(),
+            JsonReadFeature.ALLOW_UNESCAPED_CONTROL_CHARS.mappedFeature()
+    };
+
+    private final ObjectMapper objectMapper;
+    private final Map<JavaType, ObjectReader> readers = new ConcurrentHashMap<>();
+    private final Map<String, DecodeCounter> counters = new ConcurrentHashMap<>();
+
+    public StructuredOutputDecoder(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Decode the JSON payload of a reply
+     * @param feature calling feature (see AIFeature), used for the failure counters
+     * @return the decoded value, or null if the reply holds no parsable payload
+     */
+    public <T> T decode(String feature, String content, Class<T> type) {
+        return decode(feature, content, objectMapper.constructType(type));
+    }
+
+    /**
+     * Decode the JSON payload of a reply into a generic type
+     * @see #decode(String, String, Class)
+     */
+    public <T> T decode(String feature, String content, TypeReference<T> type) {
+        return decode(feature, content, objectMapper.constructType(type));
+    }
+
+    /**
+     * Decoding counters per feature
+     */
+    public Map<String, OutputDecodeStats> getStats() {
+        Map<String, OutputDecodeStats> stats = new LinkedHashMap<>();
+        counters.forEach((feature, counter) -> {
+            long attempts = counter.attempts.get();
+            long failures = counter.failures.get();
+            stats.put(feature, OutputDecodeStats.builder()
+                    .attempts(attempts)
+                    .repaired(counter.repaired.get())
+                    .failures(failures)
+                    .failureRate(attempts > 0 ? (double) failures / attempts : 0)
+                    .build());
+        });
+        return stats;
+    }
+
+    private <T> T decode(String feature, String content, JavaType type) {
+        DecodeCounter counter = counters.computeIfAbsent(feature != null ? feature : AIFeature.DEFAULT,
+                k -> new DecodeCounter());
+        counter.attempts.incrementAndGet();
+
+        Payload payload = content != null ? extract(content, openerFor(type)) : null;
+        if (payload == null) {
+            counter.failures.incrementAndGet();
+            log.debug("No JSON payload in {} reply", feature);
+            return null;
+        }
+
+        try {
+            T value = reader(type).readValue(payload.json());
+            if (payload.repaired()) {
+                counter.repaired.incrementAndGet();
+            }
+            return value;
+        } catch (IOException e) {
+            counter.failures.incrementAndGet();
+            log.debug("Failed to decode {} reply as {}: {}", feature, type, e.getMessage());
+            return null;
+        }
+    }
+
+    private ObjectReader reader(JavaType type) {
+        return readers.computeIfAbsent(type, t -> objectMapper.readerFor(t)
+                .withFeatures(LENIENT_FEATURES)
+                .without(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES));
+    }
+
+    /**
+     * Opening bracket the payload must start with, or 0 if either kind is accepted
+     */
+    private static char openerFor(JavaType type) {
+        Class<?> raw = type.getRawClass();
+        if (type.isCollectionLikeType() || type.isArrayType() || ArrayNode.class.isAssignableFrom(raw)) {
+            return '[';
+        }
+        if (raw == JsonNode.class || raw == Object.class) {
+            return 0;
+        }
+        return '{';
+    }
+
+    /**
+     * Cut the first balanced JSON value starting with the given bracket out of a reply
+     * Brackets inside strings are ignored. A value still open at the end of the reply was cut off;
+     * its open string and brackets are closed and a dangling separator is dropped
+     * @return the payload, or null if the reply has no such bracket
+     */
+    static Payload extract(String content, char opener) {
+        int start = -1;
+        for (int i = 0; i < content.length(); i++) {
+            char c = content.charAt(i);
+            if (opener == 0 ? c == '{' || c == '[' : c == opener) {
+                start = i;
+                break;
+            }
+        }
+        if (start < 0) {
+            return null;
+        }
+
+        Deque<Character> closers = new ArrayDeque<>();
+        boolean inString = false;
+        char quote = 0;
+        boolean escaped = false;
+        for (int i = start; i < content.length(); i++) {
+            char c = content.charAt(i);
+            if (inString) {
+                if (escaped) {
+                    escaped = false;
+                } else if (c == '\\') {
+                    escaped = true;
+                } else if (c == quote) {
+                    inString = false;
+                }
+            } else if (c == '"' || c == '\'') {
+                inString = true;
+                quote = c;
+            } else if (c == '{') {
+                closers.push('}');
+            } else if (c == '[') {
+                closers.push(']');
+            } else if ((c == '}' || c == ']') && !closers.isEmpty() && closers.peek() == c) {
+                closers.pop();
+                if (closers.isEmpty()) {
+                    return new Payload(content.substring(start, i + 1), false);
+                }
+            }
+        }
+
+        // Cut off at the token limit: close what is still open
+        StringBuilder json = new StringBuilder(content.substring(start));
+        if (escaped) {
+            json.setLength(json.length() - 1);
+        }
+        if (inString) {
+            json.append(quote);
+        }
+        int end = json.length();
+        while (end > 0 && Character.isWhitespace(json.charAt(end - 1))) {
+            end--;
+        }
+        json.setLength(end);
+        if (end > 0 && json.charAt(end - 1) == ',') {
+            json.setLength(end - 1);
+        } else if (end > 0 && json.charAt(end - 1) == ':') {
+            json.append("null");
+        }
+        while (!closers.isEmpty()) {
+            json.append(closers.pop());
+        }
+        return new Payload(json.toString(), true);
+    }
+
+    record Payload(String json, boolean repaired) {
+    }
+
+    private static final class DecodeCounter {
+        private final AtomicLong attempts = new AtomicLong();
+        private final AtomicLong repaired = new AtomicLong();
+        private final AtomicLong failures = new AtomicLong();
+    }
+}
@@ -3,6 +3,8 @@ package com.llmplatform.ai.provider;
 import com.llmplatform.ai.dto.AIRequest;
 import com.llmplatform.ai.dto.AIResponse;
 
+import java.util.function.Consumer;
+
 /**
  * Interface for AI service providers
  * Implementations handle communication with specific AI services (OpenAI, Ollama, etc.)
@@ -16,11 +18,21 @@ public interface AIProvider {
     String getName();
 
     /**
-     * Check if this provider is currently available and configured
+     * Check if this provider is enabled and configured
+     * Must be cheap and free of network I/O; reachability is tracked by the health registry
      * @return true if the provider can accept requests
      */
     boolean isAvailable();
 
+    /**
+     * Actively check that the upstream service answers
+     * May block on network I/O, so it is only called by the background health prober
+     * @return true if the upstream service is reachable
+     */
+    default boolean probe() {
+        return isAvailable();
+    }
+
     /**
      * Generate a response for the given request
      * @param request the AI request containing prompt and parameters
@@ -28,6 +40,21 @@ public interface AIProvider {
      */
     AIResponse generate(AIRequest request);
 
+    /**
+     * Generate a response, emitting incremental content deltas as they arrive
+     * Providers without native streaming support emit the whole content as a single delta
+     * @param request the AI request containing prompt and parameters
+     * @param onDelta callback receiving each content delta in order
+     * @return normalized AI response carrying the assembled content
+     */
+    default AIResponse generateStream(AIRequest request, Consumer<String> onDelta) {
+        AIResponse response = generate(request);
+        if (response.isSuccess() && response.getContent() != null && !response.getContent().isEmpty()) {
+            onDelta.accept(response.getContent());
+        }
+        return response;
+    }
+
     /**
      * Get the priority of this provider (lower = higher priority)
      * Used for failover ordering
@@ -5,16 +5,20 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.llmplatform.ai.config.AIProviderConfig;
 import com.llmplatform.ai.dto.AIRequest;
 import com.llmplatform.ai.dto.AIResponse;
+import com.llmplatform.ai.http.ProviderHttpClients;
 import com.llmplatform.ai.util.AIResponseNormalizer;
+import com.llmplatform.ai.util.AIStreamReader;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.*;
 import org.springframework.stereotype.Component;
 import org.springframework.web.client.RestTemplate;
 
+import java.io.UncheckedIOException;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Consumer;
 
 /**
  * Ollama local deployment provider implementation
@@ -27,12 +31,14 @@ public class OllamaProvider implements AIProvider {
 
     private final AIProviderConfig config;
     private final RestTemplate restTemplate;
+    private final RestTemplate probeRestTemplate;
     private final ObjectMapper objectMapper;
 
-    public OllamaProvider(AIProviderConfig config, ObjectMapper objectMapper) {
+    public OllamaProvider(AIProviderConfig config, ObjectMapper objectMapper, ProviderHttpClients httpClients) {
         this.config = config;
         this.objectMapper = objectMapper;
-        this.restTemplate = new RestTemplate();
+        this.restTemplate = httpClients.restTemplate(PROVIDER_NAME);
+        this.probeRestTemplate = httpClients.probeRestTemplate(PROVIDER_NAME);
     }
 
     @Override
@@ -42,6 +48,11 @@ public class OllamaProvider implements AIProvider {
 
     @Override
     public boolean isAvailable() {
+        return config.getProviderSettings(PROVIDER_NAME).isEnabled();
+    }
+
+    @Override
+    public boolean probe() {
         AIProviderConfig.ProviderSettings settings = config.getProviderSettings(PROVIDER_NAME);
         if (!settings.isEnabled()) {
             return false;
@@ -50,7 +61,7 @@ public class OllamaProvider implements AIProvider {
         // Check if Ollama server is reachable
         try {
             String url = settings.getBaseUrl() + "/api/tags";
-            ResponseEntity<String> response = restTemplate.getForEntity(url, String.class);
+            ResponseEntity<String> response = probeRestTemplate.getForEntity(url, String.class);
             return response.getStatusCode().is2xxSuccessful();
         } catch (Exception e) {
             log.debug("Ollama server not reachable: {}", e.getMessage());
@@ -58,7 +69,6 @@ public class OllamaProvider implements AIProvider {
         }
     }
 
-
     @Override
     public int getPriority() {
         return config.getProviderSettings(PROVIDER_NAME).getPriority();
@@ -91,7 +101,7 @@ public class OllamaProvider implements AIProvider {
                     String.class
             );
 
-            return parseResponse(response.getBody(), settings.getModel());
+            return parseResponse(response.getBody(), settings.resolveModel(request.getModel()));
 
         } catch (Exception e) {
             log.error("Ollama API call failed: {}", e.getMessage(), e);
@@ -99,9 +109,46 @@ public class OllamaProvider implements AIProvider {
         }
     }
 
+    @Override
+    public AIResponse generateStream(AIRequest request, Consumer<String> onDelta) {
+        AIProviderConfig.ProviderSettings settings = config.getProviderSettings(PROVIDER_NAME);
+
+        if (!settings.isEnabled()) {
+            return AIResponse.failure(PROVIDER_NAME, "Ollama provider is not enabled");
+        }
+
+        try {
+            Map<String, Object> requestBody = buildRequestBody(request, settings);
+            requestBody.put("stream", true);
+            byte[] payload = objectMapper.writeValueAsBytes(requestBody);
+
+            String url = settings.getBaseUrl() + "/api/chat";
+
+            log.debug("Sending streaming request to Ollama: {}", url);
+
+            return restTemplate.execute(
+                    url,
+                    HttpMethod.POST,
+                    httpRequest -> {
+                        httpRequest.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+                        httpRequest.getBody().write(payload);
+                    },
+                    httpResponse -> AIStreamReader.readOllamaStream(
+                            httpResponse.getBody(), objectMapper, PROVIDER_NAME, settings.resolveModel(request.getModel()), onDelta)
+            );
+
+        } catch (UncheckedIOException e) {
+            // The caller stopped consuming the stream, typically a client disconnect; not a provider failure
+            throw e;
+        } catch (Exception e) {
+            log.error("Ollama streaming call failed: {}", e.getMessage(), e);
+            return AIResponse.failure(PROVIDER_NAME, "Ollama streaming call failed: " + e.getMessage());
+        }
+    }
+
     private Map<String, Object> buildRequestBody(AIRequest request, AIProviderConfig.ProviderSettings settings) {
         Map<String, Object> body = new HashMap<>();
-        body.put("model", settings.getModel());
+        body.put("model", settings.resolveModel(request.getModel()));
         body.put("stream", false);
 
         // Options for temperature and other parameters
@@ -5,16 +5,21 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.llmplatform.ai.config.AIProviderConfig;
 import com.llmplatform.ai.dto.AIRequest;
 import com.llmplatform.ai.dto.AIResponse;
+import com.llmplatform.ai.http.ProviderHttpClients;
 import com.llmplatform.ai.util.AIResponseNormalizer;
+import com.llmplatform.ai.util.AIStreamReader;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.*;
 import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpClientErrorException;
 import org.springframework.web.client.RestTemplate;
 
+import java.io.UncheckedIOException;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Consumer;
 
 /**
  * OpenAI API provider implementation
@@ -27,12 +32,14 @@ public class OpenAIProvider implements AIProvider {
 
     private final AIProviderConfig config;
     private final RestTemplate restTemplate;
+    private final RestTemplate probeRestTemplate;
     private final ObjectMapper objectMapper;
 
-    public OpenAIProvider(AIProviderConfig config, ObjectMapper objectMapper) {
+    public OpenAIProvider(AIProviderConfig config, ObjectMapper objectMapper, ProviderHttpClients httpClients) {
         this.config = config;
         this.objectMapper = objectMapper;
-        this.restTemplate = new RestTemplate();
+        this.restTemplate = httpClients.restTemplate(PROVIDER_NAME);
+        this.probeRestTemplate = httpClients.probeRestTemplate(PROVIDER_NAME);
     }
 
     @Override
@@ -48,6 +55,31 @@ public class OpenAIProvider implements AIProvider {
                !settings.getApiKey().isEmpty();
     }
 
+    @Override
+    public boolean probe() {
+        if (!isAvailable()) {
+            return false;
+        }
+
+        AIProviderConfig.ProviderSettings settings = config.getProviderSettings(PROVIDER_NAME);
+
+        try {
+            HttpHeaders headers = new HttpHeaders();
+            headers.setBearerAuth(settings.getApiKey());
+
+            probeRestTemplate.exchange(settings.getBaseUrl() + "/models", HttpMethod.GET,
+                    new HttpEntity<>(headers), String.class);
+            return true;
+        } catch (HttpClientErrorException e) {
+            // The server answered; only rejected credentials make the provider unusable
+            HttpStatusCode status = e.getStatusCode();
+            return status.value() != 401 && status.value() != 403;
+        } catch (Exception e) {
+            log.debug("OpenAI server not reachable: {}", e.getMessage());
+            return false;
+        }
+    }
+
     @Override
     public int getPriority() {
         return config.getProviderSettings(PROVIDER_NAME).getPriority();
@@ -90,9 +122,49 @@ public class OpenAIProvider implements AIProvider {
         }
     }
 
+    @Override
+    public AIResponse generateStream(AIRequest request, Consumer<String> onDelta) {
+        if (!isAvailable()) {
+            return AIResponse.failure(PROVIDER_NAME, "OpenAI provider is not available or configured");
+        }
+
+        AIProviderConfig.ProviderSettings settings = config.getProviderSettings(PROVIDER_NAME);
+
+        try {
+            Map<String, Object> requestBody = buildRequestBody(request, settings);
+            requestBody.put("stream", true);
+            requestBody.put("stream_options", Map.of("include_usage", true));
+            byte[] payload = objectMapper.writeValueAsBytes(requestBody);
+
+            String url = settings.getBaseUrl() + "/chat/completions";
+
+            log.debug("Sending streaming request to OpenAI: {}", url);
+
+            return restTemplate.execute(
+                    url,
+                    HttpMethod.POST,
+                    httpRequest -> {
+                        httpRequest.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+                        httpRequest.getHeaders().setAccept(List.of(MediaType.TEXT_EVENT_STREAM));
+                        httpRequest.getHeaders().setBearerAuth(settings.getApiKey());
+                        httpRequest.getBody().write(payload);
+                    },
+                    httpResponse -> AIStreamReader.readOpenAIStream(
+                            httpResponse.getBody(), objectMapper, PROVIDER_NAME, onDelta)
+            );
+
+        } catch (UncheckedIOException e) {
+            // The caller stopped consuming the stream, typically a client disconnect; not a provider failure
+            throw e;
+        } catch (Exception e) {
+            log.error("OpenAI streaming call failed: {}", e.getMessage(), e);
+            return AIResponse.failure(PROVIDER_NAME, "OpenAI streaming call failed: " + e.getMessage());
+        }
+    }
+
     private Map<String, Object> buildRequestBody(AIRequest request, AIProviderConfig.ProviderSettings settings) {
         Map<String, Object> body = new HashMap<>();
-        body.put("model", settings.getModel());
+        body.put("model", settings.resolveModel(request.getModel()));
         body.put("temperature", request.getTemperature());
         body.put("max_tokens", request.getMaxTokens());
 
@@ -0,0 +1,166 @@
+package com.llmplatform.ai.provider;
+
+import com.llmplatform.ai.config.AIProviderConfig;
+import com.llmplatform.ai.dto.AIRequest;
+import com.llmplatform.ai.dto.AIResponse;
+import com.llmplatform.ai.replay.ReplayEntry;
+import com.llmplatform.ai.replay.ReplayLog;
+import com.llmplatform.ai.replay.ReplaySynthesizer;
+import com.llmplatform.ai.token.TokenEstimator;
+import com.llmplatform.ai.util.AIResponseNormalizer;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Consumer;
+
+/**
+ * Network-free provider for load tests, enabled by ai.gateway.replay.mode=replay
+ * Requests recorded earlier get their recorded reply and usage back; others get a synthesized reply
+ * in the format the feature expects. Each call sleeps for a latency drawn from the recorded calls of
+ * the same feature or from the configured distribution, so the backend sees realistic timing
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ReplayProvider implements AIProvider {
+
+    private static final String PROVIDER_NAME = "replay";
+    private static final String SYNTHETIC_MODEL = "replay-synthetic";
+
+    /** Share of the latency spent before the first streamed delta */
+    private static final double FIRST_DELTA_SHARE = 0.3;
+    private static final int MAX_STREAM_DELTAS = 50;
+
+    private final AIProviderConfig config;
+    private final ReplayLog replayLog;
+    private final TokenEstimator tokenEstimator;
+
+    @Override
+    public String getName() {
+        return PROVIDER_NAME;
+    }
+
+    @Override
+    public boolean isAvailable() {
+        return ReplayLog.MODE_REPLAY.equals(config.getReplay().getMode());
+    }
+
+    /**
+     * Ranked ahead of every real provider that is still enabled
+     */
+    @Override
+    public int getPriority() {
+        return 0;
+    }
+
+    @Override
+    public AIResponse generate(AIRequest request) {
+        if (!isAvailable()) {
+            return AIResponse.failure(PROVIDER_NAME, "Replay provider is not enabled");
+        }
+        AIResponse response = replay(request);
+        if (!sleep(sampleLatency(request.getFeature()))) {
+            return AIResponse.failure(PROVIDER_NAME, "Replay interrupted");
+        }
+        return response;
+    }
+
+    @Override
+    public AIResponse generateStream(AIRequest request, Consumer<String> onDelta) {
+        if (!isAvailable()) {
+            return AIResponse.failure(PROVIDER_NAME, "Replay provider is not enabled");
+        }
+        AIResponse response = replay(request);
+        String content = response.getContent();
+        long latency = sampleLatency(request.getFeature());
+
+        // Spread word-sized deltas over the latency, after a time to first token
+        String[] words = content.split("(?<=\\s)");
+        int perDelta = Math.max(1, (int) Math.ceil(words.length / (double) MAX_STREAM_DELTAS));
+        int deltas = (int) Math.ceil(words.length / (double) perDelta);
+        long gap = deltas > 1 ? (long) (latency * (1 - FIRST_DELTA_SHARE) / (deltas - 1)) : 0;
+        if (!sleep((long) (latency * FIRST_DELTA_SHARE))) {
+            return AIResponse.failure(PROVIDER_NAME, "Replay interrupted");
+        }
+        for (int i = 0; i < words.length; i += perDelta) {
+            if (i > 0 && !sleep(gap)) {
+                return AIResponse.failure(PROVIDER_NAME, "Replay interrupted");
+            }
+            onDelta.accept(String.join("", Arrays.copyOfRange(words, i, Math.min(words.length, i + perDelta))));
+        }
+        return response;
+    }
+
+    private AIResponse replay(AIRequest request) {
+        ReplayEntry entry = replayLog.find(request);
+        AIResponse response;
+        if (entry != null) {
+            response = AIResponse.builder()
+                    .content(entry.content())
+                    .model(entry.model())
+                    .usage(usage(entry.promptTokens(), entry.completionTokens()))
+                    .provider(PROVIDER_NAME)
+                    .success(true)
+                    .build();
+        } else {
+            String content = ReplaySynthesizer.synthesize(request);
+            log.debug("No recorded reply for {} request, synthesizing one", request.getFeature());
+            response = AIResponse.builder()
+                    .content(content)
+                    .model(SYNTHETIC_MODEL)
+                    .usage(usage(tokenEstimator.estimate(request), tokenEstimator.estimate(content)))
+                    .provider(PROVIDER_NAME)
+                    .success(true)
+                    .build();
+        }
+        return AIResponseNormalizer.normalize(response, PROVIDER_NAME);
+    }
+
+    /**
+     * Draw the latency of one call in milliseconds
+     */
+    private long sampleLatency(String feature) {
+        AIProviderConfig.ReplaySettings settings = config.getReplay();
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long latency = switch (settings.getLatency()) {
+            case "none" -> 0;
+            case "configured" -> configuredLatency(settings, random);
+            default -> {
+                long[] samples = replayLog.latencies(feature);
+                yield samples.length > 0 ? samples[random.nextInt(samples.length)] : configuredLatency(settings, random);
+            }
+        };
+        return Math.min(latency, settings.getMaxLatency());
+    }
+
+    /**
+     * Log-normal around the configured median, matching the long right tail of model latencies
+     */
+    private long configuredLatency(AIProviderConfig.ReplaySettings settings, ThreadLocalRandom random) {
+        return Math.round(settings.getLatencyMedian() * Math.exp(settings.getLatencySigma() * random.nextGaussian()));
+    }
+
+    private AIResponse.Usage usage(int promptTokens, int completionTokens) {
+        return AIResponse.Usage.builder()
+                .promptTokens(promptTokens)
+                .completionTokens(completionTokens)
+                .totalTokens(promptTokens + completionTokens)
+                .build();
+    }
+
+    private boolean sleep(long millis) {
+        if (millis <= 0) {
+            return true;
+        }
+        try {
+            Thread.sleep(millis);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
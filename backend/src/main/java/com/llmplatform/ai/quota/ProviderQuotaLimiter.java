@@ -0,0 +1,155 @@
+package com.llmplatform.ai.quota;
+
+import com.llmplatform.ai.config.AIProviderConfig;
+import com.llmplatform.ai.dto.AIResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Cluster-wide requests/min and tokens/min quotas per provider
+ * Both quotas are token buckets in Redis refilled continuously from the Redis clock, so every backend
+ * instance draws from the same budget. The estimated prompt plus the reply limit is charged up front and
+ * the difference to the reported usage is settled afterwards
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ProviderQuotaLimiter {
+
+    private static final String KEY_PREFIX = "ai:quota:";
+    private static final String BUCKET_TTL_MILLIS = "120000";
+
+    /**
+     * Take one request and the estimated tokens from both buckets, or nothing at all
+     * KEYS: rpm bucket, tpm bucket; ARGV: rpm capacity, tpm capacity, token cost, bucket ttl
+     * Returns 0 when granted, otherwise the milliseconds until enough quota has refilled
+     */
+    private static final RedisScript<Long> ACQUIRE_SCRIPT = new DefaultRedisScript<>("""
+            local time = redis.call('TIME')
+            local now = tonumber(time[1]) * 1000 + math.floor(tonumber(time[2]) / 1000)
+            local function refill(key, capacity)
+              if capacity <= 0 then return nil end
+              local bucket = redis.call('HMGET', key, 'tokens', 'ts')
+              local tokens = tonumber(bucket[1]) or capacity
+              local ts = tonumber(bucket[2]) or now
+              return math.min(capacity, tokens + (now - ts) * capacity / 60000)
+            end
+            local rpmCapacity = tonumber(ARGV[1])
+            local tpmCapacity = tonumber(ARGV[2])
+            local cost = tonumber(ARGV[3])
+            local requests = refill(KEYS[1], rpmCapacity)
+            local tokens = refill(KEYS[2], tpmCapacity)
+            local wait = 0
+            if requests and requests < 1 then
+              wait = math.max(wait, (1 - requests) * 60000 / rpmCapacity)
+            end
+            -- A request larger than the whole bucket only needs a full bucket, then runs into debt
+            if tokens and tokens < math.min(cost, tpmCapacity) then
+              wait = math.max(wait, (math.min(cost, tpmCapacity) - tokens) * 60000 / tpmCapacity)
+            end
+            if wait > 0 then return math.ceil(wait) end
+            if requests then
+              redis.call('HSET', KEYS[1], 'tokens', requests - 1, 'ts', now)
+              redis.call('PEXPIRE', KEYS[1], ARGV[4])
+            end
+            if tokens then
+              redis.call('HSET', KEYS[2], 'tokens', tokens - cost, 'ts', now)
+              redis.call('PEXPIRE', KEYS[2], ARGV[4])
+            end
+            return 0
+            """, Long.class);
+
+    /**
+     * Settle the difference between charged and used tokens
+     * KEYS: tpm bucket; ARGV: tokens to take back (negative to refund)
+     */
+    private static final RedisScript<Long> SETTLE_SCRIPT = new DefaultRedisScript<>("""
+            if redis.call('EXISTS', KEYS[1]) == 1 then
+              redis.call('HINCRBYFLOAT', KEYS[1], 'tokens', -tonumber(ARGV[1]))
+            end
+            return 0
+            """, Long.class);
+
+    private final AIProviderConfig config;
+    private final StringRedisTemplate stringRedisTemplate;
+
+    /**
+     * Try to take quota for one call
+     * @param estimatedTokens tokens charged up front
+     * @return 0 if granted, otherwise the suggested wait in milliseconds before retrying
+     */
+    public long tryAcquire(String providerName, int estimatedTokens) {
+        AIProviderConfig.ProviderSettings settings = config.getProviderSettings(providerName);
+        if (!isLimited(settings)) {
+            return 0;
+        }
+
+        try {
+            Long wait = stringRedisTemplate.execute(ACQUIRE_SCRIPT,
+                    List.of(rpmKey(providerName), tpmKey(providerName)),
+                    String.valueOf(settings.getRequestsPerMinute()),
+                    String.valueOf(settings.getTokensPerMinute()),
+                    String.valueOf(estimatedTokens),
+                    BUCKET_TTL_MILLIS);
+            return wait != null ? wait : 0;
+        } catch (Exception e) {
+            // Redis trouble must not take the AI features down with it
+            log.warn("Quota check for provider {} failed, allowing call: {}", providerName, e.getMessage());
+            return 0;
+        }
+    }
+
+    /**
+     * Settle the tokens charged for a call against what the provider reported
+     * @param estimatedTokens the amount passed to tryAcquire
+     * @param response the provider response, whose usage replaces the estimate; failures are refunded and
+     *                 successes without usage keep the estimate. The normalizer fills missing usage with zeros,
+     *                 so a success reporting no tokens counts as one without usage
+     */
+    public void settle(String providerName, int estimatedTokens, AIResponse response) {
+        AIProviderConfig.ProviderSettings settings = config.getProviderSettings(providerName);
+        if (!isLimited(settings) || settings.getTokensPerMinute() <= 0) {
+            return;
+        }
+
+        int actual;
+        if (response == null || !response.isSuccess()) {
+            actual = 0;
+        } else if (response.getUsage() != null && response.getUsage().getTotalTokens() != null
+                && response.getUsage().getTotalTokens() > 0) {
+            actual = response.getUsage().getTotalTokens();
+        } else {
+            // A reply without usage still consumed tokens upstream, the estimate is the best figure we have
+            actual = estimatedTokens;
+        }
+        int delta = actual - estimatedTokens;
+        if (delta == 0) {
+            return;
+        }
+
+        try {
+            stringRedisTemplate.execute(SETTLE_SCRIPT, List.of(tpmKey(providerName)), String.valueOf(delta));
+        } catch (Exception e) {
+            log.warn("Quota settlement for provider {} failed: {}", providerName, e.getMessage());
+        }
+    }
+
+    private boolean isLimited(AIProviderConfig.ProviderSettings settings) {
+        return config.getQuota().isEnabled()
+                && (settings.getRequestsPerMinute() > 0 || settings.getTokensPerMinute() > 0);
+    }
+
+    private String rpmKey(String providerName) {
+        return KEY_PREFIX + providerName + ":rpm";
+    }
+
+    private String tpmKey(String providerName) {
+        return KEY_PREFIX + providerName + ":tpm";
+    }
+}
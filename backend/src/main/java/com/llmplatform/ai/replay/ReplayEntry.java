@@ -0,0 +1,23 @@
+package com.llmplatform.ai.replay;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * One recorded provider call, stored as a JSON line with single-letter keys to keep the log compact
+ * @param hash canonical request hash, see ReplayLog#hash
+ * @param feature calling feature of the request
+ * @param model model that produced the reply
+ * @param content reply content
+ * @param promptTokens prompt tokens reported by the provider
+ * @param completionTokens completion tokens reported by the provider
+ * @param latencyMs duration of the call in milliseconds
+ */
+public record ReplayEntry(
+        @JsonProperty("h") String hash,
+        @JsonProperty("f") String feature,
+        @JsonProperty("m") String model,
+        @JsonProperty("c") String content,
+        @JsonProperty("p") int promptTokens,
+        @JsonProperty("o") int completionTokens,
+        @JsonProperty("l") long latencyMs) {
+}
@@ -0,0 +1,257 @@
+package com.llmplatform.ai.replay;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.llmplatform.ai.config.AIProviderConfig;
+import com.llmplatform.ai.dto.AIFeature;
+import com.llmplatform.ai.dto.AIRequest;
+import com.llmplatform.ai.dto.AIResponse;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Append-only log of provider calls for record-and-replay load testing
+ * In record mode gateway calls only enqueue entries; a single writer thread appends them to the log
+ * file in batches. In replay mode the file is loaded once at startup into an index by canonical
+ * request hash plus the recorded latencies of each feature
+ */
+@Slf4j
+@Component
+public class ReplayLog {
+
+    public static final String MODE_RECORD = "record";
+    public static final String MODE_REPLAY = "replay";
+
+    /** Plain mapper so the log format does not depend on the application's Jackson settings */
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    /** Bytes of the SHA-256 digest kept in the hash; 128 bits is plenty to tell prompts apart */
+    private static final int HASH_BYTES = 16;
+
+    private final AIProviderConfig config;
+
+    private final BlockingQueue<ReplayEntry> pending;
+    private final AtomicLong dropped = new AtomicLong();
+    private volatile boolean writing;
+    private Thread writer;
+
+    private Map<String, ReplayEntry> byHash = Map.of();
+    private Map<String, long[]> latenciesByFeature = Map.of();
+    private long[] allLatencies = new long[0];
+
+    public ReplayLog(AIProviderConfig config) {
+        this.config = config;
+        this.pending = new ArrayBlockingQueue<>(Math.max(1, config.getReplay().getWriterQueueSize()));
+    }
+
+    @PostConstruct
+    public void start() {
+        String mode = config.getReplay().getMode();
+        if (MODE_RECORD.equals(mode)) {
+            writing = true;
+            writer = new Thread(this::writeLoop, "ai-replay-writer");
+            writer.setDaemon(true);
+            writer.start();
+            log.info("Recording AI provider calls to {}", path());
+        } else if (MODE_REPLAY.equals(mode)) {
+            load();
+        }
+    }
+
+    /**
+     * Let the writer drain what is queued and close the file
+     */
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        writing = false;
+        if (writer != null) {
+            writer.join(TimeUnit.SECONDS.toMillis(5));
+        }
+        if (dropped.get() > 0) {
+            log.warn("{} AI provider calls were not recorded because the writer queue was full", dropped.get());
+        }
+    }
+
+    public boolean isRecording() {
+        return writing;
+    }
+
+    /**
+     * Queue a successful provider call for the log; never blocks the caller
+     * @param request the request as the caller sent it, before any context-window fitting; the replay
+     *                provider is handed requests in this same form
+     */
+    public void record(AIRequest request, AIResponse response, long latencyMs) {
+        if (!writing || !response.isSuccess() || response.getContent() == null) {
+            return;
+        }
+        AIResponse.Usage usage = response.getUsage();
+        ReplayEntry entry = new ReplayEntry(
+                hash(request),
+                request.getFeature() != null ? request.getFeature() : AIFeature.DEFAULT,
+                response.getModel(),
+                response.getContent(),
+                usage != null && usage.getPromptTokens() != null ? usage.getPromptTokens() : 0,
+                usage != null && usage.getCompletionTokens() != null ? usage.getCompletionTokens() : 0,
+                latencyMs);
+        if (!pending.offer(entry)) {
+            dropped.incrementAndGet();
+        }
+    }
+
+    /**
+     * Get the most recently recorded call for an identical request
+     * @return the entry, or null if the request was never recorded
+     */
+    public ReplayEntry find(AIRequest request) {
+        return byHash.get(hash(request));
+    }
+
+    /**
+     * Recorded latencies of a feature, or of all calls if the feature has none
+     * @return the samples; empty if nothing was recorded
+     */
+    public long[] latencies(String feature) {
+        long[] samples = latenciesByFeature.get(feature != null ? feature : AIFeature.DEFAULT);
+        return samples != null ? samples : allLatencies;
+    }
+
+    public int size() {
+        return byHash.size();
+    }
+
+    /**
+     * Canonical request hash: truncated SHA-256 over a fixed-order JSON rendering of the fields that
+     * determine the reply. The provider and its model are left out so a recording replays whichever
+     * provider served it, and callers hash requests before context-window fitting, which depends on
+     * the provider too
+     */
+    public static String hash(AIRequest request) {
+        Map<String, Object> canonical = new LinkedHashMap<>();
+        canonical.put("system", request.getSystemMessage());
+        List<List<String>> messages = new ArrayList<>();
+        if (request.getMessages() != null) {
+            request.getMessages().forEach(m -> messages.add(List.of(
+                    String.valueOf(m.getRole()), String.valueOf(m.getContent()))));
+        }
+        canonical.put("messages", messages);
+        canonical.put("prompt", request.getPrompt());
+        canonical.put("temperature", request.getTemperature());
+        canonical.put("maxTokens", request.getMaxTokens());
+
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(MAPPER.writeValueAsBytes(canonical));
+            return HexFormat.of().formatHex(digest, 0, HASH_BYTES);
+        } catch (JsonProcessingException | NoSuchAlgorithmException e) {
+            throw new IllegalStateException("Failed to hash AI request", e);
+        }
+    }
+
+    private void writeLoop() {
+        Path path = path();
+        try {
+            if (path.getParent() != null) {
+                Files.createDirectories(path.getParent());
+            }
+        } catch (IOException e) {
+            log.error("Cannot create directory for AI replay log {}: {}", path, e.getMessage());
+            writing = false;
+            return;
+        }
+
+        List<ReplayEntry> batch = new ArrayList<>();
+        try (BufferedWriter out = Files.newBufferedWriter(path, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+            while (writing || !pending.isEmpty()) {
+                ReplayEntry first = pending.poll(500, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                pending.drainTo(batch);
+                for (ReplayEntry entry : batch) {
+                    out.write(MAPPER.writeValueAsString(entry));
+                    out.newLine();
+                }
+                out.flush();
+                batch.clear();
+            }
+        } catch (IOException e) {
+            log.error("Failed to write AI replay log {}: {}", path, e.getMessage());
+            writing = false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void load() {
+        Path path = path();
+        if (!Files.exists(path)) {
+            log.warn("AI replay log {} not found, every reply will be synthesized", path);
+            return;
+        }
+
+        Map<String, ReplayEntry> entries = new HashMap<>();
+        Map<String, List<Long>> latencies = new HashMap<>();
+        List<Long> all = new ArrayList<>();
+        int skipped = 0;
+        try (BufferedReader in = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = in.readLine()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                try {
+                    ReplayEntry entry = MAPPER.readValue(line, ReplayEntry.class);
+                    entries.put(entry.hash(), entry);
+                    latencies.computeIfAbsent(entry.feature(), k -> new ArrayList<>()).add(entry.latencyMs());
+                    all.add(entry.latencyMs());
+                } catch (JsonProcessingException e) {
+                    // A torn last line after a crash is expected; skip it
+                    skipped++;
+                }
+            }
+        } catch (IOException e) {
+            log.error("Failed to read AI replay log {}: {}", path, e.getMessage());
+            return;
+        }
+
+        Map<String, long[]> latencyIndex = new HashMap<>();
+        latencies.forEach((feature, samples) -> latencyIndex.put(feature, toArray(samples)));
+        this.byHash = entries;
+        this.latenciesByFeature = latencyIndex;
+        this.allLatencies = toArray(all);
+        log.info("Loaded {} recorded AI calls ({} distinct requests, {} unreadable lines) from {}",
+                all.size(), entries.size(), skipped, path);
+    }
+
+    private Path path() {
+        return Path.of(config.getReplay().getFile());
+    }
+
+    private static long[] toArray(List<Long> values) {
+        return values.stream().mapToLong(Long::longValue).toArray();
+    }
+}
@@ -0,0 +1,164 @@
+package com.llmplatform.ai.replay;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.llmplatform.ai.dto.AIFeature;
+import com.llmplatform.ai.dto.AIRequest;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Builds plausible replies for requests that were never recorded
+ * Replies follow the format each feature's prompt asks for, so the services parse them like real
+ * provider output; the wording is placeholder text derived from the prompt
+ */
+public final class ReplaySynthesizer {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private static final Pattern COUNT = Pattern.compile("Generate (\\d+)");
+    private static final Pattern QUOTED_WORD = Pattern.compile("(?:Word: |the word )'([^']+)'");
+    private static final Pattern LISTED_WORD = Pattern.compile("(?m)^- (.+?) \\(level");
+    private static final Pattern GOAL = Pattern.compile("with the goal: '([^']+)'");
+    private static final Pattern TOPIC = Pattern.compile("All questions should test (\\w+)");
+    private static final List<String> QUIZ_TOPICS = List.of("vocabulary", "grammar", "comprehension");
+    private static final int MAX_ITEMS = 20;
+
+    private ReplaySynthesizer() {
+        // Prevent instantiation
+    }
+
+    /**
+     * Synthesize the reply content for a request
+     */
+    public static String synthesize(AIRequest request) {
+        String prompt = request.getPrompt() != null ? request.getPrompt() : "";
+        String feature = request.getFeature() != null ? request.getFeature() : AIFeature.DEFAULT;
+        return switch (feature) {
+            case AIFeature.WORD -> toJson(word(match(QUOTED_WORD, prompt, "word")));
+            case AIFeature.QUIZ, AIFeature.QUIZ_BANK -> toJson(quiz(count(prompt), match(TOPIC, prompt, null)));
+            case AIFeature.MULTIPLE_CHOICE -> toJson(multipleChoice(match(QUOTED_WORD, prompt, "word"), count(prompt)));
+            case AIFeature.ERROR_EXERCISE -> toJson(exercises(count(prompt)));
+            case AIFeature.DIALOGUE_SCENARIO -> toJson(scenario(match(GOAL, prompt, "daily conversation")));
+            case AIFeature.EXAMPLE_SENTENCE -> exampleSentences(prompt);
+            case AIFeature.DIALOGUE_SUMMARY -> "The learner and the tutor practised everyday conversation.";
+            default -> "That sounds great! Could you tell me a little more about it?";
+        };
+    }
+
+    private static Map<String, Object> word(String word) {
+        Map<String, Object> json = new LinkedHashMap<>();
+        json.put("definition", "A common word meaning \"" + word + "\".");
+        json.put("translation", word);
+        json.put("examples", List.of(
+                Map.of("sentence", "I use the word " + word + " every day.",
+                        "translation", "I use the word " + word + " every day."),
+                Map.of("sentence", "Can you spell " + word + "?",
+                        "translation", "Can you spell " + word + "?")));
+        json.put("pronunciation", "/" + word.toLowerCase() + "/");
+        return json;
+    }
+
+    /**
+     * Question texts are numbered and unique per call, so bank top-ups are not all deduplicated away
+     * @param topic topic the prompt asks every question to test, or null to cycle through the topics
+     */
+    private static List<Map<String, Object>> quiz(int count, String topic) {
+        String batch = Long.toString(System.nanoTime(), 36);
+        List<Map<String, Object>> questions = new ArrayList<>();
+        for (int i = 1; i <= count; i++) {
+            Map<String, Object> question = new LinkedHashMap<>();
+            question.put("questionId", i);
+            question.put("question", "Which option completes sentence " + i + " (" + batch + ") correctly?");
+            question.put("options", List.of("A. is", "B. are", "C. be", "D. been"));
+            question.put("correctAnswer", "A");
+            question.put("topic", topic != null ? topic : QUIZ_TOPICS.get((i - 1) % QUIZ_TOPICS.size()));
+            questions.add(question);
+        }
+        return questions;
+    }
+
+    private static List<Map<String, Object>> multipleChoice(String word, int count) {
+        List<Map<String, Object>> questions = new ArrayList<>();
+        for (int i = 1; i <= count; i++) {
+            Map<String, Object> question = new LinkedHashMap<>();
+            question.put("question", "Question " + i + ": which sentence uses '" + word + "' correctly?");
+            question.put("options", List.of(
+                    "I " + word + " it.", "It " + word + " me.", "We " + word + ".", "They " + word + " us."));
+            question.put("correctAnswer", "I " + word + " it.");
+            questions.add(question);
+        }
+        return questions;
+    }
+
+    private static List<Map<String, Object>> exercises(int count) {
+        String[] types = {"fill-in-the-blank", "multiple choice", "matching"};
+        List<Map<String, Object>> exercises = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            Map<String, Object> exercise = new LinkedHashMap<>();
+            exercise.put("type", types[i % types.length]);
+            exercise.put("question", "Exercise " + (i + 1) + ": She ___ to school every day.");
+            exercise.put("correctAnswer", "goes");
+            exercises.add(exercise);
+        }
+        return exercises;
+    }
+
+    private static Map<String, Object> scenario(String goal) {
+        Map<String, Object> json = new LinkedHashMap<>();
+        json.put("title", "Practising " + goal);
+        json.put("scenario", "Two friends meet at a cafe and talk about " + goal + ".");
+        json.put("difficulty", "intermediate");
+        json.put("dialogue", List.of(
+                Map.of("speaker", "A", "content", "Hi! How have you been?"),
+                Map.of("speaker", "B", "content", "Great, thanks. I have been working on " + goal + "."),
+                Map.of("speaker", "A", "content", "That sounds interesting. Tell me more!")));
+        return json;
+    }
+
+    /**
+     * Batched prompts list their words and ask for a JSON object; single prompts ask for one sentence per line
+     */
+    private static String exampleSentences(String prompt) {
+        Matcher listed = LISTED_WORD.matcher(prompt);
+        Map<String, List<String>> byWord = new LinkedHashMap<>();
+        while (listed.find()) {
+            String word = listed.group(1);
+            byWord.put(word, sentences(word));
+        }
+        if (!byWord.isEmpty()) {
+            return toJson(byWord);
+        }
+        return String.join("\n", sentences(match(QUOTED_WORD, prompt, "word")));
+    }
+
+    private static List<String> sentences(String word) {
+        return List.of(
+                "I learned the word " + word + " today.",
+                "She used " + word + " in a sentence.",
+                "Do you know what " + word + " means?");
+    }
+
+    private static int count(String prompt) {
+        Matcher matcher = COUNT.matcher(prompt);
+        return matcher.find() ? Math.max(1, Math.min(MAX_ITEMS, Integer.parseInt(matcher.group(1)))) : 3;
+    }
+
+    private static String match(Pattern pattern, String prompt, String fallback) {
+        Matcher matcher = pattern.matcher(prompt);
+        return matcher.find() ? matcher.group(1) : fallback;
+    }
+
+    private static String toJson(Object value) {
+        try {
+            return MAPPER.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to render synthesized reply", e);
+        }
+    }
+}
@@ -0,0 +1,196 @@
+package com.llmplatform.ai.resilience;
+
+import com.llmplatform.ai.config.AIProviderConfig;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.LocalDateTime;
+import java.util.function.LongSupplier;
+
+/**
+ * Count-based circuit breaker guarding a single AI provider
+ * Trips when the failure rate over the last N calls reaches the threshold, where failures include
+ * errors, timeouts and slow calls; after the open duration a few half-open trial calls decide recovery
+ */
+@Slf4j
+public class CircuitBreaker {
+
+    private final String name;
+    private final AIProviderConfig.CircuitBreakerSettings settings;
+    private final LongSupplier clock;
+
+    /** Ring buffer of recent outcomes, true meaning failure */
+    private final boolean[] window;
+    private int windowPosition;
+    private int bufferedCalls;
+    private int failedCalls;
+
+    private CircuitBreakerState state = CircuitBreakerState.CLOSED;
+    private long openedAt;
+    private int halfOpenIssued;
+    private int halfOpenSucceeded;
+
+    private long notPermittedCalls;
+    private long openCount;
+    private LocalDateTime stateChangedAt = LocalDateTime.now();
+
+    public CircuitBreaker(String name, AIProviderConfig.CircuitBreakerSettings settings) {
+        this(name, settings, System::currentTimeMillis);
+    }
+
+    public CircuitBreaker(String name, AIProviderConfig.CircuitBreakerSettings settings, LongSupplier clock) {
+        this.name = name;
+        this.settings = settings;
+        this.clock = clock;
+        this.window = new boolean[Math.max(1, settings.getSlidingWindowSize())];
+    }
+
+    /**
+     * Check without side effects whether a call would currently be let through
+     */
+    public synchronized boolean isCallPermitted() {
+        return switch (state) {
+            case CLOSED -> true;
+            case OPEN -> openDurationElapsed();
+            case HALF_OPEN -> halfOpenIssued < settings.getHalfOpenPermits();
+        };
+    }
+
+    /**
+     * Acquire permission for a call; every granted call must be followed by onSuccess or onFailure
+     * @return false if the call must not reach the provider
+     */
+    public synchronized boolean tryAcquire() {
+        if (state == CircuitBreakerState.OPEN && openDurationElapsed()) {
+            transitionTo(CircuitBreakerState.HALF_OPEN);
+        }
+
+        boolean permitted = switch (state) {
+            case CLOSED -> true;
+            case OPEN -> false;
+            case HALF_OPEN -> halfOpenIssued < settings.getHalfOpenPermits();
+        };
+
+        if (!permitted) {
+            notPermittedCalls++;
+        } else if (state == CircuitBreakerState.HALF_OPEN) {
+            halfOpenIssued++;
+        }
+        return permitted;
+    }
+
+    /**
+     * Record a successful call
+     * @param durationMs call duration, or a negative value when latency should not be judged (e.g. streams)
+     */
+    public synchronized void onSuccess(long durationMs) {
+        if (durationMs >= 0 && settings.getSlowCallDuration() > 0 && durationMs > settings.getSlowCallDuration()) {
+            onFailure();
+            return;
+        }
+
+        switch (state) {
+            case CLOSED -> record(false);
+            case HALF_OPEN -> {
+                halfOpenSucceeded++;
+                if (halfOpenSucceeded >= settings.getHalfOpenPermits()) {
+                    transitionTo(CircuitBreakerState.CLOSED);
+                }
+            }
+            case OPEN -> {
+                // Late result of a call admitted before the breaker opened
+            }
+        }
+    }
+
+    /**
+     * Record a failed call
+     */
+    public synchronized void onFailure() {
+        switch (state) {
+            case CLOSED -> {
+                record(true);
+                if (bufferedCalls >= settings.getMinimumCalls()
+                        && failureRate() >= settings.getFailureRateThreshold()) {
+                    transitionTo(CircuitBreakerState.OPEN);
+                }
+            }
+            case HALF_OPEN -> transitionTo(CircuitBreakerState.OPEN);
+            case OPEN -> {
+                // Late result of a call admitted before the breaker opened
+            }
+        }
+    }
+
+    /**
+     * Release a granted call whose outcome says nothing about the provider (e.g. cancelled by the caller)
+     */
+    public synchronized void onIgnored() {
+        if (state == CircuitBreakerState.HALF_OPEN && halfOpenIssued > 0) {
+            halfOpenIssued--;
+        }
+    }
+
+    public synchronized CircuitBreakerState getState() {
+        return state;
+    }
+
+    public synchronized CircuitBreakerStats getStats() {
+        return CircuitBreakerStats.builder()
+                .state(state)
+                .failureRate(bufferedCalls >= settings.getMinimumCalls() ? failureRate() : -1)
+                .bufferedCalls(bufferedCalls)
+                .failedCalls(failedCalls)
+                .notPermittedCalls(notPermittedCalls)
+                .openCount(openCount)
+                .stateChangedAt(stateChangedAt)
+                .build();
+    }
+
+    private boolean openDurationElapsed() {
+        return clock.getAsLong() - openedAt >= settings.getOpenDuration();
+    }
+
+    private double failureRate() {
+        return bufferedCalls == 0 ? 0 : failedCalls * 100.0 / bufferedCalls;
+    }
+
+    private void record(boolean failure) {
+        if (bufferedCalls == window.length) {
+            if (window[windowPosition]) {
+                failedCalls--;
+            }
+        } else {
+            bufferedCalls++;
+        }
+        window[windowPosition] = failure;
+        if (failure) {
+            failedCalls++;
+        }
+        windowPosition = (windowPosition + 1) % window.length;
+    }
+
+    private void transitionTo(CircuitBreakerState newState) {
+        CircuitBreakerState previous = state;
+        double rate = failureRate();
+        state = newState;
+        stateChangedAt = LocalDateTime.now();
+        halfOpenIssued = 0;
+        halfOpenSucceeded = 0;
+
+        if (newState == CircuitBreakerState.OPEN) {
+            openedAt = clock.getAsLong();
+            openCount++;
+            log.warn("Circuit breaker for provider {} changed: {} -> OPEN (failure rate {}%, {} calls)",
+                    name, previous, String.format("%.1f", rate), bufferedCalls);
+        } else {
+            log.info("Circuit breaker for provider {} changed: {} -> {}", name, previous, newState);
+        }
+
+        if (newState == CircuitBreakerState.CLOSED) {
+            // Start a fresh window so pre-outage failures cannot trip it again immediately
+            windowPosition = 0;
+            bufferedCalls = 0;
+            failedCalls = 0;
+        }
+    }
+}
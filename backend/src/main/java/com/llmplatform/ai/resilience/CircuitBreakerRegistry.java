@@ -0,0 +1,76 @@
+package com.llmplatform.ai.resilience;
+
+import com.llmplatform.ai.config.AIProviderConfig;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Holds one circuit breaker per AI provider
+ */
+@Component
+@RequiredArgsConstructor
+public class CircuitBreakerRegistry {
+
+    private final AIProviderConfig config;
+    private final Map<String, CircuitBreaker> breakers = new ConcurrentHashMap<>();
+
+    /**
+     * Check whether the provider's breaker would let a call through
+     */
+    public boolean isCallPermitted(String providerName) {
+        return !config.getCircuitBreaker().isEnabled() || get(providerName).isCallPermitted();
+    }
+
+    /**
+     * Acquire permission to call the provider; pair every granted call with onSuccess or onFailure
+     */
+    public boolean tryAcquire(String providerName) {
+        return !config.getCircuitBreaker().isEnabled() || get(providerName).tryAcquire();
+    }
+
+    /**
+     * Record a successful call
+     * @param durationMs call duration, or a negative value when latency should not be judged
+     */
+    public void onSuccess(String providerName, long durationMs) {
+        if (config.getCircuitBreaker().isEnabled()) {
+            get(providerName).onSuccess(durationMs);
+        }
+    }
+
+    /**
+     * Record a failed call
+     */
+    public void onFailure(String providerName) {
+        if (config.getCircuitBreaker().isEnabled()) {
+            get(providerName).onFailure();
+        }
+    }
+
+    /**
+     * Release a granted call without recording an outcome
+     */
+    public void onIgnored(String providerName) {
+        if (config.getCircuitBreaker().isEnabled()) {
+            get(providerName).onIgnored();
+        }
+    }
+
+    /**
+     * Get breaker statistics keyed by provider name
+     */
+    public Map<String, CircuitBreakerStats> getStats() {
+        Map<String, CircuitBreakerStats> stats = new TreeMap<>();
+        breakers.forEach((name, breaker) -> stats.put(name, breaker.getStats()));
+        return stats;
+    }
+
+    private CircuitBreaker get(String providerName) {
+        return breakers.computeIfAbsent(providerName,
+                name -> new CircuitBreaker(name, config.getCircuitBreaker()));
+    }
+}
@@ -0,0 +1,13 @@
+package com.llmplatform.ai.resilience;
+
+/**
+ * Circuit breaker states
+ */
+public enum CircuitBreakerState {
+    /** Calls pass through and outcomes are recorded in the sliding window */
+    CLOSED,
+    /** Calls are rejected immediately until the open duration elapses */
+    OPEN,
+    /** A limited number of trial calls decide whether to close or re-open */
+    HALF_OPEN
+}
@@ -0,0 +1,35 @@
+package com.llmplatform.ai.resilience;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Point-in-time view of a provider's circuit breaker
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CircuitBreakerStats {
+
+    private CircuitBreakerState state;
+
+    /** Failure percentage over the sliding window, -1 until minimumCalls were recorded */
+    private double failureRate;
+
+    private int bufferedCalls;
+
+    private int failedCalls;
+
+    /** Calls rejected without reaching the provider since startup */
+    private long notPermittedCalls;
+
+    /** Times the breaker opened since startup */
+    private long openCount;
+
+    private LocalDateTime stateChangedAt;
+}
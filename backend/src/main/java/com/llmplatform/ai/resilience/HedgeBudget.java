@@ -0,0 +1,64 @@
+package com.llmplatform.ai.resilience;
+
+import com.llmplatform.ai.config.AIProviderConfig;
+import com.llmplatform.ai.dto.AIFeature;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Caps the extra provider calls spent on hedging, per feature
+ * Every request deposits its feature's budget ratio and every hedge withdraws one whole call,
+ * so hedges stay below ratio * requests over time with a small burst allowance
+ */
+@Component
+@RequiredArgsConstructor
+public class HedgeBudget {
+
+    private final AIProviderConfig config;
+    private final Map<String, Balance> balances = new ConcurrentHashMap<>();
+
+    /**
+     * Credit the budget for one incoming request
+     */
+    public void deposit(String feature) {
+        AIProviderConfig.HedgingSettings settings = config.getHedging();
+        double ratio = settings.getBudgets().getOrDefault(normalize(feature), settings.getDefaultBudget());
+        balance(feature).deposit(ratio, settings.getMaxBurst());
+    }
+
+    /**
+     * Try to spend one hedge
+     * @return false if the feature has used up its hedging budget
+     */
+    public boolean tryWithdraw(String feature) {
+        return balance(feature).withdraw();
+    }
+
+    private Balance balance(String feature) {
+        return balances.computeIfAbsent(normalize(feature), name -> new Balance());
+    }
+
+    private String normalize(String feature) {
+        return feature != null ? feature : AIFeature.DEFAULT;
+    }
+
+    private static final class Balance {
+
+        private double tokens;
+
+        synchronized void deposit(double amount, int max) {
+            tokens = Math.min(tokens + amount, max);
+        }
+
+        synchronized boolean withdraw() {
+            if (tokens < 1) {
+                return false;
+            }
+            tokens -= 1;
+            return true;
+        }
+    }
+}
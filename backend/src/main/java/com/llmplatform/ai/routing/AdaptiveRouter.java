@@ -0,0 +1,126 @@
+package com.llmplatform.ai.routing;
+
+import com.llmplatform.ai.config.AIProviderConfig;
+import com.llmplatform.ai.provider.AIProvider;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Orders providers for each request by their live latency, error rate and calls in flight
+ * Providers whose scores are within the configured tolerance of each other are ordered by the
+ * configured default provider and then by static priority, so routing stays stable until one
+ * provider is measurably better
+ */
+@Component
+@RequiredArgsConstructor
+public class AdaptiveRouter {
+
+    private static final String STRATEGY_PRIORITY = "priority";
+
+    private final AIProviderConfig config;
+    private final List<AIProvider> providers;
+    private final Map<String, ProviderLoad> loads = new ConcurrentHashMap<>();
+
+    /**
+     * Order candidate providers from most to least preferred
+     * @param candidates providers that are currently routable
+     */
+    public List<AIProvider> rank(List<AIProvider> candidates) {
+        Comparator<AIProvider> byStaticPreference = staticPreference();
+        if (STRATEGY_PRIORITY.equalsIgnoreCase(config.getRouting().getStrategy()) || candidates.size() < 2) {
+            return candidates.stream().sorted(byStaticPreference).toList();
+        }
+
+        Map<AIProvider, Double> scores = new HashMap<>();
+        double fallbackLatency = fallbackLatency(candidates);
+        for (AIProvider candidate : candidates) {
+            scores.put(candidate, get(candidate.getName()).score(fallbackLatency));
+        }
+
+        double tolerance = 1 + config.getRouting().getTolerance();
+        List<AIProvider> remaining = new ArrayList<>(candidates);
+        List<AIProvider> ranked = new ArrayList<>(candidates.size());
+        while (!remaining.isEmpty()) {
+            double best = remaining.stream().mapToDouble(scores::get).min().orElse(0);
+            AIProvider next = remaining.stream()
+                    .filter(p -> scores.get(p) <= best * tolerance)
+                    .min(byStaticPreference)
+                    .orElseThrow();
+            ranked.add(next);
+            remaining.remove(next);
+        }
+        return ranked;
+    }
+
+    /**
+     * Mark a call to the provider as started; pair with onComplete or onAbandoned
+     */
+    public void onStart(String providerName) {
+        get(providerName).onStart();
+    }
+
+    /**
+     * Record the outcome of a call
+     * @param durationMs call duration, or a negative value when latency should not be judged
+     */
+    public void onComplete(String providerName, boolean success, long durationMs) {
+        get(providerName).onComplete(success, durationMs);
+    }
+
+    /**
+     * Record a call whose outcome nobody waited for
+     */
+    public void onAbandoned(String providerName) {
+        get(providerName).onAbandoned();
+    }
+
+    /**
+     * Snapshot of every provider's load, keyed by provider name
+     */
+    public Map<String, ProviderRoutingStats> getStats() {
+        Map<String, ProviderRoutingStats> stats = new TreeMap<>();
+        for (AIProvider provider : providers) {
+            ProviderLoad load = get(provider.getName());
+            stats.put(provider.getName(), ProviderRoutingStats.builder()
+                    .latencyMs(load.getLatencyMs())
+                    .errorRate(load.getErrorRate())
+                    .inFlight(load.getInFlight())
+                    .priority(provider.getPriority())
+                    .build());
+        }
+        return stats;
+    }
+
+    /**
+     * Default provider first, then lowest priority value
+     */
+    private Comparator<AIProvider> staticPreference() {
+        String defaultProvider = config.getDefaultProvider();
+        return Comparator.comparing((AIProvider p) -> !p.getName().equals(defaultProvider))
+                .thenComparingInt(AIProvider::getPriority);
+    }
+
+    /**
+     * Latency assumed for providers without samples: the mean of the others, so newcomers
+     * compete on static priority rather than winning or losing by default
+     */
+    private double fallbackLatency(List<AIProvider> candidates) {
+        return candidates.stream()
+                .mapToDouble(p -> get(p.getName()).getLatencyMs())
+                .filter(latency -> latency >= 0)
+                .average()
+                .orElse(1);
+    }
+
+    private ProviderLoad get(String providerName) {
+        return loads.computeIfAbsent(providerName, name -> new ProviderLoad(config.getRouting()));
+    }
+}
@@ -0,0 +1,84 @@
+package com.llmplatform.ai.routing;
+
+import com.llmplatform.ai.dto.AIFeature;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps the latencies of recent successful calls per provider and feature for percentile lookups
+ * Features differ by orders of magnitude in reply length, so a shared window would hedge long
+ * generations too early and short lookups too late
+ */
+@Component
+public class ProviderLatencyTracker {
+
+    /** Recent samples kept per provider and feature */
+    public static final int WINDOW_SIZE = 256;
+
+    private final Map<WindowKey, LatencyWindow> windows = new ConcurrentHashMap<>();
+
+    /**
+     * Record the latency of a successful non-streaming call
+     */
+    public void record(String providerName, String feature, long latencyMs) {
+        windows.computeIfAbsent(key(providerName, feature), key -> new LatencyWindow()).add(latencyMs);
+    }
+
+    /**
+     * Number of samples currently on record for a provider and feature
+     */
+    public int getSampleCount(String providerName, String feature) {
+        LatencyWindow window = windows.get(key(providerName, feature));
+        return window != null ? window.size() : 0;
+    }
+
+    /**
+     * Get a latency percentile of a provider for a feature
+     * @param percentile value between 0 and 100
+     * @return latency in milliseconds, or -1 if no samples were recorded
+     */
+    public long getPercentile(String providerName, String feature, double percentile) {
+        LatencyWindow window = windows.get(key(providerName, feature));
+        return window != null ? window.percentile(percentile) : -1;
+    }
+
+    private static WindowKey key(String providerName, String feature) {
+        return new WindowKey(providerName, feature != null ? feature : AIFeature.DEFAULT);
+    }
+
+    private record WindowKey(String providerName, String feature) {
+    }
+
+    private static final class LatencyWindow {
+
+        private final long[] samples = new long[WINDOW_SIZE];
+        private int position;
+        private int count;
+
+        synchronized void add(long latencyMs) {
+            samples[position] = latencyMs;
+            position = (position + 1) % samples.length;
+            count = Math.min(count + 1, samples.length);
+        }
+
+        synchronized int size() {
+            return count;
+        }
+
+        long percentile(double percentile) {
+            long[] sorted;
+            synchronized (this) {
+                if (count == 0) {
+                    return -1;
+                }
+                sorted = Arrays.copyOf(samples, count);
+            }
+            Arrays.sort(sorted);
+            int index = (int) Math.ceil(percentile / 100.0 * sorted.length) - 1;
+            return sorted[Math.max(0, Math.min(index, sorted.length - 1))];
+        }
+    }
+}
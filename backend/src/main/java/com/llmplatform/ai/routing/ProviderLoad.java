@@ -0,0 +1,92 @@
+package com.llmplatform.ai.routing;
+
+import com.llmplatform.ai.config.AIProviderConfig;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongSupplier;
+
+/**
+ * Live load of one provider: exponentially weighted latency and error rate plus calls in flight
+ * The error rate decays towards zero while the provider receives no traffic, so a provider that
+ * recovered is not shunned forever once the circuit breaker and health probe let it back in
+ */
+public class ProviderLoad {
+
+    private final AIProviderConfig.RoutingSettings settings;
+    private final LongSupplier clock;
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    private double latencyMs = -1;
+    private double errorRate;
+    private long errorUpdatedAt;
+
+    public ProviderLoad(AIProviderConfig.RoutingSettings settings) {
+        this(settings, System::currentTimeMillis);
+    }
+
+    public ProviderLoad(AIProviderConfig.RoutingSettings settings, LongSupplier clock) {
+        this.settings = settings;
+        this.clock = clock;
+        this.errorUpdatedAt = clock.getAsLong();
+    }
+
+    /**
+     * Mark a call as started; pair with onComplete or onAbandoned
+     */
+    public void onStart() {
+        inFlight.incrementAndGet();
+    }
+
+    /**
+     * Mark a call as finished and fold its outcome into the averages
+     * @param durationMs call duration, or a negative value when latency should not be judged (streams)
+     */
+    public synchronized void onComplete(boolean success, long durationMs) {
+        inFlight.decrementAndGet();
+        double alpha = settings.getEwmaAlpha();
+        errorRate = decayedErrorRate() * (1 - alpha) + (success ? 0 : alpha);
+        errorUpdatedAt = clock.getAsLong();
+        if (success && durationMs >= 0) {
+            latencyMs = latencyMs < 0 ? durationMs : latencyMs * (1 - alpha) + durationMs * alpha;
+        }
+    }
+
+    /**
+     * Mark a call as finished without judging it, e.g. a cancelled hedge
+     */
+    public void onAbandoned() {
+        inFlight.decrementAndGet();
+    }
+
+    public int getInFlight() {
+        return Math.max(0, inFlight.get());
+    }
+
+    /**
+     * Average latency of successful calls, or -1 before the first one
+     */
+    public synchronized double getLatencyMs() {
+        return latencyMs;
+    }
+
+    public synchronized double getErrorRate() {
+        return decayedErrorRate();
+    }
+
+    /**
+     * Expected cost of sending one more call here; lower is better
+     * @param fallbackLatencyMs latency assumed while this provider has no samples yet
+     */
+    public synchronized double score(double fallbackLatencyMs) {
+        double latency = latencyMs >= 0 ? latencyMs : fallbackLatencyMs;
+        return latency * (1 + getInFlight()) * (1 + settings.getErrorPenalty() * decayedErrorRate());
+    }
+
+    private double decayedErrorRate() {
+        long elapsed = clock.getAsLong() - errorUpdatedAt;
+        if (elapsed <= 0 || settings.getErrorHalfLife() <= 0) {
+            return errorRate;
+        }
+        return errorRate * Math.pow(0.5, (double) elapsed / settings.getErrorHalfLife());
+    }
+}
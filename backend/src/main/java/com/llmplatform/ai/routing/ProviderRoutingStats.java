@@ -0,0 +1,27 @@
+package com.llmplatform.ai.routing;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Point-in-time view of the load figures adaptive routing uses for a provider
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProviderRoutingStats {
+
+    /** Weighted average latency of successful calls, -1 before the first one */
+    private double latencyMs;
+
+    /** Weighted average share of failed calls, between 0 and 1 */
+    private double errorRate;
+
+    private int inFlight;
+
+    /** Static priority, used to break ties between similar scores */
+    private int priority;
+}
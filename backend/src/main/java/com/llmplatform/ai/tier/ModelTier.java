@@ -0,0 +1,34 @@
+package com.llmplatform.ai.tier;
+
+/**
+ * Capability tiers of provider models, least capable (and usually cheapest and fastest) first
+ */
+public enum ModelTier {
+    /** Short structured generations: definitions, translations, example sentences */
+    SMALL,
+    /** Longer structured output that needs some reasoning, e.g. quiz questions */
+    MEDIUM,
+    /** Open-ended, multi-turn conversation */
+    LARGE;
+
+    /**
+     * Check whether a model of this tier is capable enough for a task needing the given tier
+     */
+    public boolean satisfies(ModelTier required) {
+        return compareTo(required) >= 0;
+    }
+
+    /**
+     * Resolve a configured tier name, or null for unknown names
+     */
+    public static ModelTier fromName(String name) {
+        if (name != null) {
+            for (ModelTier tier : values()) {
+                if (tier.name().equalsIgnoreCase(name)) {
+                    return tier;
+                }
+            }
+        }
+        return null;
+    }
+}
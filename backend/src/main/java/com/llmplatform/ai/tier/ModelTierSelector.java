@@ -0,0 +1,78 @@
+package com.llmplatform.ai.tier;
+
+import com.llmplatform.ai.config.AIProviderConfig;
+import com.llmplatform.ai.dto.AIRequest;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Picks the model a provider should use for a request
+ * Requests tagged with a task class get the cheapest of the provider's tiered models whose tier is
+ * high enough for that class, preferring the lower tier on equal cost since smaller models answer
+ * faster. Untagged requests, and tasks no tiered model is capable of, use the provider's default model
+ */
+@Component
+@RequiredArgsConstructor
+public class ModelTierSelector {
+
+    private final AIProviderConfig config;
+
+    /**
+     * Tag a request with the model to call on a provider
+     * @return the request with its model set, or the request itself if the default model applies
+     */
+    public AIRequest select(String providerName, AIRequest request) {
+        String model = modelFor(providerName, request.getTaskClass());
+        if (model == null || model.equals(request.getModel())) {
+            return request;
+        }
+        return request.toBuilder().model(model).build();
+    }
+
+    /**
+     * Tiered model for a task class on a provider
+     * @return the model name, or null to use the provider's default model
+     */
+    public String modelFor(String providerName, TaskClass taskClass) {
+        if (taskClass == null || !config.getModelTiering().isEnabled()) {
+            return null;
+        }
+        ModelTier required = requiredTier(taskClass);
+        return config.getProviderSettings(providerName).getModels().stream()
+                .filter(model -> model.getName() != null && model.getTier() != null && model.getTier().satisfies(required))
+                .min(Comparator.comparingDouble(AIProviderConfig.ModelSettings::getCost)
+                        .thenComparing(AIProviderConfig.ModelSettings::getTier))
+                .map(AIProviderConfig.ModelSettings::getName)
+                .orElse(null);
+    }
+
+    /**
+     * Tier a task class needs, from configuration or the class default
+     */
+    public ModelTier requiredTier(TaskClass taskClass) {
+        ModelTier configured = ModelTier.fromName(config.getModelTiering().getTaskTiers().get(taskClass.configKey()));
+        return configured != null ? configured : taskClass.getDefaultTier();
+    }
+
+    /**
+     * Model each enabled provider uses per task class, for monitoring
+     */
+    public Map<String, Map<String, String>> getAssignments() {
+        Map<String, Map<String, String>> assignments = new LinkedHashMap<>();
+        config.getProviders().forEach((providerName, settings) -> {
+            if (!settings.isEnabled()) {
+                return;
+            }
+            Map<String, String> models = new LinkedHashMap<>();
+            for (TaskClass taskClass : TaskClass.values()) {
+                models.put(taskClass.configKey(), settings.resolveModel(modelFor(providerName, taskClass)));
+            }
+            assignments.put(providerName, models);
+        });
+        return assignments;
+    }
+}
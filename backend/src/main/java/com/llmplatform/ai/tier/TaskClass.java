@@ -0,0 +1,31 @@
+package com.llmplatform.ai.tier;
+
+/**
+ * Kinds of AI work a request can be tagged with, each with the least model tier that handles it well
+ * The default tiers can be overridden per task class in ai.gateway.model-tiering.task-tiers
+ */
+public enum TaskClass {
+    WORD_DEFINITION(ModelTier.SMALL),
+    EXAMPLE_SENTENCES(ModelTier.SMALL),
+    SUMMARY(ModelTier.SMALL),
+    QUIZ(ModelTier.MEDIUM),
+    EXERCISE(ModelTier.MEDIUM),
+    DIALOGUE(ModelTier.LARGE);
+
+    private final ModelTier defaultTier;
+
+    TaskClass(ModelTier defaultTier) {
+        this.defaultTier = defaultTier;
+    }
+
+    public ModelTier getDefaultTier() {
+        return defaultTier;
+    }
+
+    /**
+     * Name used as key in configuration, e.g. "word-definition"
+     */
+    public String configKey() {
+        return name().toLowerCase().replace('_', '-');
+    }
+}
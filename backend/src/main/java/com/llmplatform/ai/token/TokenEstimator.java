@@ -0,0 +1,127 @@
+package com.llmplatform.ai.token;
+
+import com.llmplatform.ai.dto.AIRequest;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Offline prompt token estimator used before a request is sent
+ * Counts tokens in one pass over the characters with per-script rates typical of BPE vocabularies:
+ * Latin text packs about four characters per token while CJK characters take about one token each.
+ * Each provider's reported prompt usage then calibrates a correction factor, so estimates converge
+ * on what that provider's tokenizer actually counts
+ */
+@Component
+public class TokenEstimator {
+
+    /** Tokens per ASCII letter, digit or whitespace */
+    private static final double ASCII_WORD_RATE = 0.25;
+    /** Tokens per ASCII punctuation mark, which often merges with neighbours */
+    private static final double ASCII_PUNCTUATION_RATE = 0.5;
+    /** Tokens per accented Latin, Greek or Cyrillic character */
+    private static final double EXTENDED_ALPHABET_RATE = 0.5;
+    /** Tokens per Han, kana or Hangul character */
+    private static final double CJK_RATE = 1.2;
+    /** Tokens per character of any other script, emoji halves included */
+    private static final double OTHER_RATE = 1.0;
+
+    /** Chat formatting overhead per message and for priming the reply */
+    private static final int MESSAGE_OVERHEAD = 4;
+    private static final int REPLY_PRIMING = 3;
+
+    /** Weight of the newest observation in the calibration factor, and its bounds */
+    private static final double CALIBRATION_ALPHA = 0.1;
+    private static final double MIN_CALIBRATION = 0.5;
+    private static final double MAX_CALIBRATION = 2.0;
+
+    private final Map<String, Double> calibration = new ConcurrentHashMap<>();
+
+    /**
+     * Estimate the tokens of a piece of text
+     */
+    public int estimate(String text) {
+        if (text == null || text.isEmpty()) {
+            return 0;
+        }
+        double tokens = 0;
+        for (int i = 0; i < text.length(); i++) {
+            tokens += rate(text.charAt(i));
+        }
+        return (int) Math.ceil(tokens);
+    }
+
+    /**
+     * Estimate the tokens of one chat message, formatting included
+     */
+    public int estimate(AIRequest.Message message) {
+        return estimate(message.getContent()) + MESSAGE_OVERHEAD;
+    }
+
+    /**
+     * Estimate the prompt tokens of a request: system message, history, prompt and chat formatting
+     */
+    public int estimate(AIRequest request) {
+        int tokens = REPLY_PRIMING;
+        if (request.getSystemMessage() != null && !request.getSystemMessage().isEmpty()) {
+            tokens += estimate(request.getSystemMessage()) + MESSAGE_OVERHEAD;
+        }
+        if (request.getMessages() != null) {
+            for (AIRequest.Message message : request.getMessages()) {
+                tokens += estimate(message);
+            }
+        }
+        if (request.getPrompt() != null && !request.getPrompt().isEmpty()) {
+            tokens += estimate(request.getPrompt()) + MESSAGE_OVERHEAD;
+        }
+        return tokens;
+    }
+
+    /**
+     * Estimate the prompt tokens of a request as counted by a specific provider
+     */
+    public int estimate(String providerName, AIRequest request) {
+        return (int) Math.ceil(estimate(request) * calibration.getOrDefault(providerName, 1.0));
+    }
+
+    /**
+     * Feed back the prompt tokens a provider reported for a request
+     * @param estimatedTokens the uncalibrated estimate of the request
+     * @param actualTokens prompt tokens from the provider's usage report
+     */
+    public void observe(String providerName, int estimatedTokens, int actualTokens) {
+        if (estimatedTokens <= 0 || actualTokens <= 0) {
+            return;
+        }
+        double ratio = (double) actualTokens / estimatedTokens;
+        calibration.merge(providerName, clamp(ratio), (current, observed) ->
+                clamp(current * (1 - CALIBRATION_ALPHA) + observed * CALIBRATION_ALPHA));
+    }
+
+    /**
+     * Current correction factor of a provider, 1.0 until it reported usage
+     */
+    public double getCalibration(String providerName) {
+        return calibration.getOrDefault(providerName, 1.0);
+    }
+
+    private double rate(char c) {
+        if (c < 0x80) {
+            return Character.isLetterOrDigit(c) || Character.isWhitespace(c) ? ASCII_WORD_RATE : ASCII_PUNCTUATION_RATE;
+        }
+        if (c < 0x0530) {
+            return EXTENDED_ALPHABET_RATE; // Latin-1 supplement up to Cyrillic
+        }
+        Character.UnicodeScript script = Character.UnicodeScript.of(c);
+        return switch (script) {
+            case HAN, HIRAGANA, KATAKANA, HANGUL -> CJK_RATE;
+            case LATIN, GREEK, CYRILLIC -> EXTENDED_ALPHABET_RATE;
+            default -> OTHER_RATE;
+        };
+    }
+
+    private double clamp(double factor) {
+        return Math.max(MIN_CALIBRATION, Math.min(MAX_CALIBRATION, factor));
+    }
+}
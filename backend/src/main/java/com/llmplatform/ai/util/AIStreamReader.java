@@ -0,0 +1,200 @@
+package com.llmplatform.ai.util;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.llmplatform.ai.dto.AIResponse;
+import org.apache.hc.core5.http.io.EofSensorInputStream;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.function.Consumer;
+
+/**
+ * Utility class for reading streamed completions from AI providers
+ * Supports the OpenAI-compatible SSE format and Ollama's NDJSON format
+ * A stream that ends before its end marker, or that carries an error chunk, is read as a failure, so a
+ * truncated reply is never taken for a complete one
+ * An exception thrown by the delta callback, such as the client disconnecting, aborts the upstream
+ * connection and propagates to the caller instead of being read as a provider failure
+ */
+public final class AIStreamReader {
+
+    private static final String SSE_DATA_PREFIX = "data:";
+    private static final String SSE_DONE_MARKER = "[DONE]";
+
+    private AIStreamReader() {
+        // Prevent instantiation
+    }
+
+    /**
+     * Read an OpenAI-compatible SSE stream ("data: {chunk}" lines terminated by "data: [DONE]")
+     *
+     * @param body the response body stream
+     * @param objectMapper mapper used to parse each chunk
+     * @param providerName the name of the provider
+     * @param onDelta callback receiving each non-empty content delta
+     * @return normalized response with the assembled content, or a failure if the stream reported an error
+     *         or ended before [DONE]
+     */
+    public static AIResponse readOpenAIStream(InputStream body, ObjectMapper objectMapper,
+                                              String providerName, Consumer<String> onDelta) throws IOException {
+        StringBuilder content = new StringBuilder();
+        String model = null;
+        AIResponse.Usage usage = null;
+        boolean done = false;
+
+        BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8));
+        String line;
+        while ((line = reader.readLine()) != null) {
+            if (!line.startsWith(SSE_DATA_PREFIX)) {
+                continue; // Blank separators, comments and event names
+            }
+            String data = line.substring(SSE_DATA_PREFIX.length()).trim();
+            if (SSE_DONE_MARKER.equals(data)) {
+                done = true;
+                break;
+            }
+            if (data.isEmpty()) {
+                continue;
+            }
+
+            JsonNode chunk = objectMapper.readTree(data);
+            if (chunk.hasNonNull("error")) {
+                return AIResponse.failure(providerName, errorMessage(chunk.get("error")));
+            }
+            if (chunk.hasNonNull("model")) {
+                model = chunk.get("model").asText();
+            }
+
+            JsonNode choices = chunk.path("choices");
+            if (choices.isArray() && !choices.isEmpty()) {
+                String delta = choices.get(0).path("delta").path("content").asText("");
+                if (!delta.isEmpty()) {
+                    content.append(delta);
+                    deliver(body, onDelta, delta);
+                }
+            }
+
+            // Usage arrives on the final chunk when stream_options.include_usage is set
+            JsonNode usageNode = chunk.path("usage");
+            if (usageNode.isObject()) {
+                usage = AIResponse.Usage.builder()
+                        .promptTokens(usageNode.path("prompt_tokens").asInt())
+                        .completionTokens(usageNode.path("completion_tokens").asInt())
+                        .totalTokens(usageNode.path("total_tokens").asInt())
+                        .build();
+            }
+        }
+
+        if (!done) {
+            return AIResponse.failure(providerName, "Stream ended before " + SSE_DONE_MARKER);
+        }
+        return assemble(content, model, usage, providerName);
+    }
+
+    /**
+     * Read an Ollama NDJSON stream (one JSON object per line, the last one flagged "done")
+     *
+     * @param body the response body stream
+     * @param objectMapper mapper used to parse each line
+     * @param providerName the name of the provider
+     * @param model the configured model, used when the stream does not report one
+     * @param onDelta callback receiving each non-empty content delta
+     * @return normalized response with the assembled content, or a failure if the stream reported an error
+     *         or ended before the line flagged done
+     */
+    public static AIResponse readOllamaStream(InputStream body, ObjectMapper objectMapper, String providerName,
+                                              String model, Consumer<String> onDelta) throws IOException {
+        StringBuilder content = new StringBuilder();
+        String responseModel = model;
+        AIResponse.Usage usage = null;
+        boolean done = false;
+
+        BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8));
+        String line;
+        while ((line = reader.readLine()) != null) {
+            if (line.isBlank()) {
+                continue;
+            }
+
+            JsonNode chunk = objectMapper.readTree(line);
+            if (chunk.hasNonNull("error")) {
+                return AIResponse.failure(providerName, errorMessage(chunk.get("error")));
+            }
+            responseModel = chunk.path("model").asText(responseModel);
+
+            String delta = chunk.path("message").path("content").asText("");
+            if (!delta.isEmpty()) {
+                content.append(delta);
+                deliver(body, onDelta, delta);
+            }
+
+            if (chunk.path("done").asBoolean(false)) {
+                int promptTokens = chunk.path("prompt_eval_count").asInt(0);
+                int completionTokens = chunk.path("eval_count").asInt(0);
+                usage = AIResponse.Usage.builder()
+                        .promptTokens(promptTokens)
+                        .completionTokens(completionTokens)
+                        .totalTokens(promptTokens + completionTokens)
+                        .build();
+                done = true;
+                break;
+            }
+        }
+
+        if (!done) {
+            return AIResponse.failure(providerName, "Stream ended before the final message");
+        }
+        return assemble(content, responseModel, usage, providerName);
+    }
+
+    /**
+     * Message of an error chunk: a plain string, or an object carrying a message as OpenAI-compatible APIs send
+     */
+    private static String errorMessage(JsonNode error) {
+        if (error.isObject()) {
+            return error.path("message").asText(error.toString());
+        }
+        return error.asText();
+    }
+
+    /**
+     * Hand a delta to the callback; if it throws, drop the upstream connection before rethrowing
+     * Closing the body normally would read the rest of the reply to keep the connection reusable
+     */
+    private static void deliver(InputStream body, Consumer<String> onDelta, String delta) {
+        try {
+            onDelta.accept(delta);
+        } catch (RuntimeException e) {
+            abort(body);
+            throw e;
+        }
+    }
+
+    private static void abort(InputStream body) {
+        try {
+            if (body instanceof EofSensorInputStream sensor) {
+                sensor.abort();
+            } else {
+                body.close();
+            }
+        } catch (IOException ignored) {
+            // The connection is being discarded anyway
+        }
+    }
+
+    private static AIResponse assemble(StringBuilder content, String model, AIResponse.Usage usage, String providerName) {
+        AIResponse response = AIResponse.builder()
+                .content(content.toString())
+                .model(model)
+                .usage(usage)
+                .provider(providerName)
+                .success(true)
+                .build();
+
+        return AIResponseNormalizer.normalize(response, providerName);
+    }
+}
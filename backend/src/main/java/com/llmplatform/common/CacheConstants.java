@@ -1,5 +1,7 @@
 package com.llmplatform.common;
 
+import java.util.List;
+
 /**
  * Cache key constants for Redis operations
  */
@@ -13,13 +15,42 @@ public final class CacheConstants {
     public static final String WORD_PREFIX = "word:";
     public static final String SESSION_PREFIX = "session:";
     public static final String DIALOGUE_PREFIX = "dialogue:session:";
-    public static final String STATS_PREFIX = "stats:user:";
+    public static final String DIALOGUE_SUMMARY_PREFIX = "dialogue:summary:";
+    public static final String STATS_PREFIX = "stats:counters:";
+    public static final String WORD_LEASE_PREFIX = "lease:word:";
+    public static final String STATS_RECONCILE_LEASE_KEY = "lease:stats:reconcile";
+    public static final String PROFILE_PREFIX = "learning:profile:";
+    public static final String PLAN_PREFIX = "learning:plan:";
+    public static final String DAILY_TASKS_PREFIX = "learning:daily_tasks:";
+    public static final String STREAK_PREFIX = "learning:streak:";
+    public static final String ACHIEVEMENTS_PREFIX = "learning:achievements:";
+    public static final String DUE_REVIEWS_PREFIX = "memory:due_reviews:";
+    public static final String AI_RESPONSE_PREFIX = "ai:response:";
+
+    /**
+     * Prefixes hit ratios are reported for; keys matching none are counted under "other"
+     * Statistics counters are Redis hashes read directly, not through the cache
+     */
+    public static final List<String> PREFIXES = List.of(
+            WORD_PREFIX, SESSION_PREFIX, DIALOGUE_PREFIX, DIALOGUE_SUMMARY_PREFIX, WORD_LEASE_PREFIX,
+            PROFILE_PREFIX, PLAN_PREFIX, DAILY_TASKS_PREFIX, STREAK_PREFIX, ACHIEVEMENTS_PREFIX, DUE_REVIEWS_PREFIX,
+            AI_RESPONSE_PREFIX);
+
+    /**
+     * Read-mostly prefixes kept in the in-process L1 by default
+     * Dialogue context is rewritten every turn and leases must be seen by all nodes, so both stay Redis-only;
+     * AI responses have their own token-weighted in-process tier
+     */
+    public static final List<String> LOCAL_PREFIXES = List.of(
+            WORD_PREFIX, PROFILE_PREFIX, PLAN_PREFIX, STREAK_PREFIX, ACHIEVEMENTS_PREFIX, DUE_REVIEWS_PREFIX);
 
     // TTL values in seconds
     public static final long WORD_TTL_SECONDS = 7 * 24 * 60 * 60;  // 7 days
     public static final long SESSION_TTL_SECONDS = 24 * 60 * 60;    // 24 hours
     public static final long DIALOGUE_TTL_SECONDS = 2 * 60 * 60;    // 2 hours
-    public static final long STATS_TTL_SECONDS = 60 * 60;           // 1 hour
+    public static final long STATS_TTL_SECONDS = 35 * 24 * 60 * 60; // 35 days, refreshed by every activity
+    public static final long STATS_RECONCILE_LEASE_TTL_MILLIS = 60 * 1000; // 1 minute, renewed while the job runs
+    public static final long WORD_LEASE_TTL_MILLIS = 30 * 1000;     // 30 seconds, renewed while the holder generates
 
     /**
      * Generate word cache key
@@ -29,6 +60,14 @@ public final class CacheConstants {
         return WORD_PREFIX + sourceLang + ":" + targetLang + ":" + word.toLowerCase();
     }
 
+    /**
+     * Generate word generation lease key
+     * Format: lease:word:{sourceLang}:{targetLang}:{word}
+     */
+    public static String wordLeaseKey(String sourceLang, String targetLang, String word) {
+        return WORD_LEASE_PREFIX + sourceLang + ":" + targetLang + ":" + word.toLowerCase();
+    }
+
     /**
      * Generate session cache key
      * Format: session:{token}
@@ -46,8 +85,16 @@ public final class CacheConstants {
     }
 
     /**
-     * Generate user statistics cache key
-     * Format: stats:user:{userId}
+     * Generate dialogue rolling summary cache key
+     * Format: dialogue:summary:{sessionId}
+     */
+    public static String dialogueSummaryKey(Long sessionId) {
+        return DIALOGUE_SUMMARY_PREFIX + sessionId;
+    }
+
+    /**
+     * Generate user statistics counters key, a Redis hash
+     * Format: stats:counters:{userId}
      */
     public static String statsKey(Long userId) {
         return STATS_PREFIX + userId;
@@ -0,0 +1,119 @@
+package com.llmplatform.config;
+
+import com.llmplatform.util.RedisRoundTrips;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * Executor configuration for work that must not run on Tomcat request threads
+ */
+@Configuration
+public class AsyncConfig {
+
+    /**
+     * Bounded executor for AI calls whose result is delivered asynchronously (e.g. SSE streams)
+     * When the queue is full the submitting thread runs the task, which throttles callers instead of dropping work
+     */
+    @Bean(name = "aiTaskExecutor")
+    public ThreadPoolTaskExecutor aiTaskExecutor(
+            @Value("${ai.executor.core-pool-size:16}") int corePoolSize,
+            @Value("${ai.executor.max-pool-size:64}") int maxPoolSize,
+            @Value("${ai.executor.queue-capacity:256}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(corePoolSize);
+        executor.setMaxPoolSize(maxPoolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("ai-task-");
+        executor.setTaskDecorator(RedisRoundTrips::propagate);
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Bounded executor that AI-backed endpoints and AIGateway async calls wait on, so Tomcat workers are
+     * released while a provider is generating and non-AI endpoints stay responsive under AI load
+     * Kept apart from aiTaskExecutor: requests running here submit hedged calls there, and sharing one
+     * pool would let blocked requests starve the calls they wait for
+     * Sized to the AI calls the lanes admit at once: more threads would only wait in the lane queues. No
+     * transaction spans an AI call, so the threads hold a database connection only for short reads and
+     * writes and fit the Hikari pool. When the queue is full requests are rejected with 503 rather than
+     * run on the Tomcat thread. Tasks count their Redis round trips towards the request that submitted them
+     */
+    @Bean(name = "aiRequestExecutor")
+    public ThreadPoolTaskExecutor aiRequestExecutor(
+            @Value("${ai.request-executor.pool-size:64}") int poolSize,
+            @Value("${ai.request-executor.queue-capacity:200}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setAllowCoreThreadTimeOut(true);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("ai-request-");
+        executor.setTaskDecorator(RedisRoundTrips::propagate);
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Small executor for question bank top-ups, which no request waits for
+     * When it is busy further top-ups are discarded; a later quiz asks for them again
+     */
+    @Bean(name = "questionBankExecutor")
+    public ThreadPoolTaskExecutor questionBankExecutor(
+            @Value("${quiz.bank.executor.pool-size:2}") int poolSize,
+            @Value("${quiz.bank.executor.queue-capacity:4}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("question-bank-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.DiscardPolicy());
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Single thread for statistics reconciliation, so its database queries stay off the scheduler pool
+     * A run that is still going when the next one is due makes the next one skip
+     */
+    @Bean(name = "statsReconcileExecutor")
+    public ThreadPoolTaskExecutor statsReconcileExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(1);
+        executor.setQueueCapacity(0);
+        executor.setThreadNamePrefix("stats-reconcile-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Small executor for background cache refreshes; when it is saturated refreshes are skipped and readers
+     * keep getting the cached value
+     */
+    @Bean(name = "cacheRefreshExecutor")
+    public ThreadPoolTaskExecutor cacheRefreshExecutor(
+            @Value("${cache.refresh.executor.core-pool-size:2}") int corePoolSize,
+            @Value("${cache.refresh.executor.max-pool-size:8}") int maxPoolSize,
+            @Value("${cache.refresh.executor.queue-capacity:100}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(corePoolSize);
+        executor.setMaxPoolSize(maxPoolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("cache-refresh-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        executor.initialize();
+        return executor;
+    }
+}
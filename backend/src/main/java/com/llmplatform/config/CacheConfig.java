@@ -0,0 +1,143 @@
+package com.llmplatform.config;
+
+import com.llmplatform.common.CacheConstants;
+import com.llmplatform.util.RefreshingLoader;
+import com.llmplatform.util.TwoTierCache;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.scheduling.TaskScheduler;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ScheduledFuture;
+
+/**
+ * Two-tier cache configuration
+ */
+@Slf4j
+@Configuration
+public class CacheConfig {
+
+    /**
+     * Cache shared by all services; with cache.local.enabled=false every read and write goes to Redis
+     */
+    @Bean
+    public TwoTierCache twoTierCache(
+            RedisTemplate<String, Object> redisTemplate,
+            @Value("${cache.local.enabled:true}") boolean enabled,
+            @Value("${cache.local.max-entries:10000}") long maxEntries,
+            @Value("${cache.local.ttl-seconds:300}") long ttlSeconds,
+            @Value("${cache.local.prefixes:}") String[] prefixes) {
+        if (!enabled) {
+            return TwoTierCache.redisOnly(redisTemplate);
+        }
+        List<String> localPrefixes = Arrays.stream(prefixes)
+                .map(String::trim)
+                .filter(prefix -> !prefix.isEmpty())
+                .toList();
+        if (localPrefixes.isEmpty()) {
+            localPrefixes = CacheConstants.LOCAL_PREFIXES;
+        }
+        return new TwoTierCache(redisTemplate, maxEntries, Duration.ofSeconds(ttlSeconds), localPrefixes);
+    }
+
+    /**
+     * Loader for values that are expensive to compute
+     */
+    @Bean
+    public RefreshingLoader refreshingLoader(
+            TwoTierCache twoTierCache,
+            @Qualifier("cacheRefreshExecutor") Executor cacheRefreshExecutor,
+            @Value("${cache.refresh.beta:1.0}") double beta,
+            @Value("${cache.refresh.stale-seconds:300}") long staleSeconds) {
+        return new RefreshingLoader(twoTierCache, cacheRefreshExecutor, beta, Duration.ofSeconds(staleSeconds));
+    }
+
+    /**
+     * Subscribes to invalidations published by other nodes so their writes evict this node's L1
+     * The node starts even if Redis is down; the subscription is retried in the background, and until it
+     * succeeds the L1 TTL bounds how stale a value can be
+     */
+    @Bean
+    @ConditionalOnProperty(name = "cache.local.enabled", havingValue = "true", matchIfMissing = true)
+    public RedisMessageListenerContainer cacheInvalidationListener(
+            RedisConnectionFactory connectionFactory,
+            TwoTierCache twoTierCache,
+            TaskScheduler taskScheduler,
+            @Value("${cache.local.resubscribe-seconds:5}") long resubscribeSeconds) {
+        RedisMessageListenerContainer container =
+                new ResubscribingListenerContainer(taskScheduler, Duration.ofSeconds(resubscribeSeconds));
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener((message, pattern) -> twoTierCache.onInvalidation(message.getBody()),
+                new ChannelTopic(TwoTierCache.INVALIDATION_CHANNEL));
+        return container;
+    }
+
+    /**
+     * Listener container whose start does not fail when Redis is unreachable but keeps retrying
+     */
+    static class ResubscribingListenerContainer extends RedisMessageListenerContainer {
+
+        private final TaskScheduler taskScheduler;
+        private final Duration retryInterval;
+        private volatile ScheduledFuture<?> retry;
+        private volatile boolean stopped;
+
+        ResubscribingListenerContainer(TaskScheduler taskScheduler, Duration retryInterval) {
+            this.taskScheduler = taskScheduler;
+            this.retryInterval = retryInterval;
+        }
+
+        @Override
+        public void start() {
+            stopped = false;
+            subscribe();
+        }
+
+        private void subscribe() {
+            if (stopped) {
+                return;
+            }
+            try {
+                super.start();
+            } catch (RuntimeException e) {
+                log.warn("Cache invalidation subscription failed, retrying in {}s: {}",
+                        retryInterval.toSeconds(), e.getMessage());
+                // Reset the started flag so the next attempt subscribes again
+                super.stop(() -> { });
+                retry = taskScheduler.schedule(this::subscribe, Instant.now().plus(retryInterval));
+            }
+        }
+
+        @Override
+        public void stop(Runnable callback) {
+            cancelRetry();
+            super.stop(callback);
+        }
+
+        @Override
+        public void destroy() throws Exception {
+            cancelRetry();
+            super.destroy();
+        }
+
+        private void cancelRetry() {
+            stopped = true;
+            ScheduledFuture<?> pending = retry;
+            if (pending != null) {
+                pending.cancel(false);
+            }
+        }
+    }
+}
@@ -1,40 +1,52 @@
 package com.llmplatform.config;
 
-import com.fasterxml.jackson.annotation.JsonAutoDetect;
-import com.fasterxml.jackson.annotation.JsonTypeInfo;
-import com.fasterxml.jackson.annotation.PropertyAccessor;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.SerializationFeature;
-import com.fasterxml.jackson.databind.jsontype.impl.LaissezFaireSubTypeValidator;
-import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.llmplatform.ai.context.DialogueSummary;
+import com.llmplatform.ai.dto.AIResponse;
+import com.llmplatform.personalized.entity.Achievement;
+import com.llmplatform.personalized.entity.DailyTask;
+import com.llmplatform.personalized.entity.LearningProfile;
+import com.llmplatform.personalized.entity.LearningStreak;
+import com.llmplatform.personalized.entity.MemoryRecord;
+import com.llmplatform.personalized.entity.StudyPlan;
+import com.llmplatform.util.LoadedValue;
+import com.llmplatform.util.RedisRoundTrips;
+import com.llmplatform.util.codec.CodecTypeRegistry;
+import com.llmplatform.util.codec.RedisValueCodec;
+import com.llmplatform.vo.DialogueSessionVO;
+import com.llmplatform.vo.LearningStatisticsVO;
+import com.llmplatform.vo.WordVO;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.RedisCallback;
 import org.springframework.data.redis.core.RedisTemplate;
-import org.springframework.data.redis.serializer.Jackson2JsonRedisSerializer;
+import org.springframework.data.redis.core.StringRedisTemplate;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+
 @Configuration
 public class RedisConfig {
 
     @Bean
-    public RedisTemplate<String, Object> redisTemplate(RedisConnectionFactory connectionFactory) {
-        RedisTemplate<String, Object> template = new RedisTemplate<>();
+    public RedisTemplate<String, Object> redisTemplate(
+            RedisConnectionFactory connectionFactory,
+            @Value("${redis.codec.write-format:smile}") String writeFormat,
+            @Value("${redis.codec.compress-threshold:1024}") int compressThreshold) {
+        RedisTemplate<String, Object> template = new RedisTemplate<>() {
+            @Override
+            public <T> T execute(RedisCallback<T> action, boolean exposeConnection, boolean pipeline) {
+                return RedisRoundTrips.track(() -> super.execute(action, exposeConnection, pipeline));
+            }
+        };
         template.setConnectionFactory(connectionFactory);
 
-        // Configure ObjectMapper for JSON serialization
-        ObjectMapper objectMapper = new ObjectMapper();
-        objectMapper.setVisibility(PropertyAccessor.ALL, JsonAutoDetect.Visibility.ANY);
-        objectMapper.activateDefaultTyping(
-                LaissezFaireSubTypeValidator.instance,
-                ObjectMapper.DefaultTyping.NON_FINAL,
-                JsonTypeInfo.As.PROPERTY
-        );
-        objectMapper.registerModule(new JavaTimeModule());
-        objectMapper.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
-
-        // Use Jackson2JsonRedisSerializer for value serialization
-        Jackson2JsonRedisSerializer<Object> jsonSerializer = new Jackson2JsonRedisSerializer<>(objectMapper, Object.class);
+        // Values are written as tagged Smile (or legacy JSON) and either format is read back
+        RedisValueCodec valueCodec = new RedisValueCodec(
+                typeRegistry(), RedisValueCodec.Format.fromName(writeFormat), compressThreshold);
 
         // Use StringRedisSerializer for key serialization
         StringRedisSerializer stringSerializer = new StringRedisSerializer();
@@ -42,10 +54,46 @@ public class RedisConfig {
         // Set serializers
         template.setKeySerializer(stringSerializer);
         template.setHashKeySerializer(stringSerializer);
-        template.setValueSerializer(jsonSerializer);
-        template.setHashValueSerializer(jsonSerializer);
+        template.setValueSerializer(valueCodec);
+        template.setHashValueSerializer(valueCodec);
 
         template.afterPropertiesSet();
         return template;
     }
+
+    /**
+     * String template whose round trips are counted like those of {@link #redisTemplate}
+     */
+    @Bean
+    public StringRedisTemplate stringRedisTemplate(RedisConnectionFactory connectionFactory) {
+        return new StringRedisTemplate(connectionFactory) {
+            @Override
+            public <T> T execute(RedisCallback<T> action, boolean exposeConnection, boolean pipeline) {
+                return RedisRoundTrips.track(() -> super.execute(action, exposeConnection, pipeline));
+            }
+        };
+    }
+
+    /**
+     * Short type ids for the classes cached in Redis; append only, a tag must never change meaning
+     */
+    public static CodecTypeRegistry typeRegistry() {
+        return new CodecTypeRegistry()
+                .register(1, ArrayList.class)
+                .register(2, LinkedHashMap.class)
+                .register(3, HashMap.class)
+                .register(10, WordVO.class)
+                .register(11, LearningStatisticsVO.class)
+                .register(12, DialogueSessionVO.MessageVO.class)
+                .register(13, DialogueSummary.class)
+                .register(14, AIResponse.class)
+                .register(15, AIResponse.Usage.class)
+                .register(20, MemoryRecord.class)
+                .register(21, LearningProfile.class)
+                .register(22, StudyPlan.class)
+                .register(23, DailyTask.class)
+                .register(24, LearningStreak.class)
+                .register(25, Achievement.class)
+                .register(30, LoadedValue.class);
+    }
 }
@@ -0,0 +1,13 @@
+package com.llmplatform.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Enables @Scheduled background jobs such as AI provider health probing
+ * Jobs run on the pool sized by spring.task.scheduling.pool.size, so a slow job does not delay the others
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
@@ -0,0 +1,191 @@
+package com.llmplatform.controller;
+
+import com.llmplatform.ai.cache.AIResponseCache;
+import com.llmplatform.ai.cache.ResponseCacheStats;
+import com.llmplatform.ai.cache.SemanticCache;
+import com.llmplatform.ai.cache.SemanticCacheStats;
+import com.llmplatform.ai.health.ProviderHealth;
+import com.llmplatform.ai.health.ProviderHealthRegistry;
+import com.llmplatform.ai.http.ProviderHttpClients;
+import com.llmplatform.ai.http.ProviderPoolStats;
+import com.llmplatform.ai.lane.LaneScheduler;
+import com.llmplatform.ai.lane.LaneStats;
+import com.llmplatform.ai.lane.RequestLane;
+import com.llmplatform.ai.metering.TokenBudgetStatus;
+import com.llmplatform.ai.metering.TokenUsageMeter;
+import com.llmplatform.ai.metering.TokenUsageReport;
+import com.llmplatform.ai.output.OutputDecodeStats;
+import com.llmplatform.ai.output.StructuredOutputDecoder;
+import com.llmplatform.ai.resilience.CircuitBreakerRegistry;
+import com.llmplatform.ai.resilience.CircuitBreakerStats;
+import com.llmplatform.ai.routing.AdaptiveRouter;
+import com.llmplatform.ai.routing.ProviderRoutingStats;
+import com.llmplatform.ai.tier.ModelTierSelector;
+import com.llmplatform.common.Result;
+import com.llmplatform.util.JwtUtil;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * AI Gateway Controller
+ * Exposes operational state of the AI provider layer
+ */
+@RestController
+@RequestMapping("/api/ai")
+@RequiredArgsConstructor
+public class AIGatewayController {
+
+    private final ProviderHttpClients providerHttpClients;
+    private final ProviderHealthRegistry providerHealthRegistry;
+    private final CircuitBreakerRegistry circuitBreakerRegistry;
+    private final AIResponseCache aiResponseCache;
+    private final SemanticCache semanticCache;
+    private final AdaptiveRouter adaptiveRouter;
+    private final LaneScheduler laneScheduler;
+    private final StructuredOutputDecoder outputDecoder;
+    private final ModelTierSelector modelTierSelector;
+    private final TokenUsageMeter tokenUsageMeter;
+    private final JwtUtil jwtUtil;
+
+    /**
+     * Get the latest background probe result per provider
+     * GET /api/ai/health
+     * 
+     * @return status, probe latency and last check time keyed by provider name
+     */
+    @GetMapping("/health")
+    public Result<Map<String, ProviderHealth>> getHealth() {
+        return Result.success(providerHealthRegistry.getHealth());
+    }
+
+    /**
+     * Get connection pool statistics per provider
+     * GET /api/ai/http-pools
+     * 
+     * @return leased, pending and idle connections keyed by provider name
+     */
+    @GetMapping("/http-pools")
+    public Result<Map<String, ProviderPoolStats>> getHttpPools() {
+        return Result.success(providerHttpClients.getPoolStats());
+    }
+
+    /**
+     * Get circuit breaker state per provider
+     * GET /api/ai/circuit-breakers
+     * 
+     * @return state, failure rate and rejected call count keyed by provider name
+     */
+    @GetMapping("/circuit-breakers")
+    public Result<Map<String, CircuitBreakerStats>> getCircuitBreakers() {
+        return Result.success(circuitBreakerRegistry.getStats());
+    }
+
+    /**
+     * Get the live load figures used by adaptive routing
+     * GET /api/ai/routing
+     * 
+     * @return weighted latency, error rate and calls in flight keyed by provider name
+     */
+    @GetMapping("/routing")
+    public Result<Map<String, ProviderRoutingStats>> getRouting() {
+        return Result.success(adaptiveRouter.getStats());
+    }
+
+    /**
+     * Get queue depth and wait times of the priority lanes
+     * GET /api/ai/lanes
+     * 
+     * @return calls in flight, queued and shed per lane, highest priority first
+     */
+    @GetMapping("/lanes")
+    public Result<Map<RequestLane, LaneStats>> getLanes() {
+        return Result.success(laneScheduler.getStats());
+    }
+
+    /**
+     * Get response cache hit ratio and tokens saved
+     * GET /api/ai/response-cache
+     * 
+     * @return cache counters since startup
+     */
+    @GetMapping("/response-cache")
+    public Result<ResponseCacheStats> getResponseCache() {
+        return Result.success(aiResponseCache.getStats());
+    }
+
+    /**
+     * Get semantic cache hit ratio, size and evictions
+     * GET /api/ai/semantic-cache
+     * 
+     * @return cache counters since startup
+     */
+    @GetMapping("/semantic-cache")
+    public Result<SemanticCacheStats> getSemanticCache() {
+        return Result.success(semanticCache.getStats());
+    }
+
+    /**
+     * Get the model each provider uses per task class
+     * GET /api/ai/models
+     * 
+     * @return map of provider name to task class to model name
+     */
+    @GetMapping("/models")
+    public Result<Map<String, Map<String, String>>> getModelAssignments() {
+        return Result.success(modelTierSelector.getAssignments());
+    }
+
+    /**
+     * Get how often model replies failed to parse as the expected JSON
+     * GET /api/ai/output-decoding
+     * 
+     * @return decode attempts, repairs and failures keyed by feature
+     */
+    @GetMapping("/output-decoding")
+    public Result<Map<String, OutputDecodeStats>> getOutputDecoding() {
+        return Result.success(outputDecoder.getStats());
+    }
+
+    /**
+     * Get the current user's token usage aggregated by provider, model and feature
+     * GET /api/ai/usage
+     * 
+     * @param authHeader Authorization header containing the Bearer token
+     * @param startDate first day of the range (default today)
+     * @param endDate last day of the range (default today)
+     * @return usage rows of the caller only, ordered by total tokens, descending
+     */
+    @GetMapping("/usage")
+    public Result<List<TokenUsageReport>> getUsage(
+            @RequestHeader("Authorization") String authHeader,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
+        // Scoped to the token's user: there are no admin roles to grant access to other users' usage
+        Long userId = jwtUtil.getUserIdFromToken(authHeader.substring(7));
+        LocalDate today = LocalDate.now();
+        return Result.success(tokenUsageMeter.getReport(
+                startDate != null ? startDate : today, endDate != null ? endDate : today, userId));
+    }
+
+    /**
+     * Get the current user's token spend against the daily budget
+     * GET /api/ai/usage/me
+     * 
+     * @param authHeader Authorization header containing the Bearer token
+     * @return used and remaining tokens for today
+     */
+    @GetMapping("/usage/me")
+    public Result<TokenBudgetStatus> getMyUsage(@RequestHeader("Authorization") String authHeader) {
+        Long userId = jwtUtil.getUserIdFromToken(authHeader.substring(7));
+        return Result.success(tokenUsageMeter.getBudgetStatus(userId));
+    }
+}
@@ -0,0 +1,48 @@
+package com.llmplatform.controller;
+
+import com.llmplatform.common.Result;
+import com.llmplatform.filter.RedisRoundTripFilter;
+import com.llmplatform.util.CachePrefixStats;
+import com.llmplatform.util.RoundTripStats;
+import com.llmplatform.util.TwoTierCache;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+
+/**
+ * Cache Controller
+ * Exposes operational state of the two-tier cache and of Redis access
+ */
+@RestController
+@RequestMapping("/api/cache")
+@RequiredArgsConstructor
+public class CacheController {
+
+    private final TwoTierCache twoTierCache;
+    private final RedisRoundTripFilter redisRoundTripFilter;
+
+    /**
+     * Get L1 and Redis hit ratios per key prefix
+     * GET /api/cache/stats
+     *
+     * @return counters since startup keyed by prefix, with "other" for keys matching no prefix
+     */
+    @GetMapping("/stats")
+    public Result<Map<String, CachePrefixStats>> getStats() {
+        return Result.success(twoTierCache.getStats());
+    }
+
+    /**
+     * Get Redis round trips per request for each endpoint
+     * GET /api/cache/round-trips
+     *
+     * @return counters since startup keyed by "METHOD pattern"; a pipeline or script counts as one round trip
+     */
+    @GetMapping("/round-trips")
+    public Result<Map<String, RoundTripStats>> getRoundTrips() {
+        return Result.success(redisRoundTripFilter.getStats());
+    }
+}
@@ -4,6 +4,7 @@ import com.llmplatform.common.Result;
 import com.llmplatform.dto.CreateScenarioDTO;
 import com.llmplatform.dto.SendMessageDTO;
 import com.llmplatform.dto.StartSessionDTO;
+import com.llmplatform.exception.BusinessException;
 import com.llmplatform.service.DialogueService;
 import com.llmplatform.util.JwtUtil;
 import com.llmplatform.vo.AIResponseVO;
@@ -11,21 +12,37 @@ import com.llmplatform.vo.DialogueSessionVO;
 import com.llmplatform.vo.ScenarioVO;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 
 /**
  * Dialogue Controller
  * Handles scenario dialogue practice operations
  */
+@Slf4j
 @RestController
 @RequestMapping("/api/dialogue")
 @RequiredArgsConstructor
 public class DialogueController {
 
+    private static final long STREAM_TIMEOUT_MS = 180_000L;
+
     private final DialogueService dialogueService;
     private final JwtUtil jwtUtil;
+    @Qualifier("aiTaskExecutor")
+    private final Executor aiTaskExecutor;
+    @Qualifier("aiRequestExecutor")
+    private final Executor aiRequestExecutor;
 
     /**
      * Get all available scenarios (preset and user-created)
@@ -119,16 +136,56 @@ public class DialogueController {
      * @param id session ID
      * @param dto message data
      * @param authHeader Authorization header containing the Bearer token
-     * @return AI response
+     * @return AI response, completed off the request thread
      */
     @PostMapping("/sessions/{id}/messages")
-    public Result<AIResponseVO> sendMessage(
+    public CompletableFuture<Result<AIResponseVO>> sendMessage(
+            @PathVariable Long id,
+            @Valid @RequestBody SendMessageDTO dto,
+            @RequestHeader("Authorization") String authHeader) {
+        Long userId = extractUserId(authHeader);
+        return CompletableFuture.supplyAsync(
+                () -> Result.success(dialogueService.sendMessage(id, dto.getMessage(), userId)), aiRequestExecutor);
+    }
+
+    /**
+     * Send a message in a dialogue session and stream the AI reply as Server-Sent Events
+     * POST /api/dialogue/sessions/{id}/messages/stream
+     * 
+     * Emits "delta" events ({"content": "..."}) as tokens arrive, then a single "done" event
+     * carrying the assembled reply, or an "error" event ({"code": "...", "message": "..."})
+     * 
+     * @param id session ID
+     * @param dto message data
+     * @param authHeader Authorization header containing the Bearer token
+     * @return SSE emitter for the reply stream
+     */
+    @PostMapping(value = "/sessions/{id}/messages/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter sendMessageStream(
             @PathVariable Long id,
             @Valid @RequestBody SendMessageDTO dto,
             @RequestHeader("Authorization") String authHeader) {
         Long userId = extractUserId(authHeader);
-        AIResponseVO response = dialogueService.sendMessage(id, dto.getMessage(), userId);
-        return Result.success(response);
+        SseEmitter emitter = new SseEmitter(STREAM_TIMEOUT_MS);
+
+        aiTaskExecutor.execute(() -> {
+            try {
+                AIResponseVO response = dialogueService.sendMessageStream(id, dto.getMessage(), userId,
+                        delta -> sendEvent(emitter, "delta", Map.of("content", delta)));
+                sendEvent(emitter, "done", response);
+                emitter.complete();
+            } catch (BusinessException e) {
+                sendErrorEvent(emitter, e.getCode(), e.getMessage());
+            } catch (UncheckedIOException e) {
+                log.debug("Dialogue stream for session {} closed by client: {}", id, e.getMessage());
+                emitter.complete();
+            } catch (Exception e) {
+                log.error("Dialogue stream for session {} failed", id, e);
+                sendErrorEvent(emitter, "SYSTEM_ERROR", "An unexpected error occurred");
+            }
+        });
+
+        return emitter;
     }
 
     /**
@@ -148,6 +205,26 @@ public class DialogueController {
         return Result.success(null);
     }
 
+    private void sendEvent(SseEmitter emitter, String name, Object data) {
+        try {
+            emitter.send(SseEmitter.event().name(name).data(data, MediaType.APPLICATION_JSON));
+        } catch (IOException e) {
+            // Client went away; abort the stream so the provider connection is released
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void sendErrorEvent(SseEmitter emitter, String code, String message) {
+        try {
+            emitter.send(SseEmitter.event().name("error")
+                    .data(Map.of("code", code, "message", message), MediaType.APPLICATION_JSON));
+            emitter.complete();
+        } catch (IOException | IllegalStateException e) {
+            // Client already gone or emitter timed out, nothing left to deliver
+            log.debug("Could not deliver stream error event: {}", e.getMessage());
+        }
+    }
+
     /**
      * Extract user ID from Authorization header
      */
@@ -10,9 +10,12 @@ import com.llmplatform.vo.QuizResultVO;
 import com.llmplatform.vo.QuizVO;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 
 /**
  * Quiz Controller
@@ -25,6 +28,8 @@ public class QuizController {
 
     private final QuizService quizService;
     private final JwtUtil jwtUtil;
+    @Qualifier("aiRequestExecutor")
+    private final Executor aiRequestExecutor;
 
     /**
      * Generate a new quiz with AI-generated questions
@@ -32,19 +37,18 @@ public class QuizController {
      * 
      * @param dto quiz generation parameters (difficulty, optional targetLang, optional questionCount)
      * @param authHeader Authorization header containing the Bearer token
-     * @return generated quiz with questions
+     * @return generated quiz with questions, completed off the request thread
      */
     @PostMapping("/generate")
-    public Result<QuizVO> generateQuiz(@Valid @RequestBody GenerateQuizDTO dto,
-                                       @RequestHeader("Authorization") String authHeader) {
+    public CompletableFuture<Result<QuizVO>> generateQuiz(@Valid @RequestBody GenerateQuizDTO dto,
+                                                          @RequestHeader("Authorization") String authHeader) {
         Long userId = extractUserId(authHeader);
-        QuizVO quiz = quizService.generateQuiz(
+        return CompletableFuture.supplyAsync(() -> Result.success(quizService.generateQuiz(
             dto.getDifficulty(), 
             dto.getTargetLang(), 
             dto.getQuestionCount(), 
             userId
-        );
-        return Result.success(quiz);
+        )), aiRequestExecutor);
     }
 
     /**
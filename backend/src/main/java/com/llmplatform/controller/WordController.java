@@ -8,9 +8,12 @@ import com.llmplatform.vo.WordHistoryVO;
 import com.llmplatform.vo.WordVO;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 
 /**
  * Word Query Controller
@@ -23,6 +26,8 @@ public class WordController {
 
     private final WordService wordService;
     private final JwtUtil jwtUtil;
+    @Qualifier("aiRequestExecutor")
+    private final Executor aiRequestExecutor;
 
     /**
      * Query a word with translation
@@ -30,15 +35,14 @@ public class WordController {
      * 
      * @param dto word query data containing word, source language, and target language
      * @param authHeader Authorization header containing the Bearer token
-     * @return word information with definition and translation
+     * @return word information with definition and translation, completed off the request thread
      */
     @PostMapping("/query")
-    public Result<WordVO> query(@Valid @RequestBody WordQueryDTO dto,
-                                @RequestHeader("Authorization") String authHeader) {
+    public CompletableFuture<Result<WordVO>> query(@Valid @RequestBody WordQueryDTO dto,
+                                                   @RequestHeader("Authorization") String authHeader) {
         Long userId = extractUserId(authHeader);
-        WordVO wordVO = wordService.query(dto.getWord(), dto.getSourceLang(), 
-                dto.getTargetLang(), userId);
-        return Result.success(wordVO);
+        return CompletableFuture.supplyAsync(() -> Result.success(wordService.query(dto.getWord(),
+                dto.getSourceLang(), dto.getTargetLang(), userId)), aiRequestExecutor);
     }
 
     /**
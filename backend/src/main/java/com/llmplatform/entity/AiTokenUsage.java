@@ -0,0 +1,35 @@
+package com.llmplatform.entity;
+
+import com.baomidou.mybatisplus.annotation.IdType;
+import com.baomidou.mybatisplus.annotation.TableId;
+import com.baomidou.mybatisplus.annotation.TableName;
+import lombok.Data;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+@Data
+@TableName("ai_token_usage")
+public class AiTokenUsage {
+    
+    @TableId(type = IdType.AUTO)
+    private Long id;
+    
+    private LocalDate usageDate;
+    
+    private Long userId;
+    
+    private String provider;
+    
+    private String model;
+    
+    private String feature;
+    
+    private Long promptTokens;
+    
+    private Long completionTokens;
+    
+    private Long requestCount;
+    
+    private LocalDateTime updatedAt;
+}
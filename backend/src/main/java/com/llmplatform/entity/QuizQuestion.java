@@ -0,0 +1,36 @@
+package com.llmplatform.entity;
+
+import com.baomidou.mybatisplus.annotation.IdType;
+import com.baomidou.mybatisplus.annotation.TableId;
+import com.baomidou.mybatisplus.annotation.TableName;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Data
+@TableName("quiz_question_bank")
+public class QuizQuestion {
+    
+    @TableId(type = IdType.AUTO)
+    private Long id;
+    
+    private String contentHash;  // SHA-256 of the normalized question and options, for deduplication
+    
+    private String targetLang;
+    
+    private String difficulty;
+    
+    private String topic;
+    
+    private String question;
+    
+    private String options;  // JSON array of the four labeled options
+    
+    private String correctAnswer;
+    
+    private Integer usageCount;
+    
+    private LocalDateTime createdAt;
+    
+    private LocalDateTime lastUsedAt;
+}
@@ -0,0 +1,22 @@
+package com.llmplatform.entity;
+
+import com.baomidou.mybatisplus.annotation.IdType;
+import com.baomidou.mybatisplus.annotation.TableId;
+import com.baomidou.mybatisplus.annotation.TableName;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Data
+@TableName("quiz_question_seen")
+public class QuizQuestionSeen {
+    
+    @TableId(type = IdType.AUTO)
+    private Long id;
+    
+    private Long userId;
+    
+    private Long questionId;
+    
+    private LocalDateTime seenAt;
+}
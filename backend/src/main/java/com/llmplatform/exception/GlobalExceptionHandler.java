@@ -9,7 +9,9 @@ import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.context.request.async.AsyncRequestTimeoutException;
 
+import java.util.concurrent.RejectedExecutionException;
 import java.util.stream.Collectors;
 
 @Slf4j
@@ -30,6 +32,20 @@ public class GlobalExceptionHandler {
         return Result.fail("AI_ERROR", "AI service is temporarily unavailable. Please try again later.");
     }
 
+    @ExceptionHandler(AsyncRequestTimeoutException.class)
+    @ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+    public Result<Void> handleAsyncRequestTimeout(AsyncRequestTimeoutException e) {
+        log.warn("Async request timed out waiting for the AI provider");
+        return Result.fail("AI_TIMEOUT", "AI service took too long to respond. Please try again later.");
+    }
+
+    @ExceptionHandler(RejectedExecutionException.class)
+    @ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+    public Result<Void> handleRejectedExecution(RejectedExecutionException e) {
+        log.warn("AI request queue is full, rejecting request");
+        return Result.fail("AI_BUSY", "AI service is busy, please try again shortly");
+    }
+
     @ExceptionHandler(MethodArgumentNotValidException.class)
     @ResponseStatus(HttpStatus.BAD_REQUEST)
     public Result<Void> handleValidationException(MethodArgumentNotValidException e) {
@@ -0,0 +1,110 @@
+package com.llmplatform.filter;
+
+import com.llmplatform.util.RedisRoundTrips;
+import com.llmplatform.util.RoundTripStats;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Redis Round Trip Filter
+ * Counts the Redis round trips each request makes, per endpoint pattern, including the token check
+ * and the work of asynchronous handlers on executor threads
+ */
+@Slf4j
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class RedisRoundTripFilter extends OncePerRequestFilter {
+
+    private final Map<String, Counters> endpoints = new ConcurrentHashMap<>();
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        RedisRoundTrips.Count count = RedisRoundTrips.start();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            RedisRoundTrips.clear();
+            Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            String endpoint = request.getMethod() + " " + (pattern != null ? pattern : "unmapped");
+            if (request.isAsyncStarted()) {
+                // The handler went on on an executor; its tasks count into the same total until the response is done
+                request.getAsyncContext().addListener(new AsyncListener() {
+                    @Override
+                    public void onComplete(AsyncEvent event) {
+                        record(endpoint, count);
+                    }
+
+                    @Override
+                    public void onTimeout(AsyncEvent event) {
+                    }
+
+                    @Override
+                    public void onError(AsyncEvent event) {
+                    }
+
+                    @Override
+                    public void onStartAsync(AsyncEvent event) {
+                    }
+                });
+            } else {
+                record(endpoint, count);
+            }
+        }
+    }
+
+    private void record(String endpoint, RedisRoundTrips.Count count) {
+        long roundTrips = count.get();
+        endpoints.computeIfAbsent(endpoint, k -> new Counters()).record(roundTrips);
+        log.debug("{} made {} Redis round trips", endpoint, roundTrips);
+    }
+
+    /**
+     * Round trip counters since startup keyed by "METHOD pattern"
+     */
+    public Map<String, RoundTripStats> getStats() {
+        Map<String, RoundTripStats> stats = new TreeMap<>();
+        endpoints.forEach((endpoint, counters) -> stats.put(endpoint, counters.snapshot()));
+        return stats;
+    }
+
+    private static class Counters {
+        private final AtomicLong requests = new AtomicLong();
+        private final AtomicLong roundTrips = new AtomicLong();
+        private final AtomicLong maxRoundTrips = new AtomicLong();
+
+        void record(long count) {
+            requests.incrementAndGet();
+            roundTrips.addAndGet(count);
+            maxRoundTrips.accumulateAndGet(count, Math::max);
+        }
+
+        RoundTripStats snapshot() {
+            long requestCount = requests.get();
+            long total = roundTrips.get();
+            return RoundTripStats.builder()
+                    .requests(requestCount)
+                    .roundTrips(total)
+                    .maxRoundTrips(maxRoundTrips.get())
+                    .averageRoundTrips(requestCount == 0 ? 0.0 : (double) total / requestCount)
+                    .build();
+        }
+    }
+}
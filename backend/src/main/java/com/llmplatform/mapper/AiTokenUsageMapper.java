@@ -0,0 +1,9 @@
+package com.llmplatform.mapper;
+
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.llmplatform.entity.AiTokenUsage;
+import org.apache.ibatis.annotations.Mapper;
+
+@Mapper
+public interface AiTokenUsageMapper extends BaseMapper<AiTokenUsage> {
+}
@@ -0,0 +1,23 @@
+package com.llmplatform.mapper;
+
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.llmplatform.entity.QuizQuestionSeen;
+import org.apache.ibatis.annotations.Insert;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Mapper
+public interface QuizQuestionSeenMapper extends BaseMapper<QuizQuestionSeen> {
+
+    /**
+     * Record questions as seen by a user in one statement, skipping those a concurrent quiz already recorded
+     */
+    @Insert("<script>INSERT IGNORE INTO quiz_question_seen (user_id, question_id, seen_at) VALUES "
+            + "<foreach collection='questionIds' item='questionId' separator=','>(#{userId}, #{questionId}, #{seenAt})</foreach>"
+            + "</script>")
+    int insertSeen(@Param("userId") Long userId, @Param("questionIds") List<Long> questionIds,
+                   @Param("seenAt") LocalDateTime seenAt);
+}
@@ -3,6 +3,7 @@ package com.llmplatform.personalized.controller;
 import com.llmplatform.common.Result;
 import com.llmplatform.personalized.service.AIContentService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
@@ -10,9 +11,12 @@ import org.springframework.web.bind.annotation.RestController;
 
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 
 /**
  * AI内容生成控制器
+ * 生成在AI请求线程池中执行，等待AI提供商期间不占用Tomcat请求线程
  */
 @RestController
 @RequestMapping("/api/content")
@@ -20,54 +24,53 @@ import java.util.Map;
 public class ContentController {
 
     private final AIContentService aiContentService;
+    @Qualifier("aiRequestExecutor")
+    private final Executor aiRequestExecutor;
 
     /**
      * 生成例句
      */
     @PostMapping("/example-sentences")
-    public Result<List<String>> generateExampleSentences(@RequestBody ExampleSentenceRequest request) {
-        List<String> sentences = aiContentService.generateExampleSentences(
+    public CompletableFuture<Result<List<String>>> generateExampleSentences(@RequestBody ExampleSentenceRequest request) {
+        return CompletableFuture.supplyAsync(() -> Result.success(aiContentService.generateExampleSentences(
                 request.getWordId(),
                 request.getWord(),
                 request.getMasteryLevel(),
                 request.getInterests()
-        );
-        return Result.success(sentences);
+        )), aiRequestExecutor);
     }
 
     /**
      * 生成错题本练习
      */
     @PostMapping("/exercises")
-    public Result<List<Map<String, Object>>> generateExercises(@RequestBody ErrorNotebookRequest request) {
-        List<Map<String, Object>> exercises = aiContentService.generateErrorNotebookExercises(request.getWordIds());
-        return Result.success(exercises);
+    public CompletableFuture<Result<List<Map<String, Object>>>> generateExercises(@RequestBody ErrorNotebookRequest request) {
+        return CompletableFuture.supplyAsync(() -> Result.success(
+                aiContentService.generateErrorNotebookExercises(request.getWordIds())), aiRequestExecutor);
     }
 
     /**
      * 生成对话场景
      */
     @PostMapping("/dialogue-scenario")
-    public Result<Map<String, Object>> generateDialogueScenario(@RequestBody DialogueRequest request) {
-        Map<String, Object> scenario = aiContentService.generateDialogueScenario(
+    public CompletableFuture<Result<Map<String, Object>>> generateDialogueScenario(@RequestBody DialogueRequest request) {
+        return CompletableFuture.supplyAsync(() -> Result.success(aiContentService.generateDialogueScenario(
                 request.getGoalType(),
                 request.getMasteryLevel()
-        );
-        return Result.success(scenario);
+        )), aiRequestExecutor);
     }
 
     /**
      * 生成选择练习题
      */
     @PostMapping("/multiple-choice")
-    public Result<List<Map<String, Object>>> generateMultipleChoice(@RequestBody MultipleChoiceRequest request) {
-        List<Map<String, Object>> exercises = aiContentService.generateMultipleChoiceExercises(
+    public CompletableFuture<Result<List<Map<String, Object>>>> generateMultipleChoice(@RequestBody MultipleChoiceRequest request) {
+        return CompletableFuture.supplyAsync(() -> Result.success(aiContentService.generateMultipleChoiceExercises(
                 request.getWordId(),
                 request.getWord(),
                 request.getMasteryLevel(),
                 request.getCount() != null ? request.getCount() : 5
-        );
-        return Result.success(exercises);
+        )), aiRequestExecutor);
     }
 
     public static class ExampleSentenceRequest {
@@ -1,22 +1,23 @@
 package com.llmplatform.personalized.service;
 
-import lombok.RequiredArgsConstructor;
+import com.llmplatform.util.TwoTierCache;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.stereotype.Service;
 
 import java.time.Duration;
+import java.util.List;
 import java.util.Optional;
 import java.util.concurrent.TimeUnit;
 
 /**
  * Redis缓存服务
- * 提供缓存操作和降级逻辑
+ * 提供缓存操作和降级逻辑，读写经由两级缓存（本地L1 + Redis）
  * 验证需求：6.2, 7.3, 7.7
  */
 @Slf4j
 @Service
-@RequiredArgsConstructor
 public class CacheService {
 
     private static final Duration DEFAULT_TTL = Duration.ofHours(24);
@@ -25,6 +26,20 @@ public class CacheService {
     private static final Duration PLAN_TTL = Duration.ofHours(24);
 
     private final RedisTemplate<String, Object> redisTemplate;
+    private final TwoTierCache cache;
+
+    @Autowired
+    public CacheService(RedisTemplate<String, Object> redisTemplate, TwoTierCache cache) {
+        this.redisTemplate = redisTemplate;
+        this.cache = cache;
+    }
+
+    /**
+     * 仅使用Redis（无本地缓存）
+     */
+    public CacheService(RedisTemplate<String, Object> redisTemplate) {
+        this(redisTemplate, TwoTierCache.redisOnly(redisTemplate));
+    }
 
     /**
      * 缓存键命名规范
@@ -42,13 +57,9 @@ public class CacheService {
      */
     public <T> Optional<T> get(String key, Class<T> type) {
         try {
-            if (!redisTemplate.hasKey(key)) {
-                log.debug("Cache miss for key: {}", key);
-                return Optional.empty();
-            }
-
-            Object value = redisTemplate.opsForValue().get(key);
+            Object value = cache.get(key);
             if (value == null) {
+                log.debug("Cache miss for key: {}", key);
                 return Optional.empty();
             }
 
@@ -69,7 +80,7 @@ public class CacheService {
             if (ttl == null) {
                 ttl = DEFAULT_TTL;
             }
-            redisTemplate.opsForValue().set(key, value, ttl);
+            cache.set(key, value, ttl);
             log.debug("Cache set for key: {} with TTL: {}s", key, ttl.getSeconds());
             return true;
         } catch (Exception e) {
@@ -83,9 +94,9 @@ public class CacheService {
      */
     public boolean delete(String key) {
         try {
-            Boolean result = redisTemplate.delete(key);
+            boolean result = cache.delete(key);
             log.debug("Cache delete for key: {}, result: {}", key, result);
-            return Boolean.TRUE.equals(result);
+            return result;
         } catch (Exception e) {
             log.error("Cache delete failed for key {}: {}", key, e.getMessage());
             return false;
@@ -184,11 +195,18 @@ public class CacheService {
      * 清除用户所有缓存
      */
     public void invalidateUserCache(Long userId) {
-        delete(buildKey("learning:profile", userId));
-        delete(buildKey("learning:plan", userId));
-        delete(buildKey("learning:streak", userId));
-        delete(buildKey("memory:due_reviews", userId));
-        log.info("Invalidated all cache for user: {}", userId);
+        List<String> keys = List.of(
+                buildKey("learning:profile", userId),
+                buildKey("learning:plan", userId),
+                buildKey("learning:streak", userId),
+                buildKey("memory:due_reviews", userId));
+        try {
+            // 一次往返删除全部键（UNLINK + 失效广播同一管道）
+            cache.deleteMany(keys);
+            log.info("Invalidated all cache for user: {}", userId);
+        } catch (Exception e) {
+            log.error("Cache invalidation failed for user {}: {}", userId, e.getMessage());
+        }
     }
 
     /**
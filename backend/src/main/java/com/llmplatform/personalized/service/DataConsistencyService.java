@@ -8,13 +8,14 @@ import com.llmplatform.personalized.repository.AchievementRepository;
 import com.llmplatform.personalized.repository.MemoryRepository;
 import com.llmplatform.personalized.repository.ProfileRepository;
 import com.llmplatform.personalized.repository.PlanRepository;
+import com.llmplatform.util.TwoTierCache;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.stereotype.Service;
 
 import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.concurrent.TimeUnit;
 
 /**
@@ -29,7 +30,7 @@ public class DataConsistencyService {
     public static final int MAX_RETRY_COUNT = 3;
     public static final Duration CACHE_TTL = Duration.ofHours(24);
 
-    private final RedisTemplate<String, Object> redisTemplate;
+    private final TwoTierCache cache;
     private final MemoryRepository memoryRepository;
     private final ProfileRepository profileRepository;
     private final PlanRepository planRepository;
@@ -153,20 +154,19 @@ public class DataConsistencyService {
      * 清除用户相关缓存
      */
     public void invalidateUserCache(Long userId) {
-        String[] cacheKeys = {
+        List<String> cacheKeys = List.of(
                 "learning:profile:" + userId,
                 "learning:plan:" + userId,
                 "learning:streak:" + userId,
                 "memory:due_reviews:" + userId
-        };
+        );
 
-        for (String key : cacheKeys) {
-            try {
-                redisTemplate.delete(key);
-                log.debug("Deleted cache key: {}", key);
-            } catch (Exception e) {
-                log.warn("Failed to delete cache key {}: {}", key, e.getMessage());
-            }
+        try {
+            // 一次往返删除全部键
+            cache.deleteMany(cacheKeys);
+            log.debug("Deleted cache keys: {}", cacheKeys);
+        } catch (Exception e) {
+            log.warn("Failed to delete cache keys {}: {}", cacheKeys, e.getMessage());
         }
     }
 
@@ -175,7 +175,7 @@ public class DataConsistencyService {
      */
     private <T> boolean updateCache(String cacheKey, T data) {
         try {
-            redisTemplate.opsForValue().set(cacheKey, data, CACHE_TTL);
+            cache.set(cacheKey, data, CACHE_TTL);
             log.debug("Cache updated: {} -> {}", cacheKey, data);
             return true;
         } catch (Exception e) {
@@ -1,10 +1,17 @@
 package com.llmplatform.personalized.service.impl;
 
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.llmplatform.ai.dto.AIFeature;
 import com.llmplatform.ai.dto.AIRequest;
 import com.llmplatform.ai.dto.AIResponse;
 import com.llmplatform.ai.gateway.AIGateway;
+import com.llmplatform.ai.output.StructuredOutputDecoder;
+import com.llmplatform.ai.tier.TaskClass;
 import com.llmplatform.personalized.service.AIContentService;
-import lombok.RequiredArgsConstructor;
+import com.llmplatform.util.MicroBatcher;
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
@@ -13,19 +20,36 @@ import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.regex.Matcher;
+import java.util.concurrent.TimeUnit;
 import java.util.regex.Pattern;
+import java.util.stream.Collectors;
 
 /**
  * AI内容生成服务实现
  */
 @Slf4j
 @Service
-@RequiredArgsConstructor
 public class AIContentServiceImpl implements AIContentService {
 
     private static final double DEFAULT_TEMPERATURE = 0.7;
-    private static final int DEFAULT_MAX_TOKENS = 2048;
+    /** 输出token上限按预期输出形状估算：例句3句，练习与选择题按题数计 */
+    private static final int EXAMPLE_SENTENCE_MAX_TOKENS = 256;
+    private static final int EXERCISE_TOKENS_PER_ITEM = 150;
+    private static final int MULTIPLE_CHOICE_TOKENS_PER_ITEM = 120;
+    private static final int DIALOGUE_SCENARIO_MAX_TOKENS = 1024;
+    private static final int JSON_OVERHEAD_TOKENS = 64;
+
+    private static final Pattern LIST_NUMBERING = Pattern.compile("^\\d+\\.\\s*");
+    private static final TypeReference<List<Object>> ITEM_LIST = new TypeReference<>() {};
+    private static final TypeReference<List<Map<String, Object>>> OBJECT_LIST = new TypeReference<>() {};
+    private static final TypeReference<Map<String, Object>> OBJECT_MAP = new TypeReference<>() {};
+
+    private static final long BATCH_WINDOW_MS = 30;
+    private static final int BATCH_MAX_WORDS = 20;
+    private static final int BATCH_WORKERS = 4;
+    private static final int BATCH_TOKENS_PER_WORD = 160;
+    private static final int BATCH_MAX_TOKENS = 4096;
+    private static final long BATCH_RESULT_TIMEOUT_MS = 120_000;
 
     private static final Map<Integer, List<String>> TEMPLATE_EXAMPLE_SENTENCES = Map.of(
             0, List.of(
@@ -72,6 +96,15 @@ public class AIContentServiceImpl implements AIContentService {
     );
 
     private final AIGateway aiGateway;
+    private final StructuredOutputDecoder outputDecoder;
+    private final MicroBatcher<SentenceTask, List<String>> exampleSentenceBatcher;
+
+    public AIContentServiceImpl(AIGateway aiGateway, StructuredOutputDecoder outputDecoder) {
+        this.aiGateway = aiGateway;
+        this.outputDecoder = outputDecoder;
+        this.exampleSentenceBatcher = new MicroBatcher<>("example-sentence", BATCH_WINDOW_MS, BATCH_MAX_WORDS,
+                BATCH_WORKERS, this::generateExampleSentenceBatch);
+    }
 
     @Override
     public List<String> generateExampleSentences(Long wordId, String word, int masteryLevel, List<String> interests) {
@@ -81,27 +114,21 @@ public class AIContentServiceImpl implements AIContentService {
         }
 
         try {
-            String prompt = buildExampleSentencePrompt(word, masteryLevel, interests);
-            AIRequest request = AIRequest.builder()
-                    .prompt(prompt)
-                    .systemMessage("You are a helpful language learning assistant. Generate simple, natural example sentences.")
-                    .temperature(DEFAULT_TEMPERATURE)
-                    .maxTokens(DEFAULT_MAX_TOKENS)
-                    .build();
-
-            AIResponse response = aiGateway.generate(request);
-
-            if (response.isSuccess()) {
-                List<String> sentences = parseExampleSentences(response.getContent(), word);
-                if (!sentences.isEmpty()) {
-                    log.info("Generated {} example sentences for word: {}", sentences.size(), word);
-                    return sentences;
-                }
+            // 同一兴趣组合的并发请求在短窗口内合并为一次AI调用
+            List<String> sentences = exampleSentenceBatcher
+                    .submit(interestsKey(interests), new SentenceTask(word, masteryLevel, interests))
+                    .get(BATCH_RESULT_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+            if (!sentences.isEmpty()) {
+                log.info("Generated {} example sentences for word: {}", sentences.size(), word);
+                return sentences;
             }
 
             log.warn("AI generation failed for word: {}, using fallback", word);
             return getFallbackExampleSentences(word, masteryLevel);
 
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return getFallbackExampleSentences(word, masteryLevel);
         } catch (Exception e) {
             log.error("Error generating example sentences for word: {}", word, e);
             return getFallbackExampleSentences(word, masteryLevel);
@@ -116,12 +143,16 @@ public class AIContentServiceImpl implements AIContentService {
         }
 
         try {
-            String prompt = buildErrorExercisePrompt(wordIds.size());
+            int exerciseCount = itemCount(wordIds.size());
+            String prompt = buildErrorExercisePrompt(exerciseCount);
             AIRequest request = AIRequest.builder()
                     .prompt(prompt)
                     .systemMessage("You are a language learning exercise generator. Create varied exercises based on vocabulary words.")
                     .temperature(0.8)
-                    .maxTokens(2048)
+                    .maxTokens(exerciseCount * EXERCISE_TOKENS_PER_ITEM + JSON_OVERHEAD_TOKENS)
+                    .feature(AIFeature.ERROR_EXERCISE)
+                    .taskClass(TaskClass.EXERCISE)
+                    .additionalParams(Map.of(AIRequest.PARAM_SEMANTIC_CACHE, true))
                     .build();
 
             AIResponse response = aiGateway.generate(request);
@@ -156,7 +187,10 @@ public class AIContentServiceImpl implements AIContentService {
                     .prompt(prompt)
                     .systemMessage("You are a language learning conversation partner. Create natural, contextual dialogues for learning.")
                     .temperature(0.8)
-                    .maxTokens(2048)
+                    .maxTokens(DIALOGUE_SCENARIO_MAX_TOKENS)
+                    .feature(AIFeature.DIALOGUE_SCENARIO)
+                    .taskClass(TaskClass.DIALOGUE)
+                    .additionalParams(Map.of(AIRequest.PARAM_SEMANTIC_CACHE, true))
                     .build();
 
             AIResponse response = aiGateway.generate(request);
@@ -186,12 +220,16 @@ public class AIContentServiceImpl implements AIContentService {
         }
 
         try {
-            String prompt = buildMultipleChoicePrompt(word, masteryLevel, count);
+            int questionCount = itemCount(count);
+            String prompt = buildMultipleChoicePrompt(word, masteryLevel, questionCount);
             AIRequest request = AIRequest.builder()
                     .prompt(prompt)
                     .systemMessage("You are a language learning quiz generator. Create multiple choice questions for vocabulary practice.")
                     .temperature(0.8)
-                    .maxTokens(2048)
+                    .maxTokens(questionCount * MULTIPLE_CHOICE_TOKENS_PER_ITEM + JSON_OVERHEAD_TOKENS)
+                    .feature(AIFeature.MULTIPLE_CHOICE)
+                    .taskClass(TaskClass.QUIZ)
+                    .additionalParams(Map.of(AIRequest.PARAM_CACHE, true))
                     .build();
 
             AIResponse response = aiGateway.generate(request);
@@ -213,36 +251,166 @@ public class AIContentServiceImpl implements AIContentService {
         }
     }
 
-    private String buildExampleSentencePrompt(String word, int masteryLevel, List<String> interests) {
+    /**
+     * 处理一批例句请求：单个词走原有提示词，多个词合并为一次调用，解析失败的词逐个重试
+     */
+    private List<List<String>> generateExampleSentenceBatch(List<SentenceTask> tasks) {
+        if (tasks.size() == 1) {
+            return List.of(generateExampleSentencesForWord(tasks.get(0)));
+        }
+
+        Map<String, List<String>> byWord = Map.of();
+        try {
+            AIRequest request = AIRequest.builder()
+                    .prompt(buildBatchExampleSentencePrompt(tasks))
+                    .systemMessage("You are a helpful language learning assistant. Generate simple, natural example sentences.")
+                    .temperature(DEFAULT_TEMPERATURE)
+                    .maxTokens(Math.min(BATCH_MAX_TOKENS, BATCH_TOKENS_PER_WORD * tasks.size() + 256))
+                    .feature(AIFeature.EXAMPLE_SENTENCE)
+                    .taskClass(TaskClass.EXAMPLE_SENTENCES)
+                    .build();
+
+            AIResponse response = aiGateway.generate(request);
+            if (response.isSuccess()) {
+                byWord = parseBatchExampleSentences(response.getContent());
+            }
+        } catch (Exception e) {
+            log.warn("Batched example sentence generation failed for {} words: {}", tasks.size(), e.getMessage());
+        }
+
+        List<List<String>> results = new ArrayList<>();
+        int retried = 0;
+        for (SentenceTask task : tasks) {
+            List<String> sentences = byWord.getOrDefault(task.word().toLowerCase(), List.of());
+            if (sentences.isEmpty()) {
+                sentences = generateExampleSentencesForWord(task);
+                retried++;
+            }
+            results.add(sentences);
+        }
+        log.info("Batched example sentences for {} words in one call, {} retried individually", tasks.size(), retried);
+        return results;
+    }
+
+    /**
+     * 为单个词生成例句，失败时返回空列表
+     */
+    private List<String> generateExampleSentencesForWord(SentenceTask task) {
+        try {
+            String prompt = buildExampleSentencePrompt(task.word(), task.masteryLevel(), task.interests());
+            AIRequest request = AIRequest.builder()
+                    .prompt(prompt)
+                    .systemMessage("You are a helpful language learning assistant. Generate simple, natural example sentences.")
+                    .temperature(DEFAULT_TEMPERATURE)
+                    .maxTokens(EXAMPLE_SENTENCE_MAX_TOKENS)
+                    .feature(AIFeature.EXAMPLE_SENTENCE)
+                    .taskClass(TaskClass.EXAMPLE_SENTENCES)
+                    // 单词加引号出现在提示词中，语义缓存只会复用同一个词的例句；批量提示词不参与
+                    .additionalParams(Map.of(AIRequest.PARAM_SEMANTIC_CACHE, true))
+                    .build();
+
+            AIResponse response = aiGateway.generate(request);
+            if (response.isSuccess()) {
+                return parseExampleSentences(response.getContent(), task.word());
+            }
+        } catch (Exception e) {
+            log.warn("Example sentence generation failed for word: {}: {}", task.word(), e.getMessage());
+        }
+        return List.of();
+    }
+
+    private String buildBatchExampleSentencePrompt(List<SentenceTask> tasks) {
         StringBuilder prompt = new StringBuilder();
-        prompt.append("Generate 3 natural example sentences using the word '").append(word).append("'.\n");
-        prompt.append("Current mastery level: ").append(masteryLevel).append(" (0=new, 5=mastered).\n");
+        prompt.append("Generate 3 natural example sentences for each of the following words.\n");
 
+        List<String> interests = tasks.get(0).interests();
         if (interests != null && !interests.isEmpty()) {
             prompt.append("User interests: ").append(String.join(", ", interests)).append(".\n");
         }
 
-        prompt.append("Difficulty: ");
+        prompt.append("Words (mastery level 0=new, 5=mastered):\n");
+        for (SentenceTask task : tasks) {
+            prompt.append("- ").append(task.word())
+                    .append(" (level ").append(task.masteryLevel()).append(": ")
+                    .append(difficultyFor(task.masteryLevel())).append(")\n");
+        }
+
+        prompt.append("Return ONLY a JSON object mapping each word exactly as given to an array of its sentences, ");
+        prompt.append("for example {\"word\": [\"sentence 1\", \"sentence 2\", \"sentence 3\"]}.");
+        return prompt.toString();
+    }
+
+    private Map<String, List<String>> parseBatchExampleSentences(String content) {
+        Map<String, List<String>> byWord = new HashMap<>();
+        JsonNode root = outputDecoder.decode(AIFeature.EXAMPLE_SENTENCE, content, ObjectNode.class);
+        if (root == null) {
+            return byWord;
+        }
+        root.fields().forEachRemaining(entry -> {
+            List<String> sentences = new ArrayList<>();
+            if (entry.getValue().isArray()) {
+                entry.getValue().forEach(node -> {
+                    String sentence = node.asText("").trim();
+                    if (!sentence.isEmpty()) {
+                        sentences.add(sentence);
+                    }
+                });
+            }
+            byWord.put(entry.getKey().trim().toLowerCase(), sentences);
+        });
+        return byWord;
+    }
+
+    private String interestsKey(List<String> interests) {
+        if (interests == null || interests.isEmpty()) {
+            return "";
+        }
+        return interests.stream().map(String::toLowerCase).sorted().collect(Collectors.joining(","));
+    }
+
+    private String difficultyFor(int masteryLevel) {
         if (masteryLevel <= 1) {
-            prompt.append("simple sentences for beginners");
+            return "simple sentences for beginners";
         } else if (masteryLevel <= 3) {
-            prompt.append("moderate sentences with context");
-        } else {
-            prompt.append("complex sentences for advanced learners");
+            return "moderate sentences with context";
         }
-        prompt.append(".\n");
+        return "complex sentences for advanced learners";
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        exampleSentenceBatcher.close();
+    }
+
+    private String buildExampleSentencePrompt(String word, int masteryLevel, List<String> interests) {
+        StringBuilder prompt = new StringBuilder();
+        prompt.append("Generate 3 natural example sentences using the word '").append(word).append("'.\n");
+        prompt.append("Current mastery level: ").append(masteryLevel).append(" (0=new, 5=mastered).\n");
+
+        if (interests != null && !interests.isEmpty()) {
+            prompt.append("User interests: ").append(String.join(", ", interests)).append(".\n");
+        }
+
+        prompt.append("Difficulty: ").append(difficultyFor(masteryLevel)).append(".\n");
 
         prompt.append("Format each sentence on a new line, without numbering.");
 
         return prompt.toString();
     }
 
-    private String buildErrorExercisePrompt(int wordCount) {
+    /**
+     * 单次生成的题目数：请求数量最多5个，未指定时为3个
+     */
+    private int itemCount(int requested) {
+        return requested > 0 ? Math.min(requested, 5) : 3;
+    }
+
+    private String buildErrorExercisePrompt(int exerciseCount) {
         return String.format(
                 "Generate %d varied vocabulary exercises to help reinforce learning. " +
                         "Include different types: fill-in-the-blank, multiple choice, and matching. " +
                         "Return the result as a JSON array with exercise objects containing: type, question, and correctAnswer.",
-                wordCount > 0 ? Math.min(wordCount, 5) : 3
+                exerciseCount
         );
     }
 
@@ -255,22 +423,21 @@ public class AIContentServiceImpl implements AIContentService {
         );
     }
 
-    private String buildMultipleChoicePrompt(String word, int masteryLevel, int count) {
+    private String buildMultipleChoicePrompt(String word, int masteryLevel, int questionCount) {
         return String.format(
                 "Generate %d multiple choice questions for the word '%s'. " +
                         "Each question should test understanding or usage. " +
                         "Return as JSON array with: question, options (array), and correctAnswer.",
-                count > 0 ? Math.min(count, 5) : 3, word
+                questionCount, word
         );
     }
 
     private List<String> parseExampleSentences(String content, String word) {
         List<String> sentences = new ArrayList<>();
         String[] lines = content.split("\n");
-        Pattern pattern = Pattern.compile("[^.!?]*" + Pattern.quote(word) + "[^.!?]*[.!?]?");
 
         for (String line : lines) {
-            line = line.replaceAll("^\\d+\\.\\s*", "").trim();
+            line = LIST_NUMBERING.matcher(line).replaceFirst("").trim();
             if (!line.isEmpty() && line.toLowerCase().contains(word.toLowerCase())) {
                 sentences.add(line);
             }
@@ -284,81 +451,42 @@ public class AIContentServiceImpl implements AIContentService {
         return sentences;
     }
 
-    @SuppressWarnings("unchecked")
     private List<Map<String, Object>> parseExercises(String content) {
         List<Map<String, Object>> exercises = new ArrayList<>();
-
-        try {
-            String jsonContent = extractJsonArray(content);
-            if (jsonContent != null) {
-                List<Map<String, Object>> parsed = new com.fasterxml.jackson.databind.ObjectMapper()
-                        .readValue(jsonContent, List.class);
-                for (Object item : parsed) {
-                    if (item instanceof Map) {
-                        exercises.add((Map<String, Object>) item);
-                    }
+        List<Object> parsed = outputDecoder.decode(AIFeature.ERROR_EXERCISE, content, ITEM_LIST);
+        if (parsed != null) {
+            for (Object item : parsed) {
+                if (item instanceof Map<?, ?> map) {
+                    exercises.add(toStringKeyed(map));
                 }
             }
-        } catch (Exception e) {
-            log.debug("Failed to parse exercises JSON, using raw content", e);
         }
-
         return exercises;
     }
 
-    @SuppressWarnings("unchecked")
     private Map<String, Object> parseDialogue(String content, String goalType) {
         Map<String, Object> dialogue = new HashMap<>();
-
-        try {
-            String jsonContent = extractJsonObject(content);
-            if (jsonContent != null) {
-                Map<String, Object> parsed = new com.fasterxml.jackson.databind.ObjectMapper()
-                        .readValue(jsonContent, Map.class);
-                dialogue.putAll(parsed);
-                dialogue.put("goalType", goalType);
-            }
-        } catch (Exception e) {
-            log.debug("Failed to parse dialogue JSON", e);
+        Map<String, Object> parsed = outputDecoder.decode(AIFeature.DIALOGUE_SCENARIO, content, OBJECT_MAP);
+        if (parsed != null) {
+            dialogue.putAll(parsed);
+            dialogue.put("goalType", goalType);
         }
-
         return dialogue;
     }
 
-    @SuppressWarnings("unchecked")
     private List<Map<String, Object>> parseMultipleChoice(String content, String word) {
         List<Map<String, Object>> exercises = new ArrayList<>();
-
-        try {
-            String jsonContent = extractJsonArray(content);
-            if (jsonContent != null) {
-                List<Map<String, Object>> parsed = new com.fasterxml.jackson.databind.ObjectMapper()
-                        .readValue(jsonContent, List.class);
-                exercises.addAll(parsed);
-            }
-        } catch (Exception e) {
-            log.debug("Failed to parse multiple choice JSON", e);
+        List<Map<String, Object>> parsed = outputDecoder.decode(AIFeature.MULTIPLE_CHOICE, content, OBJECT_LIST);
+        if (parsed != null) {
+            exercises.addAll(parsed);
         }
-
         return exercises;
     }
 
-    private String extractJsonArray(String content) {
-        int start = content.indexOf('[');
-        int end = content.lastIndexOf(']');
-        if (start >= 0 && end > start) {
-            return content.substring(start, end + 1);
-        }
-        return null;
-    }
-
-    private String extractJsonObject(String content) {
-        int start = content.indexOf('{');
-        int end = content.lastIndexOf('}');
-        if (start >= 0 && end > start) {
-            return content.substring(start, end + 1);
-        }
-        return null;
+    private Map<String, Object> toStringKeyed(Map<?, ?> map) {
+        Map<String, Object> result = new HashMap<>();
+        map.forEach((key, value) -> result.put(String.valueOf(key), value));
+        return result;
     }
 
     private List<String> getFallbackExampleSentences(String word, int masteryLevel) {
@@ -427,4 +555,10 @@ public class AIContentServiceImpl implements AIContentService {
         exercise.put("correctAnswer", correctAnswer);
         return exercise;
     }
+
+    /**
+     * 待合并的例句生成请求
+     */
+    private record SentenceTask(String word, int masteryLevel, List<String> interests) {
+    }
 }
@@ -6,9 +6,9 @@ import com.llmplatform.personalized.engine.SpacedRepetitionEngine;
 import com.llmplatform.personalized.repository.MemoryRepository;
 import com.llmplatform.personalized.service.MemoryService;
 import com.llmplatform.personalized.vo.MemoryStatisticsVO;
+import com.llmplatform.util.TwoTierCache;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.stereotype.Service;
 
 import java.time.Duration;
@@ -29,7 +29,7 @@ public class MemoryServiceImpl implements MemoryService {
 
     private final MemoryRepository memoryRepository;
     private final SpacedRepetitionEngine spacedRepetitionEngine;
-    private final RedisTemplate<String, Object> redisTemplate;
+    private final TwoTierCache cache;
 
     @Override
     public MemoryRecord createRecord(Long userId, Long wordId) {
@@ -98,7 +98,7 @@ public class MemoryServiceImpl implements MemoryService {
 
         // 尝试从缓存获取
         @SuppressWarnings("unchecked")
-        List<MemoryRecord> cached = (List<MemoryRecord>) redisTemplate.opsForValue().get(cacheKey);
+        List<MemoryRecord> cached = (List<MemoryRecord>) cache.get(cacheKey);
         if (cached != null) {
             log.debug("从缓存获取待复习记录, userId={}", userId);
             return cached.size() > limit ? cached.subList(0, limit) : cached;
@@ -109,7 +109,7 @@ public class MemoryServiceImpl implements MemoryService {
         List<MemoryRecord> records = memoryRepository.findDueReviewsByUserId(userId, now, limit);
 
         // 放入缓存
-        redisTemplate.opsForValue().set(cacheKey, records, DUE_REVIEWS_CACHE_TTL);
+        cache.set(cacheKey, records, DUE_REVIEWS_CACHE_TTL);
         log.debug("从数据库获取待复习记录并缓存, userId={}, count={}", userId, records.size());
 
         return records;
@@ -148,7 +148,7 @@ public class MemoryServiceImpl implements MemoryService {
      */
     private void clearDueReviewsCache(Long userId) {
         String cacheKey = DUE_REVIEWS_CACHE_PREFIX + userId;
-        redisTemplate.delete(cacheKey);
+        cache.delete(cacheKey);
         log.debug("清除待复习记录缓存, userId={}", userId);
     }
 }
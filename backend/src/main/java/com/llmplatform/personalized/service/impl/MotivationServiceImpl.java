@@ -7,9 +7,9 @@ import com.llmplatform.personalized.mapper.LearningStreakMapper;
 import com.llmplatform.personalized.repository.AchievementRepository;
 import com.llmplatform.personalized.repository.MemoryRepository;
 import com.llmplatform.personalized.service.MotivationService;
+import com.llmplatform.util.TwoTierCache;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDate;
@@ -29,7 +29,7 @@ public class MotivationServiceImpl implements MotivationService {
     private final AchievementRepository achievementRepository;
     private final MemoryRepository memoryRepository;
     private final LearningStreakMapper learningStreakMapper;
-    private final RedisTemplate<String, Object> redisTemplate;
+    private final TwoTierCache cache;
 
     // 预定义成就列表
     private static final List<Achievement> DEFAULT_ACHIEVEMENTS = Arrays.asList(
@@ -191,7 +191,7 @@ public class MotivationServiceImpl implements MotivationService {
     public LearningStreak getStreak(Long userId) {
         String cacheKey = STREAK_CACHE_PREFIX + userId;
         try {
-            Object cached = redisTemplate.opsForValue().get(cacheKey);
+            Object cached = cache.get(cacheKey);
             if (cached instanceof LearningStreak) {
                 return (LearningStreak) cached;
             }
@@ -202,7 +202,7 @@ public class MotivationServiceImpl implements MotivationService {
         LearningStreak streak = achievementRepository.findStreakByUserId(userId).orElse(null);
         if (streak != null) {
             try {
-                redisTemplate.opsForValue().set(cacheKey, streak);
+                cache.set(cacheKey, streak, null);
             } catch (Exception e) {
                 log.warn("缓存连续记录失败", e);
             }
@@ -299,7 +299,7 @@ public class MotivationServiceImpl implements MotivationService {
         String cacheKey = ACHIEVEMENTS_CACHE_PREFIX + "all";
         try {
             @SuppressWarnings("unchecked")
-            List<Achievement> cached = (List<Achievement>) redisTemplate.opsForValue().get(cacheKey);
+            List<Achievement> cached = (List<Achievement>) cache.get(cacheKey);
             if (cached != null) {
                 return cached;
             }
@@ -314,7 +314,7 @@ public class MotivationServiceImpl implements MotivationService {
         }
 
         try {
-            redisTemplate.opsForValue().set(cacheKey, achievements);
+            cache.set(cacheKey, achievements, null);
         } catch (Exception e) {
             log.warn("缓存成就失败", e);
         }
@@ -346,6 +346,6 @@ public class MotivationServiceImpl implements MotivationService {
 
     private void clearStreakCache(Long userId) {
         String cacheKey = STREAK_CACHE_PREFIX + userId;
-        redisTemplate.delete(cacheKey);
+        cache.delete(cacheKey);
     }
 }
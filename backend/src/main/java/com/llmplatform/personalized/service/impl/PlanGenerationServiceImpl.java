@@ -11,9 +11,10 @@ import com.llmplatform.personalized.repository.PlanRepository;
 import com.llmplatform.personalized.repository.ProfileRepository;
 import com.llmplatform.personalized.repository.TaskRepository;
 import com.llmplatform.personalized.service.PlanGenerationService;
+import com.llmplatform.util.RefreshingLoader;
+import com.llmplatform.util.TwoTierCache;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.stereotype.Service;
 
 import java.time.Duration;
@@ -39,7 +40,8 @@ public class PlanGenerationServiceImpl implements PlanGenerationService {
     private final TaskRepository taskRepository;
     private final ProfileRepository profileRepository;
     private final PlanOptimizerEngine planOptimizerEngine;
-    private final RedisTemplate<String, Object> redisTemplate;
+    private final TwoTierCache cache;
+    private final RefreshingLoader refreshingLoader;
     private final ObjectMapper objectMapper;
 
     @Override
@@ -234,28 +236,9 @@ public class PlanGenerationServiceImpl implements PlanGenerationService {
 
     @Override
     public StudyPlan getCurrentPlan(Long userId) {
-        // 尝试从缓存获取
-        String cacheKey = PLAN_CACHE_PREFIX + userId;
-        try {
-            Object cached = redisTemplate.opsForValue().get(cacheKey);
-            if (cached instanceof StudyPlan) {
-                return (StudyPlan) cached;
-            }
-        } catch (Exception e) {
-            log.warn("获取计划缓存失败", e);
-        }
-
-        // 从数据库获取
-        StudyPlan plan = planRepository.findCurrentByUserId(userId).orElse(null);
-        if (plan != null) {
-            try {
-                redisTemplate.opsForValue().set(cacheKey, plan, CACHE_TTL);
-            } catch (Exception e) {
-                log.warn("缓存计划失败", e);
-            }
-        }
-
-        return plan;
+        // 缓存未命中时从数据库加载，并发请求只查询一次，临近过期时在后台刷新
+        return refreshingLoader.get(PLAN_CACHE_PREFIX + userId, StudyPlan.class, CACHE_TTL,
+                () -> planRepository.findCurrentByUserId(userId).orElse(null));
     }
 
     @Override
@@ -325,11 +308,11 @@ public class PlanGenerationServiceImpl implements PlanGenerationService {
 
     private void clearPlanCache(Long userId) {
         String cacheKey = PLAN_CACHE_PREFIX + userId;
-        redisTemplate.delete(cacheKey);
+        refreshingLoader.invalidate(cacheKey);
     }
 
     private void clearDailyTasksCache(Long userId, LocalDate date) {
         String cacheKey = DAILY_TASKS_CACHE_PREFIX + userId + ":" + date;
-        redisTemplate.delete(cacheKey);
+        cache.delete(cacheKey);
     }
 }
@@ -5,11 +5,11 @@ import com.llmplatform.personalized.engine.LearningAnalyticsEngine;
 import com.llmplatform.personalized.entity.LearningProfile;
 import com.llmplatform.personalized.repository.ProfileRepository;
 import com.llmplatform.personalized.service.ProfileAnalysisService;
+import com.llmplatform.util.RefreshingLoader;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.stereotype.Service;
 
 import java.time.Duration;
@@ -29,7 +29,7 @@ public class ProfileAnalysisServiceImpl implements ProfileAnalysisService {
 
     private final ProfileRepository profileRepository;
     private final LearningAnalyticsEngine learningAnalyticsEngine;
-    private final RedisTemplate<String, Object> redisTemplate;
+    private final RefreshingLoader refreshingLoader;
     private final ObjectMapper objectMapper;
 
     /**
@@ -37,34 +37,24 @@ public class ProfileAnalysisServiceImpl implements ProfileAnalysisService {
      */
     public ProfileAnalysisServiceImpl(ProfileRepository profileRepository,
                                        LearningAnalyticsEngine learningAnalyticsEngine,
-                                       RedisTemplate<String, Object> redisTemplate,
+                                       RefreshingLoader refreshingLoader,
                                        ObjectMapper objectMapper) {
         this.profileRepository = profileRepository;
         this.learningAnalyticsEngine = learningAnalyticsEngine;
-        this.redisTemplate = redisTemplate;
+        this.refreshingLoader = refreshingLoader;
         this.objectMapper = objectMapper;
     }
 
     @Override
     public LearningProfile getOrCreateProfile(Long userId) {
-        // 尝试从缓存获取
-        LearningProfile cached = getProfileFromCache(userId);
-        if (cached != null) {
-            return cached;
+        LearningProfile existing = getProfile(userId);
+        if (existing != null) {
+            return existing;
         }
 
-        // 从数据库获取
-        Optional<LearningProfile> existing = profileRepository.findByUserId(userId);
-        if (existing.isPresent()) {
-            LearningProfile profile = existing.get();
-            cacheProfile(userId, profile);
-            return profile;
-        }
-
-        // 创建默认档案
+        // 创建默认档案，下次读取时加载到缓存
         LearningProfile newProfile = createDefaultProfile(userId);
         LearningProfile saved = profileRepository.create(newProfile);
-        cacheProfile(userId, saved);
 
         log.debug("为用户创建默认学习档案, userId={}", userId);
         return saved;
@@ -108,8 +98,12 @@ public class ProfileAnalysisServiceImpl implements ProfileAnalysisService {
         // 更新数据库
         LearningProfile updated = profileRepository.update(profile);
 
-        // 更新缓存
-        cacheProfile(userId, updated);
+        // 清除缓存，下次读取时重新加载
+        try {
+            clearProfileCache(userId);
+        } catch (Exception e) {
+            log.warn("清除学习档案缓存失败, userId={}", userId, e);
+        }
 
         log.debug("更新学习档案完成, userId={}, speedTrend={}", userId, speedTrend);
         return updated;
@@ -117,21 +111,9 @@ public class ProfileAnalysisServiceImpl implements ProfileAnalysisService {
 
     @Override
     public LearningProfile getProfile(Long userId) {
-        // 尝试从缓存获取
-        LearningProfile cached = getProfileFromCache(userId);
-        if (cached != null) {
-            return cached;
-        }
-
-        // 从数据库获取
-        Optional<LearningProfile> existing = profileRepository.findByUserId(userId);
-        if (existing.isPresent()) {
-            LearningProfile profile = existing.get();
-            cacheProfile(userId, profile);
-            return profile;
-        }
-
-        return null;
+        // 缓存未命中时从数据库加载，并发请求只查询一次，临近过期时在后台刷新
+        return refreshingLoader.get(PROFILE_CACHE_PREFIX + userId, LearningProfile.class, PROFILE_CACHE_TTL,
+                () -> profileRepository.findByUserId(userId).orElse(null));
     }
 
     @Override
@@ -303,42 +285,12 @@ public class ProfileAnalysisServiceImpl implements ProfileAnalysisService {
         }
     }
 
-    /**
-     * 从缓存获取学习档案
-     */
-    private LearningProfile getProfileFromCache(Long userId) {
-        String cacheKey = PROFILE_CACHE_PREFIX + userId;
-        try {
-            Object cached = redisTemplate.opsForValue().get(cacheKey);
-            if (cached instanceof LearningProfile) {
-                log.debug("从缓存获取学习档案, userId={}", userId);
-                return (LearningProfile) cached;
-            }
-        } catch (Exception e) {
-            log.warn("从缓存获取学习档案失败, userId={}", userId, e);
-        }
-        return null;
-    }
-
-    /**
-     * 缓存学习档案
-     */
-    private void cacheProfile(Long userId, LearningProfile profile) {
-        String cacheKey = PROFILE_CACHE_PREFIX + userId;
-        try {
-            redisTemplate.opsForValue().set(cacheKey, profile, PROFILE_CACHE_TTL);
-            log.debug("缓存学习档案, userId={}", userId);
-        } catch (Exception e) {
-            log.warn("缓存学习档案失败, userId={}", userId, e);
-        }
-    }
-
     /**
      * 清除学习档案缓存
      */
     public void clearProfileCache(Long userId) {
         String cacheKey = PROFILE_CACHE_PREFIX + userId;
-        redisTemplate.delete(cacheKey);
+        refreshingLoader.invalidate(cacheKey);
         log.debug("清除学习档案缓存, userId={}", userId);
     }
 }
@@ -6,6 +6,7 @@ import com.llmplatform.vo.DialogueSessionVO;
 import com.llmplatform.vo.ScenarioVO;
 
 import java.util.List;
+import java.util.function.Consumer;
 
 /**
  * Dialogue service interface for scenario dialogue practice
@@ -57,6 +58,18 @@ public interface DialogueService {
      */
     AIResponseVO sendMessage(Long sessionId, String message, Long userId);
 
+    /**
+     * Send a message in a dialogue session, streaming the AI reply as it is generated
+     * The assembled reply is persisted once the stream completes
+     * 
+     * @param sessionId session ID
+     * @param message user message
+     * @param userId user ID for validation
+     * @param onDelta callback receiving each content delta of the reply
+     * @return AI response with the assembled content
+     */
+    AIResponseVO sendMessageStream(Long sessionId, String message, Long userId, Consumer<String> onDelta);
+
     /**
      * End a dialogue session
      * 
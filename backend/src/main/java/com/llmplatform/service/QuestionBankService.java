@@ -0,0 +1,34 @@
+package com.llmplatform.service;
+
+import com.llmplatform.vo.QuizVO;
+
+import java.util.List;
+
+/**
+ * Question bank service interface
+ * Generated quiz questions are kept, deduplicated by content, and reused across quizzes
+ */
+public interface QuestionBankService {
+
+    /**
+     * Assemble quiz questions from the bank, skipping questions the user has already been given
+     * Only the shortfall is generated by the AI when the bank cannot fill the quiz
+     *
+     * @param difficulty difficulty level (EASY, MEDIUM, HARD)
+     * @param targetLang target language
+     * @param count number of questions
+     * @param userId user ID
+     * @return questions numbered from 1
+     */
+    List<QuizVO.QuestionVO> assembleQuestions(String difficulty, String targetLang, int count, Long userId);
+
+    /**
+     * Store generated questions, skipping ones already in the bank
+     *
+     * @param difficulty difficulty level
+     * @param targetLang target language
+     * @param questions generated questions
+     * @return number of questions added
+     */
+    int storeQuestions(String difficulty, String targetLang, List<QuizVO.QuestionVO> questions);
+}
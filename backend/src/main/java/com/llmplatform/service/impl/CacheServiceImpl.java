@@ -1,17 +1,20 @@
 package com.llmplatform.service.impl;
 
 import com.llmplatform.service.CacheService;
+import com.llmplatform.util.TwoTierCache;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
 import java.util.Optional;
 import java.util.concurrent.TimeUnit;
 
 /**
  * Cache service implementation using Redis
  * Provides robust caching with TTL management and graceful error handling
+ * Values are read and written through {@link TwoTierCache}
  */
 @Slf4j
 @Service
@@ -19,11 +22,12 @@ import java.util.concurrent.TimeUnit;
 public class CacheServiceImpl implements CacheService {
 
     private final RedisTemplate<String, Object> redisTemplate;
+    private final TwoTierCache cache;
 
     @Override
     public boolean set(String key, Object value, long ttl, TimeUnit timeUnit) {
         try {
-            redisTemplate.opsForValue().set(key, value, ttl, timeUnit);
+            cache.set(key, value, Duration.of(ttl, timeUnit.toChronoUnit()));
             log.debug("Cache set: key={}, ttl={} {}", key, ttl, timeUnit);
             return true;
         } catch (Exception e) {
@@ -41,7 +45,7 @@ public class CacheServiceImpl implements CacheService {
     @SuppressWarnings("unchecked")
     public <T> Optional<T> get(String key, Class<T> clazz) {
         try {
-            Object value = redisTemplate.opsForValue().get(key);
+            Object value = cache.get(key);
             if (value != null && clazz.isInstance(value)) {
                 log.debug("Cache hit: key={}", key);
                 return Optional.of((T) value);
@@ -57,7 +61,7 @@ public class CacheServiceImpl implements CacheService {
     @Override
     public Optional<Object> get(String key) {
         try {
-            Object value = redisTemplate.opsForValue().get(key);
+            Object value = cache.get(key);
             if (value != null) {
                 log.debug("Cache hit: key={}", key);
                 return Optional.of(value);
@@ -73,8 +77,7 @@ public class CacheServiceImpl implements CacheService {
     @Override
     public boolean delete(String key) {
         try {
-            Boolean result = redisTemplate.delete(key);
-            boolean deleted = Boolean.TRUE.equals(result);
+            boolean deleted = cache.delete(key);
             log.debug("Cache delete: key={}, deleted={}", key, deleted);
             return deleted;
         } catch (Exception e) {
@@ -135,10 +138,9 @@ public class CacheServiceImpl implements CacheService {
     @SuppressWarnings("unchecked")
     public <T> Optional<T> getAndRefresh(String key, Class<T> clazz, long ttl, TimeUnit timeUnit) {
         try {
-            Object value = redisTemplate.opsForValue().get(key);
+            // Read and refresh TTL in one round trip
+            Object value = cache.getAndExpire(key, Duration.of(ttl, timeUnit.toChronoUnit()));
             if (value != null && clazz.isInstance(value)) {
-                // Refresh TTL
-                redisTemplate.expire(key, ttl, timeUnit);
                 log.debug("Cache hit and refreshed: key={}, ttl={} {}", key, ttl, timeUnit);
                 return Optional.of((T) value);
             }
@@ -4,9 +4,13 @@ import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.llmplatform.ai.context.AssembledContext;
+import com.llmplatform.ai.context.DialogueContextAssembler;
+import com.llmplatform.ai.dto.AIFeature;
 import com.llmplatform.ai.dto.AIRequest;
 import com.llmplatform.ai.dto.AIResponse;
 import com.llmplatform.ai.gateway.AIGateway;
+import com.llmplatform.ai.tier.TaskClass;
 import com.llmplatform.common.ActivityType;
 import com.llmplatform.common.CacheConstants;
 import com.llmplatform.dto.CreateScenarioDTO;
@@ -18,6 +22,7 @@ import com.llmplatform.mapper.DialogueSessionMapper;
 import com.llmplatform.mapper.LearningRecordMapper;
 import com.llmplatform.mapper.ScenarioMapper;
 import com.llmplatform.service.DialogueService;
+import com.llmplatform.stats.UserStatisticsStore;
 import com.llmplatform.util.CacheUtil;
 import com.llmplatform.vo.AIResponseVO;
 import com.llmplatform.vo.DialogueSessionVO;
@@ -30,6 +35,7 @@ import org.springframework.transaction.annotation.Transactional;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 /**
@@ -40,11 +46,16 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class DialogueServiceImpl implements DialogueService {
 
+    /** Reply budget of one conversational turn */
+    private static final int REPLY_MAX_TOKENS = 512;
+
     private final ScenarioMapper scenarioMapper;
     private final DialogueSessionMapper dialogueSessionMapper;
     private final LearningRecordMapper learningRecordMapper;
     private final AIGateway aiGateway;
+    private final DialogueContextAssembler contextAssembler;
     private final CacheUtil cacheUtil;
+    private final UserStatisticsStore statisticsStore;
     private final ObjectMapper objectMapper;
 
 
@@ -123,61 +134,15 @@ public class DialogueServiceImpl implements DialogueService {
 
 
     @Override
-    @Transactional
     public AIResponseVO sendMessage(Long sessionId, String message, Long userId) {
-        // Get session and validate ownership
-        DialogueSession session = dialogueSessionMapper.selectById(sessionId);
-        if (session == null) {
-            throw new BusinessException("SESSION_NOT_FOUND", "Dialogue session not found");
-        }
-        if (!session.getUserId().equals(userId)) {
-            throw new BusinessException("ACCESS_DENIED", "You don't have access to this session");
-        }
-        if (session.getEndedAt() != null) {
-            throw new BusinessException("SESSION_ENDED", "This dialogue session has ended");
-        }
-
-        // Get scenario for context
-        Scenario scenario = scenarioMapper.selectById(session.getScenarioId());
-        if (scenario == null) {
-            throw new BusinessException("SCENARIO_NOT_FOUND", "Scenario not found");
-        }
-
-        // Get conversation context from cache or database
-        List<DialogueSessionVO.MessageVO> messages = getDialogueContext(session);
-
-        // Add user message to context
-        DialogueSessionVO.MessageVO userMessage = new DialogueSessionVO.MessageVO();
-        userMessage.setRole("user");
-        userMessage.setContent(message);
-        userMessage.setTimestamp(LocalDateTime.now());
-        messages.add(userMessage);
-
-        // Build AI request with context
-        AIResponse aiResponse = generateAIResponse(scenario, messages, session.getTargetLang());
-
-        if (!aiResponse.isSuccess()) {
-            throw new BusinessException("AI_ERROR", "Failed to generate response: " + aiResponse.getErrorMessage());
-        }
-
-        // Add AI response to context
-        DialogueSessionVO.MessageVO assistantMessage = new DialogueSessionVO.MessageVO();
-        assistantMessage.setRole("assistant");
-        assistantMessage.setContent(aiResponse.getContent());
-        assistantMessage.setTimestamp(LocalDateTime.now());
-        messages.add(assistantMessage);
-
-        // Update cache and database
-        cacheDialogueContext(sessionId, messages);
-        updateSessionMessages(session, messages);
-
-        // Build response
-        AIResponseVO responseVO = new AIResponseVO();
-        responseVO.setContent(aiResponse.getContent());
-        responseVO.setRole("assistant");
-        responseVO.setSessionId(sessionId);
+        // Not transactional for the same reason as the stream: no connection is held while the AI replies
+        return exchangeMessage(sessionId, message, userId, null);
+    }
 
-        return responseVO;
+    @Override
+    public AIResponseVO sendMessageStream(Long sessionId, String message, Long userId, Consumer<String> onDelta) {
+        // Not transactional: the only write is the final session update, no need to hold a connection while streaming
+        return exchangeMessage(sessionId, message, userId, onDelta);
     }
 
     @Override
@@ -206,10 +171,6 @@ public class DialogueServiceImpl implements DialogueService {
         session.setEndedAt(LocalDateTime.now());
         dialogueSessionMapper.updateById(session);
 
-        // Clear cache
-        String cacheKey = CacheConstants.dialogueKey(sessionId);
-        cacheUtil.delete(cacheKey);
-
         // Record learning activity
         LearningRecord record = new LearningRecord();
         record.setUserId(userId);
@@ -218,9 +179,12 @@ public class DialogueServiceImpl implements DialogueService {
         record.setActivityTime(LocalDateTime.now());
         learningRecordMapper.insert(record);
 
-        // Invalidate statistics cache
-        String statsCacheKey = CacheConstants.statsKey(userId);
-        cacheUtil.delete(statsCacheKey);
+        statisticsStore.record(userId, ActivityType.DIALOGUE, record.getActivityTime(), null);
+
+        // Clear the session context and summary in one round trip
+        cacheUtil.deleteMany(List.of(
+                CacheConstants.dialogueKey(sessionId),
+                CacheConstants.dialogueSummaryKey(sessionId)));
 
         log.info("Ended dialogue session: {} for user: {}", sessionId, userId);
     }
@@ -266,7 +230,68 @@ public class DialogueServiceImpl implements DialogueService {
 
     // ==================== Private Helper Methods ====================
 
-    private AIResponse generateAIResponse(Scenario scenario, List<DialogueSessionVO.MessageVO> messages, String targetLang) {
+    /**
+     * Validate the session, generate the AI reply and persist both messages
+     * A null onDelta generates the reply in one piece, otherwise it is streamed through the callback
+     */
+    private AIResponseVO exchangeMessage(Long sessionId, String message, Long userId, Consumer<String> onDelta) {
+        // Get session and validate ownership
+        DialogueSession session = dialogueSessionMapper.selectById(sessionId);
+        if (session == null) {
+            throw new BusinessException("SESSION_NOT_FOUND", "Dialogue session not found");
+        }
+        if (!session.getUserId().equals(userId)) {
+            throw new BusinessException("ACCESS_DENIED", "You don't have access to this session");
+        }
+        if (session.getEndedAt() != null) {
+            throw new BusinessException("SESSION_ENDED", "This dialogue session has ended");
+        }
+
+        // Get scenario for context
+        Scenario scenario = scenarioMapper.selectById(session.getScenarioId());
+        if (scenario == null) {
+            throw new BusinessException("SCENARIO_NOT_FOUND", "Scenario not found");
+        }
+
+        // Get conversation context from cache or database
+        List<DialogueSessionVO.MessageVO> messages = getDialogueContext(session);
+
+        // Add user message to context
+        DialogueSessionVO.MessageVO userMessage = new DialogueSessionVO.MessageVO();
+        userMessage.setRole("user");
+        userMessage.setContent(message);
+        userMessage.setTimestamp(LocalDateTime.now());
+        messages.add(userMessage);
+
+        // Build AI request with context
+        AIResponse aiResponse = generateAIResponse(scenario, sessionId, messages, session.getTargetLang(), userId, onDelta);
+
+        if (!aiResponse.isSuccess()) {
+            throw new BusinessException("AI_ERROR", "Failed to generate response: " + aiResponse.getErrorMessage());
+        }
+
+        // Add AI response to context
+        DialogueSessionVO.MessageVO assistantMessage = new DialogueSessionVO.MessageVO();
+        assistantMessage.setRole("assistant");
+        assistantMessage.setContent(aiResponse.getContent());
+        assistantMessage.setTimestamp(LocalDateTime.now());
+        messages.add(assistantMessage);
+
+        // Update cache and database
+        cacheDialogueContext(sessionId, messages);
+        updateSessionMessages(session, messages);
+
+        // Build response
+        AIResponseVO responseVO = new AIResponseVO();
+        responseVO.setContent(aiResponse.getContent());
+        responseVO.setRole("assistant");
+        responseVO.setSessionId(sessionId);
+
+        return responseVO;
+    }
+
+    private AIResponse generateAIResponse(Scenario scenario, Long sessionId, List<DialogueSessionVO.MessageVO> messages,
+                                          String targetLang, Long userId, Consumer<String> onDelta) {
         String lang = targetLang != null ? targetLang : "en";
         String systemMessage = String.format(
             "You are a language learning assistant helping a user practice %s conversations in a '%s' scenario. " +
@@ -279,21 +304,30 @@ public class DialogueServiceImpl implements DialogueService {
         );
 
         // Convert messages to AI request format
-        List<AIRequest.Message> contextMessages = messages.stream()
+        List<AIRequest.Message> history = messages.stream()
             .map(m -> AIRequest.Message.builder()
                 .role(m.getRole())
                 .content(m.getContent())
                 .build())
             .collect(Collectors.toList());
 
+        // Keep the prompt within budget: recent turns verbatim, older ones as a rolling summary
+        AssembledContext context = contextAssembler.assemble(sessionId, systemMessage, history, userId);
+
         AIRequest request = AIRequest.builder()
-            .systemMessage(systemMessage)
-            .messages(contextMessages)
+            .systemMessage(context.systemMessage())
+            .messages(context.messages())
             .temperature(0.7)
-            .maxTokens(1024)
+            .maxTokens(REPLY_MAX_TOKENS)
+            .feature(AIFeature.DIALOGUE)
+            .taskClass(TaskClass.DIALOGUE)
+            .userId(userId)
             .build();
 
-        return aiGateway.generateWithContext(request, contextMessages);
+        if (onDelta != null) {
+            return aiGateway.generateStream(request, onDelta);
+        }
+        return aiGateway.generate(request);
     }
 
     private List<DialogueSessionVO.MessageVO> getDialogueContext(DialogueSession session) {
@@ -3,7 +3,6 @@ package com.llmplatform.service.impl;
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.llmplatform.common.ActivityType;
-import com.llmplatform.common.CacheConstants;
 import com.llmplatform.dto.RecordQueryDTO;
 import com.llmplatform.entity.DialogueSession;
 import com.llmplatform.entity.LearningRecord;
@@ -16,7 +15,9 @@ import com.llmplatform.mapper.QuizMapper;
 import com.llmplatform.mapper.ScenarioMapper;
 import com.llmplatform.mapper.WordMapper;
 import com.llmplatform.service.LearningRecordService;
-import com.llmplatform.util.CacheUtil;
+import com.llmplatform.stats.StatisticsCounters;
+import com.llmplatform.stats.StatisticsReconciler;
+import com.llmplatform.stats.UserStatisticsStore;
 import com.llmplatform.vo.LearningRecordVO;
 import com.llmplatform.vo.LearningRecordsVO;
 import com.llmplatform.vo.LearningStatisticsVO;
@@ -25,6 +26,7 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.HashMap;
 import java.util.List;
@@ -34,7 +36,7 @@ import java.util.stream.Collectors;
 /**
  * Learning record service implementation
  * Handles tracking and retrieval of user learning activities
- * Includes caching for user statistics to improve performance
+ * User statistics are served from counters in Redis that recording an activity updates
  */
 @Slf4j
 @Service
@@ -46,7 +48,8 @@ public class LearningRecordServiceImpl implements LearningRecordService {
     private final DialogueSessionMapper dialogueSessionMapper;
     private final QuizMapper quizMapper;
     private final ScenarioMapper scenarioMapper;
-    private final CacheUtil cacheUtil;
+    private final UserStatisticsStore statisticsStore;
+    private final StatisticsReconciler statisticsReconciler;
 
     @Override
     public LearningRecordsVO getRecords(Long userId, RecordQueryDTO params) {
@@ -95,82 +98,17 @@ public class LearningRecordServiceImpl implements LearningRecordService {
 
     @Override
     public LearningStatisticsVO getStatistics(Long userId) {
-        // Try to get from cache first
-        String cacheKey = CacheConstants.statsKey(userId);
-        LearningStatisticsVO cachedStats = cacheUtil.get(cacheKey, LearningStatisticsVO.class);
-        if (cachedStats != null) {
-            log.debug("Statistics found in cache for user: {}", userId);
-            return cachedStats;
+        // Counters are kept up to date as activities are recorded; MySQL is only read to create them
+        StatisticsCounters counters = null;
+        try {
+            counters = statisticsStore.read(userId);
+        } catch (Exception e) {
+            log.warn("Failed to read statistics of user {}: {}", userId, e.getMessage());
         }
-
-        log.debug("Computing statistics for user: {}", userId);
-        LearningStatisticsVO stats = computeStatistics(userId);
-
-        // Cache the result
-        cacheUtil.set(cacheKey, stats, CacheConstants.STATS_TTL_SECONDS);
-        
-        return stats;
-    }
-
-    /**
-     * Compute learning statistics from database
-     */
-    private LearningStatisticsVO computeStatistics(Long userId) {
-        LearningStatisticsVO stats = new LearningStatisticsVO();
-
-        // Count by activity type
-        stats.setTotalWordQueries(countByActivityType(userId, ActivityType.WORD_QUERY));
-        stats.setTotalDialogueSessions(countByActivityType(userId, ActivityType.DIALOGUE));
-        stats.setTotalQuizzes(countByActivityType(userId, ActivityType.QUIZ));
-
-        // Total activities
-        Long totalActivities = learningRecordMapper.selectCount(
-            new LambdaQueryWrapper<LearningRecord>()
-                .eq(LearningRecord::getUserId, userId)
-        );
-        stats.setTotalActivities(totalActivities);
-
-        // Calculate average quiz score
-        stats.setAverageQuizScore(calculateAverageQuizScore(userId));
-
-        // Get first and last activity dates
-        LearningRecord firstRecord = learningRecordMapper.selectOne(
-            new LambdaQueryWrapper<LearningRecord>()
-                .eq(LearningRecord::getUserId, userId)
-                .orderByAsc(LearningRecord::getActivityTime)
-                .last("LIMIT 1")
-        );
-        if (firstRecord != null) {
-            stats.setFirstActivityDate(firstRecord.getActivityTime());
-        }
-
-        LearningRecord lastRecord = learningRecordMapper.selectOne(
-            new LambdaQueryWrapper<LearningRecord>()
-                .eq(LearningRecord::getUserId, userId)
-                .orderByDesc(LearningRecord::getActivityTime)
-                .last("LIMIT 1")
-        );
-        if (lastRecord != null) {
-            stats.setLastActivityDate(lastRecord.getActivityTime());
+        if (counters == null) {
+            counters = statisticsReconciler.rebuild(userId);
         }
-
-        // Activities in last 7 days
-        LocalDateTime sevenDaysAgo = LocalDateTime.now().minusDays(7);
-        stats.setActivitiesLast7Days(learningRecordMapper.selectCount(
-            new LambdaQueryWrapper<LearningRecord>()
-                .eq(LearningRecord::getUserId, userId)
-                .ge(LearningRecord::getActivityTime, sevenDaysAgo)
-        ));
-
-        // Activities in last 30 days
-        LocalDateTime thirtyDaysAgo = LocalDateTime.now().minusDays(30);
-        stats.setActivitiesLast30Days(learningRecordMapper.selectCount(
-            new LambdaQueryWrapper<LearningRecord>()
-                .eq(LearningRecord::getUserId, userId)
-                .ge(LearningRecord::getActivityTime, thirtyDaysAgo)
-        ));
-
-        return stats;
+        return counters.toStatistics(LocalDate.now());
     }
 
     @Override
@@ -182,9 +120,8 @@ public class LearningRecordServiceImpl implements LearningRecordService {
         record.setActivityId(wordId);
         record.setActivityTime(LocalDateTime.now());
         learningRecordMapper.insert(record);
-        
-        // Invalidate statistics cache
-        invalidateStatisticsCache(userId);
+
+        statisticsStore.record(userId, ActivityType.WORD_QUERY, record.getActivityTime(), null);
         log.debug("Recorded word query: userId={}, wordId={}", userId, wordId);
     }
 
@@ -197,9 +134,8 @@ public class LearningRecordServiceImpl implements LearningRecordService {
         record.setActivityId(session.getId());
         record.setActivityTime(session.getEndedAt() != null ? session.getEndedAt() : LocalDateTime.now());
         learningRecordMapper.insert(record);
-        
-        // Invalidate statistics cache
-        invalidateStatisticsCache(userId);
+
+        statisticsStore.record(userId, ActivityType.DIALOGUE, record.getActivityTime(), null);
         log.debug("Recorded dialogue session: userId={}, sessionId={}", userId, session.getId());
     }
 
@@ -212,57 +148,10 @@ public class LearningRecordServiceImpl implements LearningRecordService {
         record.setActivityId(quiz.getId());
         record.setActivityTime(quiz.getCompletedAt() != null ? quiz.getCompletedAt() : LocalDateTime.now());
         learningRecordMapper.insert(record);
-        
-        // Invalidate statistics cache
-        invalidateStatisticsCache(userId);
-        log.debug("Recorded quiz result: userId={}, quizId={}", userId, quiz.getId());
-    }
-
-    /**
-     * Invalidate statistics cache for a user when new activities are recorded
-     */
-    private void invalidateStatisticsCache(Long userId) {
-        String cacheKey = CacheConstants.statsKey(userId);
-        cacheUtil.delete(cacheKey);
-        log.debug("Invalidated statistics cache for user: {}", userId);
-    }
-
-    /**
-     * Count records by activity type for a user
-     */
-    private Long countByActivityType(Long userId, ActivityType activityType) {
-        return learningRecordMapper.selectCount(
-            new LambdaQueryWrapper<LearningRecord>()
-                .eq(LearningRecord::getUserId, userId)
-                .eq(LearningRecord::getActivityType, activityType.name())
-        );
-    }
-
-    /**
-     * Calculate average quiz score for a user
-     */
-    private Double calculateAverageQuizScore(Long userId) {
-        List<Quiz> completedQuizzes = quizMapper.selectList(
-            new LambdaQueryWrapper<Quiz>()
-                .eq(Quiz::getUserId, userId)
-                .isNotNull(Quiz::getUserScore)
-                .isNotNull(Quiz::getCompletedAt)
-        );
-
-        if (completedQuizzes.isEmpty()) {
-            return 0.0;
-        }
-
-        double totalPercentage = completedQuizzes.stream()
-            .filter(q -> q.getTotalScore() != null && q.getTotalScore() > 0)
-            .mapToDouble(q -> (double) q.getUserScore() / q.getTotalScore() * 100)
-            .sum();
 
-        long validQuizCount = completedQuizzes.stream()
-            .filter(q -> q.getTotalScore() != null && q.getTotalScore() > 0)
-            .count();
-
-        return validQuizCount > 0 ? totalPercentage / validQuizCount : 0.0;
+        statisticsStore.record(userId, ActivityType.QUIZ, record.getActivityTime(),
+                StatisticsReconciler.scorePercentage(quiz));
+        log.debug("Recorded quiz result: userId={}, quizId={}", userId, quiz.getId());
     }
 
     /**
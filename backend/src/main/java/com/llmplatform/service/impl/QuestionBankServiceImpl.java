@@ -0,0 +1,382 @@
+package com.llmplatform.service.impl;
+
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
+import com.baomidou.mybatisplus.core.conditions.update.LambdaUpdateWrapper;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.llmplatform.ai.dto.AIFeature;
+import com.llmplatform.ai.dto.AIRequest;
+import com.llmplatform.ai.dto.AIResponse;
+import com.llmplatform.ai.gateway.AIGateway;
+import com.llmplatform.ai.output.StructuredOutputDecoder;
+import com.llmplatform.ai.tier.TaskClass;
+import com.llmplatform.entity.QuizQuestion;
+import com.llmplatform.exception.BusinessException;
+import com.llmplatform.mapper.QuizQuestionMapper;
+import com.llmplatform.mapper.QuizQuestionSeenMapper;
+import com.llmplatform.service.QuestionBankService;
+import com.llmplatform.vo.QuizVO;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Question bank service implementation
+ * Quizzes are assembled from the least used questions of their language and difficulty that the
+ * user has not been given yet, so a quiz normally costs a few indexed reads instead of an AI call.
+ * Categories running low are topped up by the AI in the background, one top-up per category at a time.
+ * Whether a category has a thin topic is counted once and then only again after a top-up of it
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class QuestionBankServiceImpl implements QuestionBankService {
+
+    private final QuizQuestionMapper questionMapper;
+    private final QuizQuestionSeenMapper seenMapper;
+    private final AIGateway aiGateway;
+    private final StructuredOutputDecoder outputDecoder;
+    private final ObjectMapper objectMapper;
+    @Qualifier("questionBankExecutor")
+    private final Executor questionBankExecutor;
+
+    /** Categories (language and difficulty) with a background top-up in flight */
+    private final Set<String> toppingUp = ConcurrentHashMap.newKeySet();
+    /** Whether a category had a topic below the minimum when last counted */
+    private final Map<String, Boolean> thinCategories = new ConcurrentHashMap<>();
+
+    @Value("${quiz.bank.min-per-topic:30}")
+    private int minPerTopic;
+
+    @Value("${quiz.bank.top-up-size:10}")
+    private int topUpSize;
+
+    /** Reply budget per generated question (text, four options, answer, topic) plus the JSON array around them */
+    private static final int TOKENS_PER_QUESTION = 130;
+    private static final int QUESTION_LIST_OVERHEAD_TOKENS = 64;
+    /** Least used candidates fetched per requested question, shuffled so users do not all get the same quiz */
+    private static final int CANDIDATE_FACTOR = 3;
+    private static final List<String> TOPICS = List.of("vocabulary", "grammar", "comprehension");
+    private static final String DEFAULT_TOPIC = "vocabulary";
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    private static final TypeReference<List<QuizVO.QuestionVO>> QUESTION_LIST = new TypeReference<>() {};
+    private static final TypeReference<List<String>> OPTION_LIST = new TypeReference<>() {};
+
+
+    @Override
+    public List<QuizVO.QuestionVO> assembleQuestions(String difficulty, String targetLang, int count, Long userId) {
+        String level = difficulty.toUpperCase(Locale.ROOT);
+
+        List<QuizQuestion> candidates = questionMapper.selectList(unseenQuery(level, targetLang, userId)
+                .last("LIMIT " + count * CANDIDATE_FACTOR));
+        Collections.shuffle(candidates);
+        List<QuizQuestion> picked = new ArrayList<>(candidates.subList(0, Math.min(count, candidates.size())));
+
+        if (picked.size() < count) {
+            // The bank has no more unseen questions for this user: generate only the shortfall
+            log.info("Question bank short of {} {} {} questions for user {}, generating",
+                    count - picked.size(), targetLang, level, userId);
+            List<QuizVO.QuestionVO> generated = generateQuestions(level, targetLang, count - picked.size(), null, userId);
+            for (QuizQuestion question : store(level, targetLang, generated)) {
+                if (picked.size() < count) {
+                    picked.add(question);
+                }
+            }
+        }
+        if (picked.isEmpty()) {
+            throw new BusinessException("AI_ERROR", "Failed to generate quiz questions");
+        }
+
+        markUsed(picked, userId);
+        if (candidates.size() < count * CANDIDATE_FACTOR || hasThinTopic(level, targetLang)) {
+            topUpInBackground(level, targetLang);
+        }
+
+        List<QuizVO.QuestionVO> questions = new ArrayList<>(picked.size());
+        for (int i = 0; i < picked.size(); i++) {
+            questions.add(toQuestionVO(picked.get(i), i + 1));
+        }
+        return questions;
+    }
+
+    @Override
+    public int storeQuestions(String difficulty, String targetLang, List<QuizVO.QuestionVO> questions) {
+        return store(difficulty.toUpperCase(Locale.ROOT), targetLang, questions).size();
+    }
+
+    /**
+     * Content hash used to deduplicate questions: language, question text and options,
+     * compared case-insensitively and ignoring whitespace differences
+     */
+    public static String contentHash(String targetLang, QuizVO.QuestionVO question) {
+        StringBuilder content = new StringBuilder()
+                .append(normalize(targetLang)).append('\u0000')
+                .append(normalize(question.getQuestion()));
+        if (question.getOptions() != null) {
+            question.getOptions().forEach(option -> content.append('\u0000').append(normalize(option)));
+        }
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(content.toString().getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("Failed to hash quiz question", e);
+        }
+    }
+
+    /**
+     * Least used questions of a category that the user has not been given
+     */
+    private LambdaQueryWrapper<QuizQuestion> unseenQuery(String level, String targetLang, Long userId) {
+        LambdaQueryWrapper<QuizQuestion> query = new LambdaQueryWrapper<QuizQuestion>()
+                .eq(QuizQuestion::getTargetLang, targetLang)
+                .eq(QuizQuestion::getDifficulty, level)
+                .orderByAsc(QuizQuestion::getUsageCount);
+        if (userId != null) {
+            query.apply("id NOT IN (SELECT question_id FROM quiz_question_seen WHERE user_id = {0})", userId);
+        }
+        return query;
+    }
+
+    /**
+     * Bump usage counts and record the questions as seen by the user
+     */
+    private void markUsed(List<QuizQuestion> questions, Long userId) {
+        LocalDateTime now = LocalDateTime.now();
+        List<Long> ids = questions.stream().map(QuizQuestion::getId).collect(Collectors.toList());
+        questionMapper.update(null, new LambdaUpdateWrapper<QuizQuestion>()
+                .in(QuizQuestion::getId, ids)
+                .setSql("usage_count = usage_count + 1")
+                .set(QuizQuestion::getLastUsedAt, now));
+
+        if (userId != null) {
+            seenMapper.insertSeen(userId, ids, now);
+        }
+    }
+
+    /**
+     * Insert the questions not yet in the bank
+     * @return the inserted questions
+     */
+    private List<QuizQuestion> store(String level, String targetLang, List<QuizVO.QuestionVO> questions) {
+        Map<String, QuizVO.QuestionVO> byHash = new HashMap<>();
+        for (QuizVO.QuestionVO question : questions) {
+            if (isComplete(question)) {
+                byHash.putIfAbsent(contentHash(targetLang, question), question);
+            }
+        }
+        if (byHash.isEmpty()) {
+            return List.of();
+        }
+
+        Set<String> existing = questionMapper.selectList(new LambdaQueryWrapper<QuizQuestion>()
+                        .select(QuizQuestion::getContentHash)
+                        .in(QuizQuestion::getContentHash, byHash.keySet()))
+                .stream()
+                .map(QuizQuestion::getContentHash)
+                .collect(Collectors.toSet());
+
+        List<QuizQuestion> inserted = new ArrayList<>();
+        LocalDateTime now = LocalDateTime.now();
+        for (Map.Entry<String, QuizVO.QuestionVO> entry : byHash.entrySet()) {
+            if (existing.contains(entry.getKey())) {
+                continue;
+            }
+            QuizVO.QuestionVO question = entry.getValue();
+            QuizQuestion entity = new QuizQuestion();
+            entity.setContentHash(entry.getKey());
+            entity.setTargetLang(targetLang);
+            entity.setDifficulty(level);
+            entity.setTopic(normalizeTopic(question.getTopic()));
+            entity.setQuestion(question.getQuestion().trim());
+            entity.setCorrectAnswer(question.getCorrectAnswer().trim());
+            entity.setUsageCount(0);
+            entity.setCreatedAt(now);
+            try {
+                entity.setOptions(objectMapper.writeValueAsString(question.getOptions()));
+                questionMapper.insert(entity);
+                inserted.add(entity);
+            } catch (JsonProcessingException e) {
+                log.warn("Failed to serialize question options: {}", e.getMessage());
+            } catch (DuplicateKeyException e) {
+                // Stored by a concurrent generation
+            }
+        }
+        log.debug("Stored {} of {} generated {} {} questions", inserted.size(), questions.size(), targetLang, level);
+        return inserted;
+    }
+
+    /**
+     * Check whether any topic of a category has fewer questions than the configured minimum
+     * Questions are only ever added, so the answer is counted once and refreshed after each top-up
+     */
+    private boolean hasThinTopic(String level, String targetLang) {
+        return thinCategories.computeIfAbsent(category(level, targetLang),
+                key -> thinnestTopic(level, targetLang) != null);
+    }
+
+    /**
+     * Topic of a category with the fewest questions, or null if every topic has enough
+     */
+    private String thinnestTopic(String level, String targetLang) {
+        Map<String, Long> counts = new HashMap<>();
+        for (Map<String, Object> row : questionMapper.selectMaps(new QueryWrapper<QuizQuestion>()
+                .select("topic", "COUNT(*) AS total")
+                .eq("target_lang", targetLang)
+                .eq("difficulty", level)
+                .groupBy("topic"))) {
+            counts.put(String.valueOf(row.get("topic")), ((Number) row.get("total")).longValue());
+        }
+
+        String thinnest = null;
+        long fewest = minPerTopic;
+        for (String topic : TOPICS) {
+            long total = counts.getOrDefault(topic, 0L);
+            if (total < fewest) {
+                thinnest = topic;
+                fewest = total;
+            }
+        }
+        return thinnest;
+    }
+
+    private void topUpInBackground(String level, String targetLang) {
+        String category = category(level, targetLang);
+        if (toppingUp.contains(category)) {
+            return;
+        }
+        // The executor discards top-ups it has no room for, so the category is only claimed once one runs
+        questionBankExecutor.execute(() -> {
+            if (!toppingUp.add(category)) {
+                return;
+            }
+            try {
+                String topic = thinnestTopic(level, targetLang);
+                int added = storeQuestions(level, targetLang, generateQuestions(level, targetLang, topUpSize, topic, null));
+                log.info("Topped up question bank {} {} {} with {} questions", targetLang, level, topic, added);
+            } catch (Exception e) {
+                log.warn("Question bank top-up for {} {} failed: {}", targetLang, level, e.getMessage());
+            } finally {
+                thinCategories.remove(category);
+                toppingUp.remove(category);
+            }
+        });
+    }
+
+    private static String category(String level, String targetLang) {
+        return targetLang + ":" + level;
+    }
+
+    /**
+     * Generate quiz questions via AI
+     * @param topic topic all questions should test, or null for a mix
+     */
+    private List<QuizVO.QuestionVO> generateQuestions(String level, String targetLang, int numQuestions,
+                                                      String topic, Long userId) {
+        String systemMessage = String.format(
+            "You are a language learning quiz generator. Generate multiple choice questions for %s language learning. " +
+            "Respond ONLY with a valid JSON array (no markdown, no code blocks). " +
+            "Each question object must have: questionId (integer starting from 1), question (string), " +
+            "options (array of 4 strings labeled A, B, C, D), correctAnswer (one of A, B, C, or D), " +
+            "topic (one of vocabulary, grammar, or comprehension).",
+            targetLang
+        );
+
+        String focus = topic != null
+            ? "All questions should test " + topic + ". "
+            : "Questions should test vocabulary, grammar, or comprehension. ";
+        String prompt = String.format(
+            "Generate %d %s multiple choice questions for %s language learning. " +
+            "%sReturn ONLY a JSON array of question objects.",
+            numQuestions, getDifficultyDescription(level), targetLang, focus
+        );
+
+        AIRequest request = AIRequest.builder()
+            .systemMessage(systemMessage)
+            .prompt(prompt)
+            .temperature(0.7)
+            .maxTokens(numQuestions * TOKENS_PER_QUESTION + QUESTION_LIST_OVERHEAD_TOKENS)
+            .feature(userId != null ? AIFeature.QUIZ : AIFeature.QUIZ_BANK)
+            .taskClass(TaskClass.QUIZ)
+            .userId(userId)
+            .build();
+
+        AIResponse response = aiGateway.generate(request);
+
+        if (!response.isSuccess()) {
+            log.error("AI generation failed: {}", response.getErrorMessage());
+            throw new BusinessException("AI_ERROR", "Failed to generate quiz questions: " + response.getErrorMessage());
+        }
+
+        List<QuizVO.QuestionVO> questions = outputDecoder.decode(request.getFeature(), response.getContent(), QUESTION_LIST);
+        if (questions == null) {
+            log.error("Failed to parse AI response as JSON");
+            throw new BusinessException("PARSE_ERROR", "Failed to parse quiz questions from AI response");
+        }
+        return questions;
+    }
+
+    /**
+     * Get difficulty description for AI prompt
+     */
+    private String getDifficultyDescription(String level) {
+        return switch (level) {
+            case "EASY" -> "easy (basic vocabulary and simple grammar)";
+            case "MEDIUM" -> "medium (intermediate vocabulary and grammar)";
+            case "HARD" -> "hard (advanced vocabulary, complex grammar, and idioms)";
+            default -> "medium";
+        };
+    }
+
+    private QuizVO.QuestionVO toQuestionVO(QuizQuestion question, int questionId) {
+        QuizVO.QuestionVO vo = new QuizVO.QuestionVO();
+        vo.setQuestionId(questionId);
+        vo.setQuestion(question.getQuestion());
+        vo.setCorrectAnswer(question.getCorrectAnswer());
+        vo.setTopic(question.getTopic());
+        try {
+            vo.setOptions(objectMapper.readValue(question.getOptions(), OPTION_LIST));
+        } catch (JsonProcessingException e) {
+            log.error("Failed to parse options of bank question {}: {}", question.getId(), e.getMessage());
+            vo.setOptions(new ArrayList<>());
+        }
+        return vo;
+    }
+
+    private static boolean isComplete(QuizVO.QuestionVO question) {
+        return question != null
+                && question.getQuestion() != null && !question.getQuestion().isBlank()
+                && question.getOptions() != null && !question.getOptions().isEmpty()
+                && question.getCorrectAnswer() != null && !question.getCorrectAnswer().isBlank();
+    }
+
+    private static String normalizeTopic(String topic) {
+        String normalized = normalize(topic);
+        return TOPICS.contains(normalized) ? normalized : DEFAULT_TOPIC;
+    }
+
+    private static String normalize(String text) {
+        return text == null ? "" : WHITESPACE.matcher(text.trim().toLowerCase(Locale.ROOT)).replaceAll(" ");
+    }
+}
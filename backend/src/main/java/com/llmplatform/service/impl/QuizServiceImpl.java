@@ -3,21 +3,18 @@ package com.llmplatform.service.impl;
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.core.type.TypeReference;
-import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.llmplatform.ai.dto.AIRequest;
-import com.llmplatform.ai.dto.AIResponse;
-import com.llmplatform.ai.gateway.AIGateway;
 import com.llmplatform.common.ActivityType;
-import com.llmplatform.common.CacheConstants;
 import com.llmplatform.dto.SubmitAnswersDTO;
 import com.llmplatform.entity.LearningRecord;
 import com.llmplatform.entity.Quiz;
 import com.llmplatform.exception.BusinessException;
 import com.llmplatform.mapper.LearningRecordMapper;
 import com.llmplatform.mapper.QuizMapper;
+import com.llmplatform.service.QuestionBankService;
 import com.llmplatform.service.QuizService;
-import com.llmplatform.util.CacheUtil;
+import com.llmplatform.stats.StatisticsReconciler;
+import com.llmplatform.stats.UserStatisticsStore;
 import com.llmplatform.vo.QuizHistoryVO;
 import com.llmplatform.vo.QuizResultVO;
 import com.llmplatform.vo.QuizVO;
@@ -33,7 +30,7 @@ import java.util.Map;
 import java.util.stream.Collectors;
 
 /**
- * Quiz service implementation with AI question generation
+ * Quiz service implementation with questions assembled from the question bank
  */
 @Slf4j
 @Service
@@ -42,15 +39,15 @@ public class QuizServiceImpl implements QuizService {
 
     private final QuizMapper quizMapper;
     private final LearningRecordMapper learningRecordMapper;
-    private final AIGateway aiGateway;
+    private final QuestionBankService questionBankService;
     private final ObjectMapper objectMapper;
-    private final CacheUtil cacheUtil;
+    private final UserStatisticsStore statisticsStore;
 
     private static final int DEFAULT_QUESTION_COUNT = 5;
+    private static final TypeReference<List<QuizVO.QuestionVO>> QUESTION_LIST = new TypeReference<>() {};
 
 
     @Override
-    @Transactional
     public QuizVO generateQuiz(String difficulty, String targetLang, Integer questionCount, Long userId) {
         int numQuestions = questionCount != null && questionCount > 0 ? questionCount : DEFAULT_QUESTION_COUNT;
         String lang = targetLang != null ? targetLang : "en";
@@ -58,8 +55,9 @@ public class QuizServiceImpl implements QuizService {
         log.info("Generating quiz: difficulty={}, targetLang={}, questionCount={}, userId={}", 
                 difficulty, lang, numQuestions, userId);
 
-        // Generate questions via AI
-        List<QuizVO.QuestionVO> questions = generateQuestionsViaAI(difficulty, lang, numQuestions);
+        // Assemble questions from the bank; the AI is only called for what the bank cannot supply
+        // Not transactional: the AI call must not hold a database connection, and the quiz is a single insert
+        List<QuizVO.QuestionVO> questions = questionBankService.assembleQuestions(difficulty, lang, numQuestions, userId);
 
         // Calculate total score (1 point per question)
         int totalScore = questions.size();
@@ -181,86 +179,12 @@ public class QuizServiceImpl implements QuizService {
     }
 
 
-    /**
-     * Generate quiz questions via AI
-     */
-    private List<QuizVO.QuestionVO> generateQuestionsViaAI(String difficulty, String targetLang, int numQuestions) {
-        String systemMessage = String.format(
-            "You are a language learning quiz generator. Generate multiple choice questions for %s language learning. " +
-            "Respond ONLY with a valid JSON array (no markdown, no code blocks). " +
-            "Each question object must have: questionId (integer starting from 1), question (string), " +
-            "options (array of 4 strings labeled A, B, C, D), correctAnswer (one of A, B, C, or D).",
-            targetLang
-        );
-
-        String difficultyDescription = getDifficultyDescription(difficulty);
-        
-        String prompt = String.format(
-            "Generate %d %s multiple choice questions for %s language learning. " +
-            "Questions should test vocabulary, grammar, or comprehension. " +
-            "Return ONLY a JSON array of question objects.",
-            numQuestions, difficultyDescription, targetLang
-        );
-
-        AIRequest request = AIRequest.builder()
-            .systemMessage(systemMessage)
-            .prompt(prompt)
-            .temperature(0.7)
-            .maxTokens(2048)
-            .build();
-
-        AIResponse response = aiGateway.generate(request);
-
-        if (!response.isSuccess()) {
-            log.error("AI generation failed: {}", response.getErrorMessage());
-            throw new BusinessException("AI_ERROR", "Failed to generate quiz questions: " + response.getErrorMessage());
-        }
-
-        return parseAIResponse(response.getContent());
-    }
-
-    /**
-     * Get difficulty description for AI prompt
-     */
-    private String getDifficultyDescription(String difficulty) {
-        return switch (difficulty.toUpperCase()) {
-            case "EASY" -> "easy (basic vocabulary and simple grammar)";
-            case "MEDIUM" -> "medium (intermediate vocabulary and grammar)";
-            case "HARD" -> "hard (advanced vocabulary, complex grammar, and idioms)";
-            default -> "medium";
-        };
-    }
-
-    /**
-     * Parse AI response into list of questions
-     */
-    private List<QuizVO.QuestionVO> parseAIResponse(String content) {
-        try {
-            // Clean up the content - remove markdown code blocks if present
-            String cleanContent = content.trim();
-            if (cleanContent.startsWith("```json")) {
-                cleanContent = cleanContent.substring(7);
-            } else if (cleanContent.startsWith("```")) {
-                cleanContent = cleanContent.substring(3);
-            }
-            if (cleanContent.endsWith("```")) {
-                cleanContent = cleanContent.substring(0, cleanContent.length() - 3);
-            }
-            cleanContent = cleanContent.trim();
-
-            return objectMapper.readValue(cleanContent, new TypeReference<List<QuizVO.QuestionVO>>() {});
-        } catch (Exception e) {
-            log.error("Failed to parse AI response as JSON: {}", e.getMessage());
-            throw new BusinessException("PARSE_ERROR", "Failed to parse quiz questions from AI response");
-        }
-    }
-
     /**
      * Parse questions JSON string into list
      */
     private List<QuizVO.QuestionVO> parseQuestions(String questionsJson) {
         try {
-            return objectMapper.readValue(questionsJson, new TypeReference<List<QuizVO.QuestionVO>>() {});
+            return objectMapper.readValue(questionsJson, QUESTION_LIST);
         } catch (Exception e) {
             log.error("Failed to parse questions JSON: {}", e.getMessage());
             return new ArrayList<>();
@@ -293,10 +217,9 @@ public class QuizServiceImpl implements QuizService {
         record.setActivityId(quiz.getId());
         record.setActivityTime(LocalDateTime.now());
         learningRecordMapper.insert(record);
-        
-        // Invalidate statistics cache
-        String cacheKey = CacheConstants.statsKey(userId);
-        cacheUtil.delete(cacheKey);
+
+        statisticsStore.record(userId, ActivityType.QUIZ, record.getActivityTime(),
+                StatisticsReconciler.scorePercentage(quiz));
     }
 
     /**
@@ -3,9 +3,13 @@ package com.llmplatform.service.impl;
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.llmplatform.ai.dto.AIFeature;
 import com.llmplatform.ai.dto.AIRequest;
 import com.llmplatform.ai.dto.AIResponse;
 import com.llmplatform.ai.gateway.AIGateway;
+import com.llmplatform.ai.output.StructuredOutputDecoder;
+import com.llmplatform.ai.tier.TaskClass;
 import com.llmplatform.common.ActivityType;
 import com.llmplatform.common.CacheConstants;
 import com.llmplatform.entity.LearningRecord;
@@ -16,16 +20,23 @@ import com.llmplatform.mapper.LearningRecordMapper;
 import com.llmplatform.mapper.WordMapper;
 import com.llmplatform.mapper.WordQueryHistoryMapper;
 import com.llmplatform.service.WordService;
+import com.llmplatform.stats.UserStatisticsStore;
 import com.llmplatform.util.CacheUtil;
+import com.llmplatform.util.LeaseKeeper;
+import com.llmplatform.util.SingleFlight;
 import com.llmplatform.vo.WordHistoryVO;
 import com.llmplatform.vo.WordVO;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 /**
@@ -36,16 +47,27 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class WordServiceImpl implements WordService {
 
+    /** Max time to wait for another node's generation of the same word */
+    private static final long WORD_FILL_WAIT_MILLIS = 45 * 1000;
+    private static final long WORD_FILL_POLL_MILLIS = 200;
+    /** Reply budget of one word entry: definition, translation, up to three examples, pronunciation */
+    private static final int WORD_MAX_TOKENS = 512;
+
     private final WordMapper wordMapper;
     private final WordQueryHistoryMapper wordQueryHistoryMapper;
     private final LearningRecordMapper learningRecordMapper;
     private final AIGateway aiGateway;
+    private final StructuredOutputDecoder outputDecoder;
     private final CacheUtil cacheUtil;
+    private final LeaseKeeper leaseKeeper;
+    private final UserStatisticsStore statisticsStore;
     private final ObjectMapper objectMapper;
+    private final PlatformTransactionManager transactionManager;
+
+    private final SingleFlight<String, WordVO> wordGenerations = new SingleFlight<>();
 
 
     @Override
-    @Transactional
     public WordVO query(String word, String sourceLang, String targetLang, Long userId) {
         String normalizedWord = word.trim().toLowerCase();
         String cacheKey = CacheConstants.wordKey(sourceLang, targetLang, normalizedWord);
@@ -59,12 +81,7 @@ public class WordServiceImpl implements WordService {
         }
 
         // 2. Check database
-        Word dbWord = wordMapper.selectOne(
-            new LambdaQueryWrapper<Word>()
-                .eq(Word::getWord, normalizedWord)
-                .eq(Word::getSourceLang, sourceLang)
-                .eq(Word::getTargetLang, targetLang)
-        );
+        Word dbWord = findWord(normalizedWord, sourceLang, targetLang);
 
         if (dbWord != null) {
             log.debug("Word found in database: {}", normalizedWord);
@@ -75,19 +92,12 @@ public class WordServiceImpl implements WordService {
             return wordVO;
         }
 
-        // 3. Generate via AI
-        log.info("Generating word definition via AI: {} ({} -> {})", normalizedWord, sourceLang, targetLang);
-        Word generatedWord = generateWordViaAI(normalizedWord, sourceLang, targetLang);
-        
-        // Save to database
-        wordMapper.insert(generatedWord);
-        
-        WordVO wordVO = convertToVO(generatedWord);
-        // Cache the result
-        cacheUtil.set(cacheKey, wordVO, CacheConstants.WORD_TTL_SECONDS);
-        
+        // 3. Generate via AI, coalesced so concurrent lookups of a new word share one generation
+        WordVO wordVO = wordGenerations.execute(cacheKey,
+            () -> generateAndStore(normalizedWord, sourceLang, targetLang, cacheKey, userId));
+
         // Record the query
-        recordWordQuery(userId, generatedWord.getId());
+        recordWordQuery(userId, wordVO.getId());
         
         return wordVO;
     }
@@ -112,10 +122,102 @@ public class WordServiceImpl implements WordService {
         return word != null ? convertToVO(word) : null;
     }
 
+    /**
+     * Generate a new word once across all nodes and store it
+     * The node holding the Redis lease generates; the others wait for its cache fill, and take over
+     * if the lease expires without one
+     */
+    private WordVO generateAndStore(String word, String sourceLang, String targetLang, String cacheKey, Long userId) {
+        String leaseKey = CacheConstants.wordLeaseKey(sourceLang, targetLang, word);
+        long deadline = System.currentTimeMillis() + WORD_FILL_WAIT_MILLIS;
+
+        while (true) {
+            String leaseToken = cacheUtil.tryAcquireLease(leaseKey, CacheConstants.WORD_LEASE_TTL_MILLIS);
+            if (leaseToken != null) {
+                // Renewed while generating, since an AI call with failover can outlast the lease TTL
+                try (LeaseKeeper.Lease lease = leaseKeeper.keep(leaseKey, leaseToken,
+                        CacheConstants.WORD_LEASE_TTL_MILLIS)) {
+                    return generateUnderLease(word, sourceLang, targetLang, cacheKey, userId, lease);
+                }
+            }
+
+            // Another node is generating this word, wait for it to fill the cache
+            WordVO filled = cacheUtil.get(cacheKey, WordVO.class);
+            if (filled != null) {
+                return filled;
+            }
+            if (System.currentTimeMillis() > deadline) {
+                throw new BusinessException("AI_ERROR", "Word definition is still being generated, please retry");
+            }
+            try {
+                Thread.sleep(WORD_FILL_POLL_MILLIS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new BusinessException("AI_ERROR", "Interrupted while waiting for word generation");
+            }
+        }
+    }
+
+    private WordVO generateUnderLease(String word, String sourceLang, String targetLang, String cacheKey,
+                                      Long userId, LeaseKeeper.Lease lease) {
+        // The previous lease holder may have finished between our cache miss and acquiring the lease
+        WordVO filled = cacheUtil.get(cacheKey, WordVO.class);
+        if (filled != null) {
+            return filled;
+        }
+        Word stored = findWord(word, sourceLang, targetLang);
+
+        if (stored == null) {
+            log.info("Generating word definition via AI: {} ({} -> {})", word, sourceLang, targetLang);
+            // No transaction is open here, so the AI call holds no database connection
+            Word generatedWord = generateWordViaAI(word, sourceLang, targetLang, userId);
+            stored = inTransaction(() -> insertWord(generatedWord));
+        }
+
+        WordVO wordVO = convertToVO(stored);
+        if (lease.isHeld()) {
+            cacheUtil.set(cacheKey, wordVO, CacheConstants.WORD_TTL_SECONDS);
+        } else {
+            // Another node took the lease over and fills the cache with its own result
+            log.warn("Lost the lease for word {} ({} -> {}), not caching it", word, sourceLang, targetLang);
+        }
+        return wordVO;
+    }
+
+    /**
+     * Insert a generated word, falling back to the existing row if the unique key was taken meanwhile
+     */
+    private Word insertWord(Word word) {
+        try {
+            wordMapper.insert(word);
+            return word;
+        } catch (DuplicateKeyException e) {
+            log.info("Word {} was stored concurrently, using the existing row", word.getWord());
+            return findWord(word.getWord(), word.getSourceLang(), word.getTargetLang());
+        }
+    }
+
+    private Word findWord(String word, String sourceLang, String targetLang) {
+        return wordMapper.selectOne(
+            new LambdaQueryWrapper<Word>()
+                .eq(Word::getWord, word)
+                .eq(Word::getSourceLang, sourceLang)
+                .eq(Word::getTargetLang, targetLang)
+        );
+    }
+
+    /**
+     * Run a short transaction around database writes only, never around an AI call
+     */
+    private <T> T inTransaction(Supplier<T> action) {
+        return new TransactionTemplate(transactionManager).execute(status -> action.get());
+    }
+
     /**
      * Generate word definition and translation via AI
+     * @param userId the user who triggered the generation, charged for its tokens
      */
-    private Word generateWordViaAI(String word, String sourceLang, String targetLang) {
+    private Word generateWordViaAI(String word, String sourceLang, String targetLang, Long userId) {
         String targetLangName = getLanguageName(targetLang);
         String sourceLangName = getLanguageName(sourceLang);
         
@@ -141,7 +243,11 @@ public class WordServiceImpl implements WordService {
             .systemMessage(systemMessage)
             .prompt(prompt)
             .temperature(0.3)
-            .maxTokens(1024)
+            .maxTokens(WORD_MAX_TOKENS)
+            .feature(AIFeature.WORD)
+            .taskClass(TaskClass.WORD_DEFINITION)
+            .userId(userId)
+            .additionalParams(Map.of(AIRequest.PARAM_CACHE, true))
             .build();
 
         AIResponse response = aiGateway.generate(request);
@@ -180,33 +286,20 @@ public class WordServiceImpl implements WordService {
         wordEntity.setTargetLang(targetLang);
         wordEntity.setCreatedAt(LocalDateTime.now());
 
-        try {
-            // Clean up the content - remove markdown code blocks if present
-            String cleanContent = content.trim();
-            if (cleanContent.startsWith("```json")) {
-                cleanContent = cleanContent.substring(7);
-            } else if (cleanContent.startsWith("```")) {
-                cleanContent = cleanContent.substring(3);
-            }
-            if (cleanContent.endsWith("```")) {
-                cleanContent = cleanContent.substring(0, cleanContent.length() - 3);
-            }
-            cleanContent = cleanContent.trim();
-
-            JsonNode json = objectMapper.readTree(cleanContent);
-            
+        JsonNode json = outputDecoder.decode(AIFeature.WORD, content, ObjectNode.class);
+        if (json != null) {
             wordEntity.setDefinition(getJsonString(json, "definition"));
             wordEntity.setTranslation(getJsonString(json, "translation"));
             wordEntity.setPronunciation(getJsonString(json, "pronunciation"));
-            
+
             // Handle examples as JSON array string
             if (json.has("examples") && json.get("examples").isArray()) {
                 wordEntity.setExamples(json.get("examples").toString());
             } else if (json.has("examples")) {
                 wordEntity.setExamples(json.get("examples").asText());
             }
-        } catch (Exception e) {
-            log.warn("Failed to parse AI response as JSON, using raw content: {}", e.getMessage());
+        } else {
+            log.warn("Failed to parse AI response as JSON, using raw content");
             // Fallback: use raw content as definition
             wordEntity.setDefinition(content);
             wordEntity.setTranslation("");
@@ -228,6 +321,10 @@ public class WordServiceImpl implements WordService {
      * Record word query in history and learning records
      */
     private void recordWordQuery(Long userId, Long wordId) {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> insertWordQuery(userId, wordId));
+    }
+
+    private void insertWordQuery(Long userId, Long wordId) {
         // Record in word query history
         WordQueryHistory history = new WordQueryHistory();
         history.setUserId(userId);
@@ -242,10 +339,8 @@ public class WordServiceImpl implements WordService {
         record.setActivityId(wordId);
         record.setActivityTime(LocalDateTime.now());
         learningRecordMapper.insert(record);
-        
-        // Invalidate statistics cache
-        String statsCacheKey = CacheConstants.statsKey(userId);
-        cacheUtil.delete(statsCacheKey);
+
+        statisticsStore.record(userId, ActivityType.WORD_QUERY, record.getActivityTime(), null);
     }
 
     /**
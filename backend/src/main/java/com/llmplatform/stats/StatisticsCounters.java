@@ -0,0 +1,136 @@
+package com.llmplatform.stats;
+
+import com.llmplatform.common.ActivityType;
+import com.llmplatform.vo.LearningStatisticsVO;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Counters behind a user's learning statistics, as held in the user's Redis hash
+ * Activities of the last 30 days are additionally counted per day so rolling windows can be summed
+ *
+ * @param days activity count per day, for the last {@link #DAY_BUCKETS} days
+ */
+public record StatisticsCounters(long wordQueries, long dialogueSessions, long quizzes, long activities,
+                                 double quizScoreSum, long scoredQuizzes,
+                                 LocalDateTime firstActivity, LocalDateTime lastActivity,
+                                 Map<LocalDate, Long> days) {
+
+    /**
+     * Days kept as buckets, enough for the 30-day window
+     */
+    public static final int DAY_BUCKETS = 30;
+
+    static final String WORD_QUERIES = "word_queries";
+    static final String DIALOGUE_SESSIONS = "dialogue_sessions";
+    static final String QUIZZES = "quizzes";
+    static final String ACTIVITIES = "activities";
+    static final String QUIZ_SCORE_SUM = "quiz_score_sum";
+    static final String SCORED_QUIZZES = "scored_quizzes";
+    static final String FIRST_ACTIVITY = "first_activity";
+    static final String LAST_ACTIVITY = "last_activity";
+    static final String DAY_PREFIX = "day:";
+
+    /**
+     * Fixed width, so timestamps compare correctly as strings inside Redis
+     */
+    static final DateTimeFormatter TIME_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss");
+
+    /**
+     * Hash field counting activities of the given type
+     */
+    static String typeField(ActivityType type) {
+        return switch (type) {
+            case WORD_QUERY -> WORD_QUERIES;
+            case DIALOGUE -> DIALOGUE_SESSIONS;
+            case QUIZ -> QUIZZES;
+        };
+    }
+
+    static String dayField(LocalDate day) {
+        return DAY_PREFIX + day;
+    }
+
+    /**
+     * Hash fields for these counters
+     */
+    public Map<String, String> toHash() {
+        Map<String, String> hash = new HashMap<>();
+        hash.put(WORD_QUERIES, Long.toString(wordQueries));
+        hash.put(DIALOGUE_SESSIONS, Long.toString(dialogueSessions));
+        hash.put(QUIZZES, Long.toString(quizzes));
+        hash.put(ACTIVITIES, Long.toString(activities));
+        hash.put(QUIZ_SCORE_SUM, Double.toString(quizScoreSum));
+        hash.put(SCORED_QUIZZES, Long.toString(scoredQuizzes));
+        if (firstActivity != null) {
+            hash.put(FIRST_ACTIVITY, TIME_FORMAT.format(firstActivity));
+        }
+        if (lastActivity != null) {
+            hash.put(LAST_ACTIVITY, TIME_FORMAT.format(lastActivity));
+        }
+        days.forEach((day, count) -> hash.put(dayField(day), Long.toString(count)));
+        return hash;
+    }
+
+    /**
+     * Read counters back from hash fields; missing fields count as zero
+     */
+    public static StatisticsCounters fromHash(Map<?, ?> hash) {
+        Map<LocalDate, Long> days = new TreeMap<>();
+        hash.forEach((field, value) -> {
+            String name = field.toString();
+            if (name.startsWith(DAY_PREFIX)) {
+                days.put(LocalDate.parse(name.substring(DAY_PREFIX.length())), Long.parseLong(value.toString()));
+            }
+        });
+        return new StatisticsCounters(
+                longField(hash, WORD_QUERIES),
+                longField(hash, DIALOGUE_SESSIONS),
+                longField(hash, QUIZZES),
+                longField(hash, ACTIVITIES),
+                hash.get(QUIZ_SCORE_SUM) != null ? Double.parseDouble(hash.get(QUIZ_SCORE_SUM).toString()) : 0.0,
+                longField(hash, SCORED_QUIZZES),
+                timeField(hash, FIRST_ACTIVITY),
+                timeField(hash, LAST_ACTIVITY),
+                days);
+    }
+
+    /**
+     * Statistics as of the given day; the 7- and 30-day windows are the calendar days ending today
+     */
+    public LearningStatisticsVO toStatistics(LocalDate today) {
+        LearningStatisticsVO stats = new LearningStatisticsVO();
+        stats.setTotalWordQueries(wordQueries);
+        stats.setTotalDialogueSessions(dialogueSessions);
+        stats.setTotalQuizzes(quizzes);
+        stats.setTotalActivities(activities);
+        stats.setAverageQuizScore(scoredQuizzes > 0 ? quizScoreSum / scoredQuizzes : 0.0);
+        stats.setFirstActivityDate(firstActivity);
+        stats.setLastActivityDate(lastActivity);
+        stats.setActivitiesLast7Days(activitiesSince(today.minusDays(6), today));
+        stats.setActivitiesLast30Days(activitiesSince(today.minusDays(DAY_BUCKETS - 1), today));
+        return stats;
+    }
+
+    private long activitiesSince(LocalDate from, LocalDate today) {
+        return days.entrySet().stream()
+                .filter(entry -> !entry.getKey().isBefore(from) && !entry.getKey().isAfter(today))
+                .mapToLong(Map.Entry::getValue)
+                .sum();
+    }
+
+    private static long longField(Map<?, ?> hash, String field) {
+        Object value = hash.get(field);
+        return value != null ? Long.parseLong(value.toString()) : 0;
+    }
+
+    private static LocalDateTime timeField(Map<?, ?> hash, String field) {
+        Object value = hash.get(field);
+        return value != null ? LocalDateTime.parse(value.toString(), TIME_FORMAT) : null;
+    }
+}
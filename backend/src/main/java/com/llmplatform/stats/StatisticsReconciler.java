@@ -0,0 +1,278 @@
+package com.llmplatform.stats;
+
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
+import com.llmplatform.common.ActivityType;
+import com.llmplatform.common.CacheConstants;
+import com.llmplatform.entity.LearningRecord;
+import com.llmplatform.entity.Quiz;
+import com.llmplatform.mapper.LearningRecordMapper;
+import com.llmplatform.mapper.QuizMapper;
+import com.llmplatform.util.CacheUtil;
+import com.llmplatform.util.LeaseKeeper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Rebuilds users' statistics counters from MySQL
+ * A user without counters is rebuilt on first read, concurrent reads sharing one rebuild. A scheduled job
+ * rebuilds the counters of recently active users, correcting increments lost to Redis errors or
+ * activities recorded while a rebuild was running. It runs on its own thread, a batch of users at a time
+ * with a fixed number of queries per batch, and keeps renewing its lease until it is done
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class StatisticsReconciler {
+
+    private final LearningRecordMapper learningRecordMapper;
+    private final QuizMapper quizMapper;
+    private final UserStatisticsStore statisticsStore;
+    private final CacheUtil cacheUtil;
+    private final LeaseKeeper leaseKeeper;
+    @Qualifier("statsReconcileExecutor")
+    private final Executor statsReconcileExecutor;
+
+    private final Map<Long, CompletableFuture<StatisticsCounters>> rebuilding = new ConcurrentHashMap<>();
+
+    @Value("${stats.reconcile.lookback-minutes:120}")
+    private long lookbackMinutes;
+
+    @Value("${stats.reconcile.batch-size:200}")
+    private int batchSize;
+
+    /**
+     * Recompute a user's counters from MySQL and store them
+     * @return the recomputed counters, also when storing them failed
+     */
+    public StatisticsCounters rebuild(Long userId) {
+        CompletableFuture<StatisticsCounters> mine = new CompletableFuture<>();
+        CompletableFuture<StatisticsCounters> running = rebuilding.putIfAbsent(userId, mine);
+        if (running != null) {
+            try {
+                return running.join();
+            } catch (CompletionException e) {
+                throw e.getCause() instanceof RuntimeException cause ? cause : e;
+            }
+        }
+        try {
+            StatisticsCounters counters = compute(List.of(userId)).get(userId);
+            try {
+                statisticsStore.replace(userId, counters);
+            } catch (Exception e) {
+                log.warn("Failed to store statistics of user {}: {}", userId, e.getMessage());
+            }
+            mine.complete(counters);
+            return counters;
+        } catch (RuntimeException e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            rebuilding.remove(userId, mine);
+        }
+    }
+
+    /**
+     * Hand the reconciliation to its executor; skipped while the previous run is still going
+     */
+    @Scheduled(fixedDelayString = "${stats.reconcile.interval:3600000}",
+            initialDelayString = "${stats.reconcile.interval:3600000}")
+    public void scheduleReconcile() {
+        try {
+            statsReconcileExecutor.execute(this::reconcile);
+        } catch (RejectedExecutionException e) {
+            log.info("Statistics reconciliation is still running, skipping this run");
+        }
+    }
+
+    /**
+     * Rebuild the counters of users active within the lookback window; users without counters are skipped,
+     * their first read rebuilds them. One node runs the job at a time
+     */
+    public void reconcile() {
+        String leaseToken = cacheUtil.tryAcquireLease(CacheConstants.STATS_RECONCILE_LEASE_KEY,
+                CacheConstants.STATS_RECONCILE_LEASE_TTL_MILLIS);
+        if (leaseToken == null) {
+            log.debug("Statistics reconciliation is running on another node");
+            return;
+        }
+        try (LeaseKeeper.Lease lease = leaseKeeper.keep(CacheConstants.STATS_RECONCILE_LEASE_KEY, leaseToken,
+                CacheConstants.STATS_RECONCILE_LEASE_TTL_MILLIS)) {
+            List<Long> userIds = learningRecordMapper.selectObjs(new LambdaQueryWrapper<LearningRecord>()
+                            .select(LearningRecord::getUserId)
+                            .ge(LearningRecord::getActivityTime, LocalDateTime.now().minusMinutes(lookbackMinutes))
+                            .groupBy(LearningRecord::getUserId))
+                    .stream()
+                    .filter(Objects::nonNull)
+                    .map(id -> ((Number) id).longValue())
+                    .toList();
+            int rebuilt = 0;
+            for (int from = 0; from < userIds.size(); from += batchSize) {
+                if (!lease.isHeld()) {
+                    log.warn("Lost the statistics reconciliation lease, stopping after {} users", from);
+                    break;
+                }
+                List<Long> batch = userIds.subList(from, Math.min(from + batchSize, userIds.size()));
+                try {
+                    rebuilt += reconcileBatch(batch);
+                } catch (Exception e) {
+                    log.warn("Failed to reconcile statistics of {} users: {}", batch.size(), e.getMessage());
+                }
+            }
+            log.info("Reconciled statistics of {} of {} recently active users", rebuilt, userIds.size());
+        }
+    }
+
+    /**
+     * Rebuild the users of one batch that have counters: one Redis round trip to find them, three queries
+     * to recompute them and one round trip to store them
+     * @return number of users rebuilt
+     */
+    private int reconcileBatch(List<Long> userIds) {
+        List<Long> existing = statisticsStore.existing(userIds);
+        if (existing.isEmpty()) {
+            return 0;
+        }
+        Map<Long, StatisticsCounters> counters = compute(existing);
+        statisticsStore.replaceAll(counters);
+        return counters.size();
+    }
+
+    /**
+     * Compute the counters of several users with three grouped queries, however many users there are
+     * @return counters of every given user, empty ones for users without activity
+     */
+    private Map<Long, StatisticsCounters> compute(List<Long> userIds) {
+        log.debug("Computing statistics for {} users", userIds.size());
+        Map<Long, Tally> tallies = new LinkedHashMap<>();
+        userIds.forEach(userId -> tallies.put(userId, new Tally()));
+
+        // Totals per activity type, with the first and last activity
+        learningRecordMapper.selectMaps(new QueryWrapper<LearningRecord>()
+                        .select("user_id", "activity_type", "COUNT(*) AS total",
+                                "MIN(activity_time) AS first_time", "MAX(activity_time) AS last_time")
+                        .in("user_id", userIds)
+                        .groupBy("user_id", "activity_type"))
+                .forEach(row -> tallies.get(userIdOf(row)).addActivities(String.valueOf(row.get("activity_type")),
+                        ((Number) row.get("total")).longValue(),
+                        toDateTime(row.get("first_time")), toDateTime(row.get("last_time"))));
+
+        // Day buckets of the 30-day window
+        LocalDate firstDay = LocalDate.now().minusDays(StatisticsCounters.DAY_BUCKETS - 1);
+        learningRecordMapper.selectMaps(new QueryWrapper<LearningRecord>()
+                        .select("user_id", "CAST(activity_time AS DATE) AS activity_day", "COUNT(*) AS total")
+                        .in("user_id", userIds)
+                        .ge("activity_time", firstDay.atStartOfDay())
+                        .groupBy("user_id", "CAST(activity_time AS DATE)"))
+                .forEach(row -> tallies.get(userIdOf(row)).days.merge(toDate(row.get("activity_day")),
+                        ((Number) row.get("total")).longValue(), Long::sum));
+
+        quizMapper.selectList(new LambdaQueryWrapper<Quiz>()
+                        .select(Quiz::getUserId, Quiz::getUserScore, Quiz::getTotalScore, Quiz::getCompletedAt)
+                        .in(Quiz::getUserId, userIds)
+                        .isNotNull(Quiz::getUserScore)
+                        .isNotNull(Quiz::getCompletedAt))
+                .forEach(quiz -> tallies.get(quiz.getUserId()).addQuiz(scorePercentage(quiz)));
+
+        Map<Long, StatisticsCounters> counters = new LinkedHashMap<>();
+        tallies.forEach((userId, tally) -> counters.put(userId, tally.toCounters()));
+        return counters;
+    }
+
+    /**
+     * Score of a completed quiz as a percentage, or null if it does not count towards the average
+     */
+    public static Double scorePercentage(Quiz quiz) {
+        if (quiz.getUserScore() == null || quiz.getCompletedAt() == null
+                || quiz.getTotalScore() == null || quiz.getTotalScore() <= 0) {
+            return null;
+        }
+        return (double) quiz.getUserScore() / quiz.getTotalScore() * 100;
+    }
+
+    private static Long userIdOf(Map<String, Object> row) {
+        return ((Number) row.get("user_id")).longValue();
+    }
+
+    /**
+     * Drivers return DATETIME and DATE values as either java.time or java.sql types
+     */
+    private static LocalDateTime toDateTime(Object value) {
+        if (value instanceof Timestamp timestamp) {
+            return timestamp.toLocalDateTime();
+        }
+        return (LocalDateTime) value;
+    }
+
+    private static LocalDate toDate(Object value) {
+        if (value instanceof java.sql.Date date) {
+            return date.toLocalDate();
+        }
+        if (value instanceof LocalDateTime dateTime) {
+            return dateTime.toLocalDate();
+        }
+        return (LocalDate) value;
+    }
+
+    /**
+     * Counters of one user while the grouped query results are added up
+     */
+    private static class Tally {
+        private long wordQueries;
+        private long dialogueSessions;
+        private long quizzes;
+        private long activities;
+        private double quizScoreSum;
+        private long scoredQuizzes;
+        private LocalDateTime firstActivity;
+        private LocalDateTime lastActivity;
+        private final Map<LocalDate, Long> days = new TreeMap<>();
+
+        void addActivities(String activityType, long count, LocalDateTime first, LocalDateTime last) {
+            activities += count;
+            if (ActivityType.WORD_QUERY.name().equals(activityType)) {
+                wordQueries += count;
+            } else if (ActivityType.DIALOGUE.name().equals(activityType)) {
+                dialogueSessions += count;
+            } else if (ActivityType.QUIZ.name().equals(activityType)) {
+                quizzes += count;
+            }
+            if (first != null && (firstActivity == null || first.isBefore(firstActivity))) {
+                firstActivity = first;
+            }
+            if (last != null && (lastActivity == null || last.isAfter(lastActivity))) {
+                lastActivity = last;
+            }
+        }
+
+        void addQuiz(Double score) {
+            if (score != null) {
+                quizScoreSum += score;
+                scoredQuizzes++;
+            }
+        }
+
+        StatisticsCounters toCounters() {
+            return new StatisticsCounters(wordQueries, dialogueSessions, quizzes, activities,
+                    quizScoreSum, scoredQuizzes, firstActivity, lastActivity, days);
+        }
+    }
+}
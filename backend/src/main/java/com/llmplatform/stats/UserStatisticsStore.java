@@ -0,0 +1,159 @@
+package com.llmplatform.stats;
+
+import com.llmplatform.common.ActivityType;
+import com.llmplatform.common.CacheConstants;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-user learning statistics kept as counters in a Redis hash
+ * Activities update the hash in place with one script call; reading statistics is a single HGETALL.
+ * Only {@link #replace} creates a hash, so a hash that exists always holds complete counters, and
+ * activities of users without one are left to the rebuild that creates it. Activities recorded inside a
+ * transaction are counted once it commits, so a rollback leaves the counters untouched
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class UserStatisticsStore {
+
+    /**
+     * Apply one activity to an existing hash: bump its counters and day bucket, drop every bucket older than
+     * the 30-day window, move first/last activity outwards and refresh the TTL
+     * ARGV: type field, activity time, day field, oldest day field kept, TTL seconds, quiz score or ''
+     */
+    private static final RedisScript<Long> RECORD_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('exists', KEYS[1]) == 0 then return 0 end "
+                    + "redis.call('hincrby', KEYS[1], ARGV[1], 1) "
+                    + "redis.call('hincrby', KEYS[1], '" + StatisticsCounters.ACTIVITIES + "', 1) "
+                    + "redis.call('hincrby', KEYS[1], ARGV[3], 1) "
+                    // Day fields sort by date, so buckets that left the window compare below the oldest kept
+                    + "for _, field in ipairs(redis.call('hkeys', KEYS[1])) do "
+                    + "if string.sub(field, 1, " + StatisticsCounters.DAY_PREFIX.length() + ") == '"
+                    + StatisticsCounters.DAY_PREFIX + "' and field < ARGV[4] then "
+                    + "redis.call('hdel', KEYS[1], field) end end "
+                    + "local first = redis.call('hget', KEYS[1], '" + StatisticsCounters.FIRST_ACTIVITY + "') "
+                    + "if not first or ARGV[2] < first then "
+                    + "redis.call('hset', KEYS[1], '" + StatisticsCounters.FIRST_ACTIVITY + "', ARGV[2]) end "
+                    + "local last = redis.call('hget', KEYS[1], '" + StatisticsCounters.LAST_ACTIVITY + "') "
+                    + "if not last or ARGV[2] > last then "
+                    + "redis.call('hset', KEYS[1], '" + StatisticsCounters.LAST_ACTIVITY + "', ARGV[2]) end "
+                    + "if ARGV[6] ~= '' then "
+                    + "redis.call('hincrbyfloat', KEYS[1], '" + StatisticsCounters.QUIZ_SCORE_SUM + "', ARGV[6]) "
+                    + "redis.call('hincrby', KEYS[1], '" + StatisticsCounters.SCORED_QUIZZES + "', 1) end "
+                    + "redis.call('expire', KEYS[1], ARGV[5]) "
+                    + "return 1",
+            Long.class);
+
+    private final StringRedisTemplate stringRedisTemplate;
+
+    /**
+     * Count one activity, after the surrounding transaction commits if there is one
+     * @param quizScore score of a completed quiz as a percentage, or null
+     */
+    public void record(Long userId, ActivityType type, LocalDateTime time, Double quizScore) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            apply(userId, type, time, quizScore);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                apply(userId, type, time, quizScore);
+            }
+        });
+    }
+
+    private void apply(Long userId, ActivityType type, LocalDateTime time, Double quizScore) {
+        try {
+            Long applied = stringRedisTemplate.execute(RECORD_SCRIPT,
+                    List.of(CacheConstants.statsKey(userId)),
+                    StatisticsCounters.typeField(type),
+                    StatisticsCounters.TIME_FORMAT.format(time),
+                    StatisticsCounters.dayField(time.toLocalDate()),
+                    StatisticsCounters.dayField(time.toLocalDate().minusDays(StatisticsCounters.DAY_BUCKETS - 1)),
+                    Long.toString(CacheConstants.STATS_TTL_SECONDS),
+                    quizScore != null ? Double.toString(quizScore) : "");
+            log.debug("Recorded {} in statistics of user {}, applied={}", type, userId, applied);
+        } catch (Exception e) {
+            // The next reconciliation rebuilds the counters from MySQL
+            log.warn("Failed to update statistics of user {}: {}", userId, e.getMessage());
+        }
+    }
+
+    /**
+     * Read a user's counters
+     * @return the counters, or null if the user has no hash yet
+     */
+    public StatisticsCounters read(Long userId) {
+        Map<Object, Object> hash = stringRedisTemplate.opsForHash().entries(CacheConstants.statsKey(userId));
+        return hash.isEmpty() ? null : StatisticsCounters.fromHash(hash);
+    }
+
+    /**
+     * Of the given users, those with counters in Redis, checked in one pipelined round trip
+     */
+    public List<Long> existing(List<Long> userIds) {
+        List<Object> found = stringRedisTemplate.executePipelined(new SessionCallback<Object>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public <K, V> Object execute(RedisOperations<K, V> operations) throws DataAccessException {
+                RedisOperations<String, String> ops = (RedisOperations<String, String>) operations;
+                userIds.forEach(userId -> ops.hasKey(CacheConstants.statsKey(userId)));
+                return null;
+            }
+        });
+        List<Long> existing = new ArrayList<>();
+        for (int i = 0; i < userIds.size() && i < found.size(); i++) {
+            if (Boolean.TRUE.equals(found.get(i))) {
+                existing.add(userIds.get(i));
+            }
+        }
+        return existing;
+    }
+
+    /**
+     * Replace a user's counters in one pipelined round trip
+     */
+    public void replace(Long userId, StatisticsCounters counters) {
+        replaceAll(Map.of(userId, counters));
+    }
+
+    /**
+     * Replace the counters of several users in one pipelined round trip
+     */
+    public void replaceAll(Map<Long, StatisticsCounters> countersByUser) {
+        if (countersByUser.isEmpty()) {
+            return;
+        }
+        stringRedisTemplate.executePipelined(new SessionCallback<Object>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public <K, V> Object execute(RedisOperations<K, V> operations) throws DataAccessException {
+                RedisOperations<String, String> ops = (RedisOperations<String, String>) operations;
+                countersByUser.forEach((userId, counters) -> {
+                    String key = CacheConstants.statsKey(userId);
+                    ops.delete(key);
+                    ops.opsForHash().putAll(key, counters.toHash());
+                    ops.expire(key, CacheConstants.STATS_TTL_SECONDS, TimeUnit.SECONDS);
+                });
+                return null;
+            }
+        });
+    }
+}
@@ -0,0 +1,32 @@
+package com.llmplatform.util;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Hit statistics of one cache key prefix
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CachePrefixStats {
+
+    private long localHits;
+
+    private long redisHits;
+
+    private long misses;
+
+    /**
+     * Share of reads served from the in-process L1
+     */
+    private double localHitRatio;
+
+    /**
+     * Share of reads served from either tier
+     */
+    private double hitRatio;
+}
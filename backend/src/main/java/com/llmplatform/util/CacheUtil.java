@@ -3,20 +3,47 @@ package com.llmplatform.util;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
 import org.springframework.stereotype.Component;
 
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
 import java.util.concurrent.TimeUnit;
 
 /**
  * Cache utility class for Redis operations
  * Provides convenient methods for caching with graceful error handling
+ * Values are read and written through {@link TwoTierCache}; TTL, lock and lease operations act on Redis directly
+ * Lease tokens are plain strings, so lease scripts can take the owner token and a TTL as arguments
  */
 @Slf4j
 @Component
 @RequiredArgsConstructor
 public class CacheUtil {
 
+    /**
+     * Delete the lease only if it still belongs to the caller
+     */
+    private static final RedisScript<Long> RELEASE_LEASE_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('get', KEYS[1]) == ARGV[1] then return redis.call('del', KEYS[1]) else return 0 end",
+            Long.class);
+
+    /**
+     * Extend the lease only if it still belongs to the caller
+     */
+    private static final RedisScript<Long> RENEW_LEASE_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('get', KEYS[1]) == ARGV[1] then return redis.call('pexpire', KEYS[1], ARGV[2]) else return 0 end",
+            Long.class);
+
     private final RedisTemplate<String, Object> redisTemplate;
+    private final StringRedisTemplate stringRedisTemplate;
+    private final TwoTierCache cache;
 
     /**
      * Set a value with TTL in seconds
@@ -27,7 +54,7 @@ public class CacheUtil {
      */
     public boolean set(String key, Object value, long ttlSeconds) {
         try {
-            redisTemplate.opsForValue().set(key, value, ttlSeconds, TimeUnit.SECONDS);
+            cache.set(key, value, Duration.ofSeconds(ttlSeconds));
             log.debug("Cache set: key={}, ttl={}s", key, ttlSeconds);
             return true;
         } catch (Exception e) {
@@ -46,7 +73,7 @@ public class CacheUtil {
      */
     public boolean set(String key, Object value, long ttl, TimeUnit timeUnit) {
         try {
-            redisTemplate.opsForValue().set(key, value, ttl, timeUnit);
+            cache.set(key, value, Duration.of(ttl, timeUnit.toChronoUnit()));
             log.debug("Cache set: key={}, ttl={} {}", key, ttl, timeUnit);
             return true;
         } catch (Exception e) {
@@ -63,7 +90,7 @@ public class CacheUtil {
      */
     public boolean set(String key, Object value) {
         try {
-            redisTemplate.opsForValue().set(key, value);
+            cache.set(key, value, null);
             log.debug("Cache set (no TTL): key={}", key);
             return true;
         } catch (Exception e) {
@@ -81,7 +108,7 @@ public class CacheUtil {
     @SuppressWarnings("unchecked")
     public <T> T get(String key, Class<T> clazz) {
         try {
-            Object value = redisTemplate.opsForValue().get(key);
+            Object value = cache.get(key);
             if (value != null && clazz.isInstance(value)) {
                 log.debug("Cache hit: key={}", key);
                 return (T) value;
@@ -101,7 +128,7 @@ public class CacheUtil {
      */
     public Object get(String key) {
         try {
-            Object value = redisTemplate.opsForValue().get(key);
+            Object value = cache.get(key);
             if (value != null) {
                 log.debug("Cache hit: key={}", key);
             } else {
@@ -121,8 +148,7 @@ public class CacheUtil {
      */
     public boolean delete(String key) {
         try {
-            Boolean result = redisTemplate.delete(key);
-            boolean deleted = Boolean.TRUE.equals(result);
+            boolean deleted = cache.delete(key);
             log.debug("Cache delete: key={}, deleted={}", key, deleted);
             return deleted;
         } catch (Exception e) {
@@ -131,6 +157,55 @@ public class CacheUtil {
         }
     }
 
+    /**
+     * Get several values in one round trip
+     * @param keys cache keys
+     * @return the values found keyed by key, empty on error
+     */
+    public Map<String, Object> getMany(Collection<String> keys) {
+        try {
+            Map<String, Object> values = cache.getMany(keys);
+            log.debug("Cache multi-get: keys={}, hits={}", keys.size(), values.size());
+            return values;
+        } catch (Exception e) {
+            log.error("Failed to get cache for keys: {}", keys, e);
+            return Collections.emptyMap();
+        }
+    }
+
+    /**
+     * Set several values with the same TTL in one round trip
+     * @param values values to cache keyed by key
+     * @param ttlSeconds time to live in seconds
+     * @return true if successful, false otherwise
+     */
+    public boolean setMany(Map<String, ?> values, long ttlSeconds) {
+        try {
+            cache.setMany(values, Duration.ofSeconds(ttlSeconds));
+            log.debug("Cache multi-set: keys={}, ttl={}s", values.size(), ttlSeconds);
+            return true;
+        } catch (Exception e) {
+            log.error("Failed to set cache for keys: {}", values.keySet(), e);
+            return false;
+        }
+    }
+
+    /**
+     * Delete several keys in one round trip
+     * @param keys cache keys
+     * @return number of keys deleted, 0 on error
+     */
+    public long deleteMany(Collection<String> keys) {
+        try {
+            long deleted = cache.deleteMany(keys);
+            log.debug("Cache multi-delete: keys={}, deleted={}", keys, deleted);
+            return deleted;
+        } catch (Exception e) {
+            log.error("Failed to delete cache for keys: {}", keys, e);
+            return 0;
+        }
+    }
+
     /**
      * Check if a key exists in cache
      * @param key cache key
@@ -232,7 +307,57 @@ public class CacheUtil {
     }
 
     /**
-     * Get value and refresh TTL if exists
+     * Try to take a short-lived lease on a key, e.g. to let a single node fill a cache entry
+     * If Redis is unreachable the lease is granted, so callers degrade to uncoordinated work instead of failing
+     * @param key lease key
+     * @param ttlMillis lease duration in milliseconds; the lease expires by itself if the holder dies
+     * @return owner token to pass to releaseLease, or null if another owner holds the lease
+     */
+    public String tryAcquireLease(String key, long ttlMillis) {
+        String token = UUID.randomUUID().toString();
+        try {
+            Boolean acquired = stringRedisTemplate.opsForValue().setIfAbsent(key, token, ttlMillis, TimeUnit.MILLISECONDS);
+            log.debug("Lease acquire: key={}, acquired={}", key, acquired);
+            return Boolean.TRUE.equals(acquired) ? token : null;
+        } catch (Exception e) {
+            log.error("Failed to acquire lease for key: {}, proceeding without it", key, e);
+            return token;
+        }
+    }
+
+    /**
+     * Extend a lease taken with tryAcquireLease to a fresh TTL
+     * If Redis is unreachable the lease counts as kept, matching tryAcquireLease
+     * @param key lease key
+     * @param token owner token returned by tryAcquireLease
+     * @param ttlMillis new lease duration in milliseconds
+     * @return false if the lease expired and was taken over by another owner
+     */
+    public boolean renewLease(String key, String token, long ttlMillis) {
+        try {
+            Long renewed = stringRedisTemplate.execute(RENEW_LEASE_SCRIPT, List.of(key), token, Long.toString(ttlMillis));
+            return renewed == null || renewed == 1;
+        } catch (Exception e) {
+            log.error("Failed to renew lease for key: {}", key, e);
+            return true;
+        }
+    }
+
+    /**
+     * Release a lease taken with tryAcquireLease; a lease that expired and was taken over is left alone
+     * @param key lease key
+     * @param token owner token returned by tryAcquireLease
+     */
+    public void releaseLease(String key, String token) {
+        try {
+            stringRedisTemplate.execute(RELEASE_LEASE_SCRIPT, List.of(key), token);
+        } catch (Exception e) {
+            log.error("Failed to release lease for key: {}", key, e);
+        }
+    }
+
+    /**
+     * Get value and refresh TTL if exists, in one round trip (GETEX)
      * @param key cache key
      * @param clazz expected class type
      * @param ttlSeconds new time to live in seconds
@@ -241,9 +366,8 @@ public class CacheUtil {
     @SuppressWarnings("unchecked")
     public <T> T getAndRefresh(String key, Class<T> clazz, long ttlSeconds) {
         try {
-            Object value = redisTemplate.opsForValue().get(key);
+            Object value = cache.getAndExpire(key, Duration.ofSeconds(ttlSeconds));
             if (value != null && clazz.isInstance(value)) {
-                redisTemplate.expire(key, ttlSeconds, TimeUnit.SECONDS);
                 log.debug("Cache hit and refreshed: key={}, ttl={}s", key, ttlSeconds);
                 return (T) value;
             }
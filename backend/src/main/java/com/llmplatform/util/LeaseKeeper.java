@@ -0,0 +1,80 @@
+package com.llmplatform.util;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.ScheduledFuture;
+
+/**
+ * Keeps Redis leases alive for as long as their holder works
+ * A lease TTL only has to cover a crashed holder; work that outlasts it, such as an AI call failing over
+ * between providers, renews the lease every third of its TTL instead of racing its expiry
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class LeaseKeeper {
+
+    private final CacheUtil cacheUtil;
+    private final TaskScheduler taskScheduler;
+
+    /**
+     * Start renewing a lease taken with {@link CacheUtil#tryAcquireLease}
+     * @return handle that stops renewing and releases the lease when closed
+     */
+    public Lease keep(String key, String token, long ttlMillis) {
+        Lease lease = new Lease(key, token);
+        Duration period = Duration.ofMillis(Math.max(1, ttlMillis / 3));
+        lease.renewal = taskScheduler.scheduleAtFixedRate(() -> lease.renew(ttlMillis),
+                Instant.now().plus(period), period);
+        return lease;
+    }
+
+    /**
+     * A lease being kept alive
+     */
+    public final class Lease implements AutoCloseable {
+
+        private final String key;
+        private final String token;
+        private volatile ScheduledFuture<?> renewal;
+        private volatile boolean lost;
+        private boolean closed;
+
+        private Lease(String key, String token) {
+            this.key = key;
+            this.token = token;
+        }
+
+        /**
+         * Check that no other owner took the lease over after a missed renewal
+         */
+        public boolean isHeld() {
+            return !lost;
+        }
+
+        private synchronized void renew(long ttlMillis) {
+            if (!closed && !lost && !cacheUtil.renewLease(key, token, ttlMillis)) {
+                lost = true;
+                log.warn("Lease {} expired before it could be renewed", key);
+                renewal.cancel(false);
+            }
+        }
+
+        /**
+         * Stop renewing and release the lease; waits for a renewal already running, so none follows the release
+         */
+        @Override
+        public void close() {
+            synchronized (this) {
+                closed = true;
+                renewal.cancel(false);
+            }
+            cacheUtil.releaseLease(key, token);
+        }
+    }
+}
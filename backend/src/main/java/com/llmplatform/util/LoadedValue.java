@@ -0,0 +1,26 @@
+package com.llmplatform.util;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Cached result of a {@link RefreshingLoader} computation with what is needed to decide when to refresh it
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LoadedValue {
+
+    private Object value;
+
+    /**
+     * How long the computation took, in milliseconds
+     */
+    private long computeMillis;
+
+    /**
+     * Epoch millis after which the value is stale; it stays readable for the stale window beyond this
+     */
+    private long freshUntil;
+}
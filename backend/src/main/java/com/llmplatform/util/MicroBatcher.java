@@ -0,0 +1,173 @@
+package com.llmplatform.util;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * Collects items submitted within a short window into one batch per group
+ * A batch is handed to the handler when the window closes or it reaches the maximum size,
+ * and each caller's future completes with the result at its item's position
+ * The window timer only schedules; batches it closes run on separate worker threads, so a slow
+ * handler never delays the windows of other groups
+ *
+ * @param <T> item type
+ * @param <R> per-item result type
+ */
+@Slf4j
+public class MicroBatcher<T, R> implements AutoCloseable {
+
+    private final long windowMillis;
+    private final int maxBatchSize;
+    private final Function<List<T>, List<R>> handler;
+    private final ScheduledThreadPoolExecutor timer;
+    private final ExecutorService workers;
+    private final Map<String, Batch<T, R>> openBatches = new HashMap<>();
+
+    /**
+     * @param name thread name prefix
+     * @param windowMillis how long the first item of a batch waits for company
+     * @param maxBatchSize batch size that triggers an immediate flush
+     * @param workers threads that run window-triggered batches, separate from the window timer
+     * @param handler processes a batch; must return one result per item, in item order
+     */
+    public MicroBatcher(String name, long windowMillis, int maxBatchSize, int workers,
+                        Function<List<T>, List<R>> handler) {
+        this.windowMillis = windowMillis;
+        this.maxBatchSize = Math.max(1, maxBatchSize);
+        this.handler = handler;
+
+        ScheduledThreadPoolExecutor timer = new ScheduledThreadPoolExecutor(1, threadFactory(name + "-batch-timer"));
+        timer.setRemoveOnCancelPolicy(true);
+        this.timer = timer;
+        int poolSize = Math.max(1, workers);
+        this.workers = new ThreadPoolExecutor(poolSize, poolSize, 0, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(), threadFactory(name + "-batch"));
+    }
+
+    private static ThreadFactory threadFactory(String prefix) {
+        AtomicInteger threadCount = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + "-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    /**
+     * Add an item to the open batch of its group
+     * @param group only items of the same group are batched together
+     * @return future completed with the item's result
+     */
+    public CompletableFuture<R> submit(String group, T item) {
+        CompletableFuture<R> future = new CompletableFuture<>();
+        Batch<T, R> full = null;
+
+        synchronized (openBatches) {
+            Batch<T, R> batch = openBatches.get(group);
+            if (batch == null) {
+                Batch<T, R> created = new Batch<>();
+                created.timer = timer.schedule(() -> flush(group, created), windowMillis, TimeUnit.MILLISECONDS);
+                openBatches.put(group, created);
+                batch = created;
+            }
+            batch.items.add(item);
+            batch.futures.add(future);
+
+            if (batch.items.size() >= maxBatchSize) {
+                openBatches.remove(group);
+                full = batch;
+            }
+        }
+
+        if (full != null) {
+            // The caller completing the batch runs it, the window timer is no longer needed
+            full.timer.cancel(false);
+            dispatch(full);
+        }
+        return future;
+    }
+
+    private void flush(String group, Batch<T, R> batch) {
+        synchronized (openBatches) {
+            if (openBatches.get(group) != batch) {
+                return; // Already flushed because it filled up
+            }
+            openBatches.remove(group);
+        }
+        try {
+            workers.execute(new BatchRun(batch));
+        } catch (RejectedExecutionException e) {
+            // Closed meanwhile
+            batch.futures.forEach(future -> future.cancel(false));
+        }
+    }
+
+    private void dispatch(Batch<T, R> batch) {
+        try {
+            List<R> results = handler.apply(batch.items);
+            if (results == null || results.size() != batch.items.size()) {
+                throw new IllegalStateException("Batch handler returned " + (results == null ? "null" : results.size())
+                        + " results for " + batch.items.size() + " items");
+            }
+            for (int i = 0; i < results.size(); i++) {
+                batch.futures.get(i).complete(results.get(i));
+            }
+        } catch (RuntimeException | Error e) {
+            log.warn("Micro-batch of {} items failed: {}", batch.items.size(), e.getMessage());
+            batch.futures.forEach(future -> future.completeExceptionally(e));
+        }
+    }
+
+    /**
+     * Stop both pools, failing the batches that have not started yet
+     */
+    @Override
+    public void close() {
+        timer.shutdownNow();
+        List<Batch<T, R>> abandoned;
+        synchronized (openBatches) {
+            abandoned = new ArrayList<>(openBatches.values());
+            openBatches.clear();
+        }
+        for (Runnable pending : workers.shutdownNow()) {
+            if (pending instanceof MicroBatcher<?, ?>.BatchRun run) {
+                run.batch.futures.forEach(future -> future.cancel(false));
+            }
+        }
+        abandoned.forEach(batch -> batch.futures.forEach(future -> future.cancel(false)));
+    }
+
+    private final class BatchRun implements Runnable {
+        private final Batch<T, R> batch;
+
+        private BatchRun(Batch<T, R> batch) {
+            this.batch = batch;
+        }
+
+        @Override
+        public void run() {
+            dispatch(batch);
+        }
+    }
+
+    private static final class Batch<T, R> {
+        private final List<T> items = new ArrayList<>();
+        private final List<CompletableFuture<R>> futures = new ArrayList<>();
+        private ScheduledFuture<?> timer;
+    }
+}
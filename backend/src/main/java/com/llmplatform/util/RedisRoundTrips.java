@@ -0,0 +1,107 @@
+package com.llmplatform.util;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Counts Redis round trips made on behalf of the current request
+ * A pipeline or a Lua script counts once, however many commands it carries; commands issued inside a
+ * pipeline are not counted again. A request's count is bound to the thread serving it and follows its
+ * tasks onto executor threads decorated with {@link #propagate(Runnable)}
+ */
+public final class RedisRoundTrips {
+
+    private static final ThreadLocal<Binding> BINDING = ThreadLocal.withInitial(() -> new Binding(new Count()));
+
+    private RedisRoundTrips() {
+        // Prevent instantiation
+    }
+
+    /**
+     * Run one Redis call, counting it unless it is nested in a call already being counted
+     */
+    public static <T> T track(Supplier<T> call) {
+        Binding binding = BINDING.get();
+        if (binding.depth++ == 0) {
+            binding.count.roundTrips.incrementAndGet();
+        }
+        try {
+            return call.get();
+        } finally {
+            binding.depth--;
+        }
+    }
+
+    /**
+     * Round trips counted for the current thread's request since the last reset
+     */
+    public static long current() {
+        return BINDING.get().count.get();
+    }
+
+    /**
+     * Start counting from zero for the current thread's request
+     * @return round trips counted before the reset
+     */
+    public static long reset() {
+        return BINDING.get().count.roundTrips.getAndSet(0);
+    }
+
+    /**
+     * Bind a new count to the current thread, for a request starting on it
+     * @return the count, which keeps growing while tasks of the request run elsewhere
+     */
+    public static Count start() {
+        Count count = new Count();
+        BINDING.set(new Binding(count));
+        return count;
+    }
+
+    /**
+     * Detach the current thread from the request it served
+     */
+    public static void clear() {
+        BINDING.remove();
+    }
+
+    /**
+     * Wrap a task so its round trips count towards the request that submitted it; usable as a TaskDecorator
+     */
+    public static Runnable propagate(Runnable task) {
+        Count count = BINDING.get().count;
+        return () -> {
+            Binding previous = BINDING.get();
+            BINDING.set(new Binding(count));
+            try {
+                task.run();
+            } finally {
+                BINDING.set(previous);
+            }
+        };
+    }
+
+    /**
+     * Round trips of one request, shared by every thread working on it
+     */
+    public static final class Count {
+
+        private final AtomicLong roundTrips = new AtomicLong();
+
+        public long get() {
+            return roundTrips.get();
+        }
+    }
+
+    /**
+     * A thread's current count and how deep it is in counted calls
+     */
+    private static final class Binding {
+
+        private final Count count;
+        private int depth;
+
+        private Binding(Count count) {
+            this.count = count;
+        }
+    }
+}
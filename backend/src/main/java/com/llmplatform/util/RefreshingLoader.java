@@ -0,0 +1,175 @@
+package com.llmplatform.util;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.DoubleSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Read-through loader for values that are expensive to compute, cached in {@link TwoTierCache}
+ * - Concurrent misses of one key on this node share a single computation
+ * - A value past its fresh period is still served for the stale window while one background refresh runs
+ * - Before that, each read refreshes early with a probability that rises towards the end of the fresh
+ *   period and with the cost of the computation (XFetch: now - computeTime * beta * ln(rand) >= freshUntil),
+ *   so recomputations of hot keys are spread out instead of expiring together
+ */
+@Slf4j
+public class RefreshingLoader {
+
+    private final TwoTierCache cache;
+    private final Executor executor;
+    private final double beta;
+    private final Duration staleWindow;
+    private final Clock clock;
+    private final DoubleSupplier random;
+    private final ConcurrentHashMap<String, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+
+    /**
+     * @param beta early refresh eagerness; 1.0 is the XFetch default, 0 only refreshes stale values
+     * @param staleWindow how long past its fresh period a value is still served while it is refreshed
+     */
+    public RefreshingLoader(TwoTierCache cache, Executor executor, double beta, Duration staleWindow) {
+        this(cache, executor, beta, staleWindow, Clock.systemUTC(), () -> ThreadLocalRandom.current().nextDouble());
+    }
+
+    public RefreshingLoader(TwoTierCache cache, Executor executor, double beta, Duration staleWindow,
+                            Clock clock, DoubleSupplier random) {
+        this.cache = cache;
+        this.executor = executor;
+        this.beta = beta;
+        this.staleWindow = staleWindow;
+        this.clock = clock;
+        this.random = random;
+    }
+
+    /**
+     * Get the cached value, computing it on a miss and refreshing it in the background when due
+     * @param ttl how long a computed value is fresh
+     * @param loader computes the value; null results are returned but not cached
+     * @return the cached or computed value
+     */
+    public <T> T get(String key, Class<T> type, Duration ttl, Supplier<T> loader) {
+        LoadedValue cached = read(key);
+        if (cached != null && type.isInstance(cached.getValue())) {
+            if (refreshDue(cached)) {
+                refreshInBackground(key, ttl, loader);
+            }
+            return type.cast(cached.getValue());
+        }
+        CompletableFuture<Object> mine = new CompletableFuture<>();
+        CompletableFuture<Object> running = inFlight.putIfAbsent(key, mine);
+        if (running == null) {
+            return compute(key, ttl, loader, mine);
+        }
+        Object shared = await(running);
+        return type.isInstance(shared) ? type.cast(shared) : loader.get();
+    }
+
+    /**
+     * Delete the cached value; a computation already running for the key does not write its result back
+     */
+    public void invalidate(String key) {
+        inFlight.remove(key);
+        cache.delete(key);
+    }
+
+    private LoadedValue read(String key) {
+        try {
+            return cache.get(key, LoadedValue.class);
+        } catch (Exception e) {
+            log.warn("Failed to read {} from cache, computing it: {}", key, e.getMessage());
+            return null;
+        }
+    }
+
+    private boolean refreshDue(LoadedValue cached) {
+        // 1 - nextDouble() is in (0, 1], so the logarithm is finite and the gap never negative
+        double gap = -cached.getComputeMillis() * beta * Math.log(1.0 - random.getAsDouble());
+        return gap >= cached.getFreshUntil() - clock.millis();
+    }
+
+    private <T> void refreshInBackground(String key, Duration ttl, Supplier<T> loader) {
+        CompletableFuture<Object> mine = new CompletableFuture<>();
+        if (inFlight.putIfAbsent(key, mine) != null) {
+            return;
+        }
+        try {
+            executor.execute(() -> {
+                try {
+                    compute(key, ttl, loader, mine);
+                } catch (Exception e) {
+                    log.warn("Background refresh of {} failed, serving the cached value: {}", key, e.getMessage());
+                }
+            });
+            log.debug("Refreshing {} in the background", key);
+        } catch (RejectedExecutionException e) {
+            // The cached value keeps being served; a later read retries the refresh
+            inFlight.remove(key, mine);
+            mine.cancel(false);
+        }
+    }
+
+    private <T> T compute(String key, Duration ttl, Supplier<T> loader, CompletableFuture<Object> mine) {
+        try {
+            long start = clock.millis();
+            T value = loader.get();
+            long end = clock.millis();
+            if (value != null && inFlight.get(key) == mine) {
+                write(key, new LoadedValue(value, end - start, end + ttl.toMillis()), ttl.plus(staleWindow));
+                // invalidate removes the computation before deleting the key, so one that landed between
+                // the check and the write shows here; its delete may have run first, so delete again
+                if (inFlight.get(key) != mine) {
+                    delete(key);
+                }
+            }
+            mine.complete(value);
+            return value;
+        } catch (RuntimeException e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, mine);
+        }
+    }
+
+    private void write(String key, LoadedValue loaded, Duration ttl) {
+        try {
+            cache.set(key, loaded, ttl);
+        } catch (Exception e) {
+            log.warn("Failed to cache {}: {}", key, e.getMessage());
+        }
+    }
+
+    private void delete(String key) {
+        try {
+            cache.delete(key);
+        } catch (Exception e) {
+            log.warn("Failed to drop invalidated {} from cache: {}", key, e.getMessage());
+        }
+    }
+
+    /**
+     * Wait for another caller's computation; a rejected background refresh yields null so the caller computes
+     */
+    private static Object await(CompletableFuture<Object> running) {
+        try {
+            return running.join();
+        } catch (CancellationException e) {
+            return null;
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+}
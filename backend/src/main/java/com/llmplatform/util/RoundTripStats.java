@@ -0,0 +1,27 @@
+package com.llmplatform.util;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Redis round trips made while serving one endpoint
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RoundTripStats {
+
+    private long requests;
+
+    private long roundTrips;
+
+    private long maxRoundTrips;
+
+    /**
+     * Round trips per request
+     */
+    private double averageRoundTrips;
+}
@@ -0,0 +1,455 @@
+package com.llmplatform.util;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.llmplatform.common.CacheConstants;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.SessionCallback;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * Two-tier cache: a bounded in-process L1 in front of Redis as L2
+ * Only keys under the configured local prefixes are held in L1, sized by entry count (Caffeine's W-TinyLFU
+ * keeps the frequently read keys) and kept for at most the L1 TTL, or the key's remaining Redis TTL if shorter.
+ * Every write or delete of such a key is published on {@link #INVALIDATION_CHANNEL} so other nodes drop their
+ * copy; the L1 TTL bounds staleness if a message is lost. Values served from L1 are shared between callers and must not be mutated
+ * Invalidations are pipelined with the write they belong to, and the batch operations cost one round trip
+ * however many keys they touch. Redis errors propagate to the caller, like the RedisTemplate calls this replaces
+ */
+public class TwoTierCache {
+
+    public static final String INVALIDATION_CHANNEL = "cache:invalidate";
+
+    private static final String OTHER_PREFIX = "other";
+    private static final String MESSAGE_SEPARATOR = "|";
+
+    private final RedisTemplate<String, Object> redisTemplate;
+    private final Cache<String, LocalEntry> local;
+    private final Duration localTtl;
+    private final List<String> localPrefixes;
+    private final List<String> statPrefixes;
+    private final String nodeId = UUID.randomUUID().toString();
+    private final Map<String, PrefixCounters> counters = new ConcurrentHashMap<>();
+
+    /**
+     * @param maxLocalEntries L1 capacity; 0 disables L1
+     * @param localTtl longest time a value is served from L1 without asking Redis
+     * @param localPrefixes key prefixes eligible for L1
+     */
+    public TwoTierCache(RedisTemplate<String, Object> redisTemplate, long maxLocalEntries, Duration localTtl,
+                        Collection<String> localPrefixes) {
+        this.redisTemplate = redisTemplate;
+        this.localTtl = localTtl;
+        this.localPrefixes = maxLocalEntries > 0 ? List.copyOf(localPrefixes) : List.of();
+        this.local = maxLocalEntries > 0
+                ? Caffeine.newBuilder().maximumSize(maxLocalEntries).expireAfter(new LocalExpiry()).build()
+                : null;
+        this.statPrefixes = CacheConstants.PREFIXES.stream()
+                .sorted(Comparator.comparingInt(String::length).reversed())
+                .toList();
+    }
+
+    /**
+     * Cache without an L1, reading and writing Redis directly
+     */
+    public static TwoTierCache redisOnly(RedisTemplate<String, Object> redisTemplate) {
+        return new TwoTierCache(redisTemplate, 0, Duration.ZERO, List.of());
+    }
+
+    /**
+     * Get a value, from L1 if present, otherwise from Redis (filling L1 for no longer than Redis keeps the value)
+     * @return the cached value, or null on a miss
+     */
+    public Object get(String key) {
+        PrefixCounters stats = countersFor(key);
+        if (!isLocal(key)) {
+            Object value = redisTemplate.opsForValue().get(key);
+            (value != null ? stats.redisHits : stats.misses).increment();
+            return value;
+        }
+        LocalEntry entry = local.getIfPresent(key);
+        if (entry != null) {
+            stats.localHits.increment();
+            return entry.value();
+        }
+        List<Object> results = pipelined(operations -> {
+            operations.opsForValue().get(key);
+            operations.getExpire(key, TimeUnit.MILLISECONDS);
+        });
+        Object value = results.isEmpty() ? null : results.get(0);
+        if (value == null) {
+            stats.misses.increment();
+            return null;
+        }
+        stats.redisHits.increment();
+        fillLocal(key, value, results.size() > 1 ? results.get(1) : null);
+        return value;
+    }
+
+    /**
+     * Get a value of the expected type
+     * @return the cached value, or null on a miss or if the cached value has another type
+     */
+    public <T> T get(String key, Class<T> type) {
+        Object value = get(key);
+        return type.isInstance(value) ? type.cast(value) : null;
+    }
+
+    /**
+     * Get a value straight from Redis with its remaining TTL, in one round trip, for callers keeping their
+     * own copy that must not outlive the Redis one; L1 is not consulted or filled
+     * @return the value and its remaining TTL, or null on a miss or if the cached value has another type
+     */
+    public <T> Expiring<T> getExpiring(String key, Class<T> type) {
+        PrefixCounters stats = countersFor(key);
+        List<Object> results = pipelined(operations -> {
+            operations.opsForValue().get(key);
+            operations.getExpire(key, TimeUnit.MILLISECONDS);
+        });
+        Object value = results.isEmpty() ? null : results.get(0);
+        Object remainingTtl = results.size() > 1 ? results.get(1) : null;
+        if (!type.isInstance(value) || !(remainingTtl instanceof Number millis) || millis.longValue() == -2) {
+            stats.misses.increment();
+            return null;
+        }
+        stats.redisHits.increment();
+        return new Expiring<>(type.cast(value), millis.longValue() >= 0 ? Duration.ofMillis(millis.longValue()) : null);
+    }
+
+    /**
+     * Get several values in one round trip: L1 first, then a single MGET for the rest
+     * @return the values found, keyed by key; misses are absent
+     */
+    public Map<String, Object> getMany(Collection<String> keys) {
+        Map<String, Object> found = new LinkedHashMap<>();
+        List<String> remote = new ArrayList<>();
+        for (String key : keys) {
+            LocalEntry entry = isLocal(key) ? local.getIfPresent(key) : null;
+            if (entry != null) {
+                countersFor(key).localHits.increment();
+                found.put(key, entry.value());
+            } else {
+                remote.add(key);
+            }
+        }
+        if (remote.isEmpty()) {
+            return found;
+        }
+        List<String> remoteLocal = remote.stream().filter(this::isLocal).toList();
+        List<Object> values;
+        List<Object> remainingTtls;
+        if (remoteLocal.isEmpty()) {
+            values = redisTemplate.opsForValue().multiGet(remote);
+            remainingTtls = List.of();
+        } else {
+            // The remaining TTL of each L1 key travels in the same round trip as the MGET
+            List<Object> results = pipelined(operations -> {
+                operations.opsForValue().multiGet(remote);
+                remoteLocal.forEach(key -> operations.getExpire(key, TimeUnit.MILLISECONDS));
+            });
+            values = !results.isEmpty() && results.get(0) instanceof List<?> list ? new ArrayList<>(list) : null;
+            remainingTtls = results.size() > 1 ? results.subList(1, results.size()) : List.of();
+        }
+        int ttlIndex = 0;
+        for (int i = 0; i < remote.size(); i++) {
+            String key = remote.get(i);
+            Object value = values != null && i < values.size() ? values.get(i) : null;
+            Object remainingTtl = null;
+            if (isLocal(key)) {
+                remainingTtl = ttlIndex < remainingTtls.size() ? remainingTtls.get(ttlIndex) : null;
+                ttlIndex++;
+            }
+            if (value == null) {
+                countersFor(key).misses.increment();
+                continue;
+            }
+            countersFor(key).redisHits.increment();
+            found.put(key, value);
+            if (isLocal(key)) {
+                fillLocal(key, value, remainingTtl);
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Get a value and reset its Redis TTL in one round trip (GETEX)
+     * @return the cached value, or null on a miss
+     */
+    public Object getAndExpire(String key, Duration ttl) {
+        PrefixCounters stats = countersFor(key);
+        boolean localKey = isLocal(key);
+        LocalEntry entry = localKey ? local.getIfPresent(key) : null;
+        if (entry != null) {
+            stats.localHits.increment();
+            redisTemplate.expire(key, ttl);
+            return entry.value();
+        }
+        Object value = redisTemplate.opsForValue().getAndExpire(key, ttl);
+        if (value == null) {
+            stats.misses.increment();
+            return null;
+        }
+        stats.redisHits.increment();
+        if (localKey) {
+            local.put(key, new LocalEntry(value, localTtlFor(ttl)));
+        }
+        return value;
+    }
+
+    /**
+     * Write a value through to Redis and L1; for L1 keys the invalidation is pipelined with the write
+     * @param ttl time to live, or null to keep the value until it is deleted
+     */
+    public void set(String key, Object value, Duration ttl) {
+        if (!isLocal(key)) {
+            write(redisTemplate, key, value, ttl);
+            return;
+        }
+        pipelined(operations -> {
+            write(operations, key, value, ttl);
+            publishInvalidation(operations, key);
+        });
+        local.put(key, new LocalEntry(value, localTtlFor(ttl)));
+    }
+
+    /**
+     * Write several values with the same TTL in one pipelined round trip
+     * @param ttl time to live, or null to keep the values until they are deleted
+     */
+    public void setMany(Map<String, ?> values, Duration ttl) {
+        if (values.isEmpty()) {
+            return;
+        }
+        pipelined(operations -> values.forEach((key, value) -> {
+            write(operations, key, value, ttl);
+            if (isLocal(key)) {
+                publishInvalidation(operations, key);
+            }
+        }));
+        values.forEach((key, value) -> {
+            if (isLocal(key)) {
+                local.put(key, new LocalEntry(value, localTtlFor(ttl)));
+            }
+        });
+    }
+
+    /**
+     * Delete a key from Redis and from L1 on every node
+     * @return true if Redis held the key
+     */
+    public boolean delete(String key) {
+        if (!isLocal(key)) {
+            return Boolean.TRUE.equals(redisTemplate.delete(key));
+        }
+        local.invalidate(key);
+        List<Object> results = pipelined(operations -> {
+            operations.delete(key);
+            publishInvalidation(operations, key);
+        });
+        return !results.isEmpty() && isPositive(results.get(0));
+    }
+
+    /**
+     * Delete several keys in one round trip with UNLINK, which frees the memory off Redis' main thread
+     * @return number of keys Redis held
+     */
+    public long deleteMany(Collection<String> keys) {
+        if (keys.isEmpty()) {
+            return 0;
+        }
+        List<String> localKeys = keys.stream().filter(this::isLocal).toList();
+        if (localKeys.isEmpty()) {
+            Long unlinked = redisTemplate.unlink(keys);
+            return unlinked != null ? unlinked : 0;
+        }
+        local.invalidateAll(localKeys);
+        List<Object> results = pipelined(operations -> {
+            operations.unlink(keys);
+            localKeys.forEach(key -> publishInvalidation(operations, key));
+        });
+        return !results.isEmpty() && results.get(0) instanceof Number unlinked ? unlinked.longValue() : 0;
+    }
+
+    /**
+     * Drop a key from this node's L1 only
+     */
+    public void evictLocal(String key) {
+        if (local != null) {
+            local.invalidate(key);
+        }
+    }
+
+    /**
+     * Handle a message from {@link #INVALIDATION_CHANNEL}; this node's own messages are ignored
+     */
+    public void onInvalidation(byte[] body) {
+        Object message = redisTemplate.getValueSerializer().deserialize(body);
+        if (!(message instanceof String text)) {
+            return;
+        }
+        int separator = text.indexOf(MESSAGE_SEPARATOR);
+        if (separator < 0 || text.substring(0, separator).equals(nodeId)) {
+            return;
+        }
+        evictLocal(text.substring(separator + 1));
+    }
+
+    /**
+     * Hit statistics per key prefix since startup
+     */
+    public Map<String, CachePrefixStats> getStats() {
+        Map<String, CachePrefixStats> stats = new LinkedHashMap<>();
+        for (String prefix : CacheConstants.PREFIXES) {
+            stats.put(prefix, snapshot(prefix));
+        }
+        stats.put(OTHER_PREFIX, snapshot(OTHER_PREFIX));
+        return stats;
+    }
+
+    /**
+     * Number of entries currently in L1
+     */
+    public long getLocalSize() {
+        return local != null ? local.estimatedSize() : 0;
+    }
+
+    private boolean isLocal(String key) {
+        if (local == null) {
+            return false;
+        }
+        for (String prefix : localPrefixes) {
+            if (key.startsWith(prefix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private Duration localTtlFor(Duration ttl) {
+        return ttl != null && ttl.compareTo(localTtl) < 0 ? ttl : localTtl;
+    }
+
+    /**
+     * Put a value read from Redis into L1, expiring no later than the Redis copy
+     * @param remainingTtl PTTL reply: milliseconds left, -1 without expiry, -2 if the key is already gone
+     */
+    private void fillLocal(String key, Object value, Object remainingTtl) {
+        if (!(remainingTtl instanceof Number millis)) {
+            return;
+        }
+        if (millis.longValue() == -1) {
+            local.put(key, new LocalEntry(value, localTtl));
+        } else if (millis.longValue() > 0) {
+            local.put(key, new LocalEntry(value, localTtlFor(Duration.ofMillis(millis.longValue()))));
+        }
+    }
+
+    private void publishInvalidation(RedisOperations<String, Object> operations, String key) {
+        operations.convertAndSend(INVALIDATION_CHANNEL, nodeId + MESSAGE_SEPARATOR + key);
+    }
+
+    private static void write(RedisOperations<String, Object> operations, String key, Object value, Duration ttl) {
+        if (ttl != null) {
+            operations.opsForValue().set(key, value, ttl);
+        } else {
+            operations.opsForValue().set(key, value);
+        }
+    }
+
+    private static boolean isPositive(Object result) {
+        return result instanceof Number number ? number.longValue() > 0 : Boolean.TRUE.equals(result);
+    }
+
+    /**
+     * Run commands on one connection as a single pipelined round trip
+     * @return the raw reply of each command, in order
+     */
+    private List<Object> pipelined(Consumer<RedisOperations<String, Object>> commands) {
+        return redisTemplate.executePipelined(new SessionCallback<Object>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public <K, V> Object execute(RedisOperations<K, V> operations) {
+                commands.accept((RedisOperations<String, Object>) operations);
+                return null;
+            }
+        });
+    }
+
+    private PrefixCounters countersFor(String key) {
+        String matched = OTHER_PREFIX;
+        for (String prefix : statPrefixes) {
+            if (key.startsWith(prefix)) {
+                matched = prefix;
+                break;
+            }
+        }
+        return counters.computeIfAbsent(matched, prefix -> new PrefixCounters());
+    }
+
+    private CachePrefixStats snapshot(String prefix) {
+        PrefixCounters prefixCounters = counters.get(prefix);
+        long localHits = prefixCounters != null ? prefixCounters.localHits.sum() : 0;
+        long redisHits = prefixCounters != null ? prefixCounters.redisHits.sum() : 0;
+        long misses = prefixCounters != null ? prefixCounters.misses.sum() : 0;
+        long requests = localHits + redisHits + misses;
+        return CachePrefixStats.builder()
+                .localHits(localHits)
+                .redisHits(redisHits)
+                .misses(misses)
+                .localHitRatio(requests > 0 ? (double) localHits / requests : 0)
+                .hitRatio(requests > 0 ? (double) (localHits + redisHits) / requests : 0)
+                .build();
+    }
+
+    private record LocalEntry(Object value, Duration ttl) {
+    }
+
+    /**
+     * A value read from Redis
+     * @param ttl time Redis keeps it for, or null if it does not expire
+     */
+    public record Expiring<T>(T value, Duration ttl) {
+    }
+
+    private static class PrefixCounters {
+        private final LongAdder localHits = new LongAdder();
+        private final LongAdder redisHits = new LongAdder();
+        private final LongAdder misses = new LongAdder();
+    }
+
+    /**
+     * Expires each L1 entry after its own TTL, counted from the last write
+     */
+    private static class LocalExpiry implements Expiry<String, LocalEntry> {
+
+        @Override
+        public long expireAfterCreate(String key, LocalEntry entry, long currentTime) {
+            return entry.ttl().toNanos();
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, LocalEntry entry, long currentTime, long currentDuration) {
+            return entry.ttl().toNanos();
+        }
+
+        @Override
+        public long expireAfterRead(String key, LocalEntry entry, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.llmplatform.util.codec;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Short numeric type ids for classes stored in Redis, written instead of fully qualified class names
+ * Tags are part of the stored format: never reuse or renumber one, only append. Classes without a tag
+ * fall back to their class name
+ */
+public class CodecTypeRegistry {
+
+    private final Map<Class<?>, String> tags = new HashMap<>();
+    private final Map<String, Class<?>> types = new HashMap<>();
+
+    /**
+     * Register a class under a tag
+     * @throws IllegalArgumentException if the tag or the class is already registered
+     */
+    public CodecTypeRegistry register(int tag, Class<?> type) {
+        String id = Integer.toString(tag);
+        if (types.containsKey(id) || tags.containsKey(type)) {
+            throw new IllegalArgumentException("Duplicate codec type registration: " + tag + " -> " + type.getName());
+        }
+        tags.put(type, id);
+        types.put(id, type);
+        return this;
+    }
+
+    /**
+     * Type id of a class, or null if it is not registered
+     */
+    public String tagOf(Class<?> type) {
+        return tags.get(type);
+    }
+
+    /**
+     * Class registered under a type id, or null if the id is not a registered tag
+     */
+    public Class<?> typeOf(String id) {
+        return types.get(id);
+    }
+}
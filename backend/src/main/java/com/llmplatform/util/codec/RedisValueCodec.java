@@ -0,0 +1,181 @@
+package com.llmplatform.util.codec;
+
+import com.fasterxml.jackson.annotation.JsonAutoDetect;
+import com.fasterxml.jackson.annotation.JsonTypeInfo;
+import com.fasterxml.jackson.annotation.PropertyAccessor;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.jsontype.impl.LaissezFaireSubTypeValidator;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileGenerator;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.springframework.data.redis.serializer.Jackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Redis value serializer writing compact Smile payloads behind a versioned header
+ * Layout: magic byte, format version, flags, then for deflated payloads the raw length as an int, then the
+ * Smile body. Type ids of registered classes are short tags instead of class names. Values without the
+ * magic byte are the default-typed JSON written before this codec and are decoded as such, so old and new
+ * payloads coexist while a cluster rolls over; {@link Format#JSON} keeps writing the old format until every
+ * node can read the new one
+ */
+public class RedisValueCodec implements RedisSerializer<Object> {
+
+    /**
+     * Never the first byte of a JSON document
+     */
+    static final byte MAGIC = (byte) 0xC5;
+    static final byte VERSION = 1;
+    static final byte FLAG_DEFLATED = 1;
+
+    private static final int HEADER_LENGTH = 3;
+
+    /**
+     * Format new values are written in
+     */
+    public enum Format {
+        JSON, SMILE;
+
+        /**
+         * @throws IllegalArgumentException for an unknown name
+         */
+        public static Format fromName(String name) {
+            return valueOf(name.trim().toUpperCase());
+        }
+    }
+
+    private final RedisSerializer<Object> json;
+    private final ObjectMapper smileMapper;
+    private final Format writeFormat;
+    private final int compressThreshold;
+
+    /**
+     * @param compressThreshold Smile bodies at least this many bytes are deflated; 0 disables compression
+     */
+    public RedisValueCodec(CodecTypeRegistry registry, Format writeFormat, int compressThreshold) {
+        this.json = jsonSerializer();
+        // repeated strings such as message roles and unregistered class names are written once per value
+        this.smileMapper = configure(new ObjectMapper(SmileFactory.builder()
+                .enable(SmileGenerator.Feature.CHECK_SHARED_STRING_VALUES)
+                .build()));
+        this.smileMapper.setDefaultTyping(
+                new RegistryTypeIdResolver.Builder(LaissezFaireSubTypeValidator.instance, registry)
+                        .init(JsonTypeInfo.Id.CLASS, null)
+                        .inclusion(JsonTypeInfo.As.PROPERTY));
+        this.writeFormat = writeFormat;
+        this.compressThreshold = compressThreshold;
+    }
+
+    /**
+     * The default-typed JSON serializer values were written with before this codec
+     */
+    public static RedisSerializer<Object> jsonSerializer() {
+        ObjectMapper objectMapper = configure(new ObjectMapper());
+        objectMapper.activateDefaultTyping(
+                LaissezFaireSubTypeValidator.instance,
+                ObjectMapper.DefaultTyping.NON_FINAL,
+                JsonTypeInfo.As.PROPERTY
+        );
+        return new Jackson2JsonRedisSerializer<>(objectMapper, Object.class);
+    }
+
+    private static ObjectMapper configure(ObjectMapper objectMapper) {
+        objectMapper.setVisibility(PropertyAccessor.ALL, JsonAutoDetect.Visibility.ANY);
+        objectMapper.registerModule(new JavaTimeModule());
+        objectMapper.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        return objectMapper;
+    }
+
+    @Override
+    public byte[] serialize(Object value) throws SerializationException {
+        if (value == null || writeFormat == Format.JSON) {
+            return json.serialize(value);
+        }
+        byte[] body;
+        try {
+            body = smileMapper.writeValueAsBytes(value);
+        } catch (IOException e) {
+            throw new SerializationException("Could not write Smile: " + e.getMessage(), e);
+        }
+        if (compressThreshold > 0 && body.length >= compressThreshold) {
+            byte[] deflated = deflate(body);
+            if (deflated.length + Integer.BYTES < body.length) {
+                return ByteBuffer.allocate(HEADER_LENGTH + Integer.BYTES + deflated.length)
+                        .put(MAGIC).put(VERSION).put(FLAG_DEFLATED)
+                        .putInt(body.length)
+                        .put(deflated)
+                        .array();
+            }
+        }
+        return ByteBuffer.allocate(HEADER_LENGTH + body.length)
+                .put(MAGIC).put(VERSION).put((byte) 0)
+                .put(body)
+                .array();
+    }
+
+    @Override
+    public Object deserialize(byte[] bytes) throws SerializationException {
+        if (bytes == null || bytes.length == 0 || bytes[0] != MAGIC) {
+            return json.deserialize(bytes);
+        }
+        if (bytes.length < HEADER_LENGTH || bytes[1] > VERSION) {
+            throw new SerializationException("Unsupported Redis value format version: "
+                    + (bytes.length > 1 ? bytes[1] : -1));
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(bytes, HEADER_LENGTH, bytes.length - HEADER_LENGTH);
+        try {
+            if ((bytes[2] & FLAG_DEFLATED) != 0) {
+                int rawLength = buffer.getInt();
+                byte[] body = inflate(bytes, buffer.position(), buffer.remaining(), rawLength);
+                return smileMapper.readValue(body, Object.class);
+            }
+            return smileMapper.readValue(bytes, buffer.position(), buffer.remaining(), Object.class);
+        } catch (IOException | DataFormatException e) {
+            throw new SerializationException("Could not read Smile: " + e.getMessage(), e);
+        }
+    }
+
+    private static byte[] deflate(byte[] body) {
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        try {
+            deflater.setInput(body);
+            deflater.finish();
+            ByteArrayOutputStream out = new ByteArrayOutputStream(body.length / 2);
+            byte[] chunk = new byte[4096];
+            while (!deflater.finished()) {
+                out.write(chunk, 0, deflater.deflate(chunk));
+            }
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private static byte[] inflate(byte[] bytes, int offset, int length, int rawLength) throws DataFormatException {
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(bytes, offset, length);
+            byte[] body = new byte[rawLength];
+            int read = 0;
+            while (read < rawLength && !inflater.finished()) {
+                int n = inflater.inflate(body, read, rawLength - read);
+                if (n == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    throw new DataFormatException("Truncated deflated payload");
+                }
+                read += n;
+            }
+            return body;
+        } finally {
+            inflater.end();
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.llmplatform.util.codec;
+
+import com.fasterxml.jackson.databind.DatabindContext;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.cfg.MapperConfig;
+import com.fasterxml.jackson.databind.jsontype.NamedType;
+import com.fasterxml.jackson.databind.jsontype.PolymorphicTypeValidator;
+import com.fasterxml.jackson.databind.jsontype.TypeIdResolver;
+import com.fasterxml.jackson.databind.jsontype.impl.ClassNameIdResolver;
+import com.fasterxml.jackson.databind.type.TypeFactory;
+
+import java.io.IOException;
+import java.util.Collection;
+
+/**
+ * Class-name type ids with registered classes replaced by their short tag
+ */
+class RegistryTypeIdResolver extends ClassNameIdResolver {
+
+    private final CodecTypeRegistry registry;
+
+    RegistryTypeIdResolver(JavaType baseType, TypeFactory typeFactory, PolymorphicTypeValidator validator,
+                           CodecTypeRegistry registry) {
+        super(baseType, typeFactory, validator);
+        this.registry = registry;
+    }
+
+    @Override
+    public String idFromValue(Object value) {
+        String tag = registry.tagOf(value.getClass());
+        return tag != null ? tag : super.idFromValue(value);
+    }
+
+    @Override
+    public String idFromValueAndType(Object value, Class<?> type) {
+        String tag = registry.tagOf(type);
+        return tag != null ? tag : super.idFromValueAndType(value, type);
+    }
+
+    @Override
+    public JavaType typeFromId(DatabindContext context, String id) throws IOException {
+        Class<?> type = registry.typeOf(id);
+        if (type == null) {
+            return super.typeFromId(context, id);
+        }
+        return context.getTypeFactory().constructSpecializedType(_baseType, type);
+    }
+
+    /**
+     * Default typing for non-final types, as activateDefaultTyping(NON_FINAL) sets up, using registry tags
+     */
+    static class Builder extends ObjectMapper.DefaultTypeResolverBuilder {
+
+        private static final long serialVersionUID = 1L;
+
+        private final transient CodecTypeRegistry registry;
+
+        Builder(PolymorphicTypeValidator validator, CodecTypeRegistry registry) {
+            super(ObjectMapper.DefaultTyping.NON_FINAL, validator);
+            this.registry = registry;
+        }
+
+        @Override
+        protected TypeIdResolver idResolver(MapperConfig<?> config, JavaType baseType,
+                                            PolymorphicTypeValidator validator, Collection<NamedType> subtypes,
+                                            boolean forSer, boolean forDeser) {
+            return new RegistryTypeIdResolver(baseType, config.getTypeFactory(), validator, registry);
+        }
+    }
+}
@@ -35,6 +35,7 @@ public class QuizVO {
         private String question;
         private List<String> options;
         private String correctAnswer;
+        private String topic;  // vocabulary, grammar or comprehension
         private String userAnswer;
     }
 }
@@ -117,6 +117,54 @@ CREATE TABLE IF NOT EXISTS `learning_record` (
     CONSTRAINT `fk_lr_user` FOREIGN KEY (`user_id`) REFERENCES `user` (`id`) ON DELETE CASCADE
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='Learning record table';
 
+-- AI token usage table (daily aggregates, user_id 0 for calls without a user)
+CREATE TABLE IF NOT EXISTS `ai_token_usage` (
+    `id` BIGINT NOT NULL AUTO_INCREMENT COMMENT 'Primary key',
+    `usage_date` DATE NOT NULL COMMENT 'Usage date',
+    `user_id` BIGINT NOT NULL DEFAULT 0 COMMENT 'User ID, 0 for system calls',
+    `provider` VARCHAR(50) NOT NULL COMMENT 'AI provider name',
+    `model` VARCHAR(100) NOT NULL COMMENT 'Model name',
+    `feature` VARCHAR(50) NOT NULL COMMENT 'Calling feature',
+    `prompt_tokens` BIGINT NOT NULL DEFAULT 0 COMMENT 'Prompt tokens',
+    `completion_tokens` BIGINT NOT NULL DEFAULT 0 COMMENT 'Completion tokens',
+    `request_count` BIGINT NOT NULL DEFAULT 0 COMMENT 'Number of provider calls',
+    `updated_at` DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP COMMENT 'Last flush time',
+    PRIMARY KEY (`id`),
+    UNIQUE KEY `uk_usage_dimensions` (`usage_date`, `user_id`, `provider`, `model`, `feature`),
+    INDEX `idx_user_date` (`user_id`, `usage_date`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='AI token usage table';
+
+-- Quiz question bank (generated questions, deduplicated by content hash and reused across quizzes)
+CREATE TABLE IF NOT EXISTS `quiz_question_bank` (
+    `id` BIGINT NOT NULL AUTO_INCREMENT COMMENT 'Primary key',
+    `content_hash` CHAR(64) NOT NULL COMMENT 'SHA-256 of the normalized question and options',
+    `target_lang` VARCHAR(20) NOT NULL COMMENT 'Target language code',
+    `difficulty` VARCHAR(20) NOT NULL COMMENT 'Difficulty level (EASY, MEDIUM, HARD)',
+    `topic` VARCHAR(30) NOT NULL COMMENT 'Topic (vocabulary, grammar, comprehension)',
+    `question` TEXT NOT NULL COMMENT 'Question text',
+    `options` JSON NOT NULL COMMENT 'Answer options (JSON array)',
+    `correct_answer` VARCHAR(10) NOT NULL COMMENT 'Correct option label',
+    `usage_count` INT NOT NULL DEFAULT 0 COMMENT 'Number of quizzes the question was used in',
+    `created_at` DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP COMMENT 'Creation time',
+    `last_used_at` DATETIME DEFAULT NULL COMMENT 'Last time the question was used',
+    PRIMARY KEY (`id`),
+    UNIQUE KEY `uk_content_hash` (`content_hash`),
+    INDEX `idx_category_usage` (`target_lang`, `difficulty`, `usage_count`),
+    INDEX `idx_category_topic` (`target_lang`, `difficulty`, `topic`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='Quiz question bank table';
+
+-- Questions each user has already been given, excluded when assembling their next quiz
+CREATE TABLE IF NOT EXISTS `quiz_question_seen` (
+    `id` BIGINT NOT NULL AUTO_INCREMENT COMMENT 'Primary key',
+    `user_id` BIGINT NOT NULL COMMENT 'User ID',
+    `question_id` BIGINT NOT NULL COMMENT 'Question bank ID',
+    `seen_at` DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP COMMENT 'Time the question was given',
+    PRIMARY KEY (`id`),
+    UNIQUE KEY `uk_user_question` (`user_id`, `question_id`),
+    CONSTRAINT `fk_qqs_user` FOREIGN KEY (`user_id`) REFERENCES `user` (`id`) ON DELETE CASCADE,
+    CONSTRAINT `fk_qqs_question` FOREIGN KEY (`question_id`) REFERENCES `quiz_question_bank` (`id`) ON DELETE CASCADE
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='Quiz question seen table';
+
 -- Insert preset scenarios
 INSERT INTO `scenario` (`name`, `description`, `category`, `is_preset`, `created_by`) VALUES
 ('Airport Check-in', 'Practice conversations at airport check-in counters', 'travel', 1, NULL),
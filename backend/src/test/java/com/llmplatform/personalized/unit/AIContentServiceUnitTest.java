@@ -1,8 +1,10 @@
 package com.llmplatform.personalized.unit;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.llmplatform.ai.dto.AIRequest;
 import com.llmplatform.ai.dto.AIResponse;
 import com.llmplatform.ai.gateway.AIGateway;
+import com.llmplatform.ai.output.StructuredOutputDecoder;
 import com.llmplatform.personalized.service.AIContentService;
 import com.llmplatform.personalized.service.impl.AIContentServiceImpl;
 import org.junit.jupiter.api.BeforeEach;
@@ -31,7 +33,7 @@ class AIContentServiceUnitTest {
 
     @BeforeEach
     void setUp() {
-        aiContentService = new AIContentServiceImpl(aiGateway);
+        aiContentService = new AIContentServiceImpl(aiGateway, new StructuredOutputDecoder(new ObjectMapper()));
     }
 
     @Test
@@ -12,6 +12,7 @@ import org.mockito.quality.Strictness;
 import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.data.redis.core.ValueOperations;
 
+import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -167,8 +168,7 @@ class CacheFallbackUnitTest {
         assertTrue(firstResult.isEmpty());
 
         // Simulate connection recovery
-        reset(redisTemplate);
-        when(redisTemplate.hasKey(key)).thenReturn(true);
+        doReturn(true).when(redisTemplate).hasKey(key);
         when(redisTemplate.opsForValue()).thenReturn(valueOperations);
         when(valueOperations.get(key)).thenReturn(value);
 
@@ -197,14 +197,17 @@ class CacheFallbackUnitTest {
     void userCacheInvalidation_CleansAllKeys() {
         Long userId = 1L;
 
-        when(redisTemplate.delete(anyString())).thenReturn(true);
+        when(redisTemplate.unlink(anyCollection())).thenReturn(4L);
 
         assertDoesNotThrow(() -> cacheService.invalidateUserCache(userId));
 
-        verify(redisTemplate).delete("learning:profile:" + userId);
-        verify(redisTemplate).delete("learning:plan:" + userId);
-        verify(redisTemplate).delete("learning:streak:" + userId);
-        verify(redisTemplate).delete("memory:due_reviews:" + userId);
+        // All four keys go in a single UNLINK
+        verify(redisTemplate).unlink(List.of(
+                "learning:profile:" + userId,
+                "learning:plan:" + userId,
+                "learning:streak:" + userId,
+                "memory:due_reviews:" + userId));
+        verify(redisTemplate, never()).delete(anyString());
     }
 
     @Test
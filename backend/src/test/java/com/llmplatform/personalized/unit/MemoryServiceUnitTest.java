@@ -5,11 +5,11 @@ import com.llmplatform.personalized.engine.SpacedRepetitionEngine;
 import com.llmplatform.personalized.repository.MemoryRepository;
 import com.llmplatform.personalized.service.impl.MemoryServiceImpl;
 import com.llmplatform.personalized.vo.MemoryStatisticsVO;
+import com.llmplatform.util.TwoTierCache;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.mockito.junit.jupiter.MockitoSettings;
@@ -45,7 +45,6 @@ class MemoryServiceUnitTest {
     @Mock
     private ValueOperations<String, Object> valueOperations;
 
-    @InjectMocks
     private MemoryServiceImpl memoryService;
 
     private MemoryRecord testRecord;
@@ -68,6 +67,9 @@ class MemoryServiceUnitTest {
 
         // Common stubbing
         when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+
+        memoryService = new MemoryServiceImpl(memoryRepository, spacedRepetitionEngine,
+                TwoTierCache.redisOnly(redisTemplate));
     }
 
     @Test
@@ -8,6 +8,9 @@ import com.llmplatform.personalized.repository.PlanRepository;
 import com.llmplatform.personalized.repository.ProfileRepository;
 import com.llmplatform.personalized.repository.TaskRepository;
 import com.llmplatform.personalized.service.impl.PlanGenerationServiceImpl;
+import com.llmplatform.util.LoadedValue;
+import com.llmplatform.util.RefreshingLoader;
+import com.llmplatform.util.TwoTierCache;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -20,6 +23,7 @@ import org.mockito.quality.Strictness;
 import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.data.redis.core.ValueOperations;
 
+import java.time.Duration;
 import java.time.LocalDate;
 import java.util.Collections;
 import java.util.List;
@@ -64,12 +68,14 @@ class PlanGenerationServiceUnitTest {
     void setUp() {
         when(redisTemplate.opsForValue()).thenReturn(valueOperations);
 
+        TwoTierCache cache = TwoTierCache.redisOnly(redisTemplate);
         planGenerationService = new PlanGenerationServiceImpl(
                 planRepository,
                 taskRepository,
                 profileRepository,
                 planOptimizerEngine,
-                redisTemplate,
+                cache,
+                new RefreshingLoader(cache, Runnable::run, 1.0, Duration.ofMinutes(5)),
                 objectMapper
         );
 
@@ -84,6 +90,13 @@ class PlanGenerationServiceUnitTest {
         testPlan.setAdjustmentHistory("[]");
     }
 
+    /**
+     * 缓存中由 RefreshingLoader 写入的值，远未到刷新时间
+     */
+    private static LoadedValue cached(Object value) {
+        return new LoadedValue(value, 1, Long.MAX_VALUE);
+    }
+
     @Test
     @DisplayName("创建学习计划")
     void testCreateStudyPlan() {
@@ -116,7 +129,7 @@ class PlanGenerationServiceUnitTest {
     @Test
     @DisplayName("获取当前计划")
     void testGetCurrentPlan_FromCache() {
-        when(valueOperations.get(anyString())).thenReturn(testPlan);
+        when(valueOperations.get(anyString())).thenReturn(cached(testPlan));
 
         StudyPlan result = planGenerationService.getCurrentPlan(userId);
 
@@ -135,7 +148,8 @@ class PlanGenerationServiceUnitTest {
 
         assertNotNull(result);
         verify(planRepository).findCurrentByUserId(userId);
-        verify(valueOperations).set(anyString(), eq(testPlan), any());
+        verify(valueOperations).set(anyString(), argThat(value -> value instanceof LoadedValue loaded
+                && loaded.getValue() == testPlan), any(Duration.class));
     }
 
     @Test
@@ -5,6 +5,9 @@ import com.llmplatform.personalized.engine.LearningAnalyticsEngine;
 import com.llmplatform.personalized.entity.LearningProfile;
 import com.llmplatform.personalized.repository.ProfileRepository;
 import com.llmplatform.personalized.service.impl.ProfileAnalysisServiceImpl;
+import com.llmplatform.util.LoadedValue;
+import com.llmplatform.util.RefreshingLoader;
+import com.llmplatform.util.TwoTierCache;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -17,6 +20,7 @@ import org.mockito.quality.Strictness;
 import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.data.redis.core.ValueOperations;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.*;
 
@@ -67,15 +71,22 @@ class ProfileAnalysisServiceUnitTest {
         profileAnalysisService = new ProfileAnalysisServiceImpl(
                 profileRepository,
                 learningAnalyticsEngine,
-                redisTemplate,
+                new RefreshingLoader(TwoTierCache.redisOnly(redisTemplate), Runnable::run, 1.0, Duration.ofMinutes(5)),
                 objectMapper
         );
     }
 
+    /**
+     * 缓存中由 RefreshingLoader 写入的值，远未到刷新时间
+     */
+    private static LoadedValue cached(Object value) {
+        return new LoadedValue(value, 1, Long.MAX_VALUE);
+    }
+
     @Test
     @DisplayName("获取或创建档案 - 档案存在")
     void testGetOrCreateProfile_Exists_ReturnsFromCache() {
-        when(valueOperations.get(anyString())).thenReturn(testProfile);
+        when(valueOperations.get(anyString())).thenReturn(cached(testProfile));
 
         LearningProfile result = profileAnalysisService.getOrCreateProfile(userId);
 
@@ -95,7 +106,8 @@ class ProfileAnalysisServiceUnitTest {
         assertNotNull(result);
         assertEquals(userId, result.getUserId());
         verify(profileRepository).findByUserId(userId);
-        verify(valueOperations).set(anyString(), eq(testProfile), any());
+        verify(valueOperations).set(anyString(), argThat(value -> value instanceof LoadedValue loaded
+                && loaded.getValue() == testProfile), any(Duration.class));
     }
 
     @Test
@@ -136,12 +148,14 @@ class ProfileAnalysisServiceUnitTest {
         verify(learningAnalyticsEngine).analyzeTimePreferences(records);
         verify(learningAnalyticsEngine).calculateLearningSpeed(records);
         verify(profileRepository).update(any(LearningProfile.class));
+        // 更新后清除缓存，由下次读取重新加载
+        verify(redisTemplate).delete("learning:profile:" + userId);
     }
 
     @Test
     @DisplayName("获取档案 - 返回档案")
     void testGetProfile_Exists_ReturnsProfile() {
-        when(valueOperations.get(anyString())).thenReturn(testProfile);
+        when(valueOperations.get(anyString())).thenReturn(cached(testProfile));
 
         LearningProfile result = profileAnalysisService.getProfile(userId);
 
@@ -167,7 +181,7 @@ class ProfileAnalysisServiceUnitTest {
         testProfile.setAverageDailyWords(30.0);
         testProfile.setAverageAccuracy(0.85);
 
-        when(valueOperations.get(anyString())).thenReturn(testProfile);
+        when(valueOperations.get(anyString())).thenReturn(cached(testProfile));
 
         Map<String, Object> report = profileAnalysisService.generateInsightReport(userId);
 
@@ -183,7 +197,7 @@ class ProfileAnalysisServiceUnitTest {
     void testGenerateInsightReport_DataInsufficient_Warns() {
         testProfile.setLastAnalysisTime(LocalDateTime.now().minusDays(10)); // 10天前
 
-        when(valueOperations.get(anyString())).thenReturn(testProfile);
+        when(valueOperations.get(anyString())).thenReturn(cached(testProfile));
 
         Map<String, Object> report = profileAnalysisService.generateInsightReport(userId);
 
@@ -194,7 +208,7 @@ class ProfileAnalysisServiceUnitTest {
     @Test
     @DisplayName("分析时间偏好")
     void testAnalyzeTimePreferences() {
-        when(valueOperations.get(anyString())).thenReturn(testProfile);
+        when(valueOperations.get(anyString())).thenReturn(cached(testProfile));
 
         Map<String, Double> result = profileAnalysisService.analyzeTimePreferences(userId);
 
@@ -207,7 +221,7 @@ class ProfileAnalysisServiceUnitTest {
     @Test
     @DisplayName("识别薄弱领域")
     void testIdentifyWeakAreas() {
-        when(valueOperations.get(anyString())).thenReturn(testProfile);
+        when(valueOperations.get(anyString())).thenReturn(cached(testProfile));
 
         List<Map<String, Object>> result = profileAnalysisService.identifyWeakAreas(userId);
 
@@ -217,7 +231,7 @@ class ProfileAnalysisServiceUnitTest {
     @Test
     @DisplayName("获取学习速度趋势")
     void testGetLearningSpeedTrend() {
-        when(valueOperations.get(anyString())).thenReturn(testProfile);
+        when(valueOperations.get(anyString())).thenReturn(cached(testProfile));
 
         String result = profileAnalysisService.getLearningSpeedTrend(userId);
 
@@ -229,7 +243,7 @@ class ProfileAnalysisServiceUnitTest {
     void testDetermineSpeedTrend_Fast() {
         testProfile.setAverageDailyWords(60.0);
 
-        when(valueOperations.get(anyString())).thenReturn(testProfile);
+        when(valueOperations.get(anyString())).thenReturn(cached(testProfile));
         when(profileRepository.findByUserId(userId)).thenReturn(Optional.of(testProfile));
         when(learningAnalyticsEngine.analyzeTimePreferences(any())).thenReturn(Map.of());
         when(learningAnalyticsEngine.calculateLearningSpeed(any())).thenReturn(60.0);
@@ -246,7 +260,7 @@ class ProfileAnalysisServiceUnitTest {
     void testDetermineSpeedTrend_Slow() {
         testProfile.setAverageDailyWords(10.0);
 
-        when(valueOperations.get(anyString())).thenReturn(testProfile);
+        when(valueOperations.get(anyString())).thenReturn(cached(testProfile));
         when(profileRepository.findByUserId(userId)).thenReturn(Optional.of(testProfile));
         when(learningAnalyticsEngine.analyzeTimePreferences(any())).thenReturn(Map.of());
         when(learningAnalyticsEngine.calculateLearningSpeed(any())).thenReturn(10.0);
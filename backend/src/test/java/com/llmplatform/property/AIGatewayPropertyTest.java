@@ -0,0 +1,314 @@
+package com.llmplatform.property;
+
+import com.llmplatform.ai.cache.AIResponseCache;
+import com.llmplatform.ai.cache.SemanticCache;
+import com.llmplatform.ai.config.AIProviderConfig;
+import com.llmplatform.ai.dto.AIRequest;
+import com.llmplatform.ai.dto.AIResponse;
+import com.llmplatform.ai.gateway.AIGatewayImpl;
+import com.llmplatform.ai.health.ProviderHealthRegistry;
+import com.llmplatform.ai.lane.LaneScheduler;
+import com.llmplatform.ai.lane.RequestLane;
+import com.llmplatform.ai.metering.TokenUsageMeter;
+import com.llmplatform.ai.provider.AIProvider;
+import com.llmplatform.ai.provider.ReplayProvider;
+import com.llmplatform.ai.quota.ProviderQuotaLimiter;
+import com.llmplatform.ai.replay.ReplayLog;
+import com.llmplatform.ai.resilience.CircuitBreakerRegistry;
+import com.llmplatform.ai.resilience.HedgeBudget;
+import com.llmplatform.ai.routing.AdaptiveRouter;
+import com.llmplatform.ai.routing.ProviderLatencyTracker;
+import com.llmplatform.ai.tier.ModelTierSelector;
+import com.llmplatform.ai.token.TokenEstimator;
+import net.jqwik.api.*;
+import net.jqwik.api.constraints.IntRange;
+import net.jqwik.api.constraints.WithNull;
+import net.jqwik.api.lifecycle.AfterTry;
+import net.jqwik.api.lifecycle.BeforeTry;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.IntStream;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Property-based tests for routing in the AI gateway
+ *
+ * A primary slower than its usual latency for the request's feature is hedged to the next provider, the
+ * first success wins, and the losing call is stopped and keeps its quota reservation. Quota that frees up
+ * within the max wait is waited for; longer waits move the call on to the next provider. Prompts too long
+ * for a provider's context window lose their oldest history first and are rejected only if still too long.
+ * A call recorded through the gateway replays for the same request, however the recording provider fitted it.
+ */
+class AIGatewayPropertyTest {
+
+    private static final String FEATURE = "quiz";
+
+    private ExecutorService pool;
+    private ProviderQuotaLimiter quotaLimiter;
+    private CircuitBreakerRegistry circuitBreakers;
+    private ProviderLatencyTracker latencyTracker;
+    private AIProviderConfig config;
+    private TokenEstimator tokenEstimator;
+    private ReplayLog replayLog;
+
+    @BeforeTry
+    void setUp() {
+        pool = Executors.newCachedThreadPool();
+        quotaLimiter = mock(ProviderQuotaLimiter.class);
+        circuitBreakers = mock(CircuitBreakerRegistry.class);
+        latencyTracker = new ProviderLatencyTracker();
+        config = new AIProviderConfig();
+        tokenEstimator = mock(TokenEstimator.class);
+        replayLog = mock(ReplayLog.class);
+    }
+
+    @AfterTry
+    void tearDown() {
+        pool.shutdownNow();
+    }
+
+    private AIGatewayImpl gateway(AIProvider... providers) {
+        config.getHedging().setEnabled(true);
+        config.getHedging().setMinSamples(5);
+        config.getHedging().setMinDelay(50);
+        config.getHedging().setDefaultBudget(1.0);
+
+        ProviderHealthRegistry healthRegistry = mock(ProviderHealthRegistry.class);
+        when(healthRegistry.isAvailable(any())).thenReturn(true);
+        when(circuitBreakers.isCallPermitted(anyString())).thenReturn(true);
+        when(circuitBreakers.tryAcquire(anyString())).thenReturn(true);
+        AIResponseCache responseCache = mock(AIResponseCache.class);
+        SemanticCache semanticCache = mock(SemanticCache.class);
+        TokenUsageMeter usageMeter = mock(TokenUsageMeter.class);
+        when(usageMeter.hasBudget(any())).thenReturn(true);
+        AdaptiveRouter router = mock(AdaptiveRouter.class);
+        when(router.rank(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+        when(tokenEstimator.getCalibration(anyString())).thenReturn(1.0);
+        LaneScheduler laneScheduler = mock(LaneScheduler.class);
+        when(laneScheduler.classify(any())).thenReturn(RequestLane.STANDARD);
+        when(laneScheduler.tryAcquire(any())).thenReturn(true);
+        ModelTierSelector modelSelector = mock(ModelTierSelector.class);
+        when(modelSelector.select(anyString(), any())).thenAnswer(invocation -> invocation.getArgument(1));
+
+        return new AIGatewayImpl(config, List.of(providers), healthRegistry, circuitBreakers, latencyTracker,
+                new HedgeBudget(config), new TaskExecutorAdapter(pool), Runnable::run, responseCache, semanticCache,
+                quotaLimiter, usageMeter, router, tokenEstimator, laneScheduler, replayLog, modelSelector);
+    }
+
+    private AIProvider provider(String name) {
+        AIProvider provider = mock(AIProvider.class);
+        when(provider.getName()).thenReturn(name);
+        when(provider.isAvailable()).thenReturn(true);
+        return provider;
+    }
+
+    private AIRequest request(String feature) {
+        return AIRequest.builder().prompt("Explain the word 'serendipity'").feature(feature).maxTokens(200).build();
+    }
+
+    private static AIResponse success(String provider) {
+        return AIResponse.builder().success(true).provider(provider).content("answer from " + provider).build();
+    }
+
+    private void learnLatency(String provider, String feature, long latencyMs) {
+        for (int i = 0; i < 10; i++) {
+            latencyTracker.record(provider, feature, latencyMs);
+        }
+    }
+
+    /**
+     * Property: A primary outliving its hedge delay loses to the hedge; its call is interrupted and settles no quota.
+     */
+    @Property(tries = 3)
+    void slowPrimaryLosesToHedgeAndIsStopped(@ForAll @IntRange(min = 10, max = 40) int usualLatency) throws Exception {
+        CountDownLatch stopped = new CountDownLatch(1);
+        AIProvider primary = provider("primary");
+        when(primary.generate(any())).thenAnswer(invocation -> {
+            try {
+                Thread.sleep(30_000);
+                return success("primary");
+            } catch (InterruptedException e) {
+                stopped.countDown();
+                return AIResponse.failure("primary", "Interrupted");
+            }
+        });
+        AIProvider secondary = provider("secondary");
+        when(secondary.generate(any())).thenReturn(success("secondary"));
+        learnLatency("primary", FEATURE, usualLatency);
+
+        long start = System.currentTimeMillis();
+        AIResponse response = gateway(primary, secondary).generate(request(FEATURE));
+
+        assertThat(response.getProvider()).isEqualTo("secondary");
+        assertThat(System.currentTimeMillis() - start).isLessThan(5_000);
+        assertThat(stopped.await(5, TimeUnit.SECONDS)).isTrue();
+        verify(quotaLimiter, timeout(2_000)).settle(eq("secondary"), anyInt(), any());
+        verify(circuitBreakers, timeout(2_000)).onIgnored("primary");
+        verify(quotaLimiter, after(200).never()).settle(eq("primary"), anyInt(), any());
+        verify(circuitBreakers, never()).onFailure("primary");
+    }
+
+    /**
+     * Property: A primary answering within its usual latency is never hedged.
+     */
+    @Property(tries = 3)
+    void fastPrimaryIsNotHedged(@ForAll @IntRange(min = 200, max = 400) int usualLatency) {
+        AIProvider primary = provider("primary");
+        when(primary.generate(any())).thenReturn(success("primary"));
+        AIProvider secondary = provider("secondary");
+        learnLatency("primary", FEATURE, usualLatency);
+
+        AIResponse response = gateway(primary, secondary).generate(request(FEATURE));
+
+        assertThat(response.getProvider()).isEqualTo("primary");
+        verify(secondary, never()).generate(any());
+    }
+
+    /**
+     * Property: Latency history of one feature does not enable hedging for another.
+     */
+    @Example
+    void hedgingNeedsHistoryOfTheSameFeature() {
+        AIProvider primary = provider("primary");
+        when(primary.generate(any())).thenAnswer(invocation -> {
+            Thread.sleep(200);
+            return success("primary");
+        });
+        AIProvider secondary = provider("secondary");
+        learnLatency("primary", "word_query", 10);
+
+        AIResponse response = gateway(primary, secondary).generate(request(FEATURE));
+
+        assertThat(response.getProvider()).isEqualTo("primary");
+        verify(secondary, never()).generate(any());
+    }
+
+    /**
+     * Property: Quota freeing up within the max wait is waited for once and the primary serves the call.
+     */
+    @Property(tries = 3)
+    void shortQuotaWaitIsWaitedFor(@ForAll @IntRange(min = 20, max = 200) int wait) {
+        AIProvider primary = provider("primary");
+        when(primary.generate(any())).thenReturn(success("primary"));
+        AIProvider secondary = provider("secondary");
+        when(quotaLimiter.tryAcquire(eq("primary"), anyInt())).thenReturn((long) wait, 0L);
+
+        long start = System.currentTimeMillis();
+        AIResponse response = gateway(primary, secondary).generate(request(FEATURE));
+
+        assertThat(response.getProvider()).isEqualTo("primary");
+        assertThat(System.currentTimeMillis() - start).isGreaterThanOrEqualTo(wait);
+        verify(quotaLimiter, times(2)).tryAcquire(eq("primary"), anyInt());
+        verify(secondary, never()).generate(any());
+    }
+
+    /**
+     * Property: Quota exhausted for longer than the max wait skips the provider without sleeping.
+     */
+    @Property(tries = 3)
+    void longQuotaWaitMovesOn(@ForAll @IntRange(min = 5000, max = 60_000) int wait) {
+        AIProvider primary = provider("primary");
+        AIProvider secondary = provider("secondary");
+        when(secondary.generate(any())).thenReturn(success("secondary"));
+        when(quotaLimiter.tryAcquire(eq("primary"), anyInt())).thenReturn((long) wait);
+        AIGatewayImpl gateway = gateway(primary, secondary);
+
+        long start = System.currentTimeMillis();
+        AIResponse response = gateway.generate(request(FEATURE));
+
+        assertThat(response.getProvider()).isEqualTo("secondary");
+        assertThat(System.currentTimeMillis() - start).isLessThan(wait / 2);
+        verify(quotaLimiter, times(1)).tryAcquire(eq("primary"), anyInt());
+        verify(primary, never()).generate(any());
+    }
+
+    /**
+     * Property: A prompt over the context window drops its oldest history until the reply limit fits, with a
+     * minimal reply room for requests without a limit, and is rejected only if the newest message alone is too long.
+     */
+    @Property(tries = 200)
+    void historyIsTrimmedBeforeRejecting(@ForAll @IntRange(min = 1, max = 30) int historySize,
+                                         @ForAll @IntRange(min = 50, max = 1500) int messageTokens,
+                                         @ForAll @WithNull(0.3) @IntRange(min = 1, max = 900) Integer maxTokens) {
+        int window = 1000;
+        AIProviderConfig.ProviderSettings settings = new AIProviderConfig.ProviderSettings();
+        settings.setContextWindow(window);
+        config.getProviders().put("primary", settings);
+        when(tokenEstimator.estimate(any(AIRequest.Message.class))).thenReturn(messageTokens);
+        when(tokenEstimator.estimate(anyString(), any(AIRequest.class))).thenAnswer(invocation ->
+                ((AIRequest) invocation.getArgument(1)).getMessages().size() * messageTokens);
+        AIProvider primary = provider("primary");
+        when(primary.generate(any())).thenAnswer(invocation -> success("primary"));
+        List<AIRequest.Message> history = IntStream.range(0, historySize)
+                .mapToObj(i -> AIRequest.Message.builder().role("user").content("message " + i).build())
+                .toList();
+        AIRequest request = request(FEATURE).toBuilder().messages(history).maxTokens(maxTokens).build();
+
+        AIResponse response = gateway(primary).generate(request);
+
+        int replyRoom = maxTokens != null ? maxTokens : 64;
+        int kept = Math.max(1, Math.min(historySize, (window - replyRoom) / messageTokens));
+        int room = window - kept * messageTokens;
+        if (room < Math.min(replyRoom, 64)) {
+            assertThat(response.isSuccess()).isFalse();
+            verify(primary, never()).generate(any());
+            return;
+        }
+        assertThat(response.isSuccess()).isTrue();
+        verify(primary).generate(argThat(sent -> sent.getMessages().equals(history.subList(historySize - kept, historySize))
+                && (maxTokens == null ? sent.getMaxTokens() == null : sent.getMaxTokens() == Math.min(maxTokens, room))));
+    }
+
+    /**
+     * Property: A call recorded from a provider that had to trim the request replays for the same caller request.
+     */
+    @Property(tries = 5)
+    void recordedCallReplaysThroughGateway(@ForAll @IntRange(min = 3, max = 12) int historySize) throws Exception {
+        Path file = Files.createTempFile("ai-replay", ".jsonl");
+        try {
+            AIProviderConfig.ProviderSettings settings = new AIProviderConfig.ProviderSettings();
+            settings.setContextWindow(1000);
+            config.getProviders().put("primary", settings);
+            config.getProviders().put("replay", settings);
+            when(tokenEstimator.estimate(any(AIRequest.Message.class))).thenReturn(300);
+            when(tokenEstimator.estimate(anyString(), any(AIRequest.class))).thenAnswer(invocation ->
+                    ((AIRequest) invocation.getArgument(1)).getMessages().size() * 300);
+            AIProvider primary = provider("primary");
+            when(primary.generate(any())).thenReturn(success("primary"));
+            List<AIRequest.Message> history = IntStream.range(0, historySize)
+                    .mapToObj(i -> AIRequest.Message.builder().role("user").content("message " + i).build())
+                    .toList();
+            AIRequest request = request(FEATURE).toBuilder().messages(history).build();
+
+            config.getReplay().setMode(ReplayLog.MODE_RECORD);
+            config.getReplay().setFile(file.toString());
+            replayLog = new ReplayLog(config);
+            replayLog.start();
+            gateway(primary).generate(request);
+            replayLog.stop();
+            verify(primary).generate(argThat(sent -> sent.getMessages().size() < historySize));
+
+            config.getReplay().setMode(ReplayLog.MODE_REPLAY);
+            config.getReplay().setLatency("none");
+            replayLog = new ReplayLog(config);
+            replayLog.start();
+            AIProvider replay = new ReplayProvider(config, replayLog, tokenEstimator);
+            AIResponse replayed = gateway(replay).generate(request);
+
+            assertThat(replayed.isSuccess()).isTrue();
+            assertThat(replayed.getContent()).isEqualTo("answer from primary");
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.llmplatform.property;
+
+import com.llmplatform.ai.cache.AIResponseCache;
+import com.llmplatform.ai.config.AIProviderConfig;
+import com.llmplatform.ai.dto.AIRequest;
+import com.llmplatform.ai.dto.AIResponse;
+import com.llmplatform.util.TwoTierCache;
+import net.jqwik.api.*;
+import net.jqwik.api.constraints.IntRange;
+
+import java.time.Duration;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Property-based tests for the AI response cache
+ *
+ * A response read from Redis is served locally only as long as Redis keeps it, and a stored response
+ * is kept locally no longer than it is kept in Redis.
+ */
+class AIResponseCachePropertyTest {
+
+    private static AIRequest request(String prompt) {
+        return AIRequest.builder().prompt(prompt).additionalParams(Map.of(AIRequest.PARAM_CACHE, true)).build();
+    }
+
+    private static AIResponse response() {
+        return AIResponse.builder().success(true).content("answer").provider("openai")
+                .usage(AIResponse.Usage.builder().promptTokens(10).completionTokens(90).totalTokens(100).build())
+                .build();
+    }
+
+    /**
+     * Property: A local copy filled from Redis is served until the Redis copy expires, then Redis is asked again.
+     */
+    @Property(tries = 3)
+    void localCopyExpiresWithRedisCopy(@ForAll @IntRange(min = 200, max = 400) int remainingMillis) throws Exception {
+        TwoTierCache cache = mock(TwoTierCache.class);
+        when(cache.getExpiring(anyString(), eq(AIResponse.class)))
+                .thenReturn(new TwoTierCache.Expiring<>(response(), Duration.ofMillis(remainingMillis)))
+                .thenReturn(null);
+        AIResponseCache responseCache = new AIResponseCache(new AIProviderConfig(), cache);
+        AIRequest request = request("What does 'ephemeral' mean?");
+
+        assertThat(responseCache.get(request)).isNotNull();
+        assertThat(responseCache.get(request)).isNotNull();
+        verify(cache, times(1)).getExpiring(anyString(), eq(AIResponse.class));
+
+        Thread.sleep(remainingMillis + 10L);
+
+        assertThat(responseCache.get(request)).isNull();
+        verify(cache, times(2)).getExpiring(anyString(), eq(AIResponse.class));
+    }
+
+    /**
+     * Property: A stored response is written to Redis and kept locally for the same TTL.
+     */
+    @Example
+    void storedResponseExpiresLocallyWithTtl() throws Exception {
+        int ttlSeconds = 1;
+        TwoTierCache cache = mock(TwoTierCache.class);
+        AIProviderConfig config = new AIProviderConfig();
+        config.getResponseCache().setTtl(ttlSeconds);
+        AIResponseCache responseCache = new AIResponseCache(config, cache);
+        AIRequest request = request("Translate 'bonjour'");
+
+        responseCache.put(request, response());
+        assertThat(responseCache.get(request)).isNotNull();
+        verify(cache).set(anyString(), any(AIResponse.class), eq(Duration.ofSeconds(ttlSeconds)));
+        verify(cache, never()).getExpiring(anyString(), any());
+
+        Thread.sleep(ttlSeconds * 1000L + 20);
+
+        assertThat(responseCache.get(request)).isNull();
+        verify(cache).getExpiring(anyString(), eq(AIResponse.class));
+    }
+}
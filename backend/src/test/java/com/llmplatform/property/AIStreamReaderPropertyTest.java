@@ -0,0 +1,196 @@
+package com.llmplatform.property;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.llmplatform.ai.dto.AIResponse;
+import com.llmplatform.ai.util.AIStreamReader;
+import net.jqwik.api.*;
+import net.jqwik.api.constraints.IntRange;
+import net.jqwik.api.constraints.Size;
+import net.jqwik.api.constraints.StringLength;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Property-based tests for reading streamed completions
+ *
+ * Deltas reach the callback in order and assemble into the reply, reading stops at the end marker, a stream
+ * cut off before its end marker or carrying an error chunk fails, and a callback failure such as a client
+ * disconnect propagates with the upstream body closed.
+ */
+class AIStreamReaderPropertyTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    /**
+     * Property: An SSE stream yields its deltas in order, the usage of the final chunk, and nothing after [DONE].
+     */
+    @Property(tries = 100)
+    void openAIStreamAssemblesDeltas(@ForAll @Size(max = 20) List<@StringLength(max = 8) String> deltas,
+                                     @ForAll @IntRange(min = 0, max = 5000) int promptTokens) throws IOException {
+        StringBuilder sse = new StringBuilder(": keep-alive\n\n");
+        for (String delta : deltas) {
+            sse.append("data: ").append(objectMapper.writeValueAsString(Map.of(
+                    "model", "gpt-test",
+                    "choices", List.of(Map.of("delta", Map.of("content", delta)))))).append("\n\n");
+        }
+        sse.append("data: ").append(objectMapper.writeValueAsString(Map.of(
+                "choices", List.of(),
+                "usage", Map.of("prompt_tokens", promptTokens, "completion_tokens", 7,
+                        "total_tokens", promptTokens + 7)))).append("\n\n");
+        sse.append("data: [DONE]\n\ndata: not json\n");
+        List<String> received = new ArrayList<>();
+
+        AIResponse response = AIStreamReader.readOpenAIStream(body(sse.toString()), objectMapper,
+                "openai", received::add);
+
+        assertThat(received).isEqualTo(deltas.stream().filter(d -> !d.isEmpty()).toList());
+        assertThat(response.isSuccess()).isTrue();
+        assertThat(response.getContent()).isEqualTo(String.join("", deltas));
+        assertThat(response.getUsage().getTotalTokens()).isEqualTo(promptTokens + 7);
+    }
+
+    /**
+     * Property: An NDJSON stream stops at the line flagged done and takes its token counts as usage.
+     */
+    @Property(tries = 100)
+    void ollamaStreamStopsAtDone(@ForAll @Size(max = 20) List<@StringLength(max = 8) String> deltas,
+                                 @ForAll @IntRange(min = 0, max = 5000) int evalCount) throws IOException {
+        StringBuilder ndjson = new StringBuilder();
+        for (String delta : deltas) {
+            ndjson.append(objectMapper.writeValueAsString(Map.of(
+                    "message", Map.of("content", delta), "done", false))).append('\n');
+        }
+        ndjson.append(objectMapper.writeValueAsString(Map.of(
+                "message", Map.of("content", ""), "done", true,
+                "prompt_eval_count", 11, "eval_count", evalCount))).append('\n');
+        ndjson.append(objectMapper.writeValueAsString(Map.of("message", Map.of("content", "late")))).append('\n');
+        List<String> received = new ArrayList<>();
+
+        AIResponse response = AIStreamReader.readOllamaStream(body(ndjson.toString()), objectMapper,
+                "ollama", "llama3", received::add);
+
+        assertThat(received).isEqualTo(deltas.stream().filter(d -> !d.isEmpty()).toList());
+        assertThat(response.getContent()).isEqualTo(String.join("", deltas));
+        assertThat(response.getModel()).isEqualTo("llama3");
+        assertThat(response.getUsage().getTotalTokens()).isEqualTo(11 + evalCount);
+    }
+
+    /**
+     * Property: An error line in an NDJSON stream turns the reply into a failure.
+     */
+    @Property(tries = 20)
+    void ollamaErrorLineFails(@ForAll @StringLength(min = 1, max = 30) String error) throws IOException {
+        String ndjson = objectMapper.writeValueAsString(Map.of("message", Map.of("content", "partial"))) + "\n"
+                + objectMapper.writeValueAsString(Map.of("error", error)) + "\n";
+
+        AIResponse response = AIStreamReader.readOllamaStream(body(ndjson), objectMapper, "ollama", "llama3",
+                delta -> { });
+
+        assertThat(response.isSuccess()).isFalse();
+        assertThat(response.getErrorMessage()).contains(error);
+    }
+
+    /**
+     * Property: An SSE error chunk turns the reply into a failure, whether the error is an object or a string.
+     */
+    @Property(tries = 20)
+    void openAIErrorChunkFails(@ForAll @StringLength(min = 1, max = 30) String error) throws IOException {
+        String partial = "data: " + objectMapper.writeValueAsString(Map.of(
+                "choices", List.of(Map.of("delta", Map.of("content", "partial"))))) + "\n\n";
+        String asObject = partial + "data: " + objectMapper.writeValueAsString(Map.of(
+                "error", Map.of("message", error, "type", "server_error"))) + "\n\ndata: [DONE]\n";
+        String asString = partial + "data: " + objectMapper.writeValueAsString(Map.of("error", error)) + "\n\n";
+
+        for (String sse : List.of(asObject, asString)) {
+            AIResponse response = AIStreamReader.readOpenAIStream(body(sse), objectMapper, "openai", delta -> { });
+
+            assertThat(response.isSuccess()).isFalse();
+            assertThat(response.getErrorMessage()).contains(error);
+        }
+    }
+
+    /**
+     * Property: A stream cut off before [DONE] or the line flagged done fails instead of returning the
+     * partial reply, also when nothing arrived at all.
+     */
+    @Property(tries = 30)
+    void truncatedStreamFails(@ForAll @Size(max = 10) List<@StringLength(max = 8) String> deltas) throws IOException {
+        StringBuilder sse = new StringBuilder();
+        StringBuilder ndjson = new StringBuilder();
+        for (String delta : deltas) {
+            sse.append("data: ").append(objectMapper.writeValueAsString(Map.of(
+                    "choices", List.of(Map.of("delta", Map.of("content", delta)))))).append("\n\n");
+            ndjson.append(objectMapper.writeValueAsString(Map.of(
+                    "message", Map.of("content", delta), "done", false))).append('\n');
+        }
+
+        AIResponse openAI = AIStreamReader.readOpenAIStream(body(sse.toString()), objectMapper, "openai",
+                delta -> { });
+        AIResponse ollama = AIStreamReader.readOllamaStream(body(ndjson.toString()), objectMapper, "ollama",
+                "llama3", delta -> { });
+
+        assertThat(openAI.isSuccess()).isFalse();
+        assertThat(ollama.isSuccess()).isFalse();
+    }
+
+    /**
+     * Property: When the callback throws, reading stops, the exception reaches the caller unchanged and the
+     * upstream body is closed.
+     */
+    @Property(tries = 50)
+    void callbackFailurePropagatesAndClosesBody(@ForAll @IntRange(min = 1, max = 10) int deltas,
+                                                @ForAll @IntRange(min = 1, max = 10) int failAt) throws IOException {
+        StringBuilder sse = new StringBuilder();
+        for (int i = 0; i < deltas; i++) {
+            sse.append("data: ").append(objectMapper.writeValueAsString(Map.of(
+                    "choices", List.of(Map.of("delta", Map.of("content", "d" + i)))))).append('\n');
+        }
+        sse.append("data: [DONE]\n");
+        TrackingStream body = new TrackingStream(sse.toString());
+        UncheckedIOException disconnect = new UncheckedIOException(new IOException("Broken pipe"));
+        List<String> received = new ArrayList<>();
+
+        if (failAt > deltas) {
+            AIStreamReader.readOpenAIStream(body, objectMapper, "openai", received::add);
+            assertThat(received).hasSize(deltas);
+            assertThat(body.closed).isFalse();
+            return;
+        }
+
+        assertThatThrownBy(() -> AIStreamReader.readOpenAIStream(body, objectMapper, "openai", delta -> {
+            received.add(delta);
+            if (received.size() == failAt) {
+                throw disconnect;
+            }
+        })).isSameAs(disconnect);
+        assertThat(received).hasSize(failAt);
+        assertThat(body.closed).isTrue();
+    }
+
+    private static ByteArrayInputStream body(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static final class TrackingStream extends ByteArrayInputStream {
+        private boolean closed;
+
+        TrackingStream(String content) {
+            super(content.getBytes(StandardCharsets.UTF_8));
+        }
+
+        @Override
+        public void close() throws IOException {
+            closed = true;
+            super.close();
+        }
+    }
+}
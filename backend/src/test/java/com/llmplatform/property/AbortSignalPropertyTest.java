@@ -0,0 +1,82 @@
+package com.llmplatform.property;
+
+import com.llmplatform.ai.config.AIProviderConfig;
+import com.llmplatform.ai.http.AbortSignal;
+import com.llmplatform.ai.http.ProviderHttpClients;
+import com.sun.net.httpserver.HttpServer;
+import net.jqwik.api.*;
+import net.jqwik.api.constraints.IntRange;
+import org.springframework.web.client.RestTemplate;
+
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Property-based tests for aborting provider HTTP exchanges from another thread
+ *
+ * Aborting a signal closes the connection of an exchange blocked on a slow upstream, so the call ends
+ * long before the upstream would have answered, while calls without a signal are unaffected.
+ */
+class AbortSignalPropertyTest {
+
+    private static final long UPSTREAM_DELAY_MS = 10_000;
+
+    private HttpServer slowServer() throws Exception {
+        HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/slow", exchange -> {
+            try {
+                Thread.sleep(UPSTREAM_DELAY_MS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            byte[] body = "late".getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, body.length);
+            exchange.getResponseBody().write(body);
+            exchange.close();
+        });
+        server.createContext("/fast", exchange -> {
+            byte[] body = "ok".getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, body.length);
+            exchange.getResponseBody().write(body);
+            exchange.close();
+        });
+        server.setExecutor(java.util.concurrent.Executors.newCachedThreadPool());
+        server.start();
+        return server;
+    }
+
+    /**
+     * Property: Aborting ends an exchange blocked on the upstream well before the upstream answers.
+     */
+    @Property(tries = 3)
+    void abortEndsBlockedExchange(@ForAll @IntRange(min = 50, max = 300) int abortAfterMs) throws Exception {
+        HttpServer server = slowServer();
+        ProviderHttpClients clients = new ProviderHttpClients(new AIProviderConfig());
+        try {
+            RestTemplate restTemplate = clients.restTemplate("openai");
+            String url = "http://127.0.0.1:" + server.getAddress().getPort();
+            AbortSignal signal = new AbortSignal();
+            long start = System.currentTimeMillis();
+            CompletableFuture<String> call = CompletableFuture.supplyAsync(
+                    () -> signal.run(() -> restTemplate.getForObject(url + "/slow", String.class)));
+
+            Thread.sleep(abortAfterMs);
+            signal.abort();
+
+            assertThatThrownBy(() -> call.get(5, TimeUnit.SECONDS)).isInstanceOf(ExecutionException.class);
+            assertThat(System.currentTimeMillis() - start).isLessThan(UPSTREAM_DELAY_MS / 2);
+            assertThat(signal.isAborted()).isTrue();
+            // The pool stays usable for calls outside the aborted signal
+            assertThat(restTemplate.getForObject(url + "/fast", String.class)).isEqualTo("ok");
+        } finally {
+            clients.close();
+            server.stop(0);
+        }
+    }
+}
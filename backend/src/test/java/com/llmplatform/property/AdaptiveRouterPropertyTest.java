@@ -0,0 +1,132 @@
+package com.llmplatform.property;
+
+import com.llmplatform.ai.config.AIProviderConfig;
+import com.llmplatform.ai.dto.AIRequest;
+import com.llmplatform.ai.dto.AIResponse;
+import com.llmplatform.ai.provider.AIProvider;
+import com.llmplatform.ai.routing.AdaptiveRouter;
+import net.jqwik.api.*;
+import net.jqwik.api.constraints.IntRange;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Property-based tests for adaptive provider routing
+ *
+ * Without measurements providers keep their static order; once measured, the provider with the
+ * clearly lower latency, error rate or load is preferred.
+ */
+class AdaptiveRouterPropertyTest {
+
+    private AIProvider provider(String name, int priority) {
+        return new AIProvider() {
+            @Override
+            public String getName() {
+                return name;
+            }
+
+            @Override
+            public boolean isAvailable() {
+                return true;
+            }
+
+            @Override
+            public AIResponse generate(AIRequest request) {
+                return AIResponse.failure(name, "not used");
+            }
+
+            @Override
+            public int getPriority() {
+                return priority;
+            }
+        };
+    }
+
+    private AdaptiveRouter router(List<AIProvider> providers) {
+        AIProviderConfig config = new AIProviderConfig();
+        config.setDefaultProvider("none");
+        return new AdaptiveRouter(config, providers);
+    }
+
+    /**
+     * Property: Providers without any measurements are ranked by static priority.
+     */
+    @Property(tries = 50)
+    void unmeasuredProvidersFollowPriority(@ForAll @IntRange(min = 1, max = 100) int priorityA,
+                                           @ForAll @IntRange(min = 1, max = 100) int priorityB) {
+        Assume.that(priorityA != priorityB);
+        AIProvider a = provider("a", priorityA);
+        AIProvider b = provider("b", priorityB);
+        AdaptiveRouter router = router(List.of(a, b));
+
+        AIProvider first = router.rank(List.of(a, b)).get(0);
+
+        assertThat(first).isSameAs(priorityA < priorityB ? a : b);
+    }
+
+    /**
+     * Property: A provider that is consistently faster beyond the tolerance is ranked first,
+     * whatever its static priority.
+     */
+    @Property(tries = 50)
+    void fasterProviderWins(@ForAll @IntRange(min = 100, max = 5000) int fastLatency,
+                            @ForAll @IntRange(min = 2, max = 10) int slowdown) {
+        AIProvider preferred = provider("preferred", 1);
+        AIProvider fast = provider("fast", 50);
+        AdaptiveRouter router = router(List.of(preferred, fast));
+
+        for (int i = 0; i < 20; i++) {
+            router.onStart("preferred");
+            router.onComplete("preferred", true, (long) fastLatency * slowdown);
+            router.onStart("fast");
+            router.onComplete("fast", true, fastLatency);
+        }
+
+        assertThat(router.rank(List.of(preferred, fast)).get(0)).isSameAs(fast);
+    }
+
+    /**
+     * Property: Failing providers lose to healthy ones with the same latency.
+     */
+    @Property(tries = 50)
+    void erroringProviderIsDemoted(@ForAll @IntRange(min = 3, max = 20) int failures) {
+        AIProvider preferred = provider("preferred", 1);
+        AIProvider other = provider("other", 50);
+        AdaptiveRouter router = router(List.of(preferred, other));
+
+        for (String name : List.of("preferred", "other")) {
+            router.onStart(name);
+            router.onComplete(name, true, 1000);
+        }
+        for (int i = 0; i < failures; i++) {
+            router.onStart("preferred");
+            router.onComplete("preferred", false, -1);
+        }
+
+        assertThat(router.rank(List.of(preferred, other)).get(0)).isSameAs(other);
+    }
+
+    /**
+     * Property: Calls in flight shift traffic to the idle provider and ranking is a permutation
+     * of the candidates.
+     */
+    @Property(tries = 50)
+    void loadShiftsTraffic(@ForAll @IntRange(min = 1, max = 10) int inFlight) {
+        AIProvider preferred = provider("preferred", 1);
+        AIProvider idle = provider("idle", 50);
+        AdaptiveRouter router = router(List.of(preferred, idle));
+
+        for (String name : List.of("preferred", "idle")) {
+            router.onStart(name);
+            router.onComplete(name, true, 1000);
+        }
+        for (int i = 0; i < inFlight; i++) {
+            router.onStart("preferred");
+        }
+
+        List<AIProvider> ranked = router.rank(List.of(preferred, idle));
+        assertThat(ranked).containsExactly(idle, preferred);
+    }
+}
@@ -0,0 +1,50 @@
+package com.llmplatform.property;
+
+import com.llmplatform.config.AsyncConfig;
+import net.jqwik.api.*;
+import net.jqwik.api.constraints.IntRange;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Property-based tests for the AI request executor
+ *
+ * Requests beyond the pool and its queue are rejected instead of running on the submitting thread.
+ */
+class AsyncConfigPropertyTest {
+
+    /**
+     * Property: With every thread busy and the queue full, the next request is rejected.
+     */
+    @Property(tries = 10)
+    void saturatedRequestExecutorRejects(@ForAll @IntRange(min = 1, max = 4) int poolSize,
+                                         @ForAll @IntRange(min = 0, max = 4) int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new AsyncConfig().aiRequestExecutor(poolSize, queueCapacity);
+        CountDownLatch release = new CountDownLatch(1);
+        try {
+            for (int i = 0; i < poolSize + queueCapacity; i++) {
+                executor.execute(() -> {
+                    try {
+                        release.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                });
+            }
+            Thread caller = Thread.currentThread();
+            boolean[] ranOnCaller = new boolean[1];
+
+            assertThatThrownBy(() -> executor.execute(() -> ranOnCaller[0] = Thread.currentThread() == caller))
+                    .isInstanceOf(RejectedExecutionException.class);
+            assertThat(ranOnCaller[0]).isFalse();
+        } finally {
+            release.countDown();
+            executor.shutdown();
+        }
+    }
+}
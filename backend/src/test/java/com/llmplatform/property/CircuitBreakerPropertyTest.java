@@ -0,0 +1,104 @@
+package com.llmplatform.property;
+
+import com.llmplatform.ai.config.AIProviderConfig;
+import com.llmplatform.ai.resilience.CircuitBreaker;
+import com.llmplatform.ai.resilience.CircuitBreakerState;
+import net.jqwik.api.*;
+import net.jqwik.api.constraints.IntRange;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Property-based tests for the per-provider circuit breaker
+ * 
+ * For any sequence of call outcomes, the breaker opens exactly when the failure rate over the
+ * sliding window reaches the threshold, and recovers only through successful half-open trials.
+ */
+class CircuitBreakerPropertyTest {
+
+    private static final long OPEN_DURATION = 30000;
+
+    private AIProviderConfig.CircuitBreakerSettings settings(int halfOpenPermits) {
+        AIProviderConfig.CircuitBreakerSettings settings = new AIProviderConfig.CircuitBreakerSettings();
+        settings.setSlidingWindowSize(10);
+        settings.setMinimumCalls(10);
+        settings.setFailureRateThreshold(50);
+        settings.setSlowCallDuration(1000);
+        settings.setOpenDuration(OPEN_DURATION);
+        settings.setHalfOpenPermits(halfOpenPermits);
+        return settings;
+    }
+
+    /**
+     * Property: For any window of outcomes, the breaker is open iff at least half of them failed.
+     */
+    @Property(tries = 100)
+    void breakerOpensAtFailureRateThreshold(@ForAll @IntRange(min = 0, max = 10) int failures) {
+        CircuitBreaker breaker = new CircuitBreaker("test", settings(3), new AtomicLong()::get);
+
+        for (int i = 0; i < 10; i++) {
+            assertThat(breaker.tryAcquire()).isTrue();
+            if (i < 10 - failures) {
+                breaker.onSuccess(10);
+            } else {
+                breaker.onFailure();
+            }
+        }
+
+        boolean expectedOpen = failures >= 5;
+        assertThat(breaker.getState() == CircuitBreakerState.OPEN).isEqualTo(expectedOpen);
+        assertThat(breaker.tryAcquire()).isEqualTo(!expectedOpen);
+    }
+
+    /**
+     * Property: Slow calls count as failures even when the provider answered successfully.
+     */
+    @Property(tries = 50)
+    void slowCallsTripTheBreaker(@ForAll @IntRange(min = 1001, max = 60000) int durationMs) {
+        CircuitBreaker breaker = new CircuitBreaker("test", settings(3), new AtomicLong()::get);
+
+        for (int i = 0; i < 10; i++) {
+            breaker.tryAcquire();
+            breaker.onSuccess(durationMs);
+        }
+
+        assertThat(breaker.getState()).isEqualTo(CircuitBreakerState.OPEN);
+    }
+
+    /**
+     * Property: After the open duration exactly halfOpenPermits trial calls are let through,
+     * and the breaker closes only when all of them succeed.
+     */
+    @Property(tries = 50)
+    void halfOpenAdmitsLimitedTrials(
+            @ForAll @IntRange(min = 1, max = 5) int permits,
+            @ForAll boolean trialsSucceed) {
+        AtomicLong clock = new AtomicLong();
+        CircuitBreaker breaker = new CircuitBreaker("test", settings(permits), clock::get);
+        for (int i = 0; i < 10; i++) {
+            breaker.tryAcquire();
+            breaker.onFailure();
+        }
+        assertThat(breaker.tryAcquire()).isFalse();
+
+        clock.addAndGet(OPEN_DURATION);
+        for (int i = 0; i < permits; i++) {
+            assertThat(breaker.tryAcquire()).isTrue();
+        }
+        assertThat(breaker.getState()).isEqualTo(CircuitBreakerState.HALF_OPEN);
+        assertThat(breaker.tryAcquire()).isFalse();
+
+        for (int i = 0; i < permits; i++) {
+            if (trialsSucceed) {
+                breaker.onSuccess(10);
+            } else {
+                breaker.onFailure();
+            }
+        }
+
+        assertThat(breaker.getState())
+                .isEqualTo(trialsSucceed ? CircuitBreakerState.CLOSED : CircuitBreakerState.OPEN);
+    }
+}
@@ -0,0 +1,88 @@
+package com.llmplatform.property;
+
+import com.llmplatform.ai.cache.CostWeightedCache;
+import net.jqwik.api.*;
+import net.jqwik.api.constraints.IntRange;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Property-based tests for the cost-weighted in-process cache behind the AI response cache
+ * 
+ * For any sequence of insertions the cache never exceeds its capacity, when cheap and
+ * expensive entries compete for space the cheap ones are evicted first, and entries stored with a
+ * TTL are not served after it, however expensive.
+ */
+class CostWeightedCachePropertyTest {
+
+    /**
+     * Property: For any number of insertions, size never exceeds the configured maximum.
+     */
+    @Property(tries = 100)
+    void sizeNeverExceedsCapacity(
+            @ForAll @IntRange(min = 1, max = 50) int capacity,
+            @ForAll @IntRange(min = 0, max = 200) int insertions) {
+        CostWeightedCache<Integer> cache = new CostWeightedCache<>(capacity);
+
+        for (int i = 0; i < insertions; i++) {
+            cache.put("key-" + i, i, i % 7 + 1);
+            assertThat(cache.size()).isLessThanOrEqualTo(capacity);
+        }
+        assertThat(cache.size()).isEqualTo(Math.min(capacity, insertions));
+    }
+
+    /**
+     * Property: An expensive entry survives a stream of cheap insertions that would
+     * have pushed it out of a plain LRU cache.
+     */
+    @Property(tries = 100)
+    void expensiveEntriesOutliveCheapOnes(
+            @ForAll @IntRange(min = 2, max = 20) int capacity,
+            @ForAll @IntRange(min = 1, max = 10) int cheapCost) {
+        CostWeightedCache<String> cache = new CostWeightedCache<>(capacity);
+        cache.put("expensive", "value", 10_000);
+
+        // Enough cheap entries to cycle the whole cache several times
+        for (int i = 0; i < capacity * 3; i++) {
+            cache.put("cheap-" + i, "value", cheapCost);
+        }
+
+        assertThat(cache.get("expensive")).isEqualTo("value");
+    }
+
+    /**
+     * Property: Re-putting a key replaces its value without growing the cache.
+     */
+    @Property(tries = 50)
+    void putReplacesExistingKey(@ForAll String value) {
+        CostWeightedCache<String> cache = new CostWeightedCache<>(4);
+        cache.put("key", "old", 5);
+        cache.put("key", value, 5);
+
+        assertThat(cache.get("key")).isEqualTo(value);
+        assertThat(cache.size()).isEqualTo(1);
+    }
+
+    /**
+     * Property: An entry stored with a TTL is served until it expires and never after, whatever its cost.
+     */
+    @Property(tries = 50)
+    void entriesExpireAfterTtl(@ForAll @IntRange(min = 1, max = 10_000) int ttlMillis,
+                               @ForAll @IntRange(min = 1, max = 100_000) int cost) {
+        AtomicLong now = new AtomicLong(System.nanoTime());
+        CostWeightedCache<String> cache = new CostWeightedCache<>(4, now::get);
+        cache.put("key", "value", cost, Duration.ofMillis(ttlMillis));
+        cache.put("forever", "value", 1);
+
+        now.addAndGet(Duration.ofMillis(ttlMillis).toNanos() - 1);
+        assertThat(cache.get("key")).isEqualTo("value");
+
+        now.incrementAndGet();
+        assertThat(cache.get("key")).isNull();
+        assertThat(cache.get("forever")).isEqualTo("value");
+        assertThat(cache.size()).isEqualTo(1);
+    }
+}
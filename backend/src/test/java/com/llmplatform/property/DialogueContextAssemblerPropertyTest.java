@@ -0,0 +1,114 @@
+package com.llmplatform.property;
+
+import com.llmplatform.ai.config.AIProviderConfig;
+import com.llmplatform.ai.context.AssembledContext;
+import com.llmplatform.ai.context.DialogueContextAssembler;
+import com.llmplatform.ai.context.DialogueSummary;
+import com.llmplatform.ai.dto.AIRequest;
+import com.llmplatform.ai.dto.AIResponse;
+import com.llmplatform.ai.gateway.AIGateway;
+import com.llmplatform.ai.token.TokenEstimator;
+import com.llmplatform.common.CacheConstants;
+import com.llmplatform.util.CacheUtil;
+import net.jqwik.api.*;
+import net.jqwik.api.constraints.IntRange;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Property-based tests for token-budgeted dialogue context assembly
+ *
+ * For any session length the prompt stays within the token budget, always ends with the newest
+ * message, and older turns are handed to a summary refresh instead of being sent verbatim.
+ */
+class DialogueContextAssemblerPropertyTest {
+
+    private static final int TOKEN_BUDGET = 400;
+
+    private AIProviderConfig config() {
+        AIProviderConfig config = new AIProviderConfig();
+        config.getDialogueContext().setTokenBudget(TOKEN_BUDGET);
+        config.getDialogueContext().setRecentTurns(2);
+        config.getDialogueContext().setSummaryEveryTurns(2);
+        return config;
+    }
+
+    private List<AIRequest.Message> history(int size, int messageLength) {
+        List<AIRequest.Message> history = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            history.add(AIRequest.Message.builder()
+                    .role(i % 2 == 0 ? "user" : "assistant")
+                    .content(i + ":" + "x".repeat(messageLength))
+                    .build());
+        }
+        return history;
+    }
+
+    private int estimate(AssembledContext context) {
+        TokenEstimator estimator = new TokenEstimator();
+        int tokens = estimator.estimate(context.systemMessage());
+        for (AIRequest.Message message : context.messages()) {
+            tokens += estimator.estimate(message);
+        }
+        return tokens;
+    }
+
+    /**
+     * Property: The assembled prompt fits the budget and ends with the newest message,
+     * no matter how long the session is.
+     */
+    @Property(tries = 100)
+    void promptStaysWithinBudget(@ForAll @IntRange(min = 1, max = 200) int historySize,
+                                 @ForAll @IntRange(min = 1, max = 300) int messageLength) {
+        AIGateway gateway = mock(AIGateway.class);
+        when(gateway.generateAsync(any()))
+                .thenReturn(CompletableFuture.completedFuture(AIResponse.failure("test", "not used")));
+        DialogueContextAssembler assembler = new DialogueContextAssembler(
+                config(), gateway, mock(CacheUtil.class), new TokenEstimator());
+        List<AIRequest.Message> history = history(historySize, messageLength);
+
+        AssembledContext context = assembler.assemble(1L, "system", history, 1L);
+
+        assertThat(context.messages()).isNotEmpty();
+        assertThat(context.messages().get(context.messages().size() - 1)).isEqualTo(history.get(historySize - 1));
+        if (context.messages().size() > 1) {
+            assertThat(estimate(context)).isLessThanOrEqualTo(TOKEN_BUDGET);
+        }
+    }
+
+    /**
+     * Property: Once more turns than the recent window plus refresh interval are unsummarized, a
+     * summary covering everything but the recent window is stored; a cached summary replaces the
+     * messages it covers.
+     */
+    @Property(tries = 50)
+    void olderTurnsAreSummarized(@ForAll @IntRange(min = 9, max = 60) int historySize) {
+        AIGateway gateway = mock(AIGateway.class);
+        when(gateway.generateAsync(any())).thenReturn(CompletableFuture.completedFuture(AIResponse.builder()
+                .success(true).content("summary").provider("test").build()));
+        CacheUtil cacheUtil = mock(CacheUtil.class);
+        DialogueContextAssembler assembler = new DialogueContextAssembler(
+                config(), gateway, cacheUtil, new TokenEstimator());
+        List<AIRequest.Message> history = history(historySize, 10);
+
+        assembler.assemble(1L, "system", history, 1L);
+
+        verify(cacheUtil).set(eq(CacheConstants.dialogueSummaryKey(1L)),
+                eq(new DialogueSummary(historySize - 4, "summary")), anyLong());
+
+        when(cacheUtil.get(CacheConstants.dialogueSummaryKey(1L), DialogueSummary.class))
+                .thenReturn(new DialogueSummary(historySize - 4, "summary"));
+        AssembledContext context = assembler.assemble(1L, "system", history, 1L);
+
+        assertThat(context.systemMessage()).contains("summary");
+        assertThat(context.messages()).containsExactlyElementsOf(history.subList(historySize - 4, historySize));
+    }
+}
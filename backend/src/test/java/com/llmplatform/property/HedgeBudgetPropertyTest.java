@@ -0,0 +1,88 @@
+package com.llmplatform.property;
+
+import com.llmplatform.ai.config.AIProviderConfig;
+import com.llmplatform.ai.resilience.HedgeBudget;
+import net.jqwik.api.*;
+import net.jqwik.api.constraints.IntRange;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Property-based tests for the per-feature hedging budget
+ *
+ * Hedges stay within the feature's ratio of requests plus the burst allowance, and features draw on
+ * separate balances.
+ */
+class HedgeBudgetPropertyTest {
+
+    private HedgeBudget budget(double ratio, int maxBurst) {
+        AIProviderConfig config = new AIProviderConfig();
+        config.getHedging().setBudgets(Map.of("quiz", ratio));
+        config.getHedging().setDefaultBudget(0.25);
+        config.getHedging().setMaxBurst(maxBurst);
+        return new HedgeBudget(config);
+    }
+
+    /**
+     * Property: Over any sequence of requests, granted hedges never exceed ratio * requests.
+     */
+    @Property(tries = 100)
+    void hedgesStayWithinRatio(@ForAll @IntRange(min = 1, max = 50) int ratioPercent,
+                               @ForAll @IntRange(min = 1, max = 500) int requests,
+                               @ForAll @IntRange(min = 1, max = 10) int maxBurst) {
+        HedgeBudget budget = budget(ratioPercent / 100.0, maxBurst);
+
+        int granted = 0;
+        for (int i = 0; i < requests; i++) {
+            budget.deposit("quiz");
+            if (budget.tryWithdraw("quiz")) {
+                granted++;
+            }
+        }
+
+        assertThat(granted).isLessThanOrEqualTo((int) Math.floor(requests * ratioPercent / 100.0 + 1e-9));
+    }
+
+    /**
+     * Property: Unused budget accumulates only up to the burst allowance.
+     */
+    @Property(tries = 50)
+    void burstIsCapped(@ForAll @IntRange(min = 1, max = 10) int maxBurst,
+                       @ForAll @IntRange(min = 0, max = 2000) int idleRequests) {
+        HedgeBudget budget = budget(0.5, maxBurst);
+        for (int i = 0; i < idleRequests; i++) {
+            budget.deposit("quiz");
+        }
+
+        int burst = 0;
+        while (budget.tryWithdraw("quiz")) {
+            burst++;
+        }
+
+        assertThat(burst).isEqualTo(Math.min(maxBurst, (int) Math.floor(idleRequests * 0.5 + 1e-9)));
+    }
+
+    /**
+     * Property: Spending one feature's budget leaves other features untouched; unknown features use the default.
+     */
+    @Property(tries = 50)
+    void featuresHaveSeparateBalances(@ForAll @IntRange(min = 10, max = 100) int requests) {
+        HedgeBudget budget = budget(1.0, 1000);
+        for (int i = 0; i < requests; i++) {
+            budget.deposit("quiz");
+            budget.deposit("dialogue");
+        }
+        while (budget.tryWithdraw("quiz")) {
+            // Drain the quiz balance
+        }
+
+        int dialogueHedges = 0;
+        while (budget.tryWithdraw("dialogue")) {
+            dialogueHedges++;
+        }
+        assertThat(dialogueHedges).isEqualTo(requests / 4);
+        assertThat(budget.tryWithdraw(null)).isFalse();
+    }
+}
@@ -0,0 +1,114 @@
+package com.llmplatform.property;
+
+import com.llmplatform.ai.config.AIProviderConfig;
+import com.llmplatform.ai.dto.AIFeature;
+import com.llmplatform.ai.lane.LaneScheduler;
+import com.llmplatform.ai.lane.LaneStats;
+import com.llmplatform.ai.lane.RequestLane;
+import net.jqwik.api.*;
+import net.jqwik.api.constraints.IntRange;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Property-based tests for the priority lane scheduler
+ *
+ * Admission never exceeds the lane and overall limits, background requests waiting for a
+ * slot give way to interactive ones, and features are classified by the default lane mapping.
+ */
+class LaneSchedulerPropertyTest {
+
+    private AIProviderConfig config(int maxConcurrent, int laneLimit, int maxQueue, long maxWait) {
+        AIProviderConfig config = new AIProviderConfig();
+        AIProviderConfig.LaneSettings lanes = config.getLanes();
+        lanes.setMaxConcurrent(maxConcurrent);
+        lanes.setInteractive(new AIProviderConfig.LaneLimits(laneLimit, maxQueue, maxWait));
+        lanes.setStandard(new AIProviderConfig.LaneLimits(laneLimit, maxQueue, maxWait));
+        lanes.setBackground(new AIProviderConfig.LaneLimits(laneLimit, maxQueue, maxWait));
+        return config;
+    }
+
+    /**
+     * Property: Without waiting, a lane admits exactly as many calls as the tighter of its own
+     * and the overall limit, and every other call is shed.
+     */
+    @Property(tries = 100)
+    void admissionRespectsLimits(@ForAll("lanes") RequestLane lane,
+                                 @ForAll @IntRange(min = 1, max = 20) int maxConcurrent,
+                                 @ForAll @IntRange(min = 1, max = 20) int laneLimit,
+                                 @ForAll @IntRange(min = 0, max = 40) int requests) {
+        LaneScheduler scheduler = new LaneScheduler(config(maxConcurrent, laneLimit, 0, 0));
+
+        int admitted = 0;
+        for (int i = 0; i < requests; i++) {
+            if (scheduler.tryAcquire(lane)) {
+                admitted++;
+            }
+        }
+
+        int expected = Math.min(requests, Math.min(maxConcurrent, laneLimit));
+        LaneStats stats = scheduler.getStats().get(lane);
+        assertThat(admitted).isEqualTo(expected);
+        assertThat(stats.getInFlight()).isEqualTo(expected);
+        assertThat(stats.getShed()).isEqualTo(requests - expected);
+
+        for (int i = 0; i < admitted; i++) {
+            scheduler.release(lane);
+        }
+        assertThat(scheduler.getStats().get(lane).getInFlight()).isZero();
+    }
+
+    /**
+     * Property: A background request queued for the only slot is shed as soon as an interactive
+     * request starts waiting, and the freed slot goes to the interactive request.
+     */
+    @Property(tries = 10)
+    void backgroundGivesWayToInteractive(@ForAll("lanes") RequestLane holder) throws Exception {
+        LaneScheduler scheduler = new LaneScheduler(config(1, 2, 10, 10_000));
+        assertThat(scheduler.tryAcquire(holder)).isTrue();
+
+        CompletableFuture<Boolean> background = CompletableFuture.supplyAsync(
+                () -> scheduler.tryAcquire(RequestLane.BACKGROUND));
+        awaitQueued(scheduler, RequestLane.BACKGROUND);
+
+        CompletableFuture<Boolean> interactive = CompletableFuture.supplyAsync(
+                () -> scheduler.tryAcquire(RequestLane.INTERACTIVE));
+
+        assertThat(background.get(5, TimeUnit.SECONDS)).isFalse();
+        scheduler.release(holder);
+        assertThat(interactive.get(5, TimeUnit.SECONDS)).isTrue();
+        scheduler.release(RequestLane.INTERACTIVE);
+    }
+
+    /**
+     * Property: The default mapping puts user-facing features on the interactive lane, bulk generation
+     * on the background lane, and untagged or unknown features on the standard lane.
+     */
+    @Example
+    void defaultFeatureLanes() {
+        LaneScheduler scheduler = new LaneScheduler(new AIProviderConfig());
+
+        assertThat(scheduler.classify(AIFeature.DIALOGUE)).isEqualTo(RequestLane.INTERACTIVE);
+        assertThat(scheduler.classify(AIFeature.WORD)).isEqualTo(RequestLane.INTERACTIVE);
+        assertThat(scheduler.classify(AIFeature.QUIZ)).isEqualTo(RequestLane.STANDARD);
+        assertThat(scheduler.classify(AIFeature.QUIZ_BANK)).isEqualTo(RequestLane.BACKGROUND);
+        assertThat(scheduler.classify(AIFeature.DIALOGUE_SUMMARY)).isEqualTo(RequestLane.BACKGROUND);
+        assertThat(scheduler.classify(null)).isEqualTo(RequestLane.STANDARD);
+        assertThat(scheduler.classify("unknown")).isEqualTo(RequestLane.STANDARD);
+    }
+
+    @Provide
+    Arbitrary<RequestLane> lanes() {
+        return Arbitraries.of(RequestLane.class);
+    }
+
+    private void awaitQueued(LaneScheduler scheduler, RequestLane lane) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (scheduler.getStats().get(lane).getQueued() == 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+    }
+}
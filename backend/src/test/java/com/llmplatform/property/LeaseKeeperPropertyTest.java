@@ -0,0 +1,107 @@
+package com.llmplatform.property;
+
+import com.llmplatform.util.CacheUtil;
+import com.llmplatform.util.LeaseKeeper;
+import net.jqwik.api.*;
+import net.jqwik.api.constraints.IntRange;
+import org.mockito.InOrder;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Property-based tests for keeping Redis leases alive
+ *
+ * A kept lease is renewed with its full TTL while its holder works, is released once when closed with no
+ * renewal after the release, and is reported lost when a renewal finds another owner.
+ */
+class LeaseKeeperPropertyTest {
+
+    private static ThreadPoolTaskScheduler scheduler() {
+        ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+        scheduler.initialize();
+        return scheduler;
+    }
+
+    /**
+     * Property: A lease held for several TTLs is renewed with its TTL and released when closed.
+     */
+    @Property(tries = 3)
+    void heldLeaseIsRenewedAndReleased(@ForAll @IntRange(min = 30, max = 60) int ttlMillis) throws Exception {
+        CacheUtil cacheUtil = mock(CacheUtil.class);
+        when(cacheUtil.renewLease(anyString(), anyString(), anyLong())).thenReturn(true);
+        ThreadPoolTaskScheduler scheduler = scheduler();
+        try {
+            LeaseKeeper.Lease lease = new LeaseKeeper(cacheUtil, scheduler).keep("lease:word:en:zh:x", "token", ttlMillis);
+            Thread.sleep(ttlMillis * 3L);
+
+            assertThat(lease.isHeld()).isTrue();
+            lease.close();
+
+            verify(cacheUtil, atLeast(3)).renewLease("lease:word:en:zh:x", "token", ttlMillis);
+            verify(cacheUtil).releaseLease("lease:word:en:zh:x", "token");
+        } finally {
+            scheduler.shutdown();
+        }
+    }
+
+    /**
+     * Property: Closing waits for a renewal in progress, and no renewal runs once the lease is released.
+     */
+    @Example
+    void closeFencesRunningRenewal() throws Exception {
+        CacheUtil cacheUtil = mock(CacheUtil.class);
+        CountDownLatch renewing = new CountDownLatch(1);
+        CountDownLatch proceed = new CountDownLatch(1);
+        when(cacheUtil.renewLease(anyString(), anyString(), anyLong())).thenAnswer(invocation -> {
+            renewing.countDown();
+            proceed.await(5, TimeUnit.SECONDS);
+            return true;
+        });
+        ThreadPoolTaskScheduler scheduler = scheduler();
+        try {
+            LeaseKeeper.Lease lease = new LeaseKeeper(cacheUtil, scheduler).keep("lease:word:en:zh:y", "token", 30);
+            assertThat(renewing.await(5, TimeUnit.SECONDS)).isTrue();
+
+            CompletableFuture<Void> closing = CompletableFuture.runAsync(lease::close);
+            Thread.sleep(50);
+            assertThat(closing).isNotDone();
+            verify(cacheUtil, never()).releaseLease(anyString(), anyString());
+
+            proceed.countDown();
+            closing.get(5, TimeUnit.SECONDS);
+            InOrder order = inOrder(cacheUtil);
+            order.verify(cacheUtil, atLeastOnce()).renewLease("lease:word:en:zh:y", "token", 30);
+            order.verify(cacheUtil).releaseLease("lease:word:en:zh:y", "token");
+            order.verifyNoMoreInteractions();
+        } finally {
+            scheduler.shutdown();
+        }
+    }
+
+    /**
+     * Property: A renewal finding another owner marks the lease lost and stops renewing it.
+     */
+    @Example
+    void lostLeaseStopsRenewing() throws Exception {
+        CacheUtil cacheUtil = mock(CacheUtil.class);
+        when(cacheUtil.renewLease(anyString(), anyString(), anyLong())).thenReturn(false);
+        ThreadPoolTaskScheduler scheduler = scheduler();
+        try {
+            LeaseKeeper.Lease lease = new LeaseKeeper(cacheUtil, scheduler).keep("lease:stats:reconcile", "token", 30);
+            Thread.sleep(150);
+
+            assertThat(lease.isHeld()).isFalse();
+            verify(cacheUtil, times(1)).renewLease("lease:stats:reconcile", "token", 30);
+            lease.close();
+        } finally {
+            scheduler.shutdown();
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package com.llmplatform.property;
+
+import com.llmplatform.util.MicroBatcher;
+import net.jqwik.api.*;
+import net.jqwik.api.constraints.IntRange;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Property-based tests for micro-batching
+ *
+ * A full batch runs at once on the submitting thread, a partial one when its window closes on a worker
+ * rather than the window timer, results reach callers by item position, and a handler failure or a wrong
+ * number of results fails every caller of the batch.
+ */
+class MicroBatcherPropertyTest {
+
+    private static final long WINDOW_MS = 30;
+
+    /**
+     * Property: Reaching the maximum size flushes the batch on the submitting thread and maps results by position.
+     */
+    @Property(tries = 30)
+    void fullBatchFlushesImmediately(@ForAll @IntRange(min = 1, max = 10) int maxBatchSize) throws Exception {
+        List<String> handlerThreads = new CopyOnWriteArrayList<>();
+        try (MicroBatcher<Integer, Integer> batcher = new MicroBatcher<>("test", 60_000, maxBatchSize, 1, items -> {
+            handlerThreads.add(Thread.currentThread().getName());
+            return items.stream().map(item -> item * 2).toList();
+        })) {
+            List<CompletableFuture<Integer>> futures = new ArrayList<>();
+            for (int i = 0; i < maxBatchSize; i++) {
+                futures.add(batcher.submit("group", i));
+            }
+
+            for (int i = 0; i < maxBatchSize; i++) {
+                assertThat(futures.get(i).getNow(null)).isEqualTo(i * 2);
+            }
+            assertThat(handlerThreads).containsExactly(Thread.currentThread().getName());
+        }
+    }
+
+    /**
+     * Property: A partial batch flushes when its window closes, on a worker thread, one batch per group.
+     */
+    @Property(tries = 10)
+    void partialBatchFlushesAfterWindow(@ForAll @IntRange(min = 1, max = 5) int items) throws Exception {
+        List<String> handlerThreads = new CopyOnWriteArrayList<>();
+        try (MicroBatcher<Integer, Integer> batcher = new MicroBatcher<>("test", WINDOW_MS, 100, 2, batch -> {
+            handlerThreads.add(Thread.currentThread().getName());
+            return batch.stream().map(item -> item + 1).toList();
+        })) {
+            List<CompletableFuture<Integer>> futures = new ArrayList<>();
+            for (int i = 0; i < items; i++) {
+                futures.add(batcher.submit("a", i));
+            }
+            CompletableFuture<Integer> other = batcher.submit("b", 100);
+
+            for (int i = 0; i < items; i++) {
+                assertThat(futures.get(i).get(5, TimeUnit.SECONDS)).isEqualTo(i + 1);
+            }
+            assertThat(other.get(5, TimeUnit.SECONDS)).isEqualTo(101);
+            assertThat(handlerThreads).hasSize(2)
+                    .allSatisfy(name -> assertThat(name).startsWith("test-batch-").doesNotContain("timer"));
+        }
+    }
+
+    /**
+     * Property: A slow window-triggered batch does not hold back the window of another group.
+     */
+    @Example
+    void slowBatchDoesNotDelayOtherWindows() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        try (MicroBatcher<String, String> batcher = new MicroBatcher<>("test", WINDOW_MS, 100, 2, batch -> {
+            if (batch.contains("slow")) {
+                try {
+                    release.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            return batch;
+        })) {
+            CompletableFuture<String> slow = batcher.submit("a", "slow");
+            Thread.sleep(WINDOW_MS * 3);
+            CompletableFuture<String> fast = batcher.submit("b", "fast");
+
+            assertThat(fast.get(2, TimeUnit.SECONDS)).isEqualTo("fast");
+            assertThat(slow).isNotDone();
+            release.countDown();
+            assertThat(slow.get(5, TimeUnit.SECONDS)).isEqualTo("slow");
+        }
+    }
+
+    /**
+     * Property: A handler returning the wrong number of results fails every caller of the batch.
+     */
+    @Property(tries = 20)
+    void wrongResultCountFailsBatch(@ForAll @IntRange(min = 2, max = 8) int items) {
+        try (MicroBatcher<Integer, Integer> batcher = new MicroBatcher<>("test", 60_000, items, 1,
+                batch -> batch.subList(1, batch.size()))) {
+            List<CompletableFuture<Integer>> futures = new ArrayList<>();
+            for (int i = 0; i < items; i++) {
+                futures.add(batcher.submit("group", i));
+            }
+
+            assertThat(futures).allSatisfy(future -> assertThatThrownBy(future::get)
+                    .isInstanceOf(ExecutionException.class)
+                    .hasCauseInstanceOf(IllegalStateException.class));
+        }
+    }
+
+    /**
+     * Property: A handler failure reaches every caller of the batch, also for window-triggered batches.
+     */
+    @Property(tries = 10)
+    void handlerFailureFailsBatch(@ForAll @IntRange(min = 1, max = 5) int items) {
+        RuntimeException failure = new RuntimeException("provider down");
+        try (MicroBatcher<Integer, Integer> batcher = new MicroBatcher<>("test", WINDOW_MS, 100, 1, batch -> {
+            throw failure;
+        })) {
+            List<CompletableFuture<Integer>> futures = new ArrayList<>();
+            for (int i = 0; i < items; i++) {
+                futures.add(batcher.submit("group", i));
+            }
+
+            assertThat(futures).allSatisfy(future -> assertThatThrownBy(() -> future.get(5, TimeUnit.SECONDS))
+                    .isInstanceOf(ExecutionException.class)
+                    .hasCause(failure));
+        }
+    }
+}
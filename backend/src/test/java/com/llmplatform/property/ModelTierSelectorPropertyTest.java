@@ -0,0 +1,103 @@
+package com.llmplatform.property;
+
+import com.llmplatform.ai.config.AIProviderConfig;
+import com.llmplatform.ai.dto.AIRequest;
+import com.llmplatform.ai.tier.ModelTier;
+import com.llmplatform.ai.tier.ModelTierSelector;
+import com.llmplatform.ai.tier.TaskClass;
+import net.jqwik.api.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Property-based tests for model tier selection
+ *
+ * A tagged request gets the cheapest model whose tier suffices for its task class, and falls back
+ * to the provider's default model when none does or when it carries no task class.
+ */
+class ModelTierSelectorPropertyTest {
+
+    private static final String PROVIDER = "test";
+    private static final String DEFAULT_MODEL = "default-model";
+
+    private AIProviderConfig config(List<AIProviderConfig.ModelSettings> models) {
+        AIProviderConfig config = new AIProviderConfig();
+        AIProviderConfig.ProviderSettings settings = new AIProviderConfig.ProviderSettings();
+        settings.setEnabled(true);
+        settings.setModel(DEFAULT_MODEL);
+        settings.setModels(models);
+        config.getProviders().put(PROVIDER, settings);
+        return config;
+    }
+
+    /**
+     * Property: The chosen model is capable of the task and no capable model is cheaper.
+     */
+    @Property(tries = 200)
+    void cheapestCapableModelIsChosen(@ForAll("models") List<AIProviderConfig.ModelSettings> models,
+                                      @ForAll TaskClass taskClass) {
+        AIProviderConfig config = config(models);
+        ModelTierSelector selector = new ModelTierSelector(config);
+        AIRequest request = AIRequest.builder().prompt("hi").taskClass(taskClass).build();
+
+        String chosen = selector.select(PROVIDER, request).getModel();
+        List<AIProviderConfig.ModelSettings> capable = models.stream()
+                .filter(m -> m.getTier().satisfies(taskClass.getDefaultTier()))
+                .toList();
+
+        if (capable.isEmpty()) {
+            assertThat(chosen).isNull();
+            assertThat(config.getProviderSettings(PROVIDER).resolveModel(chosen)).isEqualTo(DEFAULT_MODEL);
+            return;
+        }
+        AIProviderConfig.ModelSettings picked = capable.stream()
+                .filter(m -> m.getName().equals(chosen))
+                .findFirst()
+                .orElseThrow();
+        assertThat(capable).allSatisfy(m -> assertThat(m.getCost()).isGreaterThanOrEqualTo(picked.getCost()));
+    }
+
+    /**
+     * Property: Untagged requests keep the default model, and a configured tier overrides the class default.
+     */
+    @Property(tries = 50)
+    void untaggedAndOverriddenRequests(@ForAll("models") List<AIProviderConfig.ModelSettings> models) {
+        AIProviderConfig config = config(models);
+        ModelTierSelector selector = new ModelTierSelector(config);
+
+        assertThat(selector.select(PROVIDER, AIRequest.builder().prompt("hi").build()).getModel()).isNull();
+
+        config.getModelTiering().getTaskTiers().put(TaskClass.WORD_DEFINITION.configKey(), "large");
+        assertThat(selector.requiredTier(TaskClass.WORD_DEFINITION)).isEqualTo(ModelTier.LARGE);
+        String chosen = selector.modelFor(PROVIDER, TaskClass.WORD_DEFINITION);
+        if (chosen != null) {
+            assertThat(models.stream().filter(m -> m.getName().equals(chosen)))
+                    .allSatisfy(m -> assertThat(m.getTier()).isEqualTo(ModelTier.LARGE));
+        }
+    }
+
+    @Provide
+    Arbitrary<List<AIProviderConfig.ModelSettings>> models() {
+        return Combinators.combine(
+                        Arbitraries.of(ModelTier.class),
+                        Arbitraries.integers().between(1, 100))
+                .as((tier, cost) -> {
+                    AIProviderConfig.ModelSettings model = new AIProviderConfig.ModelSettings();
+                    model.setTier(tier);
+                    model.setCost(cost / 10.0);
+                    return model;
+                })
+                .list().ofMaxSize(5)
+                .map(list -> {
+                    List<AIProviderConfig.ModelSettings> named = new ArrayList<>();
+                    for (int i = 0; i < list.size(); i++) {
+                        list.get(i).setName("model-" + i);
+                        named.add(list.get(i));
+                    }
+                    return named;
+                });
+    }
+}
@@ -0,0 +1,151 @@
+package com.llmplatform.property;
+
+import com.llmplatform.ai.config.AIProviderConfig;
+import com.llmplatform.ai.health.ProviderHealth;
+import com.llmplatform.ai.health.ProviderHealthRegistry;
+import com.llmplatform.ai.health.ProviderHealthStatus;
+import com.llmplatform.ai.provider.AIProvider;
+import net.jqwik.api.*;
+import net.jqwik.api.constraints.IntRange;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+/**
+ * Property-based tests for background provider health probing
+ *
+ * Failed probes degrade a provider and take it down after the failure threshold, a success restores it,
+ * slow probes degrade it, and a probe outliving the probe timeout counts as failed and is interrupted.
+ */
+class ProviderHealthRegistryPropertyTest {
+
+    private AIProviderConfig config(int failureThreshold, long probeTimeout, long degradedLatency) {
+        AIProviderConfig config = new AIProviderConfig();
+        config.getHealth().setFailureThreshold(failureThreshold);
+        config.getHealth().setProbeTimeout(probeTimeout);
+        config.getHealth().setDegradedLatency(degradedLatency);
+        return config;
+    }
+
+    private AIProvider provider(String name) {
+        AIProvider provider = mock(AIProvider.class);
+        when(provider.getName()).thenReturn(name);
+        when(provider.isAvailable()).thenReturn(true);
+        return provider;
+    }
+
+    /**
+     * Property: Failed probes degrade a provider until the threshold takes it out of rotation; one success restores it.
+     */
+    @Property(tries = 20)
+    void failuresDegradeThenTakeDownAndSuccessRestores(@ForAll @IntRange(min = 1, max = 5) int failureThreshold,
+                                                       @ForAll @IntRange(min = 1, max = 6) int failedRounds) {
+        AIProvider provider = provider("openai");
+        when(provider.probe()).thenReturn(false);
+        ProviderHealthRegistry registry = new ProviderHealthRegistry(config(failureThreshold, 1000, 1000),
+                List.of(provider));
+        try {
+            for (int round = 1; round <= failedRounds; round++) {
+                registry.probeAll();
+                ProviderHealth health = registry.getHealth().get("openai");
+                assertThat(health.getConsecutiveFailures()).isEqualTo(round);
+                assertThat(health.getStatus()).isEqualTo(round >= failureThreshold
+                        ? ProviderHealthStatus.DOWN : ProviderHealthStatus.DEGRADED);
+                assertThat(registry.isAvailable(provider)).isEqualTo(round < failureThreshold);
+            }
+
+            when(provider.probe()).thenReturn(true);
+            registry.probeAll();
+
+            ProviderHealth health = registry.getHealth().get("openai");
+            assertThat(health.getStatus()).isEqualTo(ProviderHealthStatus.UP);
+            assertThat(health.getConsecutiveFailures()).isZero();
+            assertThat(registry.isAvailable(provider)).isTrue();
+        } finally {
+            registry.close();
+        }
+    }
+
+    /**
+     * Property: A reachable provider answering slower than the degraded latency stays routable but DEGRADED.
+     */
+    @Property(tries = 3)
+    void slowProbeDegrades(@ForAll @IntRange(min = 30, max = 60) int probeMillis) {
+        AIProvider provider = provider("deepseek");
+        when(provider.probe()).thenAnswer(invocation -> {
+            Thread.sleep(probeMillis);
+            return true;
+        });
+        ProviderHealthRegistry registry = new ProviderHealthRegistry(config(2, 1000, 10), List.of(provider));
+        try {
+            registry.probeAll();
+
+            ProviderHealth health = registry.getHealth().get("deepseek");
+            assertThat(health.getStatus()).isEqualTo(ProviderHealthStatus.DEGRADED);
+            assertThat(health.getLatencyMs()).isGreaterThanOrEqualTo(probeMillis);
+            assertThat(registry.isAvailable(provider)).isTrue();
+        } finally {
+            registry.close();
+        }
+    }
+
+    /**
+     * Property: A probe still running at the probe timeout counts as a failure, is interrupted, and does not
+     * hold up the result of a healthy provider.
+     */
+    @Property(tries = 3)
+    void hungProbeTimesOutAndIsInterrupted(@ForAll @IntRange(min = 50, max = 150) int probeTimeout) throws Exception {
+        CountDownLatch interrupted = new CountDownLatch(1);
+        AIProvider hung = provider("mimo");
+        when(hung.probe()).thenAnswer(invocation -> {
+            try {
+                Thread.sleep(60_000);
+            } catch (InterruptedException e) {
+                interrupted.countDown();
+            }
+            return true;
+        });
+        AIProvider healthy = provider("ollama");
+        when(healthy.probe()).thenReturn(true);
+        ProviderHealthRegistry registry = new ProviderHealthRegistry(config(2, probeTimeout, 1000),
+                List.of(hung, healthy));
+        try {
+            long start = System.currentTimeMillis();
+            registry.probeAll();
+
+            assertThat(System.currentTimeMillis() - start).isLessThan(probeTimeout + 2000L);
+            assertThat(interrupted.await(5, TimeUnit.SECONDS)).isTrue();
+            ProviderHealth health = registry.getHealth().get("mimo");
+            assertThat(health.getStatus()).isEqualTo(ProviderHealthStatus.DEGRADED);
+            assertThat(health.getMessage()).contains("timed out");
+            assertThat(registry.getHealth().get("ollama").getStatus()).isEqualTo(ProviderHealthStatus.UP);
+        } finally {
+            registry.close();
+        }
+    }
+
+    /**
+     * Property: A disabled provider goes DOWN without being probed; an unprobed one falls back to its configuration.
+     */
+    @Example
+    void disabledProviderIsDownWithoutProbing() {
+        AIProvider disabled = provider("openai");
+        when(disabled.isAvailable()).thenReturn(false);
+        AIProvider unprobed = provider("deepseek");
+        ProviderHealthRegistry registry = new ProviderHealthRegistry(config(2, 1000, 1000), List.of(disabled));
+        try {
+            registry.probeAll();
+
+            assertThat(registry.getHealth().get("openai").getStatus()).isEqualTo(ProviderHealthStatus.DOWN);
+            assertThat(registry.isAvailable(disabled)).isFalse();
+            verify(disabled, never()).probe();
+            assertThat(registry.isAvailable(unprobed)).isTrue();
+        } finally {
+            registry.close();
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.llmplatform.property;
+
+import com.llmplatform.ai.routing.ProviderLatencyTracker;
+import net.jqwik.api.*;
+import net.jqwik.api.constraints.DoubleRange;
+import net.jqwik.api.constraints.LongRange;
+import net.jqwik.api.constraints.Size;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Property-based tests for the latency windows behind hedging delays
+ *
+ * Percentiles are nearest-rank over the most recent samples of one provider and feature, and samples of
+ * other features or providers never leak into a window.
+ */
+class ProviderLatencyTrackerPropertyTest {
+
+    /**
+     * Property: A percentile is the nearest-rank value over the last WINDOW_SIZE samples.
+     */
+    @Property(tries = 100)
+    void percentileIsNearestRankOfRecentSamples(
+            @ForAll @Size(min = 1, max = 600) List<@LongRange(min = 0, max = 60_000) Long> samples,
+            @ForAll @DoubleRange(min = 1, max = 100) double percentile) {
+        ProviderLatencyTracker tracker = new ProviderLatencyTracker();
+        samples.forEach(latency -> tracker.record("openai", "quiz", latency));
+
+        List<Long> recent = samples.subList(Math.max(0, samples.size() - ProviderLatencyTracker.WINDOW_SIZE),
+                samples.size()).stream().sorted().toList();
+        int rank = (int) Math.ceil(percentile / 100.0 * recent.size()) - 1;
+
+        assertThat(tracker.getSampleCount("openai", "quiz")).isEqualTo(recent.size());
+        assertThat(tracker.getPercentile("openai", "quiz", percentile))
+                .isEqualTo(recent.get(Math.max(0, Math.min(rank, recent.size() - 1))));
+    }
+
+    /**
+     * Property: Slow calls of one feature do not move the percentiles of another feature or provider.
+     */
+    @Property(tries = 50)
+    void windowsArePerProviderAndFeature(@ForAll @LongRange(min = 1, max = 500) long fast,
+                                         @ForAll @LongRange(min = 10_000, max = 60_000) long slow) {
+        ProviderLatencyTracker tracker = new ProviderLatencyTracker();
+        for (int i = 0; i < 50; i++) {
+            tracker.record("openai", "word_query", fast);
+            tracker.record("openai", "quiz", slow);
+            tracker.record("deepseek", "word_query", slow);
+        }
+
+        assertThat(tracker.getPercentile("openai", "word_query", 95)).isEqualTo(fast);
+        assertThat(tracker.getPercentile("openai", "quiz", 95)).isEqualTo(slow);
+        assertThat(tracker.getPercentile("deepseek", "word_query", 95)).isEqualTo(slow);
+        assertThat(tracker.getPercentile("openai", "dialogue", 95)).isEqualTo(-1);
+        assertThat(tracker.getSampleCount("deepseek", "quiz")).isZero();
+    }
+}
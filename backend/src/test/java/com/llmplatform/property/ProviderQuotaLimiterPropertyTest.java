@@ -0,0 +1,136 @@
+package com.llmplatform.property;
+
+import com.llmplatform.ai.config.AIProviderConfig;
+import com.llmplatform.ai.dto.AIResponse;
+import com.llmplatform.ai.quota.ProviderQuotaLimiter;
+import com.llmplatform.ai.util.AIResponseNormalizer;
+import net.jqwik.api.*;
+import net.jqwik.api.constraints.IntRange;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Property-based tests for the cluster-wide provider quotas
+ *
+ * Reserving charges one request and the estimate against the provider's buckets, and settling takes back
+ * only what a call provably did not use: failures are refunded, reported usage replaces the estimate and
+ * a success without usage keeps it, also once the normalizer has zero-filled the missing usage.
+ */
+class ProviderQuotaLimiterPropertyTest {
+
+    private static final String PROVIDER = "openai";
+
+    private final StringRedisTemplate redis = mock(StringRedisTemplate.class);
+
+    private ProviderQuotaLimiter limiter(int requestsPerMinute, int tokensPerMinute) {
+        reset(redis);
+        AIProviderConfig config = new AIProviderConfig();
+        AIProviderConfig.ProviderSettings settings = new AIProviderConfig.ProviderSettings();
+        settings.setRequestsPerMinute(requestsPerMinute);
+        settings.setTokensPerMinute(tokensPerMinute);
+        config.getProviders().put(PROVIDER, settings);
+        return new ProviderQuotaLimiter(config, redis);
+    }
+
+    /**
+     * A successful reply as the gateway sees it, after normalization
+     */
+    private static AIResponse success(Integer totalTokens) {
+        AIResponse.AIResponseBuilder builder = AIResponse.builder().success(true).provider(PROVIDER).content("ok");
+        if (totalTokens != null) {
+            builder.usage(AIResponse.Usage.builder().totalTokens(totalTokens).build());
+        }
+        return AIResponseNormalizer.normalize(builder.build(), PROVIDER);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void verifySettled(int delta) {
+        verify(redis).execute(any(RedisScript.class), eq(List.of("ai:quota:openai:tpm")), eq(String.valueOf(delta)));
+    }
+
+    /**
+     * Property: A reservation passes both capacities and the estimate to Redis and returns its suggested wait.
+     */
+    @Property(tries = 50)
+    @SuppressWarnings("unchecked")
+    void reserveChargesBothBuckets(@ForAll @IntRange(min = 1, max = 1000) int rpm,
+                                   @ForAll @IntRange(min = 1, max = 100_000) int tpm,
+                                   @ForAll @IntRange(min = 1, max = 8000) int estimate,
+                                   @ForAll @IntRange(min = 0, max = 5000) int wait) {
+        ProviderQuotaLimiter limiter = limiter(rpm, tpm);
+        when(redis.execute(any(RedisScript.class), anyList(), any(), any(), any(), any())).thenReturn((long) wait);
+
+        assertThat(limiter.tryAcquire(PROVIDER, estimate)).isEqualTo(wait);
+
+        verify(redis).execute(any(RedisScript.class), eq(List.of("ai:quota:openai:rpm", "ai:quota:openai:tpm")),
+                eq(String.valueOf(rpm)), eq(String.valueOf(tpm)), eq(String.valueOf(estimate)), anyString());
+    }
+
+    /**
+     * Property: Without quotas, or with Redis unreachable, every call is granted at once.
+     */
+    @Property(tries = 20)
+    @SuppressWarnings("unchecked")
+    void unlimitedOrUnreachableGrants(@ForAll @IntRange(min = 1, max = 8000) int estimate) {
+        ProviderQuotaLimiter unlimited = limiter(0, 0);
+        assertThat(unlimited.tryAcquire(PROVIDER, estimate)).isZero();
+        unlimited.settle(PROVIDER, estimate, AIResponse.failure(PROVIDER, "boom"));
+        verifyNoInteractions(redis);
+
+        ProviderQuotaLimiter limited = limiter(10, 1000);
+        when(redis.execute(any(RedisScript.class), anyList(), any(), any(), any(), any()))
+                .thenThrow(new RedisConnectionFailureException("down"));
+        assertThat(limited.tryAcquire(PROVIDER, estimate)).isZero();
+    }
+
+    /**
+     * Property: A failed call is refunded its whole estimate.
+     */
+    @Property(tries = 50)
+    void failureRefundsEstimate(@ForAll @IntRange(min = 1, max = 8000) int estimate) {
+        ProviderQuotaLimiter limiter = limiter(10, 100_000);
+
+        limiter.settle(PROVIDER, estimate, AIResponse.failure(PROVIDER, "timeout"));
+
+        verifySettled(-estimate);
+    }
+
+    /**
+     * Property: Reported usage replaces the estimate, charging or refunding the difference.
+     */
+    @Property(tries = 50)
+    void usageReplacesEstimate(@ForAll @IntRange(min = 1, max = 8000) int estimate,
+                               @ForAll @IntRange(min = 1, max = 8000) int used) {
+        ProviderQuotaLimiter limiter = limiter(10, 100_000);
+
+        limiter.settle(PROVIDER, estimate, success(used));
+
+        if (used == estimate) {
+            verifyNoInteractions(redis);
+        } else {
+            verifySettled(used - estimate);
+        }
+    }
+
+    /**
+     * Property: A normalized success without reported usage, or with zero tokens, keeps its estimate charged.
+     */
+    @Property(tries = 20)
+    void successWithoutUsageKeepsEstimate(@ForAll @IntRange(min = 1, max = 8000) int estimate) {
+        ProviderQuotaLimiter limiter = limiter(10, 100_000);
+
+        AIResponse withoutUsage = success(null);
+        assertThat(withoutUsage.getUsage().getTotalTokens()).isZero();
+        limiter.settle(PROVIDER, estimate, withoutUsage);
+        limiter.settle(PROVIDER, estimate, success(0));
+
+        verifyNoInteractions(redis);
+    }
+}
@@ -0,0 +1,192 @@
+package com.llmplatform.property;
+
+import com.baomidou.mybatisplus.core.MybatisConfiguration;
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.baomidou.mybatisplus.core.metadata.TableInfoHelper;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.llmplatform.ai.gateway.AIGateway;
+import com.llmplatform.ai.output.StructuredOutputDecoder;
+import com.llmplatform.entity.QuizQuestion;
+import com.llmplatform.mapper.QuizQuestionMapper;
+import com.llmplatform.mapper.QuizQuestionSeenMapper;
+import com.llmplatform.service.impl.QuestionBankServiceImpl;
+import com.llmplatform.vo.QuizVO;
+import net.jqwik.api.*;
+import net.jqwik.api.constraints.AlphaChars;
+import net.jqwik.api.constraints.IntRange;
+import net.jqwik.api.constraints.LongRange;
+import net.jqwik.api.constraints.StringLength;
+import org.apache.ibatis.builder.MapperBuilderAssistant;
+import org.mockito.ArgumentCaptor;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Property-based tests for question bank deduplication
+ *
+ * The content hash ignores case, whitespace, the answer and the topic, and changes with the
+ * question text, any option or the language. Assembling a quiz records the picked questions in one
+ * statement, binds the user as a query parameter, counts topics once per category until a top-up,
+ * and hands top-ups to the bank executor.
+ */
+class QuestionBankPropertyTest {
+
+    static {
+        TableInfoHelper.initTableInfo(new MapperBuilderAssistant(new MybatisConfiguration(), ""), QuizQuestion.class);
+    }
+
+    private QuizQuestionMapper questionMapper;
+    private QuizQuestionSeenMapper seenMapper;
+    private List<Runnable> submitted;
+
+    private QuestionBankServiceImpl service(long bankSize, long perTopic) {
+        questionMapper = mock(QuizQuestionMapper.class);
+        seenMapper = mock(QuizQuestionSeenMapper.class);
+        submitted = new ArrayList<>();
+        when(questionMapper.selectList(any())).thenAnswer(invocation -> LongStream.rangeClosed(1, bankSize)
+                .mapToObj(this::bankQuestion).collect(Collectors.toList()));
+        when(questionMapper.selectMaps(any())).thenReturn(List.of(
+                Map.of("topic", "vocabulary", "total", perTopic),
+                Map.of("topic", "grammar", "total", perTopic),
+                Map.of("topic", "comprehension", "total", perTopic)));
+        QuestionBankServiceImpl service = new QuestionBankServiceImpl(questionMapper, seenMapper,
+                mock(AIGateway.class), mock(StructuredOutputDecoder.class), new ObjectMapper(), submitted::add);
+        ReflectionTestUtils.setField(service, "minPerTopic", 30);
+        ReflectionTestUtils.setField(service, "topUpSize", 10);
+        return service;
+    }
+
+    private QuizQuestion bankQuestion(long id) {
+        QuizQuestion question = new QuizQuestion();
+        question.setId(id);
+        question.setQuestion("Question " + id);
+        question.setOptions("[\"A. is\",\"B. are\",\"C. be\",\"D. been\"]");
+        question.setCorrectAnswer("A");
+        question.setTopic("grammar");
+        return question;
+    }
+
+    /**
+     * Property: The picked questions are recorded as seen in one statement, with the user bound as a parameter.
+     */
+    @Property(tries = 30)
+    @SuppressWarnings("unchecked")
+    void pickedQuestionsAreMarkedInOneStatement(@ForAll @IntRange(min = 1, max = 10) int count,
+                                                @ForAll @LongRange(min = 1, max = 1_000_000_000L) long userId) {
+        QuestionBankServiceImpl service = service(count * 3L, 100);
+
+        List<QuizVO.QuestionVO> questions = service.assembleQuestions("easy", "en", count, userId);
+
+        assertThat(questions).hasSize(count);
+        ArgumentCaptor<List<Long>> ids = ArgumentCaptor.forClass(List.class);
+        verify(seenMapper).insertSeen(eq(userId), ids.capture(), any());
+        assertThat(ids.getValue()).hasSize(count).doesNotHaveDuplicates();
+        verify(seenMapper, never()).insert(any(com.llmplatform.entity.QuizQuestionSeen.class));
+
+        ArgumentCaptor<LambdaQueryWrapper<QuizQuestion>> query = ArgumentCaptor.forClass(LambdaQueryWrapper.class);
+        verify(questionMapper).selectList(query.capture());
+        assertThat(query.getValue().getSqlSegment())
+                .contains("user_id = #{ew.paramNameValuePairs.")
+                .doesNotContain("user_id = " + userId);
+        assertThat(query.getValue().getParamNameValuePairs()).containsValue(userId);
+    }
+
+    /**
+     * Property: Topics of a well-stocked category are counted once, not on every quiz.
+     */
+    @Property(tries = 10)
+    void fullCategoryIsCountedOnce(@ForAll @IntRange(min = 2, max = 10) int quizzes) {
+        QuestionBankServiceImpl service = service(30, 100);
+
+        for (int i = 0; i < quizzes; i++) {
+            service.assembleQuestions("medium", "en", 5, 1L);
+        }
+
+        verify(questionMapper, times(1)).selectMaps(any());
+        assertThat(submitted).isEmpty();
+    }
+
+    /**
+     * Property: A thin category is topped up on the bank executor; a discarded top-up does not block the next one,
+     * and the category is counted again after a top-up ran.
+     */
+    @Example
+    void thinCategoryIsToppedUpInBackground() {
+        QuestionBankServiceImpl service = service(30, 5);
+
+        service.assembleQuestions("hard", "en", 5, 1L);
+        assertThat(submitted).hasSize(1);
+        submitted.clear(); // discarded by a saturated executor
+
+        service.assembleQuestions("hard", "en", 5, 1L);
+        assertThat(submitted).hasSize(1);
+        verify(questionMapper, times(1)).selectMaps(any());
+
+        submitted.get(0).run();
+        service.assembleQuestions("hard", "en", 5, 1L);
+        // Once by the top-up for its topic, once more by the next quiz
+        verify(questionMapper, times(3)).selectMaps(any());
+    }
+
+    private QuizVO.QuestionVO question(String text, List<String> options, String answer, String topic) {
+        QuizVO.QuestionVO question = new QuizVO.QuestionVO();
+        question.setQuestionId(1);
+        question.setQuestion(text);
+        question.setOptions(options);
+        question.setCorrectAnswer(answer);
+        question.setTopic(topic);
+        return question;
+    }
+
+    private List<String> options(String stem) {
+        return List.of("A. " + stem, "B. " + stem + "s", "C. un" + stem, "D. " + stem + "ed");
+    }
+
+    /**
+     * Property: Re-cased and re-spaced copies of a question hash the same.
+     */
+    @Property(tries = 100)
+    void formattingDoesNotChangeHash(@ForAll @AlphaChars @StringLength(min = 1, max = 30) String word,
+                                     @ForAll @AlphaChars @StringLength(min = 1, max = 10) String stem) {
+        String text = "What does '" + word + "' mean?";
+        List<String> options = options(stem);
+        List<String> reformatted = options.stream().map(o -> "  " + o.toUpperCase().replace(" ", "   ") + "\n").toList();
+
+        String hash = QuestionBankServiceImpl.contentHash("en", question(text, options, "A", "vocabulary"));
+        String copy = QuestionBankServiceImpl.contentHash("EN ",
+                question("\t" + text.toLowerCase().replace(" ", "  "), reformatted, "B", "grammar"));
+
+        assertThat(copy).isEqualTo(hash);
+    }
+
+    /**
+     * Property: Changing the question, one option or the language changes the hash.
+     */
+    @Property(tries = 100)
+    void contentChangesHash(@ForAll @AlphaChars @StringLength(min = 1, max = 30) String word,
+                            @ForAll @AlphaChars @StringLength(min = 1, max = 10) String stem,
+                            @ForAll @IntRange(min = 0, max = 3) int changedOption) {
+        String text = "What does '" + word + "' mean?";
+        List<String> options = options(stem);
+        String hash = QuestionBankServiceImpl.contentHash("en", question(text, options, "A", "vocabulary"));
+
+        List<String> otherOptions = new ArrayList<>(options);
+        otherOptions.set(changedOption, options.get(changedOption) + "x");
+
+        assertThat(QuestionBankServiceImpl.contentHash("en", question(text + "x", options, "A", "vocabulary")))
+                .isNotEqualTo(hash);
+        assertThat(QuestionBankServiceImpl.contentHash("en", question(text, otherOptions, "A", "vocabulary")))
+                .isNotEqualTo(hash);
+        assertThat(QuestionBankServiceImpl.contentHash("fr", question(text, options, "A", "vocabulary")))
+                .isNotEqualTo(hash);
+    }
+}
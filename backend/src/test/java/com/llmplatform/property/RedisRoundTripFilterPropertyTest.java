@@ -0,0 +1,97 @@
+package com.llmplatform.property;
+
+import com.llmplatform.config.AsyncConfig;
+import com.llmplatform.filter.RedisRoundTripFilter;
+import com.llmplatform.util.RedisRoundTrips;
+import com.llmplatform.util.RoundTripStats;
+import net.jqwik.api.*;
+import net.jqwik.api.constraints.IntRange;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Property-based tests for per-request Redis round trip counting
+ *
+ * Round trips made by an asynchronous handler on the AI executors count towards the request that
+ * submitted the work and are recorded once the response completes; requests do not share counts.
+ */
+class RedisRoundTripFilterPropertyTest {
+
+    private static void roundTrips(int count) {
+        for (int i = 0; i < count; i++) {
+            RedisRoundTrips.track(() -> null);
+        }
+    }
+
+    /**
+     * Property: An async request is recorded on completion with the round trips of every thread that worked on it.
+     */
+    @Property(tries = 10)
+    void asyncWorkCountsTowardsRequest(@ForAll @IntRange(min = 0, max = 5) int onRequestThread,
+                                       @ForAll @IntRange(min = 0, max = 5) int onRequestExecutor,
+                                       @ForAll @IntRange(min = 0, max = 5) int onTaskExecutor) throws Exception {
+        AsyncConfig config = new AsyncConfig();
+        ThreadPoolTaskExecutor requestExecutor = config.aiRequestExecutor(2, 10);
+        ThreadPoolTaskExecutor taskExecutor = config.aiTaskExecutor(2, 2, 10);
+        RedisRoundTripFilter filter = new RedisRoundTripFilter();
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/word/query");
+        request.setAsyncSupported(true);
+        CountDownLatch done = new CountDownLatch(1);
+        try {
+            filter.doFilter(request, new MockHttpServletResponse(), (req, res) -> {
+                req.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/api/word/query");
+                req.startAsync();
+                roundTrips(onRequestThread);
+                requestExecutor.execute(() -> {
+                    roundTrips(onRequestExecutor);
+                    taskExecutor.execute(() -> {
+                        roundTrips(onTaskExecutor);
+                        done.countDown();
+                    });
+                });
+            });
+            // Round trips on the request thread after it was released belong to no request
+            roundTrips(3);
+            assertThat(filter.getStats()).isEmpty();
+
+            assertThat(done.await(5, TimeUnit.SECONDS)).isTrue();
+            request.getAsyncContext().complete();
+
+            RoundTripStats stats = filter.getStats().get("POST /api/word/query");
+            assertThat(stats.getRequests()).isEqualTo(1);
+            assertThat(stats.getRoundTrips()).isEqualTo(onRequestThread + onRequestExecutor + onTaskExecutor);
+        } finally {
+            requestExecutor.shutdown();
+            taskExecutor.shutdown();
+        }
+    }
+
+    /**
+     * Property: Consecutive synchronous requests on one thread are each recorded with only their own round trips.
+     */
+    @Property(tries = 10)
+    void synchronousRequestsAreCountedSeparately(@ForAll @IntRange(min = 0, max = 5) int first,
+                                                 @ForAll @IntRange(min = 0, max = 5) int second) throws Exception {
+        RedisRoundTripFilter filter = new RedisRoundTripFilter();
+
+        for (int count : new int[]{first, second}) {
+            filter.doFilter(new MockHttpServletRequest("GET", "/api/word/history"), new MockHttpServletResponse(),
+                    (req, res) -> {
+                        req.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/api/word/history");
+                        roundTrips(count);
+                    });
+        }
+
+        RoundTripStats stats = filter.getStats().get("GET /api/word/history");
+        assertThat(stats.getRequests()).isEqualTo(2);
+        assertThat(stats.getRoundTrips()).isEqualTo(first + second);
+        assertThat(stats.getMaxRoundTrips()).isEqualTo(Math.max(first, second));
+    }
+}
@@ -0,0 +1,109 @@
+package com.llmplatform.property;
+
+import com.llmplatform.config.RedisConfig;
+import com.llmplatform.personalized.entity.MemoryRecord;
+import com.llmplatform.util.codec.RedisValueCodec;
+import com.llmplatform.vo.DialogueSessionVO;
+import net.jqwik.api.*;
+import net.jqwik.api.constraints.IntRange;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Property-based tests for the Redis value codec
+ *
+ * Smile payloads, deflated or not, decode to the value that was written, carry no class names for
+ * registered types, and legacy JSON payloads stay readable.
+ */
+class RedisValueCodecPropertyTest {
+
+    private final RedisSerializer<Object> legacy = RedisValueCodec.jsonSerializer();
+    private final RedisValueCodec smile = codec(RedisValueCodec.Format.SMILE, 0);
+    private final RedisValueCodec deflating = codec(RedisValueCodec.Format.SMILE, 64);
+    private final RedisValueCodec jsonWriting = codec(RedisValueCodec.Format.JSON, 64);
+
+    private static RedisValueCodec codec(RedisValueCodec.Format format, int compressThreshold) {
+        return new RedisValueCodec(RedisConfig.typeRegistry(), format, compressThreshold);
+    }
+
+    private List<MemoryRecord> records(int count, String status) {
+        List<MemoryRecord> records = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            MemoryRecord record = new MemoryRecord();
+            record.setId((long) i);
+            record.setUserId(7L);
+            record.setWordId(100L + i);
+            record.setMasteryLevel(i % 100);
+            record.setStatus(status);
+            record.setNextReviewTime(LocalDateTime.of(2024, 1, 1, 8, 0).plusMinutes(i));
+            records.add(record);
+        }
+        return records;
+    }
+
+    private List<DialogueSessionVO.MessageVO> messages(List<String> contents) {
+        List<DialogueSessionVO.MessageVO> messages = new ArrayList<>();
+        for (int i = 0; i < contents.size(); i++) {
+            DialogueSessionVO.MessageVO message = new DialogueSessionVO.MessageVO();
+            message.setRole(i % 2 == 0 ? "user" : "assistant");
+            message.setContent(contents.get(i));
+            message.setTimestamp(LocalDateTime.of(2024, 1, 1, 8, 0).plusSeconds(i));
+            messages.add(message);
+        }
+        return messages;
+    }
+
+    /**
+     * Property: Every codec decodes what every codec wrote, and Smile output is smaller than JSON.
+     */
+    @Property(tries = 50)
+    void roundTripsAcrossFormats(@ForAll @IntRange(min = 1, max = 60) int count,
+                                 @ForAll("statuses") String status) {
+        List<MemoryRecord> value = records(count, status);
+        byte[] json = legacy.serialize(value);
+        byte[] compact = smile.serialize(value);
+
+        for (RedisSerializer<Object> writer : List.of(legacy, smile, deflating, jsonWriting)) {
+            byte[] bytes = writer.serialize(value);
+            assertThat(smile.deserialize(bytes)).isEqualTo(value);
+            assertThat(deflating.deserialize(bytes)).isEqualTo(value);
+        }
+        assertThat(jsonWriting.serialize(value)).isEqualTo(json);
+        assertThat(compact.length).isLessThan(json.length);
+        assertThat(new String(compact, StandardCharsets.ISO_8859_1)).doesNotContain(MemoryRecord.class.getName());
+    }
+
+    /**
+     * Property: Dialogue transcripts round-trip, and deflation only applies when it shrinks the payload.
+     */
+    @Property(tries = 50)
+    void dialogueRoundTrips(@ForAll("contents") List<String> contents) {
+        List<DialogueSessionVO.MessageVO> value = messages(contents);
+
+        byte[] plain = smile.serialize(value);
+        byte[] deflated = deflating.serialize(value);
+
+        assertThat(deflating.deserialize(deflated)).isEqualTo(value);
+        assertThat(deflated.length).isLessThanOrEqualTo(plain.length);
+        assertThat(smile.deserialize(smile.serialize("plain string"))).isEqualTo("plain string");
+        assertThat(smile.deserialize(null)).isNull();
+    }
+
+    @Provide
+    Arbitrary<String> statuses() {
+        return Arbitraries.of("LEARNING", "REVIEWING", "MASTERED");
+    }
+
+    @Provide
+    Arbitrary<List<String>> contents() {
+        return Arbitraries.strings().alpha().numeric().withChars(' ', '.', '?', '!', 'é', '你')
+                .ofMaxLength(200)
+                .list().ofMaxSize(30);
+    }
+}
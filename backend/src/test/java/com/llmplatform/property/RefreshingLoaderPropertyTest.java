@@ -0,0 +1,184 @@
+package com.llmplatform.property;
+
+import com.llmplatform.util.LoadedValue;
+import com.llmplatform.util.RefreshingLoader;
+import com.llmplatform.util.TwoTierCache;
+import net.jqwik.api.*;
+import net.jqwik.api.constraints.DoubleRange;
+import net.jqwik.api.constraints.IntRange;
+import net.jqwik.api.constraints.LongRange;
+import net.jqwik.api.constraints.Scale;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Property-based tests for the refreshing loader
+ *
+ * Concurrent misses compute once, fresh values far from expiry are served without recomputation, stale
+ * values are served while one background refresh runs, and invalidation wins over a computation in flight,
+ * also when it lands while the computation writes its result.
+ */
+class RefreshingLoaderPropertyTest {
+
+    private static final String KEY = "learning:profile:1";
+    private static final Duration TTL = Duration.ofMinutes(60);
+    private static final Instant NOW = Instant.parse("2024-05-01T09:00:00Z");
+
+    /**
+     * Cache backed by a map, so tests see what the loader wrote
+     */
+    private TwoTierCache cache(Map<String, Object> store) {
+        TwoTierCache cache = mock(TwoTierCache.class);
+        when(cache.get(anyString(), eq(LoadedValue.class)))
+                .thenAnswer(invocation -> store.get(invocation.<String>getArgument(0)));
+        doAnswer(invocation -> store.put(invocation.getArgument(0), invocation.getArgument(1)))
+                .when(cache).set(anyString(), any(), any());
+        doAnswer(invocation -> store.remove(invocation.<String>getArgument(0)) != null)
+                .when(cache).delete(anyString());
+        return cache;
+    }
+
+    private RefreshingLoader loader(TwoTierCache cache, List<Runnable> background, double random) {
+        return new RefreshingLoader(cache, background::add, 1.0, Duration.ofMinutes(5),
+                Clock.fixed(NOW, ZoneOffset.UTC), () -> random);
+    }
+
+    /**
+     * Property: Concurrent misses of one key run the computation once and all callers get its result.
+     */
+    @Property(tries = 10)
+    void concurrentMissesComputeOnce(@ForAll @IntRange(min = 2, max = 16) int callers) throws Exception {
+        Map<String, Object> store = new ConcurrentHashMap<>();
+        RefreshingLoader loader = new RefreshingLoader(cache(store), Runnable::run, 1.0, Duration.ofMinutes(5));
+        AtomicInteger computations = new AtomicInteger();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(callers);
+        try {
+            List<Future<String>> results = new ArrayList<>();
+            for (int i = 0; i < callers; i++) {
+                results.add(pool.submit(() -> loader.get(KEY, String.class, TTL, () -> {
+                    computations.incrementAndGet();
+                    started.countDown();
+                    await(release);
+                    return "stats";
+                })));
+            }
+            assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+            release.countDown();
+            for (Future<String> result : results) {
+                assertThat(result.get(5, TimeUnit.SECONDS)).isEqualTo("stats");
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        // callers arriving after the computation find its result in the cache
+        assertThat(computations.get()).isEqualTo(1);
+        assertThat(((LoadedValue) store.get(KEY)).getValue()).isEqualTo("stats");
+    }
+
+    /**
+     * Property: Early refresh follows XFetch: it fires exactly when now - computeTime * ln(rand) reaches expiry.
+     */
+    @Property(tries = 100)
+    void earlyRefreshFollowsXFetch(@ForAll @LongRange(min = 1, max = 10_000) long computeMillis,
+                                   @ForAll @LongRange(min = -60_000, max = 60_000) long remainingMillis,
+                                   @ForAll @DoubleRange(min = 0.0, max = 0.999) @Scale(3) double random) {
+        Map<String, Object> store = new ConcurrentHashMap<>();
+        store.put(KEY, new LoadedValue("cached", computeMillis, NOW.toEpochMilli() + remainingMillis));
+        List<Runnable> background = new ArrayList<>();
+        RefreshingLoader loader = loader(cache(store), background, random);
+
+        assertThat(loader.get(KEY, String.class, TTL, () -> "fresh")).isEqualTo("cached");
+
+        double gap = -computeMillis * Math.log(1.0 - random);
+        assertThat(background).hasSize(gap >= remainingMillis ? 1 : 0);
+        background.forEach(Runnable::run);
+        Object expected = gap >= remainingMillis ? "fresh" : "cached";
+        assertThat(((LoadedValue) store.get(KEY)).getValue()).isEqualTo(expected);
+    }
+
+    /**
+     * Property: A stale value is served to every reader while a single background refresh is pending.
+     */
+    @Property(tries = 20)
+    void staleValuesAreServedWhileOneRefreshRuns(@ForAll @IntRange(min = 1, max = 20) int readers) {
+        Map<String, Object> store = new ConcurrentHashMap<>();
+        store.put(KEY, new LoadedValue("stale", 100, NOW.toEpochMilli() - 1));
+        List<Runnable> background = new ArrayList<>();
+        RefreshingLoader loader = loader(cache(store), background, 0.0);
+
+        for (int i = 0; i < readers; i++) {
+            assertThat(loader.get(KEY, String.class, TTL, () -> "fresh")).isEqualTo("stale");
+        }
+
+        assertThat(background).hasSize(1);
+        background.get(0).run();
+        LoadedValue refreshed = (LoadedValue) store.get(KEY);
+        assertThat(refreshed.getValue()).isEqualTo("fresh");
+        assertThat(refreshed.getFreshUntil()).isEqualTo(NOW.plus(TTL).toEpochMilli());
+    }
+
+    /**
+     * Property: A refresh running when the key is invalidated does not write its outdated result back.
+     */
+    @Property(tries = 20)
+    void invalidationDropsRefreshInFlight(@ForAll @IntRange(min = 0, max = 1000) int version) {
+        Map<String, Object> store = new ConcurrentHashMap<>();
+        store.put(KEY, new LoadedValue("v" + version, 100, NOW.toEpochMilli() - 1));
+        List<Runnable> background = new ArrayList<>();
+        RefreshingLoader loader = loader(cache(store), background, 0.0);
+
+        loader.get(KEY, String.class, TTL, () -> "outdated");
+        loader.invalidate(KEY);
+        background.forEach(Runnable::run);
+
+        assertThat(store).doesNotContainKey(KEY);
+        assertThat(loader.get(KEY, String.class, TTL, () -> "v" + (version + 1))).isEqualTo("v" + (version + 1));
+    }
+
+    /**
+     * Property: An invalidation landing between a computation's check and its cache write does not leave
+     * the outdated result behind.
+     */
+    @Property(tries = 20)
+    void invalidationDuringWriteDropsResult(@ForAll @IntRange(min = 0, max = 1000) int version) {
+        Map<String, Object> store = new ConcurrentHashMap<>();
+        TwoTierCache cache = cache(store);
+        RefreshingLoader loader = loader(cache, new ArrayList<>(), 0.0);
+        // The invalidation deletes the key just before the write reaches Redis
+        doAnswer(invocation -> {
+            loader.invalidate(KEY);
+            return store.put(invocation.getArgument(0), invocation.getArgument(1));
+        }).when(cache).set(eq(KEY), any(), any());
+
+        assertThat(loader.get(KEY, String.class, TTL, () -> "v" + version)).isEqualTo("v" + version);
+
+        assertThat(store).doesNotContainKey(KEY);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
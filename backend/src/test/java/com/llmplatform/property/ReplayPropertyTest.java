@@ -0,0 +1,168 @@
+package com.llmplatform.property;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.llmplatform.ai.config.AIProviderConfig;
+import com.llmplatform.ai.dto.AIFeature;
+import com.llmplatform.ai.dto.AIRequest;
+import com.llmplatform.ai.dto.AIResponse;
+import com.llmplatform.ai.provider.ReplayProvider;
+import com.llmplatform.ai.replay.ReplayEntry;
+import com.llmplatform.ai.replay.ReplayLog;
+import com.llmplatform.ai.replay.ReplaySynthesizer;
+import com.llmplatform.ai.token.TokenEstimator;
+import net.jqwik.api.*;
+import net.jqwik.api.constraints.AlphaChars;
+import net.jqwik.api.constraints.IntRange;
+import net.jqwik.api.constraints.StringLength;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Property-based tests for record-and-replay of provider calls
+ *
+ * A call recorded to the log is found again by the same request after a reload and served back by the
+ * replay provider; unrecorded requests get a synthesized reply in the format their feature parses.
+ */
+class ReplayPropertyTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private static AIProviderConfig config(String mode, Path file) {
+        AIProviderConfig config = new AIProviderConfig();
+        config.getReplay().setMode(mode);
+        config.getReplay().setFile(file.toString());
+        config.getReplay().setLatency("none");
+        return config;
+    }
+
+    private static AIRequest request(String prompt, String feature) {
+        return AIRequest.builder()
+                .systemMessage("You are a language learning assistant.")
+                .messages(List.of(AIRequest.Message.builder().role("user").content("hello").build()))
+                .prompt(prompt)
+                .temperature(0.3)
+                .maxTokens(256)
+                .feature(feature)
+                .build();
+    }
+
+    /**
+     * Property: The hash depends on what the provider is asked, not on who asks it or which model answers.
+     */
+    @Property(tries = 100)
+    void hashCoversOnlyTheAsk(@ForAll @StringLength(min = 1, max = 40) String prompt,
+                              @ForAll @StringLength(min = 1, max = 40) String otherPrompt) {
+        AIRequest request = request(prompt, AIFeature.WORD);
+
+        assertThat(ReplayLog.hash(request.toBuilder().model("gpt-small").userId(7L).build()))
+                .isEqualTo(ReplayLog.hash(request));
+        if (!prompt.equals(otherPrompt)) {
+            assertThat(ReplayLog.hash(request.toBuilder().prompt(otherPrompt).build()))
+                    .isNotEqualTo(ReplayLog.hash(request));
+        }
+        assertThat(ReplayLog.hash(request.toBuilder().maxTokens(512).build())).isNotEqualTo(ReplayLog.hash(request));
+    }
+
+    /**
+     * Property: A recorded call is written to the log, reloaded in replay mode and served back unchanged.
+     */
+    @Property(tries = 5)
+    void recordedCallReplays(@ForAll @AlphaChars @StringLength(min = 1, max = 20) String word,
+                             @ForAll @IntRange(min = 1, max = 2000) int completionTokens) throws Exception {
+        Path file = Files.createTempFile("ai-replay", ".jsonl");
+        try {
+            AIRequest request = request("Word: '" + word + "'", AIFeature.WORD);
+            ReplayLog recorder = new ReplayLog(config(ReplayLog.MODE_RECORD, file));
+            recorder.start();
+            recorder.record(request, AIResponse.builder().success(true).model("gpt-test").content("recorded " + word)
+                    .usage(AIResponse.Usage.builder().promptTokens(11).completionTokens(completionTokens)
+                            .totalTokens(11 + completionTokens).build())
+                    .build(), 42);
+            recorder.stop();
+
+            AIProviderConfig replayConfig = config(ReplayLog.MODE_REPLAY, file);
+            ReplayLog replayLog = new ReplayLog(replayConfig);
+            replayLog.start();
+            ReplayEntry entry = replayLog.find(request);
+            assertThat(entry).isNotNull();
+            assertThat(entry.content()).isEqualTo("recorded " + word);
+            assertThat(replayLog.latencies(AIFeature.WORD)).containsExactly(42);
+
+            AIResponse replayed = new ReplayProvider(replayConfig, replayLog, new TokenEstimator()).generate(request);
+            assertThat(replayed.isSuccess()).isTrue();
+            assertThat(replayed.getContent()).isEqualTo("recorded " + word);
+            assertThat(replayed.getUsage().getCompletionTokens()).isEqualTo(completionTokens);
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    /**
+     * Property: An unrecorded request is answered with a synthesized reply the feature's parser accepts.
+     */
+    @Property(tries = 20)
+    void unrecordedRequestIsSynthesized(@ForAll @IntRange(min = 1, max = 10) int count) throws Exception {
+        Path file = Files.createTempFile("ai-replay", ".jsonl");
+        try {
+            AIProviderConfig replayConfig = config(ReplayLog.MODE_REPLAY, file);
+            ReplayLog replayLog = new ReplayLog(replayConfig);
+            replayLog.start();
+            AIRequest request = request("Generate " + count + " multiple choice questions", AIFeature.QUIZ);
+
+            AIResponse replayed = new ReplayProvider(replayConfig, replayLog, new TokenEstimator()).generate(request);
+
+            assertThat(replayed.isSuccess()).isTrue();
+            JsonNode questions = objectMapper.readTree(replayed.getContent());
+            assertThat(questions.isArray()).isTrue();
+            assertThat(questions).hasSize(count);
+            assertThat(replayed.getUsage().getTotalTokens()).isPositive();
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    /**
+     * Property: Synthesized replies have the JSON shape each structured feature asks for.
+     */
+    @Property(tries = 30)
+    void synthesizedRepliesParse(@ForAll @AlphaChars @StringLength(min = 1, max = 15) String word,
+                                 @ForAll @IntRange(min = 1, max = 30) int count) throws Exception {
+        int expected = Math.min(count, 20);
+
+        JsonNode entry = objectMapper.readTree(ReplaySynthesizer.synthesize(
+                request("Word: '" + word + "'", AIFeature.WORD)));
+        assertThat(entry.path("translation").asText()).isEqualTo(word);
+        assertThat(entry.path("examples").isArray()).isTrue();
+
+        JsonNode quiz = objectMapper.readTree(ReplaySynthesizer.synthesize(
+                request("Generate " + count + " questions", AIFeature.QUIZ)));
+        assertThat(quiz).hasSize(expected);
+        quiz.forEach(question -> {
+            assertThat(question.path("options")).hasSize(4);
+            assertThat(question.path("correctAnswer").asText()).isIn("A", "B", "C", "D");
+        });
+
+        JsonNode bank = objectMapper.readTree(ReplaySynthesizer.synthesize(request("Generate " + count
+                + " easy questions. All questions should test grammar. Return ONLY a JSON array", AIFeature.QUIZ_BANK)));
+        assertThat(bank).hasSize(expected);
+        bank.forEach(question -> assertThat(question.path("topic").asText()).isEqualTo("grammar"));
+        assertThat(bank.findValuesAsText("question")).doesNotHaveDuplicates();
+
+        JsonNode choices = objectMapper.readTree(ReplaySynthesizer.synthesize(
+                request("Generate " + count + " questions for the word '" + word + "'", AIFeature.MULTIPLE_CHOICE)));
+        assertThat(choices).hasSize(expected);
+
+        JsonNode exercises = objectMapper.readTree(ReplaySynthesizer.synthesize(
+                request("Generate " + count + " exercises", AIFeature.ERROR_EXERCISE)));
+        assertThat(exercises).hasSize(expected);
+
+        JsonNode batched = objectMapper.readTree(ReplaySynthesizer.synthesize(
+                request("Words:\n- " + word + " (level 1)\n- other (level 2)\n", AIFeature.EXAMPLE_SENTENCE)));
+        assertThat(batched.fieldNames()).toIterable().containsExactly(word, "other");
+    }
+}
@@ -0,0 +1,112 @@
+package com.llmplatform.property;
+
+import com.llmplatform.ai.cache.SemanticCache;
+import com.llmplatform.ai.config.AIProviderConfig;
+import com.llmplatform.ai.dto.AIFeature;
+import com.llmplatform.ai.dto.AIRequest;
+import com.llmplatform.ai.dto.AIResponse;
+import net.jqwik.api.*;
+import net.jqwik.api.constraints.IntRange;
+import net.jqwik.api.constraints.Size;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Property-based tests for the semantic near-duplicate cache
+ *
+ * Prompts that differ only in list order or whitespace share a reply, prompts for another word or
+ * item count never do, and the index stays within its size limit.
+ */
+class SemanticCachePropertyTest {
+
+    private static final List<String> INTERESTS = List.of(
+            "music", "travel", "technology", "cooking", "sports", "movies", "history", "science");
+
+    private SemanticCache cache(int maxEntries) {
+        AIProviderConfig config = new AIProviderConfig();
+        config.getSemanticCache().setMaxEntries(maxEntries);
+        config.getSemanticCache().setSnapshotFile("");
+        return new SemanticCache(config);
+    }
+
+    private AIRequest request(String word, int level, List<String> interests, String spacing) {
+        String prompt = "Generate 3 natural example sentences using the word '" + word + "'.\n"
+                + "Current mastery level: " + level + " (0=new, 5=mastered).\n"
+                + "User interests:" + spacing + String.join("," + spacing, interests) + ".\n"
+                + "Format each sentence on a new line, without numbering.";
+        return AIRequest.builder()
+                .prompt(prompt)
+                .systemMessage("You are a helpful language learning assistant.")
+                .maxTokens(256)
+                .feature(AIFeature.EXAMPLE_SENTENCE)
+                .additionalParams(Map.of(AIRequest.PARAM_SEMANTIC_CACHE, true))
+                .build();
+    }
+
+    private AIResponse response(String content) {
+        return AIResponse.builder().success(true).provider("test").content(content).build();
+    }
+
+    /**
+     * Property: The same request with its interests reordered and respaced hits the stored reply.
+     */
+    @Property(tries = 100)
+    void reorderedInterestsHit(@ForAll @Size(min = 1, max = 5) List<@From("interests") String> interests,
+                               @ForAll @IntRange(min = 0, max = 5) int level,
+                               @ForAll long seed) {
+        SemanticCache cache = cache(100);
+        List<String> distinct = interests.stream().distinct().toList();
+        AIResponse stored = response("sentences");
+        cache.put(request("apple", level, distinct, " "), stored);
+
+        List<String> shuffled = new ArrayList<>(distinct);
+        Collections.shuffle(shuffled, new Random(seed));
+
+        assertThat(cache.get(request("apple", level, shuffled, "  "))).isEqualTo(stored);
+    }
+
+    /**
+     * Property: A request for another word or mastery level never gets the stored reply.
+     */
+    @Property(tries = 100)
+    void differentTermsMiss(@ForAll("words") String word, @ForAll("words") String otherWord,
+                            @ForAll @IntRange(min = 0, max = 5) int level,
+                            @ForAll @IntRange(min = 0, max = 5) int otherLevel) {
+        Assume.that(!word.equals(otherWord) || level != otherLevel);
+        SemanticCache cache = cache(100);
+        cache.put(request(word, level, List.of("music"), " "), response("sentences"));
+
+        assertThat(cache.get(request(otherWord, otherLevel, List.of("music"), " "))).isNull();
+    }
+
+    /**
+     * Property: The number of entries never exceeds the limit.
+     */
+    @Property(tries = 30)
+    void sizeIsBounded(@ForAll @IntRange(min = 1, max = 20) int maxEntries,
+                       @ForAll @IntRange(min = 0, max = 60) int puts) {
+        SemanticCache cache = cache(maxEntries);
+        for (int i = 0; i < puts; i++) {
+            cache.put(request("word" + i, 1, List.of("music"), " "), response("r" + i));
+        }
+
+        assertThat(cache.getStats().getEntries()).isEqualTo(Math.min(puts, maxEntries));
+        assertThat(cache.getStats().getEvictions()).isEqualTo(Math.max(0, puts - maxEntries));
+    }
+
+    @Provide
+    Arbitrary<String> interests() {
+        return Arbitraries.of(INTERESTS);
+    }
+
+    @Provide
+    Arbitrary<String> words() {
+        return Arbitraries.of("apple", "apply", "ample", "maple", "happy", "apples");
+    }
+}
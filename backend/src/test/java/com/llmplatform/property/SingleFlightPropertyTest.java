@@ -0,0 +1,85 @@
+package com.llmplatform.property;
+
+import com.llmplatform.util.SingleFlight;
+import net.jqwik.api.*;
+import net.jqwik.api.constraints.IntRange;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Property-based tests for single-flight request coalescing
+ * 
+ * For any number of concurrent callers asking for the same key, the loader runs once and
+ * every caller observes its result.
+ */
+class SingleFlightPropertyTest {
+
+    /**
+     * Property: Concurrent callers for one key share a single loader invocation.
+     */
+    @Property(tries = 20)
+    void concurrentCallersShareOneLoad(@ForAll @IntRange(min = 2, max = 16) int callers) throws Exception {
+        SingleFlight<String, Integer> singleFlight = new SingleFlight<>();
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(callers);
+
+        try {
+            List<Future<Integer>> results = new ArrayList<>();
+            for (int i = 0; i < callers; i++) {
+                results.add(executor.submit(() -> singleFlight.execute("word", () -> {
+                    loads.incrementAndGet();
+                    awaitQuietly(release);
+                    return 42;
+                })));
+            }
+
+            // Hold the loader until every caller has joined the flight
+            while (loads.get() == 0) {
+                Thread.onSpinWait();
+            }
+            Thread.sleep(200);
+            release.countDown();
+
+            for (Future<Integer> result : results) {
+                assertThat(result.get(5, TimeUnit.SECONDS)).isEqualTo(42);
+            }
+            assertThat(loads.get()).isEqualTo(1);
+            assertThat(singleFlight.inFlightCount()).isZero();
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Property: A failed load is not remembered; the next call for the key loads again.
+     */
+    @Property(tries = 20)
+    void failuresAreNotCached(@ForAll String key) {
+        SingleFlight<String, String> singleFlight = new SingleFlight<>();
+
+        assertThatThrownBy(() -> singleFlight.execute(key, () -> {
+            throw new IllegalStateException("boom");
+        })).isInstanceOf(IllegalStateException.class);
+
+        assertThat(singleFlight.execute(key, () -> "ok")).isEqualTo("ok");
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
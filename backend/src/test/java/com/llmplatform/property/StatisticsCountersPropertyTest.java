@@ -0,0 +1,80 @@
+package com.llmplatform.property;
+
+import com.llmplatform.stats.StatisticsCounters;
+import com.llmplatform.vo.LearningStatisticsVO;
+import net.jqwik.api.*;
+import net.jqwik.api.constraints.IntRange;
+import net.jqwik.api.constraints.LongRange;
+import net.jqwik.api.constraints.Size;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.offset;
+
+/**
+ * Property-based tests for the statistics counters kept in a Redis hash
+ *
+ * Counters survive the round trip through hash fields, and the rolling windows count exactly the
+ * activities of the last 7 and 30 calendar days.
+ */
+class StatisticsCountersPropertyTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2024, 5, 1);
+
+    private StatisticsCounters counters(List<Integer> dayOffsets, long scoredQuizzes, double scoreSum) {
+        Map<LocalDate, Long> days = new TreeMap<>();
+        dayOffsets.forEach(offset -> days.merge(TODAY.minusDays(offset), 1L, Long::sum));
+        LocalDateTime first = dayOffsets.isEmpty() ? null : TODAY.minusDays(400).atTime(8, 15, 30);
+        LocalDateTime last = dayOffsets.isEmpty() ? null : TODAY.atTime(21, 5, 0);
+        return new StatisticsCounters(dayOffsets.size(), 3, scoredQuizzes, dayOffsets.size() + 3 + scoredQuizzes,
+                scoreSum, scoredQuizzes, first, last, days);
+    }
+
+    /**
+     * Property: Counters read back from their hash fields equal the counters written.
+     */
+    @Property(tries = 100)
+    void hashRoundTrips(@ForAll @Size(max = 50) List<@IntRange(min = 0, max = 29) Integer> dayOffsets,
+                        @ForAll @LongRange(min = 0, max = 1000) long scoredQuizzes,
+                        @ForAll @IntRange(min = 0, max = 100_000) int scoreSum) {
+        StatisticsCounters counters = counters(dayOffsets, scoredQuizzes, scoreSum / 10.0);
+
+        Map<String, String> hash = counters.toHash();
+
+        assertThat(StatisticsCounters.fromHash(hash)).isEqualTo(counters);
+    }
+
+    /**
+     * Property: The 7- and 30-day windows sum the day buckets of those calendar days and ignore older ones.
+     */
+    @Property(tries = 100)
+    void rollingWindowsCountRecentDays(@ForAll @Size(max = 60) List<@IntRange(min = 0, max = 45) Integer> dayOffsets) {
+        StatisticsCounters counters = counters(dayOffsets, 0, 0);
+
+        LearningStatisticsVO stats = StatisticsCounters.fromHash(counters.toHash()).toStatistics(TODAY);
+
+        assertThat(stats.getActivitiesLast7Days()).isEqualTo(dayOffsets.stream().filter(d -> d < 7).count());
+        assertThat(stats.getActivitiesLast30Days()).isEqualTo(dayOffsets.stream().filter(d -> d < 30).count());
+        assertThat(stats.getTotalWordQueries()).isEqualTo(dayOffsets.size());
+        assertThat(stats.getAverageQuizScore()).isZero();
+    }
+
+    /**
+     * Property: The average quiz score is the score sum over the scored quizzes.
+     */
+    @Property(tries = 50)
+    void averageQuizScore(@ForAll @LongRange(min = 1, max = 1000) long scoredQuizzes,
+                          @ForAll @IntRange(min = 0, max = 100) int averagePercent) {
+        StatisticsCounters counters = counters(List.of(0), scoredQuizzes, (double) averagePercent * scoredQuizzes);
+
+        LearningStatisticsVO stats = counters.toStatistics(TODAY);
+
+        assertThat(stats.getAverageQuizScore()).isCloseTo(averagePercent, offset(1e-9));
+        assertThat(stats.getTotalQuizzes()).isEqualTo(scoredQuizzes);
+    }
+}
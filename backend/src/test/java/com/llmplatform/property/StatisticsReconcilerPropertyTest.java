@@ -0,0 +1,207 @@
+package com.llmplatform.property;
+
+import com.baomidou.mybatisplus.core.MybatisConfiguration;
+import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
+import com.baomidou.mybatisplus.core.metadata.TableInfoHelper;
+import com.llmplatform.common.ActivityType;
+import com.llmplatform.entity.LearningRecord;
+import com.llmplatform.entity.Quiz;
+import com.llmplatform.mapper.LearningRecordMapper;
+import com.llmplatform.mapper.QuizMapper;
+import com.llmplatform.stats.StatisticsCounters;
+import com.llmplatform.stats.StatisticsReconciler;
+import com.llmplatform.stats.UserStatisticsStore;
+import com.llmplatform.util.CacheUtil;
+import com.llmplatform.util.LeaseKeeper;
+import net.jqwik.api.*;
+import net.jqwik.api.constraints.IntRange;
+import org.apache.ibatis.builder.MapperBuilderAssistant;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ScheduledFuture;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Property-based tests for statistics reconciliation
+ *
+ * The scheduled job rebuilds users a batch at a time with a fixed number of queries per batch, stops once
+ * its lease is lost, and increments recorded inside a transaction reach Redis only after it commits.
+ */
+class StatisticsReconcilerPropertyTest {
+
+    static {
+        MapperBuilderAssistant assistant = new MapperBuilderAssistant(new MybatisConfiguration(), "");
+        TableInfoHelper.initTableInfo(assistant, LearningRecord.class);
+        TableInfoHelper.initTableInfo(assistant, Quiz.class);
+    }
+
+    private LearningRecordMapper learningRecordMapper;
+    private QuizMapper quizMapper;
+    private UserStatisticsStore statisticsStore;
+    private CacheUtil cacheUtil;
+
+    @SuppressWarnings("unchecked")
+    private StatisticsReconciler reconciler(int users, int batchSize) {
+        learningRecordMapper = mock(LearningRecordMapper.class);
+        quizMapper = mock(QuizMapper.class);
+        statisticsStore = mock(UserStatisticsStore.class);
+        cacheUtil = mock(CacheUtil.class);
+        TaskScheduler scheduler = mock(TaskScheduler.class);
+        doReturn(mock(ScheduledFuture.class)).when(scheduler).scheduleAtFixedRate(any(), any(), any());
+        when(cacheUtil.tryAcquireLease(anyString(), anyLong())).thenReturn("token");
+
+        when(learningRecordMapper.selectObjs(any())).thenReturn(
+                LongStream.rangeClosed(1, users).boxed().collect(Collectors.toList()));
+        when(statisticsStore.existing(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+        // One word query per user, yesterday; one quiz at 50% per user
+        LocalDateTime yesterday = LocalDate.now().minusDays(1).atTime(9, 30);
+        when(learningRecordMapper.selectMaps(any())).thenAnswer(invocation -> {
+            String select = ((QueryWrapper<LearningRecord>) invocation.getArgument(0)).getSqlSelect();
+            List<Long> userIds = lastBatch();
+            return userIds.stream().map(userId -> {
+                Map<String, Object> row = new HashMap<>();
+                row.put("user_id", userId);
+                row.put("total", 1L);
+                if (select.contains("activity_type")) {
+                    row.put("activity_type", ActivityType.WORD_QUERY.name());
+                    row.put("first_time", Timestamp.valueOf(yesterday));
+                    row.put("last_time", yesterday);
+                } else {
+                    row.put("activity_day", Date.valueOf(yesterday.toLocalDate()));
+                }
+                return row;
+            }).collect(Collectors.toList());
+        });
+        when(quizMapper.selectList(any())).thenAnswer(invocation -> lastBatch().stream().map(userId -> {
+            Quiz quiz = new Quiz();
+            quiz.setUserId(userId);
+            quiz.setUserScore(5);
+            quiz.setTotalScore(10);
+            quiz.setCompletedAt(yesterday);
+            return quiz;
+        }).collect(Collectors.toList()));
+
+        StatisticsReconciler reconciler = new StatisticsReconciler(learningRecordMapper, quizMapper,
+                statisticsStore, cacheUtil, new LeaseKeeper(cacheUtil, scheduler), Runnable::run);
+        ReflectionTestUtils.setField(reconciler, "lookbackMinutes", 120L);
+        ReflectionTestUtils.setField(reconciler, "batchSize", batchSize);
+        return reconciler;
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<Long> lastBatch() {
+        ArgumentCaptor<List<Long>> batch = ArgumentCaptor.forClass(List.class);
+        verify(statisticsStore, atLeastOnce()).existing(batch.capture());
+        return batch.getValue();
+    }
+
+    /**
+     * Property: Every recently active user is rebuilt with three queries per batch, however many users a batch holds.
+     */
+    @Property(tries = 30)
+    @SuppressWarnings("unchecked")
+    void reconcileQueriesPerBatch(@ForAll @IntRange(min = 1, max = 60) int users,
+                                  @ForAll @IntRange(min = 1, max = 25) int batchSize) {
+        StatisticsReconciler reconciler = reconciler(users, batchSize);
+
+        reconciler.reconcile();
+
+        int batches = (users + batchSize - 1) / batchSize;
+        verify(learningRecordMapper, times(2 * batches)).selectMaps(any());
+        verify(quizMapper, times(batches)).selectList(any());
+        verify(learningRecordMapper, never()).selectCount(any());
+        ArgumentCaptor<Map<Long, StatisticsCounters>> stored = ArgumentCaptor.forClass(Map.class);
+        verify(statisticsStore, times(batches)).replaceAll(stored.capture());
+        Map<Long, StatisticsCounters> all = new HashMap<>();
+        stored.getAllValues().forEach(all::putAll);
+        assertThat(all).hasSize(users);
+        StatisticsCounters counters = all.get(1L);
+        assertThat(counters.wordQueries()).isEqualTo(1);
+        assertThat(counters.activities()).isEqualTo(1);
+        assertThat(counters.scoredQuizzes()).isEqualTo(1);
+        assertThat(counters.quizScoreSum()).isEqualTo(50.0);
+        assertThat(counters.firstActivity()).isEqualTo(counters.lastActivity());
+        assertThat(counters.days()).containsEntry(LocalDate.now().minusDays(1), 1L);
+        verify(cacheUtil).releaseLease(anyString(), eq("token"));
+    }
+
+    /**
+     * Property: A run that cannot take the lease queries nothing.
+     */
+    @Example
+    void reconcileSkipsWithoutLease() {
+        StatisticsReconciler reconciler = reconciler(10, 5);
+        when(cacheUtil.tryAcquireLease(anyString(), anyLong())).thenReturn(null);
+
+        reconciler.reconcile();
+
+        verifyNoInteractions(learningRecordMapper, quizMapper, statisticsStore);
+    }
+
+    /**
+     * Property: A run that loses its lease finishes the batch in hand and stops.
+     */
+    @Example
+    @SuppressWarnings("unchecked")
+    void reconcileStopsOnLostLease() {
+        StatisticsReconciler reconciler = reconciler(10, 5);
+        TaskScheduler scheduler = (TaskScheduler) ReflectionTestUtils.getField(
+                ReflectionTestUtils.getField(reconciler, "leaseKeeper"), "taskScheduler");
+        ArgumentCaptor<Runnable> renewal = ArgumentCaptor.forClass(Runnable.class);
+        when(cacheUtil.renewLease(anyString(), anyString(), anyLong())).thenReturn(false);
+        when(statisticsStore.existing(anyList())).thenAnswer(invocation -> {
+            verify(scheduler).scheduleAtFixedRate(renewal.capture(), any(), any());
+            renewal.getValue().run();
+            return invocation.getArgument(0);
+        });
+
+        reconciler.reconcile();
+
+        verify(statisticsStore, times(1)).existing(anyList());
+        verify(statisticsStore, times(1)).replaceAll(anyMap());
+    }
+
+    /**
+     * Property: Increments recorded inside a transaction reach Redis after commit and are dropped on rollback.
+     */
+    @Example
+    void recordWaitsForCommit() {
+        StringRedisTemplate redisTemplate = mock(StringRedisTemplate.class);
+        UserStatisticsStore store = new UserStatisticsStore(redisTemplate);
+        LocalDateTime now = LocalDateTime.now();
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            store.record(1L, ActivityType.WORD_QUERY, now, null);
+            store.record(2L, ActivityType.QUIZ, now, 80.0);
+            assertThat(mockingDetails(redisTemplate).getInvocations()).isEmpty();
+
+            List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+            synchronizations.get(0).afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK);
+            synchronizations.get(1).afterCommit();
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        assertThat(mockingDetails(redisTemplate).getInvocations()).hasSize(1);
+
+        store.record(3L, ActivityType.DIALOGUE, now, null);
+        assertThat(mockingDetails(redisTemplate).getInvocations()).hasSize(2);
+    }
+}
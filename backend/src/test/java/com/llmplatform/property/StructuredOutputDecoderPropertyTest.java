@@ -0,0 +1,109 @@
+package com.llmplatform.property;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.llmplatform.ai.output.OutputDecodeStats;
+import com.llmplatform.ai.output.StructuredOutputDecoder;
+import com.llmplatform.vo.QuizVO;
+import net.jqwik.api.*;
+import net.jqwik.api.constraints.AlphaChars;
+import net.jqwik.api.constraints.IntRange;
+import net.jqwik.api.constraints.Size;
+import net.jqwik.api.constraints.StringLength;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Property-based tests for the structured-output decoder
+ *
+ * Payloads are found wherever the model put them, replies cut off at the token limit still yield
+ * their complete items, and outcomes are counted per feature.
+ */
+class StructuredOutputDecoderPropertyTest {
+
+    private static final TypeReference<List<QuizVO.QuestionVO>> QUESTION_LIST = new TypeReference<>() {};
+    private static final TypeReference<List<String>> STRING_LIST = new TypeReference<>() {};
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    /**
+     * Property: A question list decodes unchanged whether it is bare, fenced or surrounded by prose.
+     */
+    @Property(tries = 100)
+    void payloadIsFoundInAnyWrapping(@ForAll @IntRange(min = 0, max = 5) int count,
+                                     @ForAll("wrappings") String wrapping) throws Exception {
+        List<QuizVO.QuestionVO> questions = new ArrayList<>();
+        for (int i = 1; i <= count; i++) {
+            QuizVO.QuestionVO question = new QuizVO.QuestionVO();
+            question.setQuestionId(i);
+            question.setQuestion("What is [" + i + "] in {English}?");
+            question.setOptions(List.of("A. one", "B. two", "C. three", "D. four"));
+            question.setCorrectAnswer("A");
+            questions.add(question);
+        }
+        String reply = wrapping.replace("%s", objectMapper.writeValueAsString(questions));
+
+        StructuredOutputDecoder decoder = new StructuredOutputDecoder(objectMapper);
+        assertThat(decoder.decode("quiz", reply, QUESTION_LIST)).isEqualTo(questions);
+    }
+
+    /**
+     * Property: A reply cut off anywhere still decodes; every item but the last is intact and the
+     * last is a prefix of the original.
+     */
+    @Property(tries = 200)
+    void truncatedRepliesAreRepaired(@ForAll @Size(min = 1, max = 6) List<@AlphaChars @StringLength(min = 1, max = 12) String> items,
+                                     @ForAll @IntRange(min = 1, max = 200) int cut) throws Exception {
+        String json = objectMapper.writeValueAsString(items);
+        String reply = json.substring(0, Math.min(cut, json.length()));
+
+        StructuredOutputDecoder decoder = new StructuredOutputDecoder(objectMapper);
+        List<String> decoded = decoder.decode("test", reply, STRING_LIST);
+
+        assertThat(decoded).isNotNull();
+        assertThat(decoded.size()).isLessThanOrEqualTo(items.size());
+        for (int i = 0; i < decoded.size() - 1; i++) {
+            assertThat(decoded.get(i)).isEqualTo(items.get(i));
+        }
+        if (!decoded.isEmpty()) {
+            assertThat(items.get(decoded.size() - 1)).startsWith(decoded.get(decoded.size() - 1));
+        }
+    }
+
+    /**
+     * Property: Every decode is counted for its feature, and replies without a payload count as failures.
+     */
+    @Property(tries = 50)
+    void outcomesAreCountedPerFeature(@ForAll @IntRange(min = 0, max = 20) int valid,
+                                      @ForAll @IntRange(min = 0, max = 20) int invalid) {
+        StructuredOutputDecoder decoder = new StructuredOutputDecoder(objectMapper);
+        for (int i = 0; i < valid; i++) {
+            decoder.decode("word", "{\"definition\": \"d\", \"translation\": \"t\",}", Object.class);
+        }
+        for (int i = 0; i < invalid; i++) {
+            decoder.decode("word", "Sorry, I cannot help with that.", Object.class);
+        }
+
+        if (valid + invalid == 0) {
+            assertThat(decoder.getStats()).isEmpty();
+            return;
+        }
+        OutputDecodeStats stats = decoder.getStats().get("word");
+        assertThat(stats.getAttempts()).isEqualTo(valid + invalid);
+        assertThat(stats.getFailures()).isEqualTo(invalid);
+        assertThat(stats.getRepaired()).isZero();
+    }
+
+    @Provide
+    Arbitrary<String> wrappings() {
+        return Arbitraries.of(
+                "%s",
+                "```json\n%s\n```",
+                "```\n%s```",
+                "Here are the questions:\n%s\nGood luck!",
+                "Sure! Here's the quiz: %s");
+    }
+}
@@ -0,0 +1,69 @@
+package com.llmplatform.property;
+
+import com.llmplatform.ai.dto.AIRequest;
+import com.llmplatform.ai.token.TokenEstimator;
+import net.jqwik.api.*;
+import net.jqwik.api.constraints.DoubleRange;
+import net.jqwik.api.constraints.IntRange;
+import net.jqwik.api.constraints.StringLength;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Property-based tests for the offline token estimator
+ *
+ * Estimates grow with the text, follow typical BPE rates per script and converge on the
+ * prompt sizes a provider reports.
+ */
+class TokenEstimatorPropertyTest {
+
+    private final TokenEstimator estimator = new TokenEstimator();
+
+    /**
+     * Property: Appending text never lowers the estimate, and a request costs at least its parts.
+     */
+    @Property(tries = 100)
+    void estimateIsMonotonic(@ForAll @StringLength(max = 200) String prefix,
+                             @ForAll @StringLength(max = 200) String suffix) {
+        assertThat(estimator.estimate(prefix + suffix)).isGreaterThanOrEqualTo(estimator.estimate(prefix));
+
+        AIRequest request = AIRequest.builder()
+                .systemMessage(prefix)
+                .messages(List.of(AIRequest.Message.builder().role("user").content(suffix).build()))
+                .build();
+        assertThat(estimator.estimate(request))
+                .isGreaterThanOrEqualTo(estimator.estimate(prefix) + estimator.estimate(suffix));
+    }
+
+    /**
+     * Property: English runs at about four characters per token, Chinese at about one per character.
+     */
+    @Property(tries = 50)
+    void ratesFollowScript(@ForAll @IntRange(min = 1, max = 200) int repeat) {
+        int english = estimator.estimate("word ".repeat(repeat));
+        int chinese = estimator.estimate("学习".repeat(repeat));
+
+        assertThat(english).isBetween(repeat, repeat * 2);
+        assertThat(chinese).isBetween(repeat * 2, repeat * 3);
+    }
+
+    /**
+     * Property: Repeated usage reports pull a provider's calibrated estimate towards the reported size.
+     */
+    @Property(tries = 50)
+    void calibrationConverges(@ForAll @DoubleRange(min = 0.6, max = 1.9) double ratio) {
+        TokenEstimator calibrated = new TokenEstimator();
+        AIRequest request = AIRequest.builder().prompt("Translate the word 'apple' into Spanish.").build();
+        int raw = calibrated.estimate(request);
+        int actual = (int) Math.round(raw * ratio);
+
+        for (int i = 0; i < 100; i++) {
+            calibrated.observe("test", raw, actual);
+        }
+
+        assertThat(calibrated.estimate("test", request)).isBetween(actual - 1, actual + 1);
+        assertThat(calibrated.estimate("other", request)).isEqualTo(raw);
+    }
+}
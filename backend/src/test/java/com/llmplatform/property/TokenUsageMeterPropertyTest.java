@@ -0,0 +1,238 @@
+package com.llmplatform.property;
+
+import com.baomidou.mybatisplus.core.MybatisConfiguration;
+import com.baomidou.mybatisplus.core.conditions.Wrapper;
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.baomidou.mybatisplus.core.conditions.update.LambdaUpdateWrapper;
+import com.baomidou.mybatisplus.core.metadata.TableInfoHelper;
+import com.llmplatform.ai.config.AIProviderConfig;
+import com.llmplatform.ai.dto.AIFeature;
+import com.llmplatform.ai.dto.AIRequest;
+import com.llmplatform.ai.dto.AIResponse;
+import com.llmplatform.ai.metering.TokenUsageMeter;
+import com.llmplatform.ai.metering.TokenUsageReport;
+import com.llmplatform.ai.util.AIResponseNormalizer;
+import com.llmplatform.entity.AiTokenUsage;
+import com.llmplatform.mapper.AiTokenUsageMapper;
+import net.jqwik.api.*;
+import net.jqwik.api.constraints.IntRange;
+import net.jqwik.api.constraints.LongRange;
+import net.jqwik.api.constraints.Size;
+import org.apache.ibatis.builder.MapperBuilderAssistant;
+import org.mockito.ArgumentCaptor;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Property-based tests for token usage metering
+ *
+ * Recorded calls reach MySQL and the users' Redis counters in one flush, deltas that could not be written
+ * are kept for the next flush, budget checks include usage not flushed yet, successes reporting no usage
+ * are charged their estimate, and reports are restricted to the requested user.
+ */
+class TokenUsageMeterPropertyTest {
+
+    private static final String PROVIDER = "openai";
+
+    static {
+        TableInfoHelper.initTableInfo(new MapperBuilderAssistant(new MybatisConfiguration(), ""), AiTokenUsage.class);
+    }
+
+    private AiTokenUsageMapper usageMapper;
+    private StringRedisTemplate redisTemplate;
+    private ValueOperations<String, String> valueOperations;
+
+    @SuppressWarnings("unchecked")
+    private TokenUsageMeter meter(long dailyBudget) {
+        usageMapper = mock(AiTokenUsageMapper.class);
+        redisTemplate = mock(StringRedisTemplate.class);
+        valueOperations = mock(ValueOperations.class);
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        AIProviderConfig config = new AIProviderConfig();
+        config.getMetering().setDailyUserTokenBudget(dailyBudget);
+        return new TokenUsageMeter(config, usageMapper, redisTemplate);
+    }
+
+    private static AIRequest request(Long userId) {
+        return AIRequest.builder().prompt("hi").userId(userId).feature(AIFeature.WORD).build();
+    }
+
+    /**
+     * A reply as the gateway sees it, after normalization
+     */
+    private static AIResponse success(Integer prompt, Integer completion) {
+        AIResponse.AIResponseBuilder builder = AIResponse.builder().success(true).content("ok").model("gpt-test");
+        if (prompt != null) {
+            builder.usage(AIResponse.Usage.builder().promptTokens(prompt).completionTokens(completion).build());
+        }
+        return AIResponseNormalizer.normalize(builder.build(), PROVIDER);
+    }
+
+    @SuppressWarnings("unchecked")
+    private LambdaUpdateWrapper<AiTokenUsage> lastUpdate() {
+        ArgumentCaptor<Wrapper<AiTokenUsage>> update = ArgumentCaptor.forClass(Wrapper.class);
+        verify(usageMapper, atLeastOnce()).update(isNull(), update.capture());
+        return (LambdaUpdateWrapper<AiTokenUsage>) update.getValue();
+    }
+
+    /**
+     * Property: Calls of one user, provider, model and feature are flushed as one row update carrying their
+     * summed tokens and request count, and the user's tokens are added to the Redis day counter.
+     */
+    @Property(tries = 30)
+    void flushPersistsSummedDeltas(@ForAll @Size(min = 1, max = 10) List<@IntRange(min = 1, max = 2000) Integer> prompts,
+                                   @ForAll @IntRange(min = 1, max = 500) int completion) {
+        TokenUsageMeter meter = meter(0);
+        when(usageMapper.update(isNull(), any())).thenReturn(1);
+        prompts.forEach(prompt -> meter.record(request(7L), PROVIDER, success(prompt, completion), 9999));
+        long promptSum = prompts.stream().mapToLong(Integer::longValue).sum();
+
+        meter.flush();
+
+        assertThat(lastUpdate().getSqlSet())
+                .contains("prompt_tokens = prompt_tokens + " + promptSum)
+                .contains("completion_tokens = completion_tokens + " + (long) completion * prompts.size())
+                .contains("request_count = request_count + " + prompts.size());
+        verify(usageMapper, never()).insert(any(AiTokenUsage.class));
+        verify(valueOperations).increment("ai:usage:user:7:" + LocalDate.now(),
+                promptSum + (long) completion * prompts.size());
+
+        // Nothing is left to flush
+        clearInvocations(usageMapper, valueOperations);
+        meter.flush();
+        verifyNoInteractions(usageMapper, valueOperations);
+    }
+
+    /**
+     * Property: The first flush of a day creates the row, and a row created concurrently by another
+     * instance receives the deltas through a second update.
+     */
+    @Property(tries = 20)
+    void missingRowIsInserted(@ForAll @IntRange(min = 1, max = 2000) int prompt,
+                              @ForAll boolean createdConcurrently) {
+        TokenUsageMeter meter = meter(0);
+        when(usageMapper.update(isNull(), any())).thenReturn(0, 1);
+        if (createdConcurrently) {
+            when(usageMapper.insert(any(AiTokenUsage.class))).thenThrow(new DuplicateKeyException("uk_usage"));
+        }
+        meter.record(request(7L), PROVIDER, success(prompt, 3), 9999);
+
+        meter.flush();
+
+        ArgumentCaptor<AiTokenUsage> inserted = ArgumentCaptor.forClass(AiTokenUsage.class);
+        verify(usageMapper).insert(inserted.capture());
+        assertThat(inserted.getValue().getPromptTokens()).isEqualTo(prompt);
+        assertThat(inserted.getValue().getRequestCount()).isEqualTo(1);
+        assertThat(inserted.getValue().getFeature()).isEqualTo(AIFeature.WORD);
+        verify(usageMapper, times(createdConcurrently ? 2 : 1)).update(isNull(), any());
+    }
+
+    /**
+     * Property: Deltas whose retry after a duplicate key updated no row are kept and written by the next flush.
+     */
+    @Property(tries = 20)
+    void lostRetryKeepsDelta(@ForAll @IntRange(min = 1, max = 2000) int prompt) {
+        TokenUsageMeter meter = meter(0);
+        when(usageMapper.update(isNull(), any())).thenReturn(0, 0, 1);
+        when(usageMapper.insert(any(AiTokenUsage.class))).thenThrow(new DuplicateKeyException("uk_usage"));
+        meter.record(request(7L), PROVIDER, success(prompt, 3), 9999);
+
+        meter.flush();
+        meter.flush();
+
+        verify(usageMapper, times(3)).update(isNull(), any());
+        assertThat(lastUpdate().getSqlSet())
+                .contains("prompt_tokens = prompt_tokens + " + prompt)
+                .contains("request_count = request_count + 1");
+    }
+
+    /**
+     * Property: The budget check adds this instance's unflushed usage to the flushed total in Redis.
+     */
+    @Property(tries = 50)
+    void budgetIncludesUnflushedUsage(@ForAll @LongRange(min = 0, max = 10_000) long flushed,
+                                      @ForAll @IntRange(min = 1, max = 5000) int unflushed,
+                                      @ForAll @LongRange(min = 1, max = 20_000) long budget) {
+        TokenUsageMeter meter = meter(budget);
+        when(valueOperations.get("ai:usage:user:7:" + LocalDate.now())).thenReturn(String.valueOf(flushed));
+        meter.record(request(7L), PROVIDER, success(unflushed, 0), 9999);
+
+        assertThat(meter.getUsedTokensToday(7L)).isEqualTo(flushed + unflushed);
+        assertThat(meter.hasBudget(7L)).isEqualTo(flushed + unflushed < budget);
+        assertThat(meter.getBudgetStatus(7L).getRemainingTokens()).isEqualTo(Math.max(0, budget - flushed - unflushed));
+    }
+
+    /**
+     * Property: A success whose usage was zero-filled is counted as a request and charged its estimate;
+     * a failure reporting no usage is not counted.
+     */
+    @Property(tries = 30)
+    void successWithoutUsageIsChargedEstimate(@ForAll @IntRange(min = 1, max = 8000) int estimate) {
+        TokenUsageMeter meter = meter(estimate);
+        meter.record(request(7L), PROVIDER, AIResponseNormalizer.normalize(
+                AIResponse.failure(PROVIDER, "timeout"), PROVIDER), estimate);
+        assertThat(meter.getUsedTokensToday(7L)).isZero();
+
+        meter.record(request(7L), PROVIDER, success(null, null), estimate);
+
+        assertThat(meter.getUsedTokensToday(7L)).isEqualTo(estimate);
+        assertThat(meter.hasBudget(7L)).isFalse();
+        when(usageMapper.update(isNull(), any())).thenReturn(1);
+        meter.flush();
+        assertThat(lastUpdate().getSqlSet())
+                .contains("prompt_tokens = prompt_tokens + " + estimate)
+                .contains("request_count = request_count + 1");
+    }
+
+    /**
+     * Property: A report for one user binds that user as a query parameter and aggregates its rows by
+     * provider, model and feature; a report without a user is not filtered by user.
+     */
+    @Property(tries = 20)
+    @SuppressWarnings("unchecked")
+    void reportIsScopedToUser(@ForAll @LongRange(min = 1, max = 1_000_000L) long userId) {
+        TokenUsageMeter meter = meter(0);
+        when(usageMapper.selectList(any())).thenReturn(List.of(
+                row(userId, AIFeature.WORD, 100, 20, 2),
+                row(userId, AIFeature.WORD, 50, 10, 1),
+                row(userId, AIFeature.DIALOGUE, 500, 200, 4)));
+        LocalDate today = LocalDate.now();
+
+        List<TokenUsageReport> reports = meter.getReport(today.minusDays(6), today, userId);
+
+        ArgumentCaptor<LambdaQueryWrapper<AiTokenUsage>> query = ArgumentCaptor.forClass(LambdaQueryWrapper.class);
+        verify(usageMapper).selectList(query.capture());
+        assertThat(query.getValue().getSqlSegment()).contains("user_id = #{ew.paramNameValuePairs.");
+        assertThat(query.getValue().getParamNameValuePairs()).containsValue(userId);
+        assertThat(reports).extracting(TokenUsageReport::getFeature)
+                .containsExactly(AIFeature.DIALOGUE, AIFeature.WORD);
+        assertThat(reports.get(1).getTotalTokens()).isEqualTo(180);
+        assertThat(reports.get(1).getRequests()).isEqualTo(3);
+
+        clearInvocations(usageMapper);
+        meter.getReport(today, today, null);
+        verify(usageMapper).selectList(query.capture());
+        assertThat(query.getValue().getSqlSegment()).doesNotContain("user_id");
+    }
+
+    private static AiTokenUsage row(long userId, String feature, long prompt, long completion, long requests) {
+        AiTokenUsage usage = new AiTokenUsage();
+        usage.setUsageDate(LocalDate.now());
+        usage.setUserId(userId);
+        usage.setProvider(PROVIDER);
+        usage.setModel("gpt-test");
+        usage.setFeature(feature);
+        usage.setPromptTokens(prompt);
+        usage.setCompletionTokens(completion);
+        usage.setRequestCount(requests);
+        return usage;
+    }
+}
@@ -0,0 +1,277 @@
+package com.llmplatform.property;
+
+import com.llmplatform.common.CacheConstants;
+import com.llmplatform.config.CacheConfig;
+import com.llmplatform.util.RedisRoundTrips;
+import com.llmplatform.util.TwoTierCache;
+import net.jqwik.api.*;
+import net.jqwik.api.constraints.AlphaChars;
+import net.jqwik.api.constraints.StringLength;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.scheduling.TaskScheduler;
+
+import java.lang.reflect.Proxy;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Property-based tests for the two-tier cache
+ *
+ * Local-prefix keys are served from L1 after the first read or write, other keys always read Redis,
+ * a write on one node evicts the key from the L1 of every other node, an L1 copy never outlives the
+ * Redis copy it was read from, batch operations cost one Redis round trip, and a node starts while Redis is down.
+ */
+class TwoTierCachePropertyTest {
+
+    @SuppressWarnings("unchecked")
+    private RedisTemplate<String, Object> redisTemplate(ValueOperations<String, Object> valueOperations) {
+        RedisTemplate<String, Object> redisTemplate = mock(RedisTemplate.class);
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        doReturn(RedisSerializer.string()).when(redisTemplate).getValueSerializer();
+        when(redisTemplate.getExpire(anyString(), any(TimeUnit.class))).thenReturn(-1L);
+        // A pipeline runs its commands against the template itself, replies in order and counts as one round trip
+        when(redisTemplate.executePipelined(any(SessionCallback.class))).thenAnswer(invocation ->
+                RedisRoundTrips.track(() -> {
+                    List<Object> replies = new ArrayList<>();
+                    invocation.<SessionCallback<Object>>getArgument(0).execute(recording(redisTemplate, replies));
+                    return replies;
+                }));
+        return redisTemplate;
+    }
+
+    /**
+     * Proxy that forwards to the mock and records each command's reply, as a pipeline would return them
+     */
+    @SuppressWarnings("unchecked")
+    private static <T> T recording(T target, List<Object> replies) {
+        Class<?> type = target instanceof RedisTemplate ? RedisOperations.class : ValueOperations.class;
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (proxy, method, args) -> {
+            Object reply = method.invoke(target, args);
+            if (reply instanceof ValueOperations<?, ?>) {
+                return recording(reply, replies);
+            }
+            replies.add(reply);
+            return null;
+        });
+    }
+
+    private TwoTierCache cache(RedisTemplate<String, Object> redisTemplate) {
+        return new TwoTierCache(redisTemplate, 100, Duration.ofMinutes(5), CacheConstants.LOCAL_PREFIXES);
+    }
+
+    /**
+     * Property: Repeated reads of a local-prefix key hit Redis once; Redis-only keys hit Redis every time.
+     */
+    @Property(tries = 50)
+    @SuppressWarnings("unchecked")
+    void localKeysAreServedFromL1(@ForAll @AlphaChars @StringLength(min = 1, max = 20) String id,
+                                  @ForAll @AlphaChars @StringLength(min = 1, max = 20) String value) {
+        ValueOperations<String, Object> valueOperations = mock(ValueOperations.class);
+        TwoTierCache cache = cache(redisTemplate(valueOperations));
+        String localKey = CacheConstants.WORD_PREFIX + id;
+        String remoteKey = CacheConstants.DIALOGUE_PREFIX + id;
+        when(valueOperations.get(anyString())).thenReturn(value);
+
+        for (int i = 0; i < 3; i++) {
+            assertThat(cache.get(localKey, String.class)).isEqualTo(value);
+            assertThat(cache.get(remoteKey, String.class)).isEqualTo(value);
+        }
+
+        verify(valueOperations, times(1)).get(localKey);
+        verify(valueOperations, times(3)).get(remoteKey);
+        assertThat(cache.getStats().get(CacheConstants.WORD_PREFIX).getLocalHits()).isEqualTo(2);
+        assertThat(cache.getStats().get(CacheConstants.DIALOGUE_PREFIX).getRedisHits()).isEqualTo(3);
+    }
+
+    /**
+     * Property: A write on one node evicts the key from another node's L1, and a node ignores its own messages.
+     */
+    @Property(tries = 50)
+    @SuppressWarnings("unchecked")
+    void writesInvalidateOtherNodes(@ForAll @AlphaChars @StringLength(min = 1, max = 20) String id,
+                                    @ForAll @AlphaChars @StringLength(min = 1, max = 20) String oldValue,
+                                    @ForAll @AlphaChars @StringLength(min = 1, max = 20) String newValue) {
+        ValueOperations<String, Object> valueOperations = mock(ValueOperations.class);
+        RedisTemplate<String, Object> redisTemplate = redisTemplate(valueOperations);
+        TwoTierCache writer = cache(redisTemplate);
+        TwoTierCache reader = cache(redisTemplate);
+        String key = CacheConstants.PROFILE_PREFIX + id;
+
+        when(valueOperations.get(key)).thenReturn(oldValue);
+        assertThat(reader.get(key)).isEqualTo(oldValue);
+
+        writer.set(key, newValue, Duration.ofHours(1));
+        ArgumentCaptor<String> message = ArgumentCaptor.forClass(String.class);
+        verify(redisTemplate).convertAndSend(eq(TwoTierCache.INVALIDATION_CHANNEL), message.capture());
+        byte[] body = RedisSerializer.string().serialize(message.getValue());
+
+        when(valueOperations.get(key)).thenReturn(newValue);
+        assertThat(reader.get(key)).isEqualTo(oldValue);
+        writer.onInvalidation(body);
+        reader.onInvalidation(body);
+
+        assertThat(reader.get(key)).isEqualTo(newValue);
+        assertThat(writer.get(key)).isEqualTo(newValue);
+    }
+
+    /**
+     * Property: Without an L1 every read goes to Redis and nothing is published.
+     */
+    @Property(tries = 20)
+    @SuppressWarnings("unchecked")
+    void redisOnlyBypassesL1(@ForAll @AlphaChars @StringLength(min = 1, max = 20) String id) {
+        ValueOperations<String, Object> valueOperations = mock(ValueOperations.class);
+        RedisTemplate<String, Object> redisTemplate = redisTemplate(valueOperations);
+        TwoTierCache cache = TwoTierCache.redisOnly(redisTemplate);
+        String key = CacheConstants.WORD_PREFIX + id;
+        when(valueOperations.get(key)).thenReturn("value");
+
+        cache.set(key, "value", Duration.ofMinutes(1));
+        cache.get(key);
+        cache.get(key);
+        cache.delete(key);
+
+        verify(valueOperations, times(2)).get(key);
+        verify(redisTemplate, never()).convertAndSend(anyString(), any());
+        assertThat(cache.getLocalSize()).isZero();
+    }
+
+    /**
+     * Property: Invalidating a user's keys is one pipelined UNLINK that evicts L1 and notifies other nodes per L1 key.
+     */
+    @Property(tries = 50)
+    @SuppressWarnings("unchecked")
+    void deleteManyIsOneRoundTrip(@ForAll @AlphaChars @StringLength(min = 1, max = 20) String id) {
+        ValueOperations<String, Object> valueOperations = mock(ValueOperations.class);
+        RedisTemplate<String, Object> redisTemplate = redisTemplate(valueOperations);
+        TwoTierCache cache = cache(redisTemplate);
+        List<String> localKeys = List.of(CacheConstants.PROFILE_PREFIX + id, CacheConstants.STREAK_PREFIX + id);
+        List<String> keys = new ArrayList<>(localKeys);
+        keys.add(CacheConstants.DIALOGUE_PREFIX + id);
+        when(valueOperations.get(anyString())).thenReturn("old");
+        localKeys.forEach(cache::get);
+
+        RedisRoundTrips.reset();
+        cache.deleteMany(keys);
+
+        assertThat(RedisRoundTrips.reset()).isEqualTo(1);
+        verify(redisTemplate).unlink(keys);
+        verify(redisTemplate, times(localKeys.size())).convertAndSend(eq(TwoTierCache.INVALIDATION_CHANNEL), anyString());
+        assertThat(cache.getLocalSize()).isZero();
+    }
+
+    /**
+     * Property: getMany serves L1 keys locally and fetches every other key with a single MGET.
+     */
+    @Property(tries = 50)
+    @SuppressWarnings("unchecked")
+    void getManyFetchesMissesWithOneMget(@ForAll @AlphaChars @StringLength(min = 1, max = 20) String id) {
+        ValueOperations<String, Object> valueOperations = mock(ValueOperations.class);
+        TwoTierCache cache = cache(redisTemplate(valueOperations));
+        String cachedKey = CacheConstants.WORD_PREFIX + id;
+        String localKey = CacheConstants.PLAN_PREFIX + id;
+        String remoteKey = CacheConstants.DIALOGUE_PREFIX + id;
+        String missingKey = CacheConstants.DIALOGUE_PREFIX + id + "x";
+        when(valueOperations.get(cachedKey)).thenReturn("word");
+        cache.get(cachedKey);
+        List<String> fetched = List.of(localKey, remoteKey, missingKey);
+        when(valueOperations.multiGet(fetched)).thenReturn(Arrays.asList("plan", "dialogue", null));
+
+        Map<String, Object> values = cache.getMany(List.of(cachedKey, localKey, remoteKey, missingKey));
+
+        assertThat(values).containsExactly(
+                Map.entry(cachedKey, "word"), Map.entry(localKey, "plan"), Map.entry(remoteKey, "dialogue"));
+        verify(valueOperations, times(1)).multiGet(fetched);
+        assertThat(cache.get(localKey)).isEqualTo("plan");
+        verify(valueOperations, never()).get(localKey);
+    }
+
+    /**
+     * Property: A value read from Redis stays in L1 no longer than its remaining Redis TTL, and a key that
+     * expired between the GET and the PTTL is not kept at all.
+     */
+    @Property(tries = 5)
+    @SuppressWarnings("unchecked")
+    void localCopyExpiresWithRedisCopy(@ForAll @AlphaChars @StringLength(min = 1, max = 20) String id)
+            throws InterruptedException {
+        ValueOperations<String, Object> valueOperations = mock(ValueOperations.class);
+        RedisTemplate<String, Object> redisTemplate = redisTemplate(valueOperations);
+        TwoTierCache cache = cache(redisTemplate);
+        String expiring = CacheConstants.PROFILE_PREFIX + id;
+        String listed = CacheConstants.PLAN_PREFIX + id;
+        String gone = CacheConstants.STREAK_PREFIX + id;
+        String lasting = CacheConstants.WORD_PREFIX + id;
+        String touched = CacheConstants.ACHIEVEMENTS_PREFIX + id;
+        when(valueOperations.get(anyString())).thenReturn("value");
+        when(valueOperations.getAndExpire(eq(touched), any(Duration.class))).thenReturn("value");
+        when(valueOperations.multiGet(List.of(listed))).thenReturn(List.of("value"));
+        when(redisTemplate.getExpire(expiring, TimeUnit.MILLISECONDS)).thenReturn(30L);
+        when(redisTemplate.getExpire(listed, TimeUnit.MILLISECONDS)).thenReturn(30L);
+        when(redisTemplate.getExpire(gone, TimeUnit.MILLISECONDS)).thenReturn(-2L);
+
+        RedisRoundTrips.reset();
+        cache.get(expiring);
+        cache.getMany(List.of(listed));
+        cache.get(gone);
+        cache.get(lasting);
+        assertThat(RedisRoundTrips.reset()).isEqualTo(4);
+        cache.getAndExpire(touched, Duration.ofMillis(30));
+        assertThat(cache.getLocalSize()).isEqualTo(4);
+
+        Thread.sleep(100);
+        cache.get(expiring);
+        cache.getMany(List.of(listed));
+        cache.get(gone);
+        cache.get(lasting);
+        cache.getAndExpire(touched, Duration.ofMillis(30));
+
+        verify(valueOperations, times(2)).get(expiring);
+        verify(valueOperations, times(2)).multiGet(List.of(listed));
+        verify(valueOperations, times(2)).get(gone);
+        verify(valueOperations, times(1)).get(lasting);
+        verify(valueOperations, times(2)).getAndExpire(eq(touched), any(Duration.class));
+    }
+
+    /**
+     * Property: The invalidation listener starts without Redis and keeps retrying in the background.
+     */
+    @Example
+    @SuppressWarnings("unchecked")
+    void invalidationListenerStartsWithoutRedis() throws Exception {
+        LettuceConnectionFactory connectionFactory = new LettuceConnectionFactory(
+                new RedisStandaloneConfiguration("127.0.0.1", 1));
+        connectionFactory.afterPropertiesSet();
+        connectionFactory.start();
+        TaskScheduler taskScheduler = mock(TaskScheduler.class);
+        ValueOperations<String, Object> valueOperations = mock(ValueOperations.class);
+        RedisMessageListenerContainer listener = new CacheConfig().cacheInvalidationListener(connectionFactory,
+                cache(redisTemplate(valueOperations)), taskScheduler, 5);
+        listener.afterPropertiesSet();
+        try {
+            listener.start();
+
+            assertThat(listener.isRunning()).isFalse();
+            verify(taskScheduler).schedule(any(Runnable.class), any(Instant.class));
+        } finally {
+            listener.destroy();
+            connectionFactory.destroy();
+        }
+    }
+}
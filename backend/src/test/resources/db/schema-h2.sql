@@ -85,3 +85,46 @@ CREATE TABLE IF NOT EXISTS `learning_record` (
     `activity_time` TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
     PRIMARY KEY (`id`)
 );
+
+-- AI token usage table
+CREATE TABLE IF NOT EXISTS `ai_token_usage` (
+    `id` BIGINT NOT NULL AUTO_INCREMENT,
+    `usage_date` DATE NOT NULL,
+    `user_id` BIGINT NOT NULL DEFAULT 0,
+    `provider` VARCHAR(50) NOT NULL,
+    `model` VARCHAR(100) NOT NULL,
+    `feature` VARCHAR(50) NOT NULL,
+    `prompt_tokens` BIGINT NOT NULL DEFAULT 0,
+    `completion_tokens` BIGINT NOT NULL DEFAULT 0,
+    `request_count` BIGINT NOT NULL DEFAULT 0,
+    `updated_at` TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    PRIMARY KEY (`id`),
+    UNIQUE (`usage_date`, `user_id`, `provider`, `model`, `feature`)
+);
+
+-- Quiz question bank table
+CREATE TABLE IF NOT EXISTS `quiz_question_bank` (
+    `id` BIGINT NOT NULL AUTO_INCREMENT,
+    `content_hash` CHAR(64) NOT NULL,
+    `target_lang` VARCHAR(20) NOT NULL,
+    `difficulty` VARCHAR(20) NOT NULL,
+    `topic` VARCHAR(30) NOT NULL,
+    `question` TEXT NOT NULL,
+    `options` TEXT NOT NULL,
+    `correct_answer` VARCHAR(10) NOT NULL,
+    `usage_count` INT NOT NULL DEFAULT 0,
+    `created_at` TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    `last_used_at` TIMESTAMP DEFAULT NULL,
+    PRIMARY KEY (`id`),
+    UNIQUE (`content_hash`)
+);
+
+-- Quiz question seen table
+CREATE TABLE IF NOT EXISTS `quiz_question_seen` (
+    `id` BIGINT NOT NULL AUTO_INCREMENT,
+    `user_id` BIGINT NOT NULL,
+    `question_id` BIGINT NOT NULL,
+    `seen_at` TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    PRIMARY KEY (`id`),
+    UNIQUE (`user_id`, `question_id`)
+);